@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.benchmarks;
+
+import com.google.inject.Injector;
+import org.eclipse.lsp.cobol.benchmarks.BenchmarkInputs.IbmStage;
+import org.eclipse.lsp.cobol.common.error.SyntaxError;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.pipeline.Stage;
+import org.eclipse.lsp.cobol.common.pipeline.StageResult;
+import org.eclipse.lsp.cobol.common.processor.ProcessingContext;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.processor.AstProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@code AstProcessor.processSyntaxTree}. Every invocation gets a new syntax tree with
+ * the processors registered by the transform tree stage, which hands them over to a capturing
+ * processor instead of running them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AstProcessorBenchmark {
+  @Param({"100", "1000", "10000"})
+  private int statements;
+
+  private final CapturingAstProcessor capturingProcessor = new CapturingAstProcessor();
+  private Injector injector;
+  private AstProcessor astProcessor;
+  private List<Stage<AnalysisContext, ?, ?>> stages;
+  private String text;
+
+  /** Create the engine and the program */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    injector = BenchmarkInputs.createInjector();
+    astProcessor = injector.getInstance(AstProcessor.class);
+    stages = BenchmarkInputs.createIbmStages(injector, capturingProcessor);
+    text = BenchmarkInputs.generateProgram(statements);
+  }
+
+  /** Build the syntax tree */
+  @Setup(Level.Invocation)
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public void setUpInvocation() {
+    AnalysisContext ctx = BenchmarkInputs.createContext(injector, text);
+    StageResult<?> parserResult = BenchmarkInputs.runBefore(stages, IbmStage.TRANSFORM_TREE, ctx);
+    ((Stage) stages.get(IbmStage.TRANSFORM_TREE.ordinal())).run(ctx, parserResult);
+  }
+
+  /**
+   * Run all the processing phases on the tree
+   *
+   * @return the processing errors
+   */
+  @Benchmark
+  public List<SyntaxError> processSyntaxTree() {
+    return astProcessor.processSyntaxTree(capturingProcessor.ctx, capturingProcessor.rootNode);
+  }
+
+  /** Keeps the arguments of the transform tree stage instead of processing the tree */
+  private static final class CapturingAstProcessor extends AstProcessor {
+    private ProcessingContext ctx;
+    private Node rootNode;
+
+    @Override
+    public List<SyntaxError> processSyntaxTree(ProcessingContext processingContext, Node root) {
+      ctx = processingContext;
+      rootNode = root;
+      return Collections.emptyList();
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.eclipse.lsp.cobol.cli.di.CliModule;
+import org.eclipse.lsp.cobol.cli.modules.CliClientProvider;
+import org.eclipse.lsp.cobol.codegen.CobolCodeGenerator;
+import org.eclipse.lsp.cobol.codegen.GeneratorSettings;
+import org.eclipse.lsp.cobol.common.AnalysisConfig;
+import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
+import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.SubroutineService;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkService;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
+import org.eclipse.lsp.cobol.common.copybook.CopybookProcessingMode;
+import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedDocument;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedText;
+import org.eclipse.lsp.cobol.common.message.MessageService;
+import org.eclipse.lsp.cobol.common.pipeline.Stage;
+import org.eclipse.lsp.cobol.common.pipeline.StageResult;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisStageCache;
+import org.eclipse.lsp.cobol.core.engine.dialects.DialectService;
+import org.eclipse.lsp.cobol.core.engine.processor.AstProcessor;
+import org.eclipse.lsp.cobol.core.engine.symbols.SymbolsRepository;
+import org.eclipse.lsp.cobol.core.preprocessor.delegates.GrammarPreprocessor;
+import org.eclipse.lsp.cobol.dialects.TrueDialectServiceImpl;
+import org.eclipse.lsp.cobol.dialects.ibm.*;
+import org.eclipse.lsp.cobol.service.settings.CachingConfigurationService;
+import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inputs of the benchmarks: generated programs and the engine set up the same way as the CLI does
+ * it, without the language client.
+ */
+public final class BenchmarkInputs {
+  static final String DOCUMENT_URI = "file:///c:/workspace/BENCH.cbl";
+  private static final long SEED = 42;
+
+  private BenchmarkInputs() {
+  }
+
+  /**
+   * Generate a program with a fixed seed, so every fork measures the same source
+   *
+   * @param statements the number of procedure division statements
+   * @return the program text
+   */
+  public static String generateProgram(int statements) {
+    GeneratorSettings settings = new GeneratorSettings();
+    settings.setStatementCount(statements);
+    settings.setSeed(SEED);
+    return new CobolCodeGenerator(settings).generate();
+  }
+
+  /**
+   * Create the DI context of the engine without copybook folders
+   *
+   * @return the injector
+   */
+  public static Injector createInjector() {
+    Injector injector = Guice.createInjector(new CliModule());
+    CliClientProvider clientProvider = injector.getInstance(CliClientProvider.class);
+    clientProvider.setCpyPaths(Collections.emptyList());
+    clientProvider.setCpyExt(Collections.emptyList());
+    return injector;
+  }
+
+  /**
+   * Get the text preprocessor of the IBM COBOL dialect
+   *
+   * @param injector the DI context
+   * @return the text preprocessor
+   */
+  public static CleanerPreprocessor getPreprocessor(Injector injector) {
+    return injector.getInstance(TrueDialectServiceImpl.class).getPreprocessor(CobolLanguageId.COBOL);
+  }
+
+  /**
+   * Create a fresh analysis context for the program, as the analysis of a new document does. The
+   * stage snapshots of the program are dropped, so the stages do the whole work every time.
+   *
+   * @param injector the DI context
+   * @param text the program text
+   * @return the analysis context
+   */
+  public static AnalysisContext createContext(Injector injector, String text) {
+    injector.getInstance(AnalysisStageCache.class).invalidate(DOCUMENT_URI);
+    ResultWithErrors<ExtendedText> cleanText = getPreprocessor(injector).cleanUpCode(DOCUMENT_URI, text);
+    AnalysisContext ctx = new AnalysisContext(new ExtendedDocument(cleanText.getResult(), text),
+        AnalysisConfig.defaultConfig(CopybookProcessingMode.ENABLED),
+        injector.getInstance(BenchmarkService.class).startSession(), DOCUMENT_URI, text, CobolLanguageId.COBOL);
+    ctx.getAccumulatedErrors().addAll(cleanText.getErrors());
+    return ctx;
+  }
+
+  /**
+   * Create the stages of the IBM COBOL pipeline in the order of {@link IbmStage}, the same way as
+   * {@link IbmTrueCobolDialect} does it. The pipeline of the dialect is not used directly, because
+   * the benchmarks run its stages one by one and may replace the AST processor.
+   *
+   * @param injector the DI context
+   * @param astProcessor the AST processor of the transform tree stage
+   * @return the pipeline stages
+   */
+  public static List<Stage<AnalysisContext, ?, ?>> createIbmStages(Injector injector, AstProcessor astProcessor) {
+    DialectService dialectService = injector.getInstance(DialectService.class);
+    MessageService messageService = injector.getInstance(MessageService.class);
+    CleanerPreprocessor preprocessor = getPreprocessor(injector);
+    AnalysisStageCache stageCache = injector.getInstance(AnalysisStageCache.class);
+    return ImmutableList.of(
+        new IbmCleanupStage(preprocessor),
+        new DialectCompilerDirectiveStage(dialectService),
+        new CompilerDirectivesStage(messageService),
+        new DialectProcessingStage(dialectService, preprocessor, stageCache),
+        new PreprocessorStage(injector.getInstance(GrammarPreprocessor.class), preprocessor, stageCache,
+            injector.getInstance(CopybookService.class)),
+        new ImplicitDialectProcessingStage(dialectService),
+        new ParserStage(messageService, injector.getInstance(ParseTreeListener.class)),
+        new TransformTreeStage(injector.getInstance(SymbolsRepository.class), messageService,
+            injector.getInstance(SubroutineService.class), injector.getInstance(CachingConfigurationService.class),
+            dialectService, astProcessor, injector.getInstance(CodeLayoutStore.class)));
+  }
+
+  /**
+   * Run the stages that precede the given one
+   *
+   * @param stages the pipeline stages
+   * @param stage the first stage that is not run
+   * @param ctx the analysis context
+   * @return the result of the last run stage
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static StageResult<?> runBefore(List<Stage<AnalysisContext, ?, ?>> stages, IbmStage stage, AnalysisContext ctx) {
+    StageResult<?> result = StageResult.empty();
+    for (int i = 0; i < stage.ordinal(); i++) {
+      result = ((Stage) stages.get(i)).run(ctx, result);
+    }
+    return result;
+  }
+
+  /** The stages of the IBM COBOL pipeline in the order they run */
+  public enum IbmStage {
+    CLEANUP,
+    DIALECT_COMPILER_DIRECTIVES,
+    COMPILER_DIRECTIVES,
+    DIALECTS,
+    PREPROCESSOR,
+    IMPLICIT_DIALECTS,
+    PARSER,
+    TRANSFORM_TREE
+  }
+}
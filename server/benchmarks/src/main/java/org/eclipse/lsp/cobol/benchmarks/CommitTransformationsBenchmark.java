@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.benchmarks;
+
+import org.eclipse.lsp.cobol.common.mapping.ExtendedDocument;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedText;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the changes and commits a multi-dialect pipeline makes to the extended document. Every
+ * dialect masks its statements in place, the way DaCo does, expands one copybook, the way IDMS
+ * does, and commits the transformations before the next dialect runs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CommitTransformationsBenchmark {
+  private static final String COPYBOOK_URI = "file:///c:/workspace/DIALECT.cpy";
+  private static final String COPYBOOK = "       01 DIALECT-FIELD PIC X(10).\n       01 DIALECT-FLAG PIC X.";
+  private static final int STATEMENT_STEP = 50;
+  private static final int STATEMENT_START = 8;
+  private static final int STATEMENT_END = 11;
+
+  @Param({"100", "1000", "10000"})
+  private int statements;
+
+  @Param({"1", "3", "6"})
+  private int dialects;
+
+  private String text;
+  private List<Integer> statementLines;
+  private ExtendedDocument document;
+
+  /** Create the program and find the lines to change */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    text = BenchmarkInputs.generateProgram(statements);
+    statementLines = new ArrayList<>();
+    String[] lines = text.split("\n");
+    for (int line = STATEMENT_STEP; line < lines.length; line += STATEMENT_STEP) {
+      if (lines[line].length() > STATEMENT_END) {
+        statementLines.add(line);
+      }
+    }
+  }
+
+  /** Create the document */
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    document = new ExtendedDocument(text, BenchmarkInputs.DOCUMENT_URI);
+  }
+
+  /**
+   * Run the dialect passes
+   *
+   * @return the document
+   */
+  @Benchmark
+  public ExtendedDocument runDialects() {
+    for (int dialect = 0; dialect < dialects; dialect++) {
+      for (int line : statementLines) {
+        document.replace(new Range(new Position(line, STATEMENT_START), new Position(line, STATEMENT_END)), "    ");
+      }
+      document.commitTransformations();
+      document.insertCopybook(dialect, new ExtendedText(COPYBOOK, COPYBOOK_URI));
+      document.commitTransformations();
+    }
+    return document;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.benchmarks;
+
+import org.eclipse.lsp.cobol.common.mapping.ExtendedText;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the extended text of a program with copybooks inserted into it. The text is
+ * kept for the whole document lifetime, so run it with {@code -prof gc}: the normalized allocation
+ * rate is an upper bound of the retained footprint of the mapping.
+ *
+ * <p>{@link #buildPerCharacterText()} does the same expansion with the storage of the previous releases,
+ * an object per character, and {@link #buildPlainText()} without any mapping. The differences of the
+ * normalized allocation rates compare the segment storage with the per-character one and with the floor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExtendedTextFootprintBenchmark {
+  private static final String COPYBOOK_URI = "file:///c:/workspace/BENCHCPY.cpy";
+  private static final int COPYBOOK_LINES = 50;
+  private static final int COPY_STATEMENT_STEP = 100;
+  private static final int COPY_STATEMENT_START = 8;
+  private static final int COPY_STATEMENT_END = 12;
+
+  @Param({"100", "1000", "10000"})
+  private int statements;
+
+  private String text;
+  private String copybookText;
+  private List<Integer> copyStatementLines;
+
+  /** Create the program and the copybook */
+  @Setup(Level.Trial)
+  public void setUp() {
+    text = BenchmarkInputs.generateProgram(statements);
+    StringBuilder copybook = new StringBuilder();
+    for (int i = 0; i < COPYBOOK_LINES; i++) {
+      copybook.append("       01 FIELD-").append(i).append(" PIC X(10).\n");
+    }
+    copybookText = copybook.toString();
+
+    // Bottom up, so the insertions do not shift the lines of the next copy statements
+    copyStatementLines = new ArrayList<>();
+    String[] lines = text.split("\n");
+    for (int line = lines.length - 1; line >= 0; line -= COPY_STATEMENT_STEP) {
+      if (lines[line].length() > COPY_STATEMENT_END) {
+        copyStatementLines.add(line);
+      }
+    }
+  }
+
+  /**
+   * Build the extended text and expand the copybooks
+   *
+   * @return the extended text
+   */
+  @Benchmark
+  public ExtendedText buildExtendedText() {
+    ExtendedText extendedText = new ExtendedText(text, BenchmarkInputs.DOCUMENT_URI);
+    for (int line : copyStatementLines) {
+      Range copyStatement = new Range(new Position(line, COPY_STATEMENT_START), new Position(line, COPY_STATEMENT_END));
+      extendedText.insert(copyStatement, new ExtendedText(copybookText, COPYBOOK_URI));
+    }
+    return extendedText;
+  }
+
+  /**
+   * Build the same text with an object per character and expand the copybooks
+   *
+   * @return the text
+   */
+  @Benchmark
+  public Object buildPerCharacterText() {
+    PerCharacterText perCharacterText = new PerCharacterText(text, BenchmarkInputs.DOCUMENT_URI);
+    for (int line : copyStatementLines) {
+      Range copyStatement = new Range(new Position(line, COPY_STATEMENT_START), new Position(line, COPY_STATEMENT_END));
+      perCharacterText.insert(copyStatement, new PerCharacterText(copybookText, COPYBOOK_URI));
+    }
+    return perCharacterText;
+  }
+
+  /**
+   * Expand the copybooks into a plain text buffer, without keeping the original positions
+   *
+   * @return the expanded text
+   */
+  @Benchmark
+  public String buildPlainText() {
+    List<StringBuilder> lines = new ArrayList<>();
+    for (String line : text.split("\n", -1)) {
+      lines.add(new StringBuilder(line));
+    }
+    String[] copybookLines = copybookText.split("\n", -1);
+    for (int line : copyStatementLines) {
+      // Clear the copy statement, break the line after it and add the copybook in between
+      StringBuilder copyStatement = lines.get(line);
+      for (int i = COPY_STATEMENT_START; i <= COPY_STATEMENT_END; i++) {
+        copyStatement.setCharAt(i, ' ');
+      }
+      lines.add(line + 1, new StringBuilder(copyStatement.substring(COPY_STATEMENT_START)));
+      copyStatement.setLength(COPY_STATEMENT_START);
+      for (int i = 0; i < copybookLines.length; i++) {
+        lines.add(line + 1 + i, new StringBuilder(copybookLines[i]));
+      }
+    }
+    return String.join("\n", lines);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.benchmarks;
+
+import com.google.inject.Injector;
+import org.eclipse.lsp.cobol.benchmarks.BenchmarkInputs.IbmStage;
+import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
+import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.pipeline.Stage;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.processor.AstProcessor;
+import org.eclipse.lsp.cobol.core.preprocessor.CopybookHierarchy;
+import org.eclipse.lsp.cobol.core.preprocessor.delegates.GrammarPreprocessor;
+import org.eclipse.lsp.cobol.core.preprocessor.delegates.PreprocessorContext;
+import org.eclipse.lsp.cobol.core.semantics.CopybooksRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@code GrammarPreprocessorImpl.preprocess}. The preprocessor changes the extended
+ * document, so every invocation gets a document prepared by the preceding pipeline stages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GrammarPreprocessorBenchmark {
+  @Param({"100", "1000", "10000"})
+  private int statements;
+
+  private Injector injector;
+  private List<Stage<AnalysisContext, ?, ?>> stages;
+  private GrammarPreprocessor grammarPreprocessor;
+  private CleanerPreprocessor preprocessor;
+  private String text;
+  private PreprocessorContext context;
+
+  /** Create the engine and the program */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    injector = BenchmarkInputs.createInjector();
+    stages = BenchmarkInputs.createIbmStages(injector, injector.getInstance(AstProcessor.class));
+    grammarPreprocessor = injector.getInstance(GrammarPreprocessor.class);
+    preprocessor = BenchmarkInputs.getPreprocessor(injector);
+    text = BenchmarkInputs.generateProgram(statements);
+  }
+
+  /** Prepare the document as the preprocessor stage does */
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    AnalysisContext ctx = BenchmarkInputs.createContext(injector, text);
+    BenchmarkInputs.runBefore(stages, IbmStage.PREPROCESSOR, ctx);
+    context = new PreprocessorContext(ctx.getDocumentUri(), ctx.getExtendedDocument(),
+        ctx.getConfig().getCopybookProcessingMode(), new CopybookHierarchy(), new CopybooksRepository(), false);
+  }
+
+  /**
+   * Run the grammar preprocessor
+   *
+   * @return the copybooks of the program
+   */
+  @Benchmark
+  public ResultWithErrors<CopybooksRepository> preprocess() {
+    return grammarPreprocessor.preprocess(context, preprocessor);
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.benchmarks;
+
+import com.google.inject.Injector;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.eclipse.lsp.cobol.benchmarks.BenchmarkInputs.IbmStage;
+import org.eclipse.lsp.cobol.common.message.MessageService;
+import org.eclipse.lsp.cobol.core.CobolParser;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.processor.AstProcessor;
+import org.eclipse.lsp.cobol.core.strategy.CobolErrorStrategy;
+import org.eclipse.lsp.cobol.parser.AntlrCobolParser;
+import org.eclipse.lsp.cobol.parser.AstBuilder;
+import org.eclipse.lsp.cobol.parser.SplitParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of the ANTLR parser compared to the split parser on the preprocessed program text */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ParserBenchmark {
+  @Param({"100", "1000", "10000"})
+  private int statements;
+
+  @Param({"ANTLR", "SPLIT"})
+  private String parser;
+
+  private MessageService messageService;
+  private ParseTreeListener treeListener;
+  private String text;
+
+  /** Preprocess the program */
+  @Setup(Level.Trial)
+  public void setUp() {
+    Injector injector = BenchmarkInputs.createInjector();
+    messageService = injector.getInstance(MessageService.class);
+    treeListener = injector.getInstance(ParseTreeListener.class);
+    AnalysisContext ctx = BenchmarkInputs.createContext(injector, BenchmarkInputs.generateProgram(statements));
+    BenchmarkInputs.runBefore(BenchmarkInputs.createIbmStages(injector, injector.getInstance(AstProcessor.class)),
+        IbmStage.PARSER, ctx);
+    text = ctx.getExtendedDocument().toString();
+  }
+
+  /**
+   * Parse the program
+   *
+   * @return the parse tree
+   */
+  @Benchmark
+  public CobolParser.StartRuleContext parse() {
+    AstBuilder builder = "SPLIT".equals(parser)
+        ? new SplitParser(CharStreams.fromString(text), new BaseErrorListener(), new CobolErrorStrategy(messageService), treeListener)
+        : new AntlrCobolParser(CharStreams.fromString(text), new BaseErrorListener(), new CobolErrorStrategy(messageService), treeListener);
+    return builder.runParser();
+  }
+}
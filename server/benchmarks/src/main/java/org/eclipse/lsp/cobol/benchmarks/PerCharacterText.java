@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.benchmarks;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The storage of the extended text before the segment backend: an object per character with its own original
+ * position and, for the inserted characters, its own map of initial locations. Only the copybook expansion is
+ * reproduced, so {@link ExtendedTextFootprintBenchmark} can compare both storages on the same work.
+ */
+final class PerCharacterText {
+  private final List<List<MappedChar>> lines = new ArrayList<>();
+  private final String uri;
+
+  PerCharacterText(String text, String uri) {
+    this.uri = uri;
+    String[] textLines = text.split("\\r?\\n");
+    for (int i = 0; i < textLines.length; i++) {
+      lines.add(newLine(textLines[i], i));
+    }
+  }
+
+  /**
+   * Substitute a copy statement on a single line with the copybook text
+   *
+   * @param copyStatementRange the range of the copy statement
+   * @param copybook the copybook text
+   */
+  void insert(Range copyStatementRange, PerCharacterText copybook) {
+    int line = copyStatementRange.getStart().getLine();
+    int start = copyStatementRange.getStart().getCharacter();
+    List<MappedChar> statementLine = lines.get(line);
+    Location location = new Location(uri, new Range(statementLine.get(start).originalPosition,
+        statementLine.get(copyStatementRange.getEnd().getCharacter()).originalPosition));
+    for (int i = start; i <= copyStatementRange.getEnd().getCharacter(); i++) {
+      statementLine.get(i).character = ' ';
+    }
+
+    List<MappedChar> rest = new ArrayList<>();
+    for (MappedChar character : statementLine.subList(start, statementLine.size())) {
+      rest.add(character.copy(rest));
+    }
+    statementLine.subList(start, statementLine.size()).clear();
+    lines.add(line + 1, rest);
+
+    int target = line + 1;
+    for (List<MappedChar> copybookLine : copybook.lines) {
+      for (MappedChar character : copybookLine) {
+        if (character.initialLocationMap == null) {
+          character.initialLocationMap = new HashMap<>();
+        }
+        character.initialLocationMap.put(uri, location);
+      }
+      lines.add(target++, copybookLine);
+    }
+  }
+
+  private List<MappedChar> newLine(String text, int lineNumber) {
+    List<MappedChar> line = new ArrayList<>();
+    for (int i = 0; i < text.length(); i++) {
+      line.add(new MappedChar(text.charAt(i), new Position(lineNumber, i), uri, line, null, null));
+    }
+    return line;
+  }
+
+  private static final class MappedChar {
+    private char character;
+    private final Position originalPosition;
+    private final String uri;
+    private final List<MappedChar> parent;
+    private final Location instantLocation;
+    private Map<String, Location> initialLocationMap;
+
+    private MappedChar(char character, Position originalPosition, String uri, List<MappedChar> parent,
+                      Location instantLocation, Map<String, Location> initialLocationMap) {
+      this.character = character;
+      this.originalPosition = originalPosition;
+      this.uri = uri;
+      this.parent = parent;
+      this.instantLocation = instantLocation;
+      this.initialLocationMap = initialLocationMap;
+    }
+
+    private MappedChar copy(List<MappedChar> newParent) {
+      return new MappedChar(character, originalPosition, uri, newParent, instantLocation, initialLocationMap);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.benchmarks;
+
+import com.google.inject.Injector;
+import org.eclipse.lsp.cobol.benchmarks.BenchmarkInputs.IbmStage;
+import org.eclipse.lsp.cobol.common.pipeline.Stage;
+import org.eclipse.lsp.cobol.common.pipeline.StageResult;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.processor.AstProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every stage of the IBM COBOL pipeline. The stages change the analysis context, so
+ * each invocation gets a fresh context with the preceding stages already run; only the measured
+ * stage is timed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PipelineStageBenchmark {
+  @Param({"100", "1000", "10000"})
+  private int statements;
+
+  @Param
+  private IbmStage stage;
+
+  private List<Stage<AnalysisContext, ?, ?>> stages;
+  private Injector injector;
+  private String text;
+  private AnalysisContext ctx;
+  private StageResult<?> previousResult;
+
+  /** Create the engine and the program */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    injector = BenchmarkInputs.createInjector();
+    stages = BenchmarkInputs.createIbmStages(injector, injector.getInstance(AstProcessor.class));
+    text = BenchmarkInputs.generateProgram(statements);
+  }
+
+  /** Run the stages that precede the measured one */
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    ctx = BenchmarkInputs.createContext(injector, text);
+    previousResult = BenchmarkInputs.runBefore(stages, stage, ctx);
+  }
+
+  /**
+   * Run the measured stage
+   *
+   * @return the stage result
+   */
+  @Benchmark
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public StageResult<?> runStage() {
+    return ((Stage) stages.get(stage.ordinal())).run(ctx, previousResult);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.benchmarks;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedDocument;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.core.preprocessor.delegates.replacement.ReplaceData;
+import org.eclipse.lsp.cobol.core.preprocessor.delegates.replacement.ReplacingService;
+import org.eclipse.lsp4j.Range;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of {@code ReplacingServiceImpl.applyReplacing} with a COPY REPLACING clause */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReplacingBenchmark {
+  @Param({"100", "1000", "10000"})
+  private int statements;
+
+  /** The number of operands in the clause, two of them match the program text */
+  @Param({"2", "20"})
+  private int operands;
+
+  private ReplacingService replacingService;
+  private ReplaceData replaceData;
+  private String text;
+  private ExtendedDocument document;
+
+  /** Create the replacing service, the clause and the program */
+  @Setup(Level.Trial)
+  public void setUp() {
+    replacingService = BenchmarkInputs.createInjector().getInstance(ReplacingService.class);
+    text = BenchmarkInputs.generateProgram(statements);
+    List<Pair<String, String>> patterns = new ArrayList<>();
+    patterns.add(pattern("==DISPLAY== BY ==DISPLAY=="));
+    patterns.add(pattern("==SECTION== BY ==SECTION=="));
+    for (int i = patterns.size(); i < operands; i++) {
+      patterns.add(pattern("==NAME-" + i + "== BY ==OTHER-" + i + "=="));
+    }
+    replaceData = new ReplaceData(patterns, BenchmarkInputs.DOCUMENT_URI, new Range());
+  }
+
+  /** Create a fresh document, as replacing modifies it */
+  @Setup(Level.Invocation)
+  public void createDocument() {
+    document = new ExtendedDocument(text, BenchmarkInputs.DOCUMENT_URI);
+  }
+
+  /**
+   * Apply the clause to the program
+   *
+   * @return the document with the replacing applied
+   */
+  @Benchmark
+  public ExtendedDocument applyReplacing() {
+    replacingService.applyReplacing(document, replaceData);
+    return document;
+  }
+
+  private Pair<String, String> pattern(String clause) {
+    return replacingService.retrievePseudoTextReplacingPattern(clause, Locality.builder().build()).getResult();
+  }
+}
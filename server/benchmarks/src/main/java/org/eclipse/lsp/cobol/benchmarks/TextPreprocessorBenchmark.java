@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.benchmarks;
+
+import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
+import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedText;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of {@code IbmTextPreprocessor.cleanUpCode} */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TextPreprocessorBenchmark {
+  @Param({"100", "1000", "10000"})
+  private int statements;
+
+  private CleanerPreprocessor preprocessor;
+  private String text;
+
+  /** Create the preprocessor and the program */
+  @Setup(Level.Trial)
+  public void setUp() {
+    preprocessor = BenchmarkInputs.getPreprocessor(BenchmarkInputs.createInjector());
+    text = BenchmarkInputs.generateProgram(statements);
+  }
+
+  /**
+   * Clean up the program text
+   *
+   * @return the cleaned text
+   */
+  @Benchmark
+  public ResultWithErrors<ExtendedText> cleanUpCode() {
+    return preprocessor.cleanUpCode(BenchmarkInputs.DOCUMENT_URI, text);
+  }
+}
@@ -29,7 +29,7 @@ public interface BenchmarkService {
   BenchmarkSession startSession();
 
   /**
-   * Get all collected measurements.
+   * Get the measurements of the recent sessions.
    *
    * @return a list of measurements.
    */
@@ -43,7 +43,14 @@ public interface BenchmarkService {
   List<JsonElement> toJsons();
 
   /**
-   * Log accumulated timing information.
+   * Log timing information of the recent sessions.
    */
   void logTiming();
+
+  /**
+   * Log timing information of a finished session.
+   *
+   * @param session the finished benchmark session
+   */
+  void logTiming(BenchmarkSession session);
 }
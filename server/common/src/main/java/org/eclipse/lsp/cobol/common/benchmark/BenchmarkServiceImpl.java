@@ -25,18 +25,26 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.text.DecimalFormat;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.stream.Collectors;
 
+/**
+ * Keeps the most recent benchmark sessions. The aggregated statistics of all the analyses are
+ * collected by the engine metrics, so older sessions are dropped to keep the memory bounded.
+ */
 public class BenchmarkServiceImpl implements BenchmarkService {
   private final static Logger LOG = LoggerFactory.getLogger(BenchmarkServiceImpl.class);
   private static final String PERFORMANCE_LOG_PATH = "performance.log.path";
-  private final List<BenchmarkSession> benchmarkSessions = new CopyOnWriteArrayList<>();
+  private static final int MAX_SESSIONS = 100;
+  private final Deque<BenchmarkSession> benchmarkSessions = new ConcurrentLinkedDeque<>();
 
   @Override
   public BenchmarkSession startSession() {
     BenchmarkSession session = new BenchmarkSession();
-    benchmarkSessions.add(session);
+    benchmarkSessions.addLast(session);
+    while (benchmarkSessions.size() > MAX_SESSIONS) {
+      benchmarkSessions.pollFirst();
+    }
     return session;
   }
 
@@ -61,6 +69,7 @@ public class BenchmarkServiceImpl implements BenchmarkService {
     benchmarkSessions.forEach(this::logTiming);
   }
 
+  @Override
   public void logTiming(BenchmarkSession benchmarkSession) {
     LOG.debug("---- Benchmark for uri : {}", benchmarkSession.attr("uri"));
     Collection<Measurement> measurements = benchmarkSession
@@ -15,6 +15,7 @@
 package org.eclipse.lsp.cobol.common.copybook;
 
 import java.util.Collection;
+import java.util.Optional;
 import java.util.Set;
 import lombok.NonNull;
 import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
@@ -50,6 +51,39 @@ public interface CopybookService {
           @NonNull String documentUri,
           CleanerPreprocessor preprocessor);
 
+  /**
+   * Retrieve the copybook for a detached analysis, whose results are not kept for the program. The
+   * copybook is cached the same way as by {@link #resolve}, but it is not added to the copybook usage
+   * of the program, and a copybook that is not found is neither cached nor registered for downloading.
+   * Delegates to {@link #resolve} by default.
+   *
+   * @param copybookId         - the id of the copybook to be retrieved
+   * @param copybookName       - the name of the copybook to be retrieved
+   * @param programDocumentUri - the currently processing program document
+   * @param documentUri        - the currently processing document that contains the copy statement
+   * @param preprocessor       - Cleanup preprocessor that will be used for new copybooks or null
+   * @return a CopybookModel wrapped inside {@link ResultWithErrors} with the preprocessed errors of the copybook
+   */
+  default ResultWithErrors<CopybookModel> resolveDetached(
+          @NonNull CopybookId copybookId,
+          @NonNull CopybookName copybookName,
+          @NonNull String programDocumentUri,
+          @NonNull String documentUri,
+          CleanerPreprocessor preprocessor) {
+    return resolve(copybookId, copybookName, programDocumentUri, documentUri, preprocessor);
+  }
+
+  /**
+   * Resolve the copybooks referenced in the given text ahead of the preprocessing, so the following
+   * resolve calls do not block on them one by one. Does nothing by default.
+   *
+   * @param programDocumentUri - the currently processing program document
+   * @param text               - the cleaned text to look for copy statements in
+   * @param preprocessor       - Cleanup preprocessor that will be used for new copybooks or null
+   */
+  default void prefetch(@NonNull String programDocumentUri, @NonNull String text, CleanerPreprocessor preprocessor) {
+  }
+
   /**
    * Store the copybookModel in cache. Copybook depends on a document from where it is imported.
    *
@@ -82,4 +116,23 @@ public interface CopybookService {
    */
   Set<CopybookModel> getCopybookUsage(String documentUri);
 
+  /**
+   * Get the hash of the copybook as it is currently resolved, so the results built from an earlier
+   * version of the copybook can be recognized. If the copybook is not cached, e.g. after the cache
+   * was invalidated, the hash is computed from the file the copybook was resolved to before.
+   * Returns empty by default.
+   *
+   * @param copybookId the id of the copybook
+   * @param uri the URI the copybook was resolved to before, or null if it is not known
+   * @return the hash of the copybook URI and content, or empty if the copybook was not resolved or
+   *     its file cannot be read
+   */
+  default Optional<String> getContentHash(CopybookId copybookId, String uri) {
+    return Optional.empty();
+  }
+
+  /** Stop the background work of the service when the server shuts down. Does nothing by default. */
+  default void shutdown() {
+  }
+
 }
@@ -33,4 +33,11 @@ public class DialectProcessingContext {
   CleanerPreprocessor preprocessor;
   @Builder.Default List<Node> dialectNodes = new ArrayList<>();
   @Builder.Default String languageId = "cobol";
+  /**
+   * The regions of the implicit dialects code, found once for all the dialects by the {@link
+   * EmbeddedCodeScanner}, or null if they are not known yet
+   */
+  List<EmbeddedCodeRegion> embeddedCode;
+  /** The analysis results are not kept for the program, so the dialects do not track its copybook usage */
+  boolean detached;
 }
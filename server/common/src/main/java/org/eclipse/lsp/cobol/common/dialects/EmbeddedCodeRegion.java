@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.dialects;
+
+import lombok.Value;
+
+/**
+ * A part of the program text that contains code of an implicit dialect, e.g. an EXEC SQL block.
+ * The regions are found by the {@link EmbeddedCodeScanner}.
+ */
+@Value
+public class EmbeddedCodeRegion {
+  /** The word after EXEC for EXEC blocks, or one of the keywords of {@link EmbeddedCodeScanner} */
+  String keyword;
+  /** The offset of the first character in the text */
+  int start;
+  /** The offset after the last character in the text */
+  int end;
+  /** The zero-based line of the first character */
+  int line;
+  /** The zero-based column of the first character */
+  int column;
+}
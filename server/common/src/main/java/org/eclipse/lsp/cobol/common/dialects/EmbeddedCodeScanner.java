@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.dialects;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the code of the implicit dialects in a program text in one pass, so the dialects can lex
+ * only these regions instead of the whole program. The scanner recognizes:
+ *
+ * <ul>
+ *   <li>EXEC blocks from EXEC to the end of the line with the next END-EXEC, or to the end of the
+ *       text if it is missing. The rest of the line and the lines with stray END-EXEC words
+ *       before the next region are kept, so the dialect parsers recover from errors in the same way
+ *       as with the whole text;
+ *   <li>sentences that declare SQL host variables with SQL TYPE IS outside EXEC blocks;
+ *   <li>DFHRESP and DFHVALUE literals outside EXEC blocks.
+ * </ul>
+ *
+ * <p>Words in string literals are ignored.
+ */
+public final class EmbeddedCodeScanner {
+  public static final String SQL_TYPE = "SQL TYPE";
+  public static final String DFHRESP = "DFHRESP";
+  public static final String DFHVALUE = "DFHVALUE";
+
+  private static final String EXEC = "EXEC";
+  private static final String END_EXEC = "END-EXEC";
+  private static final String SQL = "SQL";
+  private static final String TYPE = "TYPE";
+
+  private final String text;
+  private final List<EmbeddedCodeRegion> regions = new ArrayList<>();
+  private int pos;
+  private int line;
+  private int lineStart;
+  private int sentenceStart;
+  private int sentenceLine;
+  private int sentenceColumn;
+  private boolean execBlockIsLast;
+
+  private EmbeddedCodeScanner(String text) {
+    this.text = text;
+  }
+
+  /**
+   * Find the regions of embedded code in the text
+   *
+   * @param text the program text
+   * @return the regions ordered by their positions, a region ends where the next one starts at the
+   *     latest
+   */
+  public static List<EmbeddedCodeRegion> scan(String text) {
+    EmbeddedCodeScanner scanner = new EmbeddedCodeScanner(text);
+    scanner.scanText();
+    return scanner.regions;
+  }
+
+  private void scanText() {
+    boolean afterSql = false;
+    while (pos < text.length()) {
+      int wordStart = nextWord();
+      if (wordStart < 0) break;
+      int wordEnd = pos;
+      if (is(wordStart, wordEnd, EXEC)) {
+        scanExecBlock(wordStart);
+      } else if (is(wordStart, wordEnd, DFHRESP) || is(wordStart, wordEnd, DFHVALUE)) {
+        scanLiteral(wordStart, wordEnd);
+      } else if (afterSql && is(wordStart, wordEnd, TYPE)) {
+        scanSentence();
+      } else if (is(wordStart, wordEnd, END_EXEC)) {
+        extendExecBlock();
+      }
+      afterSql = is(wordStart, wordEnd, SQL);
+    }
+  }
+
+  private void scanExecBlock(int start) {
+    int startLine = line;
+    int startColumn = start - lineStart;
+    int keywordStart = nextWord();
+    String keyword = keywordStart < 0 ? "" : text.substring(keywordStart, pos).toUpperCase();
+    int wordStart = keywordStart;
+    while (wordStart >= 0 && !is(wordStart, pos, END_EXEC)) {
+      wordStart = nextWord();
+    }
+    addRegion(keyword, start, lineEnd(), startLine, startColumn);
+    execBlockIsLast = true;
+  }
+
+  /** An END-EXEC after an EXEC block belongs to the block, e.g. when the block has a typo */
+  private void extendExecBlock() {
+    if (!execBlockIsLast) return;
+    int last = regions.size() - 1;
+    EmbeddedCodeRegion block = regions.get(last);
+    regions.set(last, new EmbeddedCodeRegion(block.getKeyword(), block.getStart(), lineEnd(), block.getLine(), block.getColumn()));
+  }
+
+  private int lineEnd() {
+    int lineEnd = text.indexOf('\n', pos);
+    return lineEnd < 0 ? text.length() : lineEnd;
+  }
+
+  private void scanLiteral(int start, int wordEnd) {
+    int startLine = line;
+    int startColumn = start - lineStart;
+    String keyword = text.substring(start, wordEnd).toUpperCase();
+    while (pos < text.length() && text.charAt(pos) != ')') {
+      advance();
+    }
+    if (pos < text.length()) pos++;
+    addRegion(keyword, start, pos, startLine, startColumn);
+  }
+
+  private void scanSentence() {
+    while (pos < text.length() && !isSeparatorPeriod(pos)) {
+      advance();
+    }
+    if (pos < text.length()) pos++;
+    addRegion(SQL_TYPE, sentenceStart, pos, sentenceLine, sentenceColumn);
+  }
+
+  private void addRegion(String keyword, int start, int end, int startLine, int startColumn) {
+    int last = regions.size() - 1;
+    if (last >= 0 && regions.get(last).getEnd() > start) {
+      EmbeddedCodeRegion previous = regions.get(last);
+      regions.set(last, new EmbeddedCodeRegion(previous.getKeyword(), previous.getStart(), start,
+          previous.getLine(), previous.getColumn()));
+    }
+    regions.add(new EmbeddedCodeRegion(keyword, start, end, startLine, startColumn));
+    execBlockIsLast = false;
+    markSentenceStart();
+  }
+
+  /**
+   * Move to the end of the next word outside string literals
+   *
+   * @return the start offset of the word, or -1 if there are no more words
+   */
+  private int nextWord() {
+    while (pos < text.length()) {
+      char c = text.charAt(pos);
+      if (isWordChar(c)) {
+        int start = pos;
+        while (pos < text.length() && isWordChar(text.charAt(pos))) pos++;
+        return start;
+      }
+      boolean separator = isSeparatorPeriod(pos);
+      advance();
+      if (separator) markSentenceStart();
+    }
+    return -1;
+  }
+
+  /** Move over one character, or over the whole string literal that starts at the position */
+  private void advance() {
+    char c = text.charAt(pos++);
+    if (c == '\n') {
+      line++;
+      lineStart = pos;
+    } else if (c == '\'' || c == '"') {
+      while (pos < text.length() && text.charAt(pos) != c && text.charAt(pos) != '\n') pos++;
+      if (pos < text.length() && text.charAt(pos) == c) pos++;
+    }
+  }
+
+  private void markSentenceStart() {
+    sentenceStart = pos;
+    sentenceLine = line;
+    sentenceColumn = pos - lineStart;
+  }
+
+  private boolean isSeparatorPeriod(int offset) {
+    return text.charAt(offset) == '.'
+        && (offset + 1 == text.length() || Character.isWhitespace(text.charAt(offset + 1)));
+  }
+
+  private boolean is(int start, int end, String word) {
+    return end - start == word.length() && text.regionMatches(true, start, word, 0, word.length());
+  }
+
+  private static boolean isWordChar(char c) {
+    return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+  }
+}
@@ -34,6 +34,7 @@ public class ExtendedDocument {
   private final ExtendedText currentText;
   @Getter
   private boolean dirty;
+  private int committedModCount = -1;
 
   public ExtendedDocument(String text, String uri) {
     originalText = text;
@@ -79,18 +80,49 @@ public class ExtendedDocument {
   }
 
   /**
-   * Commit changes
+   * Commit changes. The base text shares the snapshots of the lines that were not changed since the previous commit,
+   * and a commit after in-place changes only, like clearing or filling areas, keeps the base text as is, because
+   * the characters are shared with the current text.
    */
   public void commitTransformations() {
     if (isDirty()) {
-      baseText.clear();
-      for (ExtendedTextLine line : currentText.getLines()) {
-        baseText.add(line.shadowCopy());
+      int modCount = currentText.getModCount();
+      if (modCount != committedModCount) {
+        baseText.clear();
+        for (ExtendedTextLine line : currentText.getLines()) {
+          baseText.add(line.snapshot());
+        }
+        committedModCount = modCount;
       }
       dirty = false;
     }
   }
 
+  /**
+   * Counts the last lines of the current text that were not changed since the last commit: they are the same line
+   * objects without structural changes, and their texts are the same as in the committed text. The count is known
+   * only until the changes are committed.
+   * @param committedText - the text at the last commit, see {@link #toString()}
+   * @return the number of the unchanged lines at the end of the text
+   */
+  public int countUnchangedTailLines(String committedText) {
+    List<ExtendedTextLine> currentLines = currentText.getLines();
+    List<ExtendedTextLine> baseLines = baseText.getLines();
+    int count = 0;
+    int end = committedText.length();
+    while (count < currentLines.size() && count < baseLines.size() && end >= 0) {
+      int start = committedText.lastIndexOf('\n', end - 1) + 1;
+      ExtendedTextLine line = currentLines.get(currentLines.size() - 1 - count);
+      if (!line.hasSnapshot(baseLines.get(baseLines.size() - 1 - count)) || line.size() != end - start
+          || !committedText.regionMatches(start, line.toString(), 0, line.size())) {
+        break;
+      }
+      count++;
+      end = start - 1;
+    }
+    return count;
+  }
+
   /**
    * Map a range in an extended to its original location
    *
@@ -101,6 +133,16 @@ public class ExtendedDocument {
     return baseText.mapLocation(range);
   }
 
+  /**
+   * Finds the position of an offset in the committed text
+   *
+   * @param offset in the result of {@link #toString()}
+   * @return a position in the extended document
+   */
+  public Position getPosition(int offset) {
+    return baseText.getPosition(offset);
+  }
+
   /**
    * Substitutes copybook statement range with a copybook extended text
    * @param copyStatementRange - a copybook statement range
@@ -197,17 +239,17 @@ public class ExtendedDocument {
     List<ExtendedTextLine> lines = baseText.getLines();
     if (lineno >= lines.size())
       return true;
-    List<MappedCharacter> chars = lines.get(lineno).getCharacters();
-    for (int i = start; i < chars.size() && i < end; ++i) {
+    ExtendedTextLine line = lines.get(lineno);
+    for (int i = start; i < line.size() && i < end; ++i) {
       // emulates behavior of trim function
-      if (chars.get(i).getCharacter() > ' ')
+      if (line.charAt(i) > ' ')
         return false;
     }
     return true;
   }
 
   private Range updateRangeDueToChanges(Range range) {
-    if (isDirty()) {
+    if (hasLayoutChanges()) {
       range = new Range(updatePositionDueToChanges(range.getStart()), updatePositionDueToChanges(range.getEnd()));
     }
     return range;
@@ -215,16 +257,24 @@ public class ExtendedDocument {
 
   private int updateLineDueToChanges(int lineNumber) {
     int result = lineNumber;
-    if (isDirty()) {
+    if (hasLayoutChanges()) {
       ExtendedTextLine line = baseText.getLines().get(lineNumber);
-      if (line.getCharacters().size() > 0) {
-        ExtendedTextLine parentLine = line.getCharacters().get(0).getParent();
+      if (line.size() > 0) {
+        ExtendedTextLine parentLine = line.getCharacterAt(0).getParent();
         result = currentText.getLines().indexOf(parentLine);
       }
     }
     return result;
   }
 
+  /**
+   * Checks if the lines or characters of the current text were moved since the last commit. The in-place changes
+   * keep the positions of the base text valid in the current text.
+   */
+  private boolean hasLayoutChanges() {
+    return isDirty() && currentText.getModCount() != committedModCount;
+  }
+
   private Position updatePositionDueToChanges(Position position) {
     int currentLine = updateLineDueToChanges(position.getLine());
     int currentChar = position.getCharacter();
@@ -232,7 +282,7 @@ public class ExtendedDocument {
     ExtendedTextLine line = baseText.getLines().get(position.getLine());
     if (position.getCharacter() < line.size()) {
       MappedCharacter character = line.getCharacterAt(position.getCharacter());
-      currentChar = currentText.getLines().get(currentLine).getCharacters().indexOf(character);
+      currentChar = currentText.getLines().get(currentLine).indexOf(character);
       if (currentChar < 0) {
         currentChar = position.getCharacter();
       }
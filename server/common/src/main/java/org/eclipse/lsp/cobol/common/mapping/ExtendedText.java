@@ -21,8 +21,10 @@ import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -34,6 +36,12 @@ public class ExtendedText {
   private final List<ReplaceStrategy> replacers;
   @Getter
   private final String uri;
+  private int modCount;
+  private String text;
+  private String[] lineTexts;
+  private int textModCount;
+  private int[] lineStarts;
+  private int lineStartsModCount;
 
   public ExtendedText(String text, String uri) {
     String[] textLines = MappingHelper.split(text);
@@ -46,20 +54,101 @@ public class ExtendedText {
     replacers = ImmutableList.of(new OneToOneReplaceStrategy(), new SingleLineReplaceStrategy(), new MultilineReplaceStrategy());
   }
 
+  private ExtendedText(String uri) {
+    this.uri = uri;
+    mappers = ImmutableList.of(new InsertMapper(), new ReplaceMapper(), new StraightforwardMapper());
+    replacers = ImmutableList.of(new OneToOneReplaceStrategy(), new SingleLineReplaceStrategy(), new MultilineReplaceStrategy());
+  }
+
+  /**
+   * Creates a deep copy of the text, so the copy can be modified independently of this text
+   * @return a new extended text with the same content and mapping
+   */
+  public ExtendedText copy() {
+    ExtendedText result = new ExtendedText(uri);
+    for (ExtendedTextLine line : lines) {
+      result.lines.add(line.deepCopy());
+    }
+    return result;
+  }
+
+  /**
+   * Creates a deep copy of the first lines of the text followed by the copies of the last lines of another text
+   * @param lineCount - the number of the lines of this text to copy
+   * @param tail - the text to take the rest of the lines from
+   * @param tailStart - the first line of the tail text to copy
+   * @return a new extended text
+   */
+  public ExtendedText copyWithTail(int lineCount, ExtendedText tail, int tailStart) {
+    ExtendedText result = new ExtendedText(uri);
+    for (ExtendedTextLine line : lines.subList(0, lineCount)) {
+      result.lines.add(line.deepCopy());
+    }
+    for (ExtendedTextLine line : tail.lines.subList(tailStart, tail.lines.size())) {
+      result.lines.add(line.deepCopy());
+    }
+    return result;
+  }
+
+  /**
+   * Returns the text. The result is kept until the text is changed, and it is built from the texts of the lines, so
+   * only the changed lines are computed again.
+   * @return the text with the lines separated by new line characters
+   */
   @Override
   public String toString() {
-    final StringBuilder builder = new StringBuilder();
-    int index = 0;
-    for (ExtendedTextLine line : lines) {
-      String lineText = line.toString();
-      if (!lineText.isEmpty()) {
-        builder.append(lineText);
+    if (text == null || textModCount != modCount || !isLineTextsUnchanged()) {
+      String[] texts = new String[lines.size()];
+      int length = Math.max(texts.length - 1, 0);
+      for (int i = 0; i < texts.length; i++) {
+        texts[i] = lines.get(i).toString();
+        length += texts[i].length();
       }
-      if (++index != lines.size()) {
-        builder.append("\n");
+      final StringBuilder builder = new StringBuilder(length);
+      for (int i = 0; i < texts.length; i++) {
+        if (i > 0) {
+          builder.append('\n');
+        }
+        builder.append(texts[i]);
       }
+      text = builder.toString();
+      lineTexts = texts;
+      textModCount = modCount;
     }
-    return builder.toString();
+    return text;
+  }
+
+  private boolean isLineTextsUnchanged() {
+    if (lineTexts.length != lines.size()) {
+      return false;
+    }
+    for (int i = 0; i < lineTexts.length; i++) {
+      if (lines.get(i).getCachedText() != lineTexts[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Finds the position of an offset in the string representation of the text. The table of the line offsets
+   * depends only on the line lengths, so it is kept until a structural change of the text.
+   * @param offset - the offset in the result of {@link #toString()}
+   * @return the position in the text
+   */
+  public Position getPosition(int offset) {
+    if (lineStarts == null || lineStartsModCount != modCount) {
+      lineStarts = new int[Math.max(lines.size(), 1)];
+      for (int i = 1; i < lines.size(); i++) {
+        lineStarts[i] = lineStarts[i - 1] + lines.get(i - 1).size() + 1;
+      }
+      lineStartsModCount = modCount;
+    }
+    int line = Arrays.binarySearch(lineStarts, offset);
+    if (line < 0) {
+      line = -line - 2;
+    }
+    return new Position(line, offset - lineStarts[line]);
   }
 
   /**
@@ -91,6 +180,7 @@ public class ExtendedText {
    * @param operation - operation to be performed on the test lines
    */
   public void perform(Consumer<ExtendedTextLine> operation) {
+    modCount++;
     for (ExtendedTextLine line : lines) {
       operation.accept(line);
     }
@@ -103,14 +193,25 @@ public class ExtendedText {
    * @param originalLocation - an original (before changes) location for the statement
    */
   void insert(int line, ExtendedText text, Location originalLocation) {
+    modCount++;
+    Map<Map<String, Location>, Map<String, Location>> updatedMaps = new IdentityHashMap<>();
     for (ExtendedTextLine textLine : text.lines) {
-      updateLine(textLine, originalLocation);
+      updateLine(textLine, originalLocation, updatedMaps);
       lines.add(line++, textLine);
     }
   }
 
   private ExtendedTextLine updateLine(ExtendedTextLine textLine, Location initialLocation) {
-    textLine.getCharacters().forEach(c -> c.getOrCreateInitialLocationMap().put(uri, initialLocation));
+    return updateLine(textLine, initialLocation, new IdentityHashMap<>());
+  }
+
+  /**
+   * Add the initial location to the mapping blocks of the line. Blocks that shared a location map before the
+   * update share the updated map too, so an inserted text keeps a single map.
+   */
+  private ExtendedTextLine updateLine(ExtendedTextLine textLine, Location initialLocation,
+                                      Map<Map<String, Location>, Map<String, Location>> updatedMaps) {
+    textLine.addInitialLocation(uri, initialLocation, updatedMaps);
     return textLine;
   }
 
@@ -120,6 +221,7 @@ public class ExtendedText {
    * @param newLine - an extended line
    */
   public void insert(Position position, ExtendedTextLine newLine) {
+    modCount++;
     lines.get(position.getLine()).insert(position.getCharacter(), newLine);
   }
 
@@ -129,6 +231,7 @@ public class ExtendedText {
    * @param newLine - an extended line
    */
   public void insert(int line, ExtendedTextLine newLine) {
+    modCount++;
     lines.add(line, newLine);
   }
 
@@ -151,6 +254,7 @@ public class ExtendedText {
    * @param copybook - a copybook extended text
    */
   public void insertWithPadding(Range copyStatementRange, ExtendedText copybook) {
+    modCount++;
     clear(copyStatementRange);
     Location initialLocation = mapLocation(copyStatementRange);
 
@@ -193,6 +297,7 @@ public class ExtendedText {
    * @param range - a range of text
    */
   public void delete(Range range) {
+    modCount++;
     if (range.getStart().getLine() == range.getEnd().getLine()) {
       lines.get(range.getStart().getLine()).delete(range.getStart().getCharacter(), range.getEnd().getCharacter());
     } else {
@@ -209,6 +314,7 @@ public class ExtendedText {
    * @param range - range representation of line list
    */
   public void deleteLines(Range range) {
+    modCount++;
     if (range.getEnd().getLine() >= range.getStart().getLine()) {
       lines.subList(range.getStart().getLine(), range.getEnd().getLine() + 1).clear();
     }
@@ -219,6 +325,7 @@ public class ExtendedText {
    * @param lineNumber - a line number to remove
    */
   public void delete(int lineNumber) {
+    modCount++;
     lines.remove(lineNumber);
   }
 
@@ -228,6 +335,7 @@ public class ExtendedText {
    * @param line - an extended line
    */
   public void append(int lineNumber, ExtendedTextLine line) {
+    modCount++;
     lines.get(lineNumber).append(line);
   }
 
@@ -272,6 +380,7 @@ public class ExtendedText {
    * @param position - a position in the text
    */
   public void addLineBreak(Position position) {
+    modCount++;
     ExtendedTextLine line = lines.get(position.getLine());
     ExtendedTextLine newLine = line.subline(position.getCharacter(), line.size() - 1);
     line.trim(position.getCharacter());
@@ -280,14 +389,25 @@ public class ExtendedText {
   }
 
   void clear() {
+    modCount++;
     lines.clear();
   }
 
+  /**
+   * Returns the number of structural changes of the text, i.e. the changes that add, remove or split lines or
+   * characters. Replacing characters in place is not counted, because it does not change the layout of the text.
+   * @return the modification count
+   */
+  int getModCount() {
+    return modCount;
+  }
+
   List<ExtendedTextLine> getLines() {
     return lines;
   }
 
   void add(ExtendedTextLine newLine) {
+    modCount++;
     lines.add(newLine);
   }
 
@@ -319,12 +439,6 @@ public class ExtendedText {
     if (line.size() == 0) {
       return null;
     }
-    int shift = character - (line.size() - 1);
-    character = line.size() - 1;
-    MappedCharacter result = line.getCharacterAt(character);
-    Position originalPos = Optional.ofNullable(result.getOriginalPosition())
-        .map(op -> new Position(op.getLine(), op.getCharacter() + shift))
-        .orElse(null);
-    return new MappedCharacter(result.getCharacter(), originalPos, result.getUri(), result.getParent(), result.getInstantLocation(), result.getInitialLocationMap());
+    return line.getCharacterAt(line.size() - 1).shifted(character - (line.size() - 1));
   }
 }
@@ -14,29 +14,37 @@
  */
 package org.eclipse.lsp.cobol.common.mapping;
 
-import lombok.Getter;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.Position;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
- * Extended Text Line with symbols
+ * Extended Text Line with symbols.
+ * <p>
+ * The characters are kept in a buffer and the mapping in a run-length table of segments: a segment is a range of
+ * the line whose characters are consecutive characters of one {@link MappingBlock}. Structural changes build new
+ * arrays, so a snapshot shares them with the line, and in-place changes of the characters reach the snapshot.
  */
 public class ExtendedTextLine {
-  @Getter
-  private final List<MappedCharacter> characters = new ArrayList<>();
+  private static final char[] NO_CHARACTERS = new char[0];
 
-  private ExtendedTextLine() {
+  private char[] characters;
+  private Segment[] segments;
+  private int version;
+  private String text;
+  private ExtendedTextLine snapshot;
+  private int snapshotVersion;
+
+  private ExtendedTextLine(char[] characters, Segment[] segments) {
+    this.characters = characters;
+    this.segments = segments;
   }
 
   ExtendedTextLine(String line, Location instantLocation, String uri) {
-    for (int i = 0; i < line.length(); i++) {
-      char character = line.charAt(i);
-      checkCharacter(character);
-      characters.add(new MappedCharacter(character, null, uri, this, instantLocation, null));
-    }
+    checkLine(line);
+    characters = line.toCharArray();
+    segments = singleSegment(MappingBlock.inserted(uri, instantLocation, this), characters.length);
   }
 
   ExtendedTextLine(String line, int lineNumber, String uri) {
@@ -44,12 +52,28 @@ public class ExtendedTextLine {
   }
 
   public ExtendedTextLine(String line, Position start, String uri) {
-    for (int i = 0; i < line.length(); i++) {
-      char character = line.charAt(i);
-      checkCharacter(character);
-      Position position = new Position(start.getLine(), start.getCharacter() + i);
-      characters.add(new MappedCharacter(character, position, uri, this, null, null));
-    }
+    checkLine(line);
+    characters = line.toCharArray();
+    segments = singleSegment(MappingBlock.original(uri, start, this), characters.length);
+  }
+
+  /**
+   * Returns the characters of the line. The elements are views of the line positions created on demand, see
+   * {@link MappedCharacter}.
+   * @return an unmodifiable list of the characters
+   */
+  public List<MappedCharacter> getCharacters() {
+    return new AbstractList<MappedCharacter>() {
+      @Override
+      public MappedCharacter get(int index) {
+        return getCharacterAt(index);
+      }
+
+      @Override
+      public int size() {
+        return characters.length;
+      }
+    };
   }
 
   /**
@@ -57,7 +81,7 @@ public class ExtendedTextLine {
    * @return the size
    */
   int size() {
-    return characters.size();
+    return characters.length;
   }
 
   /**
@@ -66,16 +90,89 @@ public class ExtendedTextLine {
    * @return a character at the given position
    */
   MappedCharacter getCharacterAt(int position) {
-    return characters.get(position);
+    if (position < 0 || position >= characters.length) {
+      throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + characters.length);
+    }
+    int start = 0;
+    for (Segment segment : segments) {
+      if (position < start + segment.length) {
+        return new MappedCharacter(this, position, characters[position], segment.block,
+            segment.offset + position - start);
+      }
+      start += segment.length;
+    }
+    throw new IllegalStateException("The segments do not cover the line");
+  }
+
+  /**
+   * Returns the character value for given position
+   * @param position - position of the character in the line
+   * @return the character
+   */
+  char charAt(int position) {
+    return characters[position];
+  }
+
+  /**
+   * Replaces the character value at the given position, the mapping stays the same
+   * @param position - position of the character in the line
+   * @param character - the new character
+   */
+  void setCharacterAt(int position, char character) {
+    invalidate();
+    characters[position] = character;
+  }
+
+  /**
+   * Finds the position of a character in this line
+   * @param character - a character of this line or of one of its snapshots
+   * @return the position, or -1 if the line does not have the character
+   */
+  int indexOf(MappedCharacter character) {
+    int start = 0;
+    for (Segment segment : segments) {
+      int offset = character.getOffset() - segment.offset;
+      if (segment.block == character.getBlock() && offset >= 0 && offset < segment.length) {
+        return start + offset;
+      }
+      start += segment.length;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the number of segments of the mapping table
+   * @return the number of segments
+   */
+  int getSegmentCount() {
+    return segments.length;
   }
 
   @Override
   public String toString() {
-    final StringBuilder builder = new StringBuilder();
-    for (MappedCharacter character : characters) {
-      builder.append(character.getCharacter());
+    if (text == null) {
+      text = new String(characters);
+    }
+    return text;
+  }
+
+  /**
+   * Returns the text of the line if it is computed already
+   * @return the text or null
+   */
+  String getCachedText() {
+    return text;
+  }
+
+  /**
+   * Drops the text of the line after a change of its characters. The characters are shared with the last snapshot,
+   * so its text is dropped too.
+   */
+  void invalidate() {
+    text = null;
+    if (snapshot != null) {
+      snapshot.text = null;
     }
-    return builder.toString();
   }
 
   /**
@@ -84,7 +181,7 @@ public class ExtendedTextLine {
    * @param end - end position
    */
   void delete(int start, int end) {
-    characters.subList(start, Math.min(characters.size(), end + 1)).clear();
+    remove(start, Math.min(characters.length, end + 1));
   }
 
   /**
@@ -92,8 +189,11 @@ public class ExtendedTextLine {
    * @param pos - position to start trimming
    */
   void trim(int pos) {
-    if (pos < characters.size()) {
-      characters.subList(pos, characters.size()).clear();
+    if (pos < characters.length) {
+      remove(pos, characters.length);
+    } else {
+      version++;
+      invalidate();
     }
   }
 
@@ -103,8 +203,19 @@ public class ExtendedTextLine {
    * @param line - Extended Text Line
    */
   void insert(int pos, ExtendedTextLine line) {
-    characters.addAll(pos, line.characters);
-    characters.forEach(c -> c.setParent(this));
+    for (Segment segment : line.segments) {
+      segment.block.setOwner(this);
+    }
+    char[] result = new char[characters.length + line.characters.length];
+    System.arraycopy(characters, 0, result, 0, pos);
+    System.arraycopy(line.characters, 0, result, pos, line.characters.length);
+    System.arraycopy(characters, pos, result, pos + line.characters.length, characters.length - pos);
+
+    SegmentsBuilder builder = new SegmentsBuilder(segments.length + line.segments.length + 1);
+    builder.add(segments, 0, pos);
+    builder.add(line.segments, 0, line.characters.length);
+    builder.add(segments, pos, characters.length);
+    update(result, builder.build());
   }
 
   /**
@@ -114,12 +225,11 @@ public class ExtendedTextLine {
    * @return a new line object
    */
   ExtendedTextLine subline(int start, int end) {
-    List<MappedCharacter> newCharacters = characters.subList(start, end + 1).stream()
-        .map(MappedCharacter::shadowCopy).collect(Collectors.toList());
-
-    ExtendedTextLine result = new ExtendedTextLine();
-    result.characters.addAll(newCharacters);
-    result.characters.forEach(c -> c.setParent(result));
+    checkRange(start, end + 1);
+    SegmentsBuilder builder = new SegmentsBuilder(segments.length);
+    builder.add(segments, start, end + 1);
+    ExtendedTextLine result = new ExtendedTextLine(Arrays.copyOfRange(characters, start, end + 1), builder.build());
+    result.copyBlocks();
     return result;
   }
 
@@ -128,8 +238,7 @@ public class ExtendedTextLine {
    * @param line - line that will be added to the end of this line
    */
   public void append(ExtendedTextLine line) {
-    characters.addAll(line.characters);
-    characters.forEach(c -> c.setParent(this));
+    insert(characters.length, line);
   }
 
   /**
@@ -138,7 +247,7 @@ public class ExtendedTextLine {
    * @param end - end position
    */
   void clear(int start, int end) {
-    characters.subList(start, Math.min(end + 1, characters.size())).forEach(c -> c.setCharacter(' '));
+    fillArea(start, end, ' ');
   }
 
   /**
@@ -155,7 +264,10 @@ public class ExtendedTextLine {
    * @param c - character to fill the area with
    */
   void fillArea(int start, int end, char c) {
-    characters.subList(start, Math.min(end + 1, characters.size())).forEach(l -> l.setCharacter(c));
+    invalidate();
+    int to = Math.min(end + 1, characters.length);
+    checkRange(start, to);
+    Arrays.fill(characters, start, to, c);
   }
 
   /**
@@ -167,13 +279,44 @@ public class ExtendedTextLine {
   }
 
   /**
-   * Creates a shadow copy of the line object
+   * Creates a shadow copy of the line object, it shares the characters and the mapping with this line
    * @return a line object
    */
   ExtendedTextLine shadowCopy() {
-    ExtendedTextLine result = new ExtendedTextLine();
-    result.characters.clear();
-    result.characters.addAll(characters);
+    return new ExtendedTextLine(characters, segments);
+  }
+
+  /**
+   * Returns a shadow copy of the line that is reused until the line has a structural change, so taking a snapshot
+   * of a text only copies the lines that were modified since the previous snapshot
+   * @return a line object that must not be modified
+   */
+  ExtendedTextLine snapshot() {
+    if (snapshot == null || snapshotVersion != version) {
+      snapshot = shadowCopy();
+      snapshot.text = text;
+      snapshotVersion = version;
+    }
+    return snapshot;
+  }
+
+  /**
+   * Checks if the line has no structural changes since the given snapshot was taken
+   * @param line - a line object
+   * @return true if the given line is the current snapshot of this line
+   */
+  boolean hasSnapshot(ExtendedTextLine line) {
+    return snapshot == line && snapshotVersion == version;
+  }
+
+  /**
+   * Creates a deep copy of the line object, the characters and the mapping blocks are copied and the blocks belong
+   * to the new line. The initial location maps are immutable, so they are shared with the copy
+   * @return a line object
+   */
+  ExtendedTextLine deepCopy() {
+    ExtendedTextLine result = new ExtendedTextLine(characters.clone(), segments);
+    result.copyBlocks();
     return result;
   }
 
@@ -182,18 +325,25 @@ public class ExtendedTextLine {
    * @param character - a padding position
    */
   void addPadding(int character) {
-    for (int i = 0; i < character; i++) {
-      characters.add(0, new MappedCharacter(' ', new Position(0, 0), "", this, null, null));
+    if (character <= 0) {
+      version++;
+      invalidate();
+      return;
     }
+    char[] padding = new char[character];
+    Arrays.fill(padding, ' ');
+    insert(0, new ExtendedTextLine(padding, singleSegment(MappingBlock.padding(this), character)));
   }
 
   /**
    * Trim spaces from the beginning of the line
    */
   void trim() {
-    while (characters.size() > 0 && characters.get(0).getCharacter() == ' ') {
-      characters.remove(0);
+    int count = 0;
+    while (count < characters.length && characters[count] == ' ') {
+      count++;
     }
+    remove(0, count);
   }
 
   /**
@@ -202,14 +352,148 @@ public class ExtendedTextLine {
    * @param line - new string
    */
   void replace(int position, String line) {
-    for (char ch : line.toCharArray()) {
-      this.characters.get(position++).setCharacter(ch);
+    invalidate();
+    line.getChars(0, line.length(), characters, position);
+  }
+
+  /**
+   * Update the text and the initial location maps of the line after it is inserted into another text. The blocks
+   * that shared a map before the update share the updated map too.
+   * @param uri - the URI of the text the line is inserted into
+   * @param initialLocation - the initial location of the inserted text
+   * @param updatedMaps - the updated maps by the previous ones
+   */
+  void addInitialLocation(String uri, Location initialLocation,
+                          Map<Map<String, Location>, Map<String, Location>> updatedMaps) {
+    Set<MappingBlock> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Segment segment : segments) {
+      MappingBlock block = segment.block;
+      if (updated.add(block)) {
+        block.setInitialLocationMap(updatedMaps.computeIfAbsent(block.getInitialLocationMap(),
+            m -> block.withInitialLocation(uri, initialLocation)));
+      }
+    }
+  }
+
+  /**
+   * Removes characters from the line
+   * @param start - start position, inclusive
+   * @param end - end position, exclusive
+   */
+  private void remove(int start, int end) {
+    checkRange(start, end);
+    if (start == end) {
+      version++;
+      invalidate();
+      return;
+    }
+    char[] result = new char[characters.length - (end - start)];
+    System.arraycopy(characters, 0, result, 0, start);
+    System.arraycopy(characters, end, result, start, characters.length - end);
+
+    SegmentsBuilder builder = new SegmentsBuilder(segments.length + 1);
+    builder.add(segments, 0, start);
+    builder.add(segments, end, characters.length);
+    update(result, builder.build());
+  }
+
+  private void update(char[] newCharacters, Segment[] newSegments) {
+    version++;
+    invalidate();
+    characters = newCharacters;
+    segments = newSegments;
+  }
+
+  /**
+   * Give the line its own copies of the mapping blocks. The segments that shared a block share its copy.
+   */
+  private void copyBlocks() {
+    Map<MappingBlock, MappingBlock> copies = new IdentityHashMap<>();
+    Segment[] result = new Segment[segments.length];
+    for (int i = 0; i < segments.length; i++) {
+      Segment segment = segments[i];
+      result[i] = new Segment(copies.computeIfAbsent(segment.block, b -> b.copy(this)), segment.offset,
+          segment.length);
     }
+    segments = result;
   }
 
-  private void checkCharacter(Character character) {
-    if (character.equals('\n')) {
+  private void checkRange(int start, int end) {
+    if (start < 0 || end > characters.length) {
+      throw new IndexOutOfBoundsException("Range: " + start + ".." + end + ", Size: " + characters.length);
+    }
+    if (start > end) {
+      throw new IllegalArgumentException("Range: " + start + ".." + end);
+    }
+  }
+
+  private static Segment[] singleSegment(MappingBlock block, int length) {
+    return length == 0 ? new Segment[0] : new Segment[] {new Segment(block, 0, length)};
+  }
+
+  private static void checkLine(String line) {
+    if (line.indexOf('\n') >= 0) {
       throw new RuntimeException("Text line contains a new line characters");
     }
   }
+
+  /**
+   * A range of the line with the characters from offset to offset + length of a block
+   */
+  private static final class Segment {
+    private final MappingBlock block;
+    private final int offset;
+    private final int length;
+
+    private Segment(MappingBlock block, int offset, int length) {
+      this.block = block;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  /**
+   * Collects the segments of the ranges of lines, and joins adjacent segments that continue the same block
+   */
+  private static final class SegmentsBuilder {
+    private final List<Segment> result;
+
+    private SegmentsBuilder(int capacity) {
+      result = new ArrayList<>(capacity);
+    }
+
+    /**
+     * Add the segments that cover the given range of a line, cut to the range
+     * @param source - the segments of the line
+     * @param start - start position, inclusive
+     * @param end - end position, exclusive
+     */
+    private void add(Segment[] source, int start, int end) {
+      int segmentStart = 0;
+      for (Segment segment : source) {
+        int segmentEnd = segmentStart + segment.length;
+        int from = Math.max(start, segmentStart);
+        int to = Math.min(end, segmentEnd);
+        if (from < to) {
+          add(new Segment(segment.block, segment.offset + from - segmentStart, to - from));
+        }
+        segmentStart = segmentEnd;
+      }
+    }
+
+    private void add(Segment segment) {
+      if (!result.isEmpty()) {
+        Segment last = result.get(result.size() - 1);
+        if (last.block == segment.block && last.offset + last.length == segment.offset) {
+          result.set(result.size() - 1, new Segment(last.block, last.offset, last.length + segment.length));
+          return;
+        }
+      }
+      result.add(segment);
+    }
+
+    private Segment[] build() {
+      return result.toArray(new Segment[0]);
+    }
+  }
 }
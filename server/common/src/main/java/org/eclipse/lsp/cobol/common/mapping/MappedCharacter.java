@@ -14,37 +14,96 @@
  */
 package org.eclipse.lsp.cobol.common.mapping;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
 
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.Position;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Mapped character class with original position information
+ * Mapped character class with original position information.
+ * <p>
+ * The extended text keeps its characters in a buffer per line and the mapping in blocks, so a mapped character is
+ * a view of one position of a line, created on demand. It stays valid until the next structural change of the line.
  */
-@Getter
-@Setter
-@AllArgsConstructor
-public class MappedCharacter {
+public final class MappedCharacter {
+  private final ExtendedTextLine line;
+  private final int index;
+  private final MappingBlock block;
+  private final int offset;
+  private final int shift;
+  @Getter
   private char character;
-  private Position originalPosition;
-  private String uri;
-  private ExtendedTextLine parent;
-  private Location instantLocation;
-  private Map<String, Location> initialLocationMap;
 
-  MappedCharacter shadowCopy() {
-    return new MappedCharacter(character, originalPosition, uri, parent, instantLocation, initialLocationMap);
+  MappedCharacter(ExtendedTextLine line, int index, char character, MappingBlock block, int offset) {
+    this(line, index, character, block, offset, 0);
   }
 
-  Map<String, Location> getOrCreateInitialLocationMap() {
-    if (initialLocationMap == null)
-      initialLocationMap = new HashMap<>();
-    return initialLocationMap;
+  private MappedCharacter(ExtendedTextLine line, int index, char character, MappingBlock block, int offset,
+                          int shift) {
+    this.line = line;
+    this.index = index;
+    this.character = character;
+    this.block = block;
+    this.offset = offset;
+    this.shift = shift;
+  }
+
+  /**
+   * Set the character in the line
+   * @param character - the new character
+   */
+  public void setCharacter(char character) {
+    this.character = character;
+    if (line != null) {
+      line.setCharacterAt(index, character);
+    }
+  }
+
+  /**
+   * Get the position of the character in the original text
+   * @return a new position object, or null if the character does not come from the original text
+   */
+  public Position getOriginalPosition() {
+    Position position = block.getOriginalPosition(offset);
+    if (position != null && shift != 0) {
+      position.setCharacter(position.getCharacter() + shift);
+    }
+    return position;
+  }
+
+  public String getUri() {
+    return block.getUri();
+  }
+
+  public ExtendedTextLine getParent() {
+    return block.getOwner();
+  }
+
+  public Location getInstantLocation() {
+    return block.getInstantLocation();
+  }
+
+  public Map<String, Location> getInitialLocationMap() {
+    return block.getInitialLocationMap();
+  }
+
+  MappingBlock getBlock() {
+    return block;
+  }
+
+  int getOffset() {
+    return offset;
+  }
+
+  /**
+   * Create a detached character that maps to the given number of columns after this one in the original text. It
+   * is used to map positions after the end of a line.
+   * @param columns - the number of columns
+   * @return a new character that is not bound to the line
+   */
+  MappedCharacter shifted(int columns) {
+    return new MappedCharacter(null, -1, character, block, offset, shift + columns);
   }
 }
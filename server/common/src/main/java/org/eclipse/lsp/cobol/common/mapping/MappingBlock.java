@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.mapping;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The mapping of characters that were added to the text together: the columns of an original line, the text of a
+ * replacement or a padding. A character is identified by its block and its offset in the block, so the characters
+ * of a block keep their identity when the line is split or moved around.
+ */
+final class MappingBlock {
+  private static final int NO_POSITION = -1;
+
+  @Getter
+  private final String uri;
+  private final int originalLine;
+  private final int originalCharacter;
+  private final boolean advancing;
+  @Getter
+  private final Location instantLocation;
+  @Getter
+  @Setter
+  private Map<String, Location> initialLocationMap;
+  @Getter
+  @Setter
+  private ExtendedTextLine owner;
+
+  private MappingBlock(String uri, int originalLine, int originalCharacter, boolean advancing,
+                       Location instantLocation, Map<String, Location> initialLocationMap, ExtendedTextLine owner) {
+    this.uri = uri;
+    this.originalLine = originalLine;
+    this.originalCharacter = originalCharacter;
+    this.advancing = advancing;
+    this.instantLocation = instantLocation;
+    this.initialLocationMap = initialLocationMap;
+    this.owner = owner;
+  }
+
+  /**
+   * Create a block of characters that come from consecutive columns of the original text
+   * @param uri - the URI of the original text
+   * @param start - the position of the first character
+   * @param owner - the line that holds the characters
+   * @return a new block
+   */
+  static MappingBlock original(String uri, Position start, ExtendedTextLine owner) {
+    return new MappingBlock(uri, start.getLine(), start.getCharacter(), true, null, null, owner);
+  }
+
+  /**
+   * Create a block of characters that are not in the original text
+   * @param uri - the URI of the text
+   * @param instantLocation - the location of the replaced block, can be null
+   * @param owner - the line that holds the characters
+   * @return a new block
+   */
+  static MappingBlock inserted(String uri, Location instantLocation, ExtendedTextLine owner) {
+    return new MappingBlock(uri, NO_POSITION, NO_POSITION, false, instantLocation, null, owner);
+  }
+
+  /**
+   * Create a block of spaces that all map to the start of the original text
+   * @param owner - the line that holds the characters
+   * @return a new block
+   */
+  static MappingBlock padding(ExtendedTextLine owner) {
+    return new MappingBlock("", 0, 0, false, null, null, owner);
+  }
+
+  /**
+   * Create a block with the same mapping and a new identity
+   * @param newOwner - the line that holds the characters of the copy
+   * @return a new block
+   */
+  MappingBlock copy(ExtendedTextLine newOwner) {
+    return new MappingBlock(uri, originalLine, originalCharacter, advancing, instantLocation, initialLocationMap,
+        newOwner);
+  }
+
+  /**
+   * Get the position of a character of the block in the original text
+   * @param offset - the offset of the character in the block
+   * @return a new position object, or null if the characters do not come from the original text
+   */
+  Position getOriginalPosition(int offset) {
+    if (originalLine == NO_POSITION) {
+      return null;
+    }
+    return new Position(originalLine, advancing ? originalCharacter + offset : originalCharacter);
+  }
+
+  /**
+   * Create the initial location map of this block with the given location added. The result is immutable, so
+   * it is safe to share it with other blocks that had the same map before.
+   * @param mapUri - the URI of the text the block is inserted to
+   * @param location - the initial location of the inserted text
+   * @return a new immutable map
+   */
+  Map<String, Location> withInitialLocation(String mapUri, Location location) {
+    Map<String, Location> result = initialLocationMap == null ? new HashMap<>(2) : new HashMap<>(initialLocationMap);
+    result.put(mapUri, location);
+    return Collections.unmodifiableMap(result);
+  }
+}
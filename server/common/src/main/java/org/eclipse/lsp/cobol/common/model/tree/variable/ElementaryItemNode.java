@@ -91,6 +91,16 @@ public class ElementaryItemNode extends ElementaryNode {
     this.value = value;
   }
 
+  /**
+   * Create a copy of the node without its parent, children and usages
+   *
+   * @param prototype the node to copy
+   */
+  public ElementaryItemNode(ElementaryItemNode prototype) {
+    super(prototype);
+    this.value = prototype.value;
+  }
+
   @Override
   protected String getVariableDisplayString() {
     StringBuilder stringBuilder = new StringBuilder(getFormattedSuffix());
@@ -98,4 +98,27 @@ public abstract class ElementaryNode extends VariableWithLevelNode
             .findFirst()
             .orElse(UNDETERMINED);
   }
+
+  /**
+   * Create a copy of the node without its parent, children and usages
+   *
+   * @param prototype the node to copy
+   */
+  protected ElementaryNode(ElementaryNode prototype) {
+    super(
+        prototype.getLocality(),
+        prototype.getLevel(),
+        prototype.getName(),
+        prototype.isRedefines(),
+        prototype.getVariableType(),
+        prototype.isGlobal());
+    this.isBlankWhenZeroPresent = prototype.isBlankWhenZeroPresent;
+    this.isSignClausePresent = prototype.isSignClausePresent;
+    this.isDynamicLength = prototype.isDynamicLength;
+    this.isJustified = prototype.isJustified;
+    this.isUnBounded = prototype.isUnBounded;
+    this.picClause = prototype.picClause;
+    this.usageFormat = prototype.usageFormat;
+    this.effectiveDataType = prototype.effectiveDataType;
+  }
 }
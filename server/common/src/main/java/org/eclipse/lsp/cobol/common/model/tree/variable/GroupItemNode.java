@@ -60,6 +60,21 @@ public class GroupItemNode extends VariableWithLevelNode implements UsageClause
     this.usageFormat = usageFormat;
   }
 
+  /**
+   * Create a copy of the node without its parent, children and usages
+   *
+   * @param prototype the node to copy
+   */
+  public GroupItemNode(GroupItemNode prototype) {
+    this(
+        prototype.getLocality(),
+        prototype.getLevel(),
+        prototype.getName(),
+        prototype.isGlobal(),
+        prototype.isRedefines(),
+        prototype.usageFormat);
+  }
+
   @Override
   protected String getVariableDisplayString() {
     return getFormattedSuffix() + ".";
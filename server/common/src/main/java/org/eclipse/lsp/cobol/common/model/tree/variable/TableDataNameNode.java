@@ -91,6 +91,17 @@ public class TableDataNameNode extends ElementaryNode {
     this.occursTimes = occursTimes;
   }
 
+  /**
+   * Create a copy of the node without its parent, children and usages
+   *
+   * @param prototype the node to copy
+   */
+  public TableDataNameNode(TableDataNameNode prototype) {
+    super(prototype);
+    this.value = prototype.value;
+    this.occursTimes = prototype.occursTimes;
+  }
+
   @Override
   protected String getVariableDisplayString() {
     StringBuilder stringBuilder = new StringBuilder(getFormattedSuffix());
@@ -16,6 +16,7 @@ package org.eclipse.lsp.cobol.common.pipeline;
 
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.benchmark.BenchmarkSessionProvider;
+import org.eclipse.lsp.cobol.common.utils.ThreadInterruptionUtil;
 
 import java.util.*;
 
@@ -35,7 +36,8 @@ public class Pipeline<C extends BenchmarkSessionProvider> {
   }
 
   /**
-   * Runs the pipeline
+   * Runs the pipeline. The thread interruption is checked before every stage, so a cancelled
+   * analysis stops at the next stage boundary even if the stages do not check it themselves.
    *
    * @param context - pipeline context
    * @return - a final result of the pipeline processing
@@ -44,6 +46,7 @@ public class Pipeline<C extends BenchmarkSessionProvider> {
     StageResult<?> result = StageResult.empty();
 
     for (Stage stage : stages) {
+      ThreadInterruptionUtil.checkThreadInterrupted();
       StageResult<?> prevResult = result;
       result = context.getBenchmarkSession().measure(stage.getName(), () -> stage.run(context, prevResult));
       if (result.stopProcessing()) {
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.utils;
+
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+import java.util.*;
+
+/**
+ * Immutable index of the node locations of a syntax tree. The nodes of every document are kept in a
+ * static interval tree, so the nodes at a position or in a range are found in logarithmic time
+ * instead of walking the whole tree.
+ *
+ * <p>{@link #findNodeByPosition(String, Position)} returns the same node as {@link
+ * RangeUtils#findNodeByPosition(Node, String, Position)} for the tree the index was built for. The
+ * index is a snapshot, so it does not reflect the changes of the tree made after it was built.
+ */
+public final class NodePositionIndex {
+  private final Node[] nodes;
+  private final int[] subtreeEnd;
+  private final Map<String, Intervals> intervals;
+  private final Map<String, int[]> copyNodes;
+
+  private NodePositionIndex(Node[] nodes, int[] subtreeEnd, Map<String, Intervals> intervals,
+                            Map<String, int[]> copyNodes) {
+    this.nodes = nodes;
+    this.subtreeEnd = subtreeEnd;
+    this.intervals = intervals;
+    this.copyNodes = copyNodes;
+  }
+
+  /**
+   * Build the index for the tree
+   *
+   * @param root the root node of the tree
+   * @return the index of the node locations
+   */
+  public static NodePositionIndex build(Node root) {
+    Builder builder = new Builder();
+    builder.visit(root);
+    Node[] nodes = builder.preOrder.toArray(new Node[0]);
+    Map<String, Intervals> intervals = new HashMap<>();
+    builder.nodesByUri.forEach((uri, ids) -> intervals.put(uri, new Intervals(nodes, ids)));
+    Map<String, int[]> copyNodes = new HashMap<>();
+    builder.copyNodesByUri.forEach((uri, ids) -> copyNodes.put(uri, toArray(ids)));
+    return new NodePositionIndex(nodes, toArray(builder.subtreeEnds), intervals, copyNodes);
+  }
+
+  /**
+   * Find the innermost syntax tree node that contains the position.
+   *
+   * @param uri the uri of the node locality
+   * @param position a cursor position
+   * @return the found node
+   */
+  public Optional<Node> findNodeByPosition(String uri, Position position) {
+    long key = key(position);
+    List<Integer> candidates = new ArrayList<>();
+    Optional.ofNullable(intervals.get(uri)).ifPresent(i -> i.find(key, key, candidates));
+    Optional.ofNullable(copyNodes.get(uri)).ifPresent(ids -> Arrays.stream(ids).forEach(candidates::add));
+    if (candidates.isEmpty()) {
+      return Optional.empty();
+    }
+    int[] sorted = toArray(candidates);
+    Arrays.sort(sorted);
+    for (int i = 0; i < sorted.length - 1; i++) {
+      if (sorted[i + 1] != sorted[i] && sorted[i + 1] > subtreeEnd[sorted[i]]) {
+        return Optional.of(nodes[sorted[i]]);
+      }
+    }
+    return Optional.of(nodes[sorted[sorted.length - 1]]);
+  }
+
+  /**
+   * Find the nodes located in the document that overlap the range
+   *
+   * @param uri the uri of the node locality
+   * @param range the range to check
+   * @return the overlapping nodes in the depth-first order
+   */
+  public List<Node> findNodesInRange(String uri, Range range) {
+    Intervals documentIntervals = intervals.get(uri);
+    if (documentIntervals == null) {
+      return Collections.emptyList();
+    }
+    List<Integer> ids = new ArrayList<>();
+    documentIntervals.find(key(range.getStart()), key(range.getEnd()), ids);
+    Collections.sort(ids);
+    List<Node> result = new ArrayList<>(ids.size());
+    ids.forEach(id -> result.add(nodes[id]));
+    return result;
+  }
+
+  private static int[] toArray(List<Integer> values) {
+    return values.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static long key(Position position) {
+    return ((long) position.getLine() << 32) | (position.getCharacter() & 0xFFFFFFFFL);
+  }
+
+  /** Collects the nodes in the depth-first order */
+  private static final class Builder {
+    private final List<Node> preOrder = new ArrayList<>();
+    private final List<Integer> subtreeEnds = new ArrayList<>();
+    private final Map<String, List<Integer>> nodesByUri = new HashMap<>();
+    private final Map<String, List<Integer>> copyNodesByUri = new HashMap<>();
+
+    void visit(Node node) {
+      int id = preOrder.size();
+      preOrder.add(node);
+      subtreeEnds.add(id);
+      Locality locality = node.getLocality();
+      if (locality != null && locality.getUri() != null && locality.getRange() != null) {
+        nodesByUri.computeIfAbsent(locality.getUri(), u -> new ArrayList<>()).add(id);
+      }
+      if (node instanceof CopyNode && ((CopyNode) node).getUri() != null) {
+        copyNodesByUri.computeIfAbsent(((CopyNode) node).getUri(), u -> new ArrayList<>()).add(id);
+      }
+      node.getChildren().forEach(this::visit);
+      subtreeEnds.set(id, preOrder.size() - 1);
+    }
+  }
+
+  /**
+   * Node ranges of a document sorted by the start position. The array is an implicit balanced search
+   * tree, where every middle element keeps the maximal end of its subtree.
+   */
+  private static final class Intervals {
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final int[] ids;
+
+    Intervals(Node[] nodes, List<Integer> nodeIds) {
+      Integer[] order = nodeIds.toArray(new Integer[0]);
+      Arrays.sort(order, Comparator.comparingLong(id -> key(nodes[id].getLocality().getRange().getStart())));
+      int size = order.length;
+      starts = new long[size];
+      ends = new long[size];
+      maxEnds = new long[size];
+      ids = new int[size];
+      for (int i = 0; i < size; i++) {
+        Range range = nodes[order[i]].getLocality().getRange();
+        starts[i] = key(range.getStart());
+        ends[i] = key(range.getEnd());
+        ids[i] = order[i];
+      }
+      computeMaxEnds(0, size);
+    }
+
+    private long computeMaxEnds(int from, int to) {
+      if (from >= to) {
+        return Long.MIN_VALUE;
+      }
+      int middle = (from + to) >>> 1;
+      maxEnds[middle] = Math.max(ends[middle], Math.max(computeMaxEnds(from, middle), computeMaxEnds(middle + 1, to)));
+      return maxEnds[middle];
+    }
+
+    void find(long from, long to, List<Integer> result) {
+      find(0, starts.length, from, to, result);
+    }
+
+    private void find(int low, int high, long from, long to, List<Integer> result) {
+      if (low >= high) {
+        return;
+      }
+      int middle = (low + high) >>> 1;
+      if (maxEnds[middle] < from) {
+        return;
+      }
+      find(low, middle, from, to, result);
+      if (starts[middle] > to) {
+        return;
+      }
+      if (ends[middle] >= from) {
+        result.add(ids[middle]);
+      }
+      find(middle + 1, high, from, to, result);
+    }
+  }
+}
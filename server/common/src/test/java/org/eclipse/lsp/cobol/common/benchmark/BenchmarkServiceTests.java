@@ -30,4 +30,13 @@ class BenchmarkServiceTests {
     assertEquals("100500", benchmarkSession.attr("size"));
     assertEquals("http://hello.com", benchmarkSession.attr("uri"));
   }
+
+  @Test
+  void onlyRecentSessionsAreKept() {
+    BenchmarkService benchmarkService = new BenchmarkServiceImpl();
+    for (int i = 0; i < 150; i++) {
+      benchmarkService.startSession().measure(ID, () -> null);
+    }
+    assertEquals(100, benchmarkService.getMeasurements().size());
+  }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.dialects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** This test checks {@link EmbeddedCodeScanner} */
+class EmbeddedCodeScannerTest {
+
+  @Test
+  void findExecBlocks() {
+    String text = "       PROCEDURE DIVISION.\n"
+        + "           EXEC SQL SELECT A INTO :B FROM T END-EXEC.\n"
+        + "           MOVE WS-EXEC-FLAG TO X.\n"
+        + "           exec\n"
+        + "             cics RETURN\n"
+        + "           end-exec.\n";
+    List<EmbeddedCodeRegion> regions = EmbeddedCodeScanner.scan(text);
+
+    assertEquals(2, regions.size());
+    assertRegion(text, regions.get(0), "SQL", 1, 11, "EXEC SQL SELECT A INTO :B FROM T END-EXEC.");
+    assertRegion(text, regions.get(1), "CICS", 3, 11, "exec\n             cics RETURN\n           end-exec.");
+  }
+
+  @Test
+  void findUnterminatedBlock() {
+    String text = " EXEC SQL SELECT 1\n MOVE A TO B.";
+    List<EmbeddedCodeRegion> regions = EmbeddedCodeScanner.scan(text);
+
+    assertEquals(1, regions.size());
+    assertRegion(text, regions.get(0), "SQL", 0, 1, text.substring(1));
+  }
+
+  @Test
+  void ignoreWordsInLiterals() {
+    String text = " DISPLAY 'EXEC SQL' \"DFHRESP(X)\".\n EXEC CICS SEND TEXT FROM('END-EXEC') END-EXEC";
+    List<EmbeddedCodeRegion> regions = EmbeddedCodeScanner.scan(text);
+
+    assertEquals(1, regions.size());
+    assertRegion(text, regions.get(0), "CICS", 1, 1, "EXEC CICS SEND TEXT FROM('END-EXEC') END-EXEC");
+  }
+
+  @Test
+  void findDfhLiteralsOutsideBlocks() {
+    String text = " EXEC CICS READ RESP(DFHRESP(NORMAL)) END-EXEC\n IF R = DFHRESP(NOTFND) OR DFHVALUE ( BUSY )";
+    List<EmbeddedCodeRegion> regions = EmbeddedCodeScanner.scan(text);
+
+    assertEquals(3, regions.size());
+    assertRegion(text, regions.get(0), "CICS", 0, 1, "EXEC CICS READ RESP(DFHRESP(NORMAL)) END-EXEC");
+    assertRegion(text, regions.get(1), EmbeddedCodeScanner.DFHRESP, 1, 8, "DFHRESP(NOTFND)");
+    assertRegion(text, regions.get(2), EmbeddedCodeScanner.DFHVALUE, 1, 27, "DFHVALUE ( BUSY )");
+  }
+
+  @Test
+  void findSqlHostVariableSentences() {
+    String text = " WORKING-STORAGE SECTION.\n 01 WS-NUM PIC 9(3)V9 VALUE 1.5.\n 01 MY-CLOB\n    USAGE IS SQL TYPE IS CLOB(1M).\n 01 X PIC X.";
+    List<EmbeddedCodeRegion> regions = EmbeddedCodeScanner.scan(text);
+
+    assertEquals(1, regions.size());
+    assertRegion(text, regions.get(0), EmbeddedCodeScanner.SQL_TYPE, 1, 32, "\n 01 MY-CLOB\n    USAGE IS SQL TYPE IS CLOB(1M).");
+  }
+
+  @Test
+  void keepRestOfLineUntilNextRegion() {
+    String text = " EXEC CICS ABEND ABCODE END-EXEC(100) END-EXEC. EXEC SQL COMMIT END-EXEC\n MOVE A TO B.";
+    List<EmbeddedCodeRegion> regions = EmbeddedCodeScanner.scan(text);
+
+    assertEquals(2, regions.size());
+    assertRegion(text, regions.get(0), "CICS", 0, 1, "EXEC CICS ABEND ABCODE END-EXEC(100) END-EXEC. ");
+    assertRegion(text, regions.get(1), "SQL", 0, 48, "EXEC SQL COMMIT END-EXEC");
+  }
+
+  @Test
+  void strayEndExecBelongsToPreviousBlock() {
+    String text = " EXEC CICS ABEND ABCODE\n END-EXEC(100)\n END-EXEC.\n MOVE A TO B.\n END-EXEC.";
+    List<EmbeddedCodeRegion> regions = EmbeddedCodeScanner.scan(text);
+
+    assertEquals(1, regions.size());
+    assertRegion(text, regions.get(0), "CICS", 0, 1, text.substring(1));
+  }
+
+  @Test
+  void noEmbeddedCode() {
+    assertTrue(EmbeddedCodeScanner.scan(" MOVE EXECUTE TO SQL-TYPE.").isEmpty());
+    assertTrue(EmbeddedCodeScanner.scan("").isEmpty());
+  }
+
+  private static void assertRegion(String text, EmbeddedCodeRegion region, String keyword, int line, int column, String content) {
+    assertEquals(keyword, region.getKeyword());
+    assertEquals(line, region.getLine());
+    assertEquals(column, region.getColumn());
+    assertEquals(content, text.substring(region.getStart(), region.getEnd()));
+  }
+}
@@ -117,6 +117,21 @@ class ExtendedDocumentTest {
     assertEquals(documentUri, location.getUri());
   }
 
+  @Test
+  void testCountUnchangedTailLines() {
+    String committedText = document.toString();
+    document.insertCopybook(new Range(new Position(4, 8), new Position(4, 16)), copybook);
+    assertEquals(1, document.countUnchangedTailLines(committedText));
+
+    document.commitTransformations();
+    String expandedText = document.toString();
+    int lines = expandedText.split("\n", -1).length;
+    assertEquals(lines, document.countUnchangedTailLines(expandedText));
+
+    document.fillArea(new Range(new Position(lines - 2, 0), new Position(lines - 2, 0)), '*');
+    assertEquals(1, document.countUnchangedTailLines(expandedText));
+  }
+
   @Test
   void testIsLineEmptyBetweenColumns() {
     assertTrue(document.isLineEmptyBetweenColumns(0, 0, 8));
@@ -163,4 +178,38 @@ class ExtendedDocumentTest {
     assertEquals("", text);
   }
 
+
+  @Test
+  void testCommitAfterInPlaceChanges() {
+    document.fillArea(new Range(new Position(4, 8), new Position(4, 16)), '*');
+    document.clear(new Range(new Position(1, 8), new Position(1, 25)));
+    document.commitTransformations();
+
+    assertEquals("        IDENTIFICATION DIVISION.\n"
+        + "                          \n"
+        + "        DATA DIVISION.\n"
+        + "        WORKING-STORAGE SECTION.\n"
+        + "        *********\n"
+        + "        PROCEDURE DIVISION.", document.toString());
+    Location location = document.mapLocation(new Range(new Position(5, 8), new Position(5, 16)));
+    assertEquals(new Range(new Position(5, 8), new Position(5, 16)).toString(), location.getRange().toString());
+  }
+
+  @Test
+  void testSubsequentCommits() {
+    document.replace(new Range(new Position(1, 20), new Position(1, 24)), "program");
+    document.commitTransformations();
+    document.insertCopybook(new Range(new Position(4, 8), new Position(4, 15)), copybook);
+    document.commitTransformations();
+
+    assertEquals(document.getCurrentText().toString(), document.toString());
+    assertTrue(document.toString().contains("PROGRAM-ID. program."));
+    Location location = document.mapLocation(new Range(new Position(6, 8), new Position(6, 16)));
+    assertEquals(new Range(new Position(1, 8), new Position(1, 16)).toString(), location.getRange().toString());
+    assertEquals(copybookUri, location.getUri());
+
+    location = document.mapLocation(new Range(new Position(10, 8), new Position(10, 16)));
+    assertEquals(new Range(new Position(5, 8), new Position(5, 16)).toString(), location.getRange().toString());
+    assertEquals(documentUri, location.getUri());
+  }
 }
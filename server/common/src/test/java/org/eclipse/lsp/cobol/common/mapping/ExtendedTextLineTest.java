@@ -19,6 +19,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Test for ExtendedTextLine
@@ -100,4 +102,58 @@ class ExtendedTextLineTest {
     ExtendedTextLine subline = line.subline(2, 5);
     assertEquals("xt e", subline.toString());
   }
+
+  @Test
+  void testSnapshotIsReusedUntilStructuralChange() {
+    ExtendedTextLine line = new ExtendedTextLine("text end", 7, "uri");
+    ExtendedTextLine snapshot = line.snapshot();
+    line.clear(0, 3);
+    assertSame(snapshot, line.snapshot());
+    assertEquals("     end", snapshot.toString());
+
+    line.trim(4);
+    ExtendedTextLine updated = line.snapshot();
+    assertNotSame(snapshot, updated);
+    assertEquals("     end", snapshot.toString());
+    assertEquals("    ", updated.toString());
+  }
+
+  @Test
+  void testSnapshotTextAfterCharactersAreMoved() {
+    ExtendedTextLine line = new ExtendedTextLine("abc", 0, "uri");
+    ExtendedTextLine snapshot = line.snapshot();
+    assertEquals("abc", snapshot.toString());
+
+    ExtendedTextLine target = new ExtendedTextLine("xy", 1, "uri");
+    target.append(line);
+    target.getCharacterAt(2).setCharacter('Z');
+    assertEquals("abc", snapshot.toString());
+    assertEquals("xyZbc", target.toString());
+    assertSame(target, line.getCharacterAt(0).getParent());
+  }
+
+  @Test
+  void testMappingIsRunLength() {
+    ExtendedTextLine line = new ExtendedTextLine("text <-i", 5, "uri");
+    assertEquals(1, line.getSegmentCount());
+
+    line.insert(5, new ExtendedTextLine("INSERT", new Position(11, 0), "copybook"));
+    assertEquals(3, line.getSegmentCount());
+    assertEquals(new Position(5, 5).toString(), line.getCharacterAt(11).getOriginalPosition().toString());
+
+    line.delete(5, 10);
+    assertEquals("text <-i", line.toString());
+    assertEquals(1, line.getSegmentCount());
+    assertEquals(new Position(5, 7).toString(), line.getCharacterAt(7).getOriginalPosition().toString());
+  }
+
+  @Test
+  void testCharacterIdentitySurvivesStructuralChanges() {
+    ExtendedTextLine line = new ExtendedTextLine("text end", 7, "uri");
+    MappedCharacter character = line.snapshot().getCharacterAt(5);
+
+    line.insert(0, new ExtendedTextLine("new ", new Position(1, 0), "copybook"));
+    assertEquals(9, line.indexOf(character));
+    assertEquals(-1, line.subline(0, line.size() - 1).indexOf(character));
+  }
 }
@@ -20,6 +20,8 @@ import org.eclipse.lsp4j.Range;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test for ExtendedText class
@@ -40,6 +42,49 @@ class ExtendedTextTest {
     assertEquals("TEXT\nTEXT", extendedText.toString());
   }
 
+  @Test
+  void testToStringIsKeptUntilChange() {
+    ExtendedText extendedText = new ExtendedText(TEXT, "uri");
+    String text = extendedText.toString();
+    assertSame(text, extendedText.toString());
+
+    extendedText.fillArea(new Range(new Position(1, 7), new Position(1, 10)), '*');
+    assertEquals("     0 LINE\n     1 ****\n     2 LINE\n     3 LINE", extendedText.toString());
+
+    extendedText.getLines().get(2).getCharacterAt(5).setCharacter('X');
+    assertEquals("     0 LINE\n     1 ****\n     X LINE\n     3 LINE", extendedText.toString());
+
+    extendedText.delete(3);
+    assertEquals("     0 LINE\n     1 ****\n     X LINE", extendedText.toString());
+  }
+
+  @Test
+  void testCopyWithTail() {
+    ExtendedText extendedText = new ExtendedText(TEXT, "uri");
+    ExtendedText tail = new ExtendedText("     4 LINE\n     5 LINE\n     6 LINE", "tail");
+    ExtendedText copy = extendedText.copyWithTail(2, tail, 1);
+    assertEquals("     0 LINE\n     1 LINE\n     5 LINE\n     6 LINE", copy.toString());
+    assertEquals(new Location("tail", new Range(new Position(2, 5), new Position(2, 10))),
+        copy.mapLocation(new Range(new Position(3, 5), new Position(3, 10))));
+
+    tail.fillArea(new Range(new Position(2, 0), new Position(2, 10)), '*');
+    extendedText.delete(0);
+    assertEquals("     0 LINE\n     1 LINE\n     5 LINE\n     6 LINE", copy.toString());
+  }
+
+  @Test
+  void testGetPosition() {
+    ExtendedText extendedText = new ExtendedText("A\n\nBCD\nE", "uri");
+    assertEquals(new Position(0, 0), extendedText.getPosition(0));
+    assertEquals(new Position(0, 1), extendedText.getPosition(1));
+    assertEquals(new Position(1, 0), extendedText.getPosition(2));
+    assertEquals(new Position(2, 2), extendedText.getPosition(5));
+    assertEquals(new Position(3, 1), extendedText.getPosition(8));
+
+    extendedText.delete(new Range(new Position(2, 0), new Position(2, 1)));
+    assertEquals(new Position(3, 0), extendedText.getPosition(5));
+  }
+
   @Test
   void testInsertToMiddle() {
     ExtendedText extendedText = new ExtendedText(TEXT, "uri");
@@ -371,4 +416,30 @@ class ExtendedTextTest {
     assertEquals(expectedCopybook.getLines().get(2).toString(), copybook1.getLines().get(2).toString());
   }
 
+  @Test
+  void testCopyIsIndependent() {
+    ExtendedText extendedText = new ExtendedText(TEXT, "uri");
+    extendedText.insert(2, new ExtendedText("NEW LINE", "copybook"), new Location());
+    ExtendedText copy = extendedText.copy();
+
+    copy.replace(new Range(new Position(0, 0), new Position(0, 4)), "COPY", new Location());
+
+    assertEquals("     0 LINE", extendedText.getLines().get(0).toString());
+    assertTrue(copy.getLines().get(0).toString().startsWith("COPY"));
+    Location location = copy.mapLocation(new Range(new Position(2, 0), new Position(2, 5)));
+    assertEquals("copybook", location.getUri());
+    assertEquals(new Range(new Position(0, 0), new Position(0, 5)).toString(), location.getRange().toString());
+  }
+
+  @Test
+  void testInsertedTextSharesLocationMap() {
+    ExtendedText extendedText = new ExtendedText(TEXT, "uri");
+    extendedText.insert(2, new ExtendedText("LINE 1\nLINE 2", "copybook"), new Location());
+
+    MappedCharacter first = extendedText.getLines().get(2).getCharacterAt(0);
+    MappedCharacter last = extendedText.getLines().get(3).getCharacterAt(5);
+    assertSame(first.getInitialLocationMap(), last.getInitialLocationMap());
+    assertEquals(new Position(1, 5).toString(), last.getOriginalPosition().toString());
+  }
+
 }
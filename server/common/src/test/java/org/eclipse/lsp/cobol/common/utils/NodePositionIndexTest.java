@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.common.utils;
+
+import com.google.common.collect.ImmutableList;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.NodeType;
+import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.model.tree.RootNode;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/** Test {@link NodePositionIndex} */
+class NodePositionIndexTest {
+  private static final String PROGRAM = "file:///c:/workspace/PROG.cbl";
+  private static final String COPYBOOK = "file:///c:/workspace/CPY.cpy";
+
+  @Test
+  void testInnermostNode() {
+    RootNode root = new RootNode(locality(PROGRAM, 0, 0, 100, 0));
+    Node section = node(PROGRAM, 10, 0, 50, 0);
+    Node statement = node(PROGRAM, 20, 11, 20, 40);
+    Node copy = new CopyNode(locality(PROGRAM, 30, 11, 30, 20), null, "CPY", COPYBOOK);
+    root.addChild(section);
+    section.addChild(statement);
+    section.addChild(copy);
+
+    NodePositionIndex index = NodePositionIndex.build(root);
+
+    assertSame(statement, index.findNodeByPosition(PROGRAM, new Position(20, 15)).orElse(null));
+    assertSame(section, index.findNodeByPosition(PROGRAM, new Position(25, 0)).orElse(null));
+    assertSame(root, index.findNodeByPosition(PROGRAM, new Position(70, 0)).orElse(null));
+    assertSame(copy, index.findNodeByPosition(COPYBOOK, new Position(1, 0)).orElse(null));
+    assertEquals(Optional.empty(), index.findNodeByPosition("file:///other.cbl", new Position(1, 0)));
+  }
+
+  @Test
+  void testNodesInRange() {
+    RootNode root = new RootNode(locality(PROGRAM, 0, 0, 100, 0));
+    Node first = node(PROGRAM, 10, 0, 20, 0);
+    Node second = node(PROGRAM, 30, 0, 40, 0);
+    root.addChild(first);
+    root.addChild(second);
+
+    NodePositionIndex index = NodePositionIndex.build(root);
+
+    assertEquals(ImmutableList.of(root, first), index.findNodesInRange(PROGRAM, new Range(new Position(15, 0), new Position(25, 0))));
+    assertEquals(ImmutableList.of(root, first, second),
+        index.findNodesInRange(PROGRAM, new Range(new Position(20, 0), new Position(30, 0))));
+  }
+
+  @Test
+  void testSameResultAsTreeSearch() {
+    Random random = new Random(42);
+    RootNode root = new RootNode(locality(PROGRAM, 0, 0, 200, 0));
+    addChildren(random, root, 0, 200, 0);
+    NodePositionIndex index = NodePositionIndex.build(root);
+
+    for (int i = 0; i < 2000; i++) {
+      String uri = random.nextInt(4) == 0 ? COPYBOOK : PROGRAM;
+      Position position = new Position(random.nextInt(210), random.nextInt(80));
+      assertEquals(RangeUtils.findNodeByPosition(root, uri, position), index.findNodeByPosition(uri, position),
+          uri + " " + position);
+    }
+    Range range = new Range(new Position(50, 0), new Position(60, 0));
+    assertEquals(root.getDepthFirstStream()
+            .filter(n -> PROGRAM.equals(n.getLocality().getUri()))
+            .filter(n -> !RangeUtils.isBefore(n.getLocality().getRange().getEnd(), range.getStart())
+                && !RangeUtils.isAfter(n.getLocality().getRange().getStart(), range.getEnd()))
+            .collect(Collectors.toList()),
+        index.findNodesInRange(PROGRAM, range));
+  }
+
+  private static void addChildren(Random random, Node parent, int fromLine, int toLine, int depth) {
+    int line = fromLine;
+    while (depth < 5 && line < toLine) {
+      int end = Math.min(toLine, line + random.nextInt(Math.max(1, (toLine - fromLine) / 2)) + 1);
+      Node child;
+      switch (random.nextInt(6)) {
+        case 0:
+          child = new CopyNode(locality(PROGRAM, line, 7, line, 30), null, "CPY", COPYBOOK);
+          break;
+        case 1:
+          child = node(COPYBOOK, random.nextInt(20), 7, random.nextInt(20) + 20, 0);
+          break;
+        default:
+          child = node(PROGRAM, line, random.nextInt(10), end, random.nextInt(70));
+      }
+      parent.addChild(child);
+      if (random.nextBoolean()) {
+        addChildren(random, child, line, end, depth + 1);
+      }
+      line = end + random.nextInt(2);
+    }
+  }
+
+  private static Node node(String uri, int startLine, int startChar, int endLine, int endChar) {
+    return new Node(locality(uri, startLine, startChar, endLine, endChar), NodeType.STATEMENT) { };
+  }
+
+  private static Locality locality(String uri, int startLine, int startChar, int endLine, int endChar) {
+    return Locality.builder()
+        .uri(uri)
+        .range(new Range(new Position(startLine, startChar), new Position(endLine, endChar)))
+        .build();
+  }
+}
@@ -28,6 +28,7 @@ import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.eclipse.lsp.cobol.common.ResultWithErrors;
 import org.eclipse.lsp.cobol.common.VariableConstants;
+import org.eclipse.lsp.cobol.common.copybook.CopybookId;
 import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
 import org.eclipse.lsp.cobol.common.copybook.CopybookName;
 import org.eclipse.lsp.cobol.common.copybook.CopybookService;
@@ -206,12 +207,11 @@ public class DaCoMaidProcessor {
     CopybookName copybookName =
         new CopybookName(
             makeCopybookFileName(startingLevel, layoutId, layoutUsage), DaCoDialect.NAME);
-    ResultWithErrors<CopybookModel> resolvedCopybook = copybookService.resolve(
-            copybookName.toCopybookId(context.getExtendedDocument().getUri()),
-            copybookName,
-            context.getExtendedDocument().getUri(),
-            context.getExtendedDocument().getUri(),
-            context.getPreprocessor());
+    String documentUri = context.getExtendedDocument().getUri();
+    CopybookId copybookId = copybookName.toCopybookId(documentUri);
+    ResultWithErrors<CopybookModel> resolvedCopybook = context.isDetached()
+        ? copybookService.resolveDetached(copybookId, copybookName, documentUri, documentUri, context.getPreprocessor())
+        : copybookService.resolve(copybookId, copybookName, documentUri, documentUri, context.getPreprocessor());
     CopybookModel copybookModel = resolvedCopybook.getResult();
 
     DaCoCopyNode cbNode =
@@ -20,6 +20,7 @@ import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.copybook.CopybookId;
 import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
 import org.eclipse.lsp.cobol.common.copybook.CopybookName;
 import org.eclipse.lsp.cobol.common.copybook.CopybookService;
@@ -78,12 +79,10 @@ public final class IdmsDialect implements CobolDialect {
                                   IdmsCopybookDescriptor cb, String programDocumentUri, String currentUri,
                                   Deque<String> copybookStack) {
     CopybookName copybookName = new CopybookName(cb.getName(), IdmsDialect.NAME);
-    ResultWithErrors<CopybookModel> resolvedCopybook = copybookService.resolve(
-        copybookName.toCopybookId(programDocumentUri),
-        copybookName,
-        programDocumentUri,
-        currentUri,
-        ctx.getPreprocessor());
+    CopybookId copybookId = copybookName.toCopybookId(programDocumentUri);
+    ResultWithErrors<CopybookModel> resolvedCopybook = ctx.isDetached()
+        ? copybookService.resolveDetached(copybookId, copybookName, programDocumentUri, currentUri, ctx.getPreprocessor())
+        : copybookService.resolve(copybookId, copybookName, programDocumentUri, currentUri, ctx.getPreprocessor());
     CopybookModel copybookModel = resolvedCopybook.getResult();
 
     if (copybookModel.getUri() == null || copybookModel.getContent() == null) {
@@ -33,6 +33,7 @@ import org.eclipse.lsp.cobol.domain.modules.DatabusModule;
 import org.eclipse.lsp.cobol.domain.modules.EngineModule;
 import org.eclipse.lsp.cobol.domain.modules.ServiceModule;
 import org.eclipse.lsp.cobol.lsp.jrpc.CobolLanguageClient;
+import org.eclipse.lsp.cobol.parser.ParserWarmUp;
 import org.eclipse.lsp.cobol.service.providers.ClientProvider;
 import org.eclipse.lsp4j.jsonrpc.Launcher;
 import org.eclipse.lsp4j.launch.LSPLauncher;
@@ -68,6 +69,7 @@ public class LangServerBootstrap {
       int exitCode = new CommandLine(new Cli()).execute(args);
       System.exit(exitCode);
     }
+    ParserWarmUp.start();
     LangServerBootstrap langServerBootstrap = new LangServerBootstrap();
     Injector injector = LangServerBootstrap.initCtx();
     LanguageServer server = injector.getInstance(LanguageServer.class);
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli.command;
+
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkSession;
+import org.eclipse.lsp.cobol.common.benchmark.Measurement;
+
+/**
+ * Aggregated throughput of a batch analysis. The stage timings of every analysed program are kept to
+ * report the percentiles, so the summary is collected from the analysis threads concurrently.
+ */
+class BatchSummary {
+  private static final double NANOS_IN_SECOND = 1_000_000_000.0;
+  private static final String TOTAL = "total";
+
+  private final Map<String, List<Long>> stageTimes = new TreeMap<>();
+  private int files;
+  private int failures;
+  private long lines;
+
+  /**
+   * Add the statistics of a successfully analysed program
+   *
+   * @param programLines the number of lines in the program
+   * @param session the benchmark session of the program analysis
+   */
+  synchronized void addProgram(long programLines, BenchmarkSession session) {
+    files++;
+    lines += programLines;
+    long total = 0;
+    for (Measurement measurement : session.getMeasurements()) {
+      stageTimes.computeIfAbsent(measurement.getId(), k -> new ArrayList<>()).add(measurement.getTime());
+      total += measurement.getTime();
+    }
+    stageTimes.computeIfAbsent(TOTAL, k -> new ArrayList<>()).add(total);
+  }
+
+  /** Add a program that failed to be analysed */
+  synchronized void addFailure() {
+    files++;
+    failures++;
+  }
+
+  /**
+   * Check if any program failed to be analysed
+   *
+   * @return true if there are failed programs
+   */
+  synchronized boolean hasFailures() {
+    return failures > 0;
+  }
+
+  /**
+   * Create the summary report
+   *
+   * @param elapsedNanos the wall-clock time of the whole batch
+   * @param threads the number of analysis threads
+   * @return the summary JSON
+   */
+  synchronized JsonObject toJson(long elapsedNanos, int threads) {
+    double seconds = elapsedNanos / NANOS_IN_SECOND;
+    JsonObject summary = new JsonObject();
+    summary.addProperty("files", files);
+    summary.addProperty("failed", failures);
+    summary.addProperty("lines", lines);
+    summary.addProperty("threads", threads);
+    summary.addProperty("seconds", seconds);
+    summary.addProperty("files/s", seconds > 0 ? files / seconds : 0);
+    summary.addProperty("lines/s", seconds > 0 ? lines / seconds : 0);
+
+    JsonObject stages = new JsonObject();
+    stageTimes.forEach((stage, times) -> {
+      List<Long> sorted = new ArrayList<>(times);
+      Collections.sort(sorted);
+      JsonObject stageJson = new JsonObject();
+      stageJson.addProperty("p50", percentile(sorted, 50) / NANOS_IN_SECOND);
+      stageJson.addProperty("p95", percentile(sorted, 95) / NANOS_IN_SECOND);
+      stages.add(stage, stageJson);
+    });
+    summary.add("stages", stages);
+
+    JsonObject result = new JsonObject();
+    result.add("summary", summary);
+    return result;
+  }
+
+  /**
+   * Nearest-rank percentile of the sorted values
+   *
+   * @param sorted the values in ascending order
+   * @param percent the percentile, from 0 to 100
+   * @return the percentile value or 0 for an empty list
+   */
+  static long percentile(List<Long> sorted, int percent) {
+    if (sorted.isEmpty()) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+    return sorted.get(Math.max(rank, 1) - 1);
+  }
+}
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 import lombok.extern.slf4j.Slf4j;
@@ -42,6 +43,8 @@ import org.eclipse.lsp.cobol.common.pipeline.Pipeline;
 import org.eclipse.lsp.cobol.common.pipeline.PipelineResult;
 import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
 import org.eclipse.lsp.cobol.dialects.TrueDialectServiceImpl;
+import org.eclipse.lsp.cobol.dialects.ibm.ParserStage;
+import org.eclipse.lsp.cobol.service.metrics.MetricsService;
 import picocli.CommandLine;
 
 import static org.eclipse.lsp.cobol.cli.command.CliUtils.setupPipeline;
@@ -54,7 +57,9 @@ import static org.eclipse.lsp.cobol.cli.command.CliUtils.setupPipeline;
         ListSources.class,
         ListCopybooks.class,
         CliAnalysis.class,
-        CliCFAST.class
+        CliBatchAnalysis.class,
+        CliCFAST.class,
+        CliStats.class
     })
 @Slf4j
 public class Cli implements Callable<Integer> {
@@ -87,6 +92,7 @@ public class Cli implements Callable<Integer> {
     AnalysisContext ctx = new AnalysisContext(new ExtendedDocument(resultWithErrors.getResult(), text), createAnalysisConfiguration(), benchmarkService.startSession(), documentUri, text, dialect);
     ctx.getAccumulatedErrors().addAll(resultWithErrors.getErrors());
     PipelineResult pipelineResult = pipeline.run(ctx);
+    diCtx.getInstance(MetricsService.class).recordAnalysis(ctx.getBenchmarkSession(), dialect.getId());
     return new Result(ctx, pipelineResult);
   }
 
@@ -126,6 +132,8 @@ public class Cli implements Callable<Integer> {
     JsonObject tObj = new JsonObject();
     benchmarkSession.getMeasurements().forEach(m -> tObj.add(m.getId(), new JsonPrimitive(m.getTime() / 1_000_000_000.0)));
     result.add("timings", tObj);
+    Optional.ofNullable(benchmarkSession.attr(ParserStage.PREDICTION_ATTRIBUTE))
+        .ifPresent(prediction -> result.addProperty("prediction", prediction));
     benchmarkSession.getMeasurements().stream().map(Measurement::getTime).reduce(Long::sum).ifPresent(totalTime -> tObj.add("total", new JsonPrimitive(totalTime / 1_000_000_000.0)));
   }
 
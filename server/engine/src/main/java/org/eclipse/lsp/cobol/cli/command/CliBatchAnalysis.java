@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli.command;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.eclipse.lsp.cobol.cli.di.CliModule;
+import org.eclipse.lsp.cobol.cli.modules.CliClientProvider;
+import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
+import picocli.CommandLine;
+
+/**
+ * Batch analysis cli command. The programs are analysed in parallel on a work-stealing pool with one
+ * DI context, so the copybooks resolved for one program are reused by the others. Every program
+ * produces one JSON line with its timings and diagnostics, and the aggregated throughput is printed
+ * as the last line. The command fails if any program cannot be analysed.
+ */
+@CommandLine.Command(name = "batch_analysis", description = "analyse cobol sources in parallel")
+@Slf4j
+public class CliBatchAnalysis implements Callable<Integer> {
+  private static final Gson JSON_LINE = new Gson();
+
+  @CommandLine.ParentCommand
+  private Cli parent;
+
+  @CommandLine.ArgGroup(multiplicity = "1")
+  private InputConfig inputConfig = new InputConfig();
+
+  @CommandLine.Option(
+      description = "Supported dialect values: ${COMPLETION-CANDIDATES}",
+      names = {"-d", "--dialect"},
+      defaultValue = "COBOL")
+  private CobolLanguageId dialect;
+
+  @CommandLine.Option(
+      description = "Hide diagnostics",
+      names = {"-nd", "--no-diag", "--no-diagnostic", "--no-diagnostics"})
+  private boolean hideDiagnostics;
+
+  @CommandLine.Option(
+      description = "Number of analysis threads, defaults to the number of processors.",
+      names = {"-t", "--threads"})
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  @CommandLine.Option(
+      description = "Extensions of the programs in the source folder.",
+      names = {"-pe", "--program-extension"})
+  private String[] programExt = {"cbl", "cob", "cobol"};
+
+  @CommandLine.Option(
+      names = {"-cf", "--copybook-folder"},
+      description = "Path to the copybook folder.")
+  private File[] cpyPaths = {};
+
+  @CommandLine.Option(
+      names = {"-ce", "--copybook-extension"},
+      description = "List of copybook file extensions.")
+  private String[] cpyExt = {"", ".cpy"};
+
+  @Override
+  public Integer call() throws Exception {
+    List<File> sources;
+    try {
+      sources = collectSources();
+    } catch (IOException e) {
+      System.out.println("Cannot read the sources: " + e.getMessage());
+      return Cli.FAILURE;
+    }
+
+    Injector diCtx = Guice.createInjector(new CliModule());
+    CliClientProvider cliClientProvider = diCtx.getInstance(CliClientProvider.class);
+    cliClientProvider.setCpyPaths(Arrays.asList(cpyPaths));
+    cliClientProvider.setCpyExt(Arrays.asList(cpyExt));
+
+    int poolSize = Math.max(threads, 1);
+    BatchSummary summary = new BatchSummary();
+    ForkJoinPool pool = new ForkJoinPool(poolSize);
+    long start = System.nanoTime();
+    try {
+      pool.invokeAll(sources.stream()
+          .map(src -> (Callable<Void>) () -> {
+            analyze(src, diCtx, summary);
+            return null;
+          })
+          .collect(Collectors.toList()));
+    } finally {
+      pool.shutdown();
+      pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+    System.out.println(JSON_LINE.toJson(summary.toJson(System.nanoTime() - start, poolSize)));
+    return summary.hasFailures() ? Cli.FAILURE : Cli.SUCCESS;
+  }
+
+  private void analyze(File src, Injector diCtx, BatchSummary summary) {
+    JsonObject result = new JsonObject();
+    result.addProperty("uri", src.toURI().toString());
+    result.addProperty("language", dialect.getId());
+    long[] gcBefore = collectGcTotals();
+    try {
+      Cli.Result analysisResult = parent.runAnalysis(src, dialect, diCtx, true);
+      parent.addTiming(result, analysisResult.ctx.getBenchmarkSession());
+      long lines = countLines(analysisResult.ctx.getText());
+      result.addProperty("lines", lines);
+      result.addProperty("errors", analysisResult.ctx.getAccumulatedErrors().size());
+      if (!hideDiagnostics) {
+        JsonArray diagnostics = new JsonArray();
+        analysisResult.ctx.getAccumulatedErrors().forEach(err -> diagnostics.add(CliUtils.diagnosticToJson(err)));
+        result.add("diagnostics", diagnostics);
+      }
+      summary.addProgram(lines, analysisResult.ctx.getBenchmarkSession());
+    } catch (Exception e) {
+      LOG.debug("Analysis of {} failed", src, e);
+      result.addProperty("crash", e.getMessage() == null || e.getMessage().isEmpty() ? "error" : e.getMessage());
+      summary.addFailure();
+    }
+    addGcStats(result, gcBefore);
+    System.out.println(JSON_LINE.toJson(result));
+  }
+
+  private List<File> collectSources() throws IOException {
+    if (inputConfig.sourceList != null) {
+      try (Stream<String> lines = Files.lines(inputConfig.sourceList, StandardCharsets.UTF_8)) {
+        return lines.map(String::trim)
+            .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+            .map(line -> Paths.get(line).toFile())
+            .collect(Collectors.toList());
+      }
+    }
+    Set<String> extensions = Arrays.stream(programExt)
+        .map(ext -> (ext.startsWith(".") ? ext.substring(1) : ext).toLowerCase())
+        .collect(ImmutableSet.toImmutableSet());
+    try (Stream<Path> paths = Files.walk(inputConfig.sourceFolder)) {
+      return paths.filter(Files::isRegularFile)
+          .filter(path -> extensions.contains(getExtension(path)))
+          .map(Path::toFile)
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static String getExtension(Path path) {
+    String name = path.getFileName().toString();
+    return name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+  }
+
+  private static long countLines(String text) {
+    if (text == null || text.isEmpty()) {
+      return 0;
+    }
+    long lines = text.chars().filter(c -> c == '\n').count();
+    return text.endsWith("\n") ? lines : lines + 1;
+  }
+
+  private static long[] collectGcTotals() {
+    long count = 0;
+    long time = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(gc.getCollectionCount(), 0);
+      time += Math.max(gc.getCollectionTime(), 0);
+    }
+    return new long[] {count, time};
+  }
+
+  /*
+   * The collections are JVM-wide, so with several threads they include the garbage of the programs
+   * analysed at the same time.
+   */
+  private static void addGcStats(JsonObject result, long[] before) {
+    long[] after = collectGcTotals();
+    result.addProperty("Garbage Collection Count", after[0] - before[0]);
+    // milliseconds to seconds
+    result.addProperty("Garbage Collection Time", (after[1] - before[1]) * 0.001);
+  }
+
+  /**
+   * input config options
+   */
+  static class InputConfig {
+    @CommandLine.Option(
+        names = {"-sf", "--source-folder"},
+        description = "The folder with COBOL programs, analysed recursively.")
+    private Path sourceFolder;
+
+    @CommandLine.Option(
+        names = {"-sl", "--source-list"},
+        description = "The file with paths of COBOL programs, one per line.")
+    private Path sourceList;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli.command;
+
+import com.google.gson.JsonObject;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.eclipse.lsp.cobol.cli.di.CliModule;
+import org.eclipse.lsp.cobol.cli.modules.CliClientProvider;
+import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
+import org.eclipse.lsp.cobol.service.metrics.MetricsService;
+import picocli.CommandLine;
+
+/**
+ * Stats cli command. The sources are analysed one after another, and the aggregated latency
+ * percentiles of the pipeline stages and the copybook cache statistics are printed at the end, in
+ * the same format as the server reports them with the "extended/metrics" request.
+ */
+@CommandLine.Command(name = "stats", description = "print analysis metrics")
+@Slf4j
+public class CliStats implements Callable<Integer> {
+  @CommandLine.ParentCommand
+  private Cli parent;
+
+  @CommandLine.Option(
+      names = {"-s", "--source"},
+      description = "The COBOL program files.",
+      required = true)
+  private File[] sources;
+
+  @CommandLine.Option(
+      description = "Supported dialect values: ${COMPLETION-CANDIDATES}",
+      names = {"-d", "--dialect"},
+      defaultValue = "COBOL")
+  private CobolLanguageId dialect;
+
+  @CommandLine.Option(
+      description = "Repeat analysis",
+      names = {"--repeat"},
+      defaultValue = "1")
+  private int repeat = 1;
+
+  @CommandLine.Option(
+      names = {"-cf", "--copybook-folder"},
+      description = "Path to the copybook folder.")
+  private File[] cpyPaths = {};
+
+  @CommandLine.Option(
+      names = {"-ce", "--copybook-extension"},
+      description = "List of copybook paths.")
+  private String[] cpyExt = {"", ".cpy"};
+
+  @Override
+  public Integer call() throws Exception {
+    Injector diCtx = Guice.createInjector(new CliModule());
+    CliClientProvider cliClientProvider = diCtx.getInstance(CliClientProvider.class);
+    cliClientProvider.setCpyPaths(Arrays.asList(cpyPaths));
+    cliClientProvider.setCpyExt(Arrays.asList(cpyExt));
+
+    int failed = 0;
+    for (int i = 0; i < repeat; ++i) {
+      for (File src : sources) {
+        try {
+          parent.runAnalysis(src, dialect, diCtx, true);
+        } catch (Exception e) {
+          LOG.error("Analysis of {} failed", src, e);
+          failed++;
+        }
+      }
+    }
+    JsonObject result = diCtx.getInstance(MetricsService.class).snapshot();
+    result.addProperty("failed", failed);
+    System.out.println(CliUtils.GSON.toJson(result));
+    return failed == 0 ? Cli.SUCCESS : Cli.FAILURE;
+  }
+}
@@ -47,6 +47,7 @@ import org.eclipse.lsp.cobol.common.pipeline.StageResult;
 import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
 import org.eclipse.lsp.cobol.dialects.ibm.ProcessingResult;
 import org.eclipse.lsp.cobol.lsp.handlers.HandlerUtility;
+import org.eclipse.lsp.cobol.service.metrics.MetricsService;
 import org.eclipse.lsp.cobol.service.utils.ServerTypeUtil;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.Location;
@@ -67,17 +68,20 @@ public class CobolLanguageEngine {
   private final ErrorFinalizerService errorFinalizerService;
   private final BenchmarkService benchmarkService;
   private final TrueDialectService trueDialectService;
+  private final MetricsService metricsService;
 
   @Inject
   public CobolLanguageEngine(
       TrueDialectService trueDialectService,
       MessageService messageService,
       ErrorFinalizerService errorFinalizerService,
-      BenchmarkService benchmarkService) {
+      BenchmarkService benchmarkService,
+      MetricsService metricsService) {
     this.messageService = messageService;
     this.errorFinalizerService = errorFinalizerService;
     this.benchmarkService = benchmarkService;
     this.trueDialectService = trueDialectService;
+    this.metricsService = metricsService;
   }
 
   private static AnalysisResult toAnalysisResult(
@@ -102,6 +106,7 @@ public class CobolLanguageEngine {
             collectDiagnosticsForAffectedDocuments(
                 HandlerUtility.convertErrors(result.getErrors()), copyUriList, uri))
         .rootNode(rootNode)
+        .positionIndex(result.getResult().getPositionIndex())
         .build();
   }
 
@@ -138,6 +143,29 @@ public class CobolLanguageEngine {
   @NonNull
   public AnalysisResult run(
           @NonNull String documentUri, @NonNull String text, @NonNull AnalysisConfig analysisConfig, CobolLanguageId languageId) {
+    return run(documentUri, text, analysisConfig, languageId, false);
+  }
+
+  /**
+   * Perform syntax and semantic analysis for the given text document without keeping anything of
+   * the result in the server state: the program symbols are not published and the stage snapshots
+   * are not stored. Used for the documents that are analyzed in the background only to extract
+   * information from the result.
+   *
+   * @param documentUri    unique resource identifier of the processed document
+   * @param text           the content of the document that should be processed
+   * @param analysisConfig contains analysis processing features info and copybook config
+   * @param languageId     language identifier
+   * @return Semantic information wrapper object and list of syntax error
+   */
+  @NonNull
+  public AnalysisResult runDetached(
+          @NonNull String documentUri, @NonNull String text, @NonNull AnalysisConfig analysisConfig, CobolLanguageId languageId) {
+    return run(documentUri, text, analysisConfig, languageId, true);
+  }
+
+  private AnalysisResult run(String documentUri, String text, AnalysisConfig analysisConfig,
+                             CobolLanguageId languageId, boolean detached) {
     ThreadInterruptionUtil.checkThreadInterrupted();
     if (shouldNotAnalyse(text, languageId)) {
       return AnalysisResult.builder().build();
@@ -150,6 +178,7 @@ public class CobolLanguageEngine {
 
     BenchmarkSession session = benchmarkService.startSession();
     AnalysisContext ctx = new AnalysisContext(analysisConfig, session, documentUri, text, languageId);
+    ctx.setDetached(detached);
 
     Pipeline pipeline = trueDialectService.getPipeline(languageId);
 
@@ -161,7 +190,8 @@ public class CobolLanguageEngine {
     session.attr("lines", String.valueOf(ctx.getExtendedDocument().toString().split("\n").length));
     session.attr("size", String.valueOf(ctx.getExtendedDocument().toString().length()));
     session.attr("result", result.stopProcessing() ? "stopped" : "done");
-    benchmarkService.logTiming();
+    benchmarkService.logTiming(session);
+    metricsService.recordAnalysis(session, ctx.getLanguageId().getId());
     if (result.stopProcessing() || !(result.getData() instanceof ProcessingResult)) {
       return toAnalysisResult(
           new ResultWithErrors<>(
@@ -181,6 +211,7 @@ public class CobolLanguageEngine {
           new ResultWithErrors<>(
               AnalysisResult.builder()
                   .rootNode(processingResult.getRootNode())
+                  .positionIndex(processingResult.getPositionIndex())
                   .symbolTableMap(processingResult.getSymbolTableMap())
                   .build(),
               ctx.getAccumulatedErrors().stream()
@@ -45,6 +45,8 @@ public class AnalysisContext implements BenchmarkSessionProvider {
 
   private @Setter List<Node> dialectNodes = new ArrayList<>();
   private @Setter CopybooksRepository copybooksRepository;
+  /** True if the analysis must not leave its results in the shared state, like the program symbols */
+  private @Setter boolean detached;
 
   public AnalysisContext(ExtendedDocument extendedDocument,
                          AnalysisConfig config,
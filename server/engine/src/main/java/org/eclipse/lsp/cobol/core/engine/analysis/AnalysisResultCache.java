@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.analysis;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.common.AnalysisConfig;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
+import org.eclipse.lsp.cobol.common.SubroutineService;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
+import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
+import org.eclipse.lsp.cobol.service.settings.CachingConfigurationService;
+import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
+
+/**
+ * Keeps the result of the latest analysis of each document, so the analysis of the same input is
+ * not repeated when a document is reopened or reanalyzed without changes. A result is served only
+ * if the text, the language, the analysis configuration, the code layout and the resolved
+ * subroutines are the same, and every copybook of the result still has the same content, see
+ * {@link CopybookDependencies}. The copybooks of a served result are requested from the copybook
+ * service again, so its usage tracking stays the same as after the analysis. Results with copybooks
+ * that were not resolved are not stored, so such documents are analyzed again once the copybooks
+ * are downloaded.
+ *
+ * <p>Results are softly referenced, so they are dropped under memory pressure.
+ */
+@Slf4j
+@Singleton
+@SuppressWarnings("UnstableApiUsage")
+public class AnalysisResultCache {
+  private static final int MAX_DOCUMENTS = 100;
+
+  private final Cache<String, Entry> entries =
+      CacheBuilder.newBuilder().maximumSize(MAX_DOCUMENTS).softValues().build();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final CodeLayoutStore layoutStore;
+  private final CopybookService copybookService;
+  private final SubroutineService subroutineService;
+  private final CachingConfigurationService configurationService;
+
+  @Inject
+  public AnalysisResultCache(CodeLayoutStore layoutStore, CopybookService copybookService,
+                             SubroutineService subroutineService, CachingConfigurationService configurationService) {
+    this.layoutStore = layoutStore;
+    this.copybookService = copybookService;
+    this.subroutineService = subroutineService;
+    this.configurationService = configurationService;
+  }
+
+  /**
+   * Create the fingerprint of the analysis input that is used to look the result up and to store it
+   *
+   * @param text the document text
+   * @param config the analysis configuration
+   * @param languageId the language of the document
+   * @return the fingerprint of the input and the settings the analysis depends on
+   */
+  public String fingerprint(String text, AnalysisConfig config, String languageId) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    putPart(hasher, text);
+    putPart(hasher, languageId);
+    putPart(hasher, String.valueOf(config));
+    layoutStore.getCodeLayout()
+        .ifPresent(l -> putPart(hasher, String.format("%s/%s/%s/%s/%s", l.getSequenceLength(),
+            l.getIndicatorLength(), l.getAreaALength(), l.getAreaBLength(), l.getCommentAreaLength())));
+    putPart(hasher, String.valueOf(configurationService.getSubroutineDirectories()));
+    subroutineService.getNames().stream().sorted().forEach(name -> {
+      putPart(hasher, name);
+      putPart(hasher, subroutineService.getUri(name).orElse(null));
+    });
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Find the result of the previous analysis of the same input. The lookup is counted as a hit or a
+   * miss. The copybooks of the found result are requested from the copybook service again.
+   *
+   * @param uri the document URI
+   * @param fingerprint the fingerprint of the analysis input
+   * @param preprocessor the cleanup preprocessor of the document dialect
+   * @return the stored result if it is still valid
+   */
+  public Optional<AnalysisResult> get(String uri, String fingerprint, CleanerPreprocessor preprocessor) {
+    Optional<Entry> entry = Optional.ofNullable(entries.getIfPresent(uri))
+        .filter(e -> e.getFingerprint().equals(fingerprint))
+        .filter(e -> e.getCopybooks().isUpToDate(copybookService));
+    entry.ifPresent(e -> e.getCopybooks().replay(copybookService, preprocessor));
+    Optional<AnalysisResult> result = entry.map(Entry::getResult);
+    (result.isPresent() ? hits : misses).incrementAndGet();
+    LOG.debug("Analysis result cache {} for {}, hits: {}, misses: {}",
+        result.isPresent() ? "hit" : "miss", uri, hits, misses);
+    return result;
+  }
+
+  /**
+   * Store the result of the analysis, replacing the previous one. The result is not stored if any
+   * of its copybooks is not resolved.
+   *
+   * @param uri the document URI
+   * @param fingerprint the fingerprint of the analysis input
+   * @param result the analysis result, it must not be modified after it is stored
+   */
+  public void put(String uri, String fingerprint, AnalysisResult result) {
+    Map<CopybookName, String> copybookUris = new HashMap<>();
+    getCopyNodes(result).forEach(copyNode ->
+        copybookUris.put(new CopybookName(copyNode.getName(), copyNode.getDialect()), copyNode.getUri()));
+    Optional<CopybookDependencies> copybooks = CopybookDependencies.collect(copybookService, uri, copybookUris);
+    if (!copybooks.isPresent()) {
+      LOG.debug("Analysis result of {} is not cached, some copybooks are not resolved", uri);
+      entries.invalidate(uri);
+      return;
+    }
+    entries.put(uri, new Entry(fingerprint, copybooks.get(), result));
+  }
+
+  /**
+   * Remove the stored result of the document
+   *
+   * @param uri the document URI
+   */
+  public void invalidate(String uri) {
+    entries.invalidate(uri);
+  }
+
+  /**
+   * Get the number of lookups that were served from the cache
+   *
+   * @return the hit count since the server start
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Get the number of lookups that required a new analysis
+   *
+   * @return the miss count since the server start
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  private static List<CopyNode> getCopyNodes(AnalysisResult result) {
+    if (result.getRootNode() == null) return Collections.emptyList();
+    return result.getRootNode().getDepthFirstStream()
+        .filter(CopyNode.class::isInstance)
+        .map(CopyNode.class::cast)
+        .collect(Collectors.toList());
+  }
+
+  private static void putPart(Hasher hasher, String part) {
+    hasher.putInt(part == null ? -1 : part.length());
+    hasher.putString(Objects.toString(part, ""), StandardCharsets.UTF_8);
+  }
+
+  @Value
+  private static class Entry {
+    String fingerprint;
+    CopybookDependencies copybooks;
+    AnalysisResult result;
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.analysis;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkSession;
+import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
+
+/**
+ * Keeps the output of the latest run of memoized pipeline stages for each document. A stage stores
+ * a snapshot of its effects together with a fingerprint of its input, and the next analysis of the
+ * same document restores the snapshot instead of running the stage if the fingerprint is the same.
+ * The fingerprint always covers the code layout, because it changes the stage results without
+ * changing the text. The stages that use copybooks check them themselves, see
+ * {@link CopybookDependencies}.
+ *
+ * <p>Snapshots are softly referenced, so they are dropped under memory pressure.
+ */
+@Slf4j
+@Singleton
+@SuppressWarnings("UnstableApiUsage")
+public class AnalysisStageCache {
+  private static final int MAX_DOCUMENTS = 100;
+  private static final String CACHE_ATTRIBUTE_SUFFIX = " cache";
+
+  private final Cache<String, Snapshot> snapshots =
+      CacheBuilder.newBuilder().maximumSize(MAX_DOCUMENTS).softValues().build();
+  private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+  private final CodeLayoutStore layoutStore;
+
+  @Inject
+  public AnalysisStageCache(CodeLayoutStore layoutStore) {
+    this.layoutStore = layoutStore;
+  }
+
+  /**
+   * Create a fingerprint of the stage input
+   *
+   * @param parts the values the stage result depends on
+   * @return the fingerprint of the values and the code layout
+   */
+  public String fingerprint(String... parts) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    for (String part : parts) {
+      hasher.putInt(part == null ? -1 : part.length());
+      hasher.putString(String.valueOf(part), StandardCharsets.UTF_8);
+    }
+    layoutStore.getCodeLayout()
+        .ifPresent(l -> hasher.putString(String.format("%s/%s/%s/%s/%s", l.getSequenceLength(),
+            l.getIndicatorLength(), l.getAreaALength(), l.getAreaBLength(), l.getCommentAreaLength()),
+            StandardCharsets.UTF_8));
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Find the snapshot stored by the previous run of the stage for the document. The lookup is
+   * counted in the stage hit rate and reported in the benchmark session.
+   *
+   * @param session the benchmark session of the current analysis
+   * @param uri the document URI
+   * @param stage the stage name
+   * @param fingerprint the fingerprint of the current stage input
+   * @param type the snapshot type
+   * @param <T> the snapshot type
+   * @return the snapshot if it was created for the same input
+   */
+  public <T> Optional<T> get(BenchmarkSession session, String uri, String stage, String fingerprint, Class<T> type) {
+    Optional<T> result = find(uri, stage, fingerprint, type);
+    recordLookup(session, stage, result.isPresent());
+    return result;
+  }
+
+  /**
+   * Find the snapshot stored by the previous run of the stage for the document without counting
+   * the lookup. It is used by the stages that check themselves if the snapshot applies to the
+   * current input, and then report the result with {@link #recordLookup}.
+   *
+   * @param uri the document URI
+   * @param stage the stage name
+   * @param fingerprint the fingerprint of the current stage input
+   * @param type the snapshot type
+   * @param <T> the snapshot type
+   * @return the snapshot if it was created with the same fingerprint
+   */
+  public <T> Optional<T> find(String uri, String stage, String fingerprint, Class<T> type) {
+    return Optional.ofNullable(snapshots.getIfPresent(key(uri, stage)))
+        .filter(s -> s.getFingerprint().equals(fingerprint))
+        .map(Snapshot::getData)
+        .filter(type::isInstance)
+        .map(type::cast);
+  }
+
+  /**
+   * Count a lookup of the stage snapshot in the stage hit rate and report it in the benchmark
+   * session
+   *
+   * @param session the benchmark session of the current analysis
+   * @param stage the stage name
+   * @param hit true if the snapshot was reused
+   */
+  public void recordLookup(BenchmarkSession session, String stage, boolean hit) {
+    Statistics stageStatistics = statistics.computeIfAbsent(stage, s -> new Statistics());
+    stageStatistics.lookups.incrementAndGet();
+    if (hit) {
+      stageStatistics.hits.incrementAndGet();
+    }
+    session.attr(stage + CACHE_ATTRIBUTE_SUFFIX, hit ? "hit" : "miss");
+    LOG.debug("{} cache hit rate: {}/{}", stage, stageStatistics.hits, stageStatistics.lookups);
+  }
+
+  /**
+   * Store the snapshot of the stage effects for the document, replacing the previous one
+   *
+   * @param uri the document URI
+   * @param stage the stage name
+   * @param fingerprint the fingerprint of the stage input
+   * @param data the snapshot, it must not be modified after it is stored
+   */
+  public void put(String uri, String stage, String fingerprint, Object data) {
+    snapshots.put(key(uri, stage), new Snapshot(fingerprint, data));
+  }
+
+  /**
+   * Remove the snapshots of the document
+   *
+   * @param uri the document URI
+   */
+  public void invalidate(String uri) {
+    snapshots.asMap().keySet().removeIf(k -> k.startsWith(uri + "#"));
+  }
+
+  /**
+   * Get the share of lookups that were served from the cache
+   *
+   * @param stage the stage name
+   * @return the hit rate from 0 to 1, or 0 if the stage was never looked up
+   */
+  public double getHitRate(String stage) {
+    return Optional.ofNullable(statistics.get(stage))
+        .filter(s -> s.lookups.get() > 0)
+        .map(s -> (double) s.hits.get() / s.lookups.get())
+        .orElse(0.0);
+  }
+
+  private static String key(String uri, String stage) {
+    return uri + "#" + stage;
+  }
+
+  @Value
+  private static class Snapshot {
+    String fingerprint;
+    Object data;
+  }
+
+  private static class Statistics {
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+  }
+}
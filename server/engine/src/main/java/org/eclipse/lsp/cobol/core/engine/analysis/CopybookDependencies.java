@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.Value;
+import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
+import org.eclipse.lsp.cobol.common.copybook.CopybookId;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
+
+/**
+ * The copybooks a cached result was built with and the hashes of their content. The result is
+ * reused only while every copybook has the same content, see {@link CopybookService#getContentHash}.
+ */
+@Value
+public class CopybookDependencies {
+  String programUri;
+  List<Dependency> copybooks;
+
+  /**
+   * Collect the hashes of the copybooks a result was built with
+   *
+   * @param copybookService the copybook service
+   * @param programUri the URI of the program
+   * @param copybookUris the copybooks of the result and the URIs they were resolved to
+   * @return the dependencies, or empty if any of the copybooks was not resolved
+   */
+  public static Optional<CopybookDependencies> collect(CopybookService copybookService, String programUri,
+                                                       Map<CopybookName, String> copybookUris) {
+    List<Dependency> copybooks = new ArrayList<>();
+    for (Map.Entry<CopybookName, String> copybook : copybookUris.entrySet()) {
+      CopybookId copybookId = copybook.getKey().toCopybookId(programUri);
+      Optional<String> hash = copybook.getValue() == null
+          ? Optional.empty()
+          : copybookService.getContentHash(copybookId, copybook.getValue());
+      if (!hash.isPresent()) {
+        return Optional.empty();
+      }
+      copybooks.add(new Dependency(copybook.getKey(), copybookId, copybook.getValue(), hash.get()));
+    }
+    return Optional.of(new CopybookDependencies(programUri, copybooks));
+  }
+
+  /**
+   * Check if all the copybooks still have the same content
+   *
+   * @param copybookService the copybook service
+   * @return true if the result built with the copybooks is still valid
+   */
+  public boolean isUpToDate(CopybookService copybookService) {
+    return copybooks.stream().allMatch(c -> copybookService.getContentHash(c.getCopybookId(), c.getUri())
+        .map(c.getHash()::equals)
+        .orElse(false));
+  }
+
+  /**
+   * Request the copybooks from the copybook service again, so its usage tracking and download
+   * requests stay the same as after building the result
+   *
+   * @param copybookService the copybook service
+   * @param preprocessor the cleanup preprocessor for the copybooks that are not cached
+   */
+  public void replay(CopybookService copybookService, CleanerPreprocessor preprocessor) {
+    copybooks.forEach(c -> copybookService.resolve(c.getCopybookId(), c.getName(), programUri, programUri,
+        preprocessor));
+  }
+
+  /** A copybook of the result */
+  @Value
+  public static class Dependency {
+    CopybookName name;
+    CopybookId copybookId;
+    String uri;
+    String hash;
+  }
+}
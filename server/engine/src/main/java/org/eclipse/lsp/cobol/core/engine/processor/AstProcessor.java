@@ -14,6 +14,9 @@
  */
 package org.eclipse.lsp.cobol.core.engine.processor;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Singleton;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
 import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.common.processor.ProcessingContext;
@@ -21,14 +24,24 @@ import org.eclipse.lsp.cobol.common.processor.ProcessingPhase;
 import org.eclipse.lsp.cobol.common.processor.Processor;
 import org.eclipse.lsp.cobol.common.utils.ThreadInterruptionUtil;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * AST processor. This class contains node type specific processors and handles abstract syntax tree
  * processing.
+ *
+ * <p>The processors of a node are found in a {@link ProcessorDispatchTable} that is built once for
+ * every distinct set of registered node classes and reused by the following analyses.
  */
+@Singleton
 public class AstProcessor {
+  private static final int MAX_DISPATCH_TABLES = 32;
+
+  private final Cache<Map<ProcessingPhase, List<Class<? extends Node>>>, ProcessorDispatchTable> dispatchTables =
+      CacheBuilder.newBuilder().maximumSize(MAX_DISPATCH_TABLES).build();
 
   /**
    * The entry point to AST processing
@@ -53,28 +66,39 @@ public class AstProcessor {
    * @param ctx processing context
    */
   public void process(ProcessingPhase phase, Node node, ProcessingContext ctx) {
-    Map<Class<? extends Node>, List<Processor<? extends Node>>> processors = ctx.getProcessors().get(phase);
-    if (processors != null)
-      process(processors, node, ctx);
+    Map<Class<? extends Node>, List<Processor<? extends Node>>> registered = ctx.getProcessors().get(phase);
+    if (registered == null || registered.isEmpty())
+      return;
+    List<Processor<? extends Node>> processors = new ArrayList<>();
+    registered.values().forEach(processors::addAll);
+    process(getDispatchTable(ctx), phase, processors, node, ctx);
   }
 
   /**
    * Process tree node and its children after tree construction.
    *
-   * @param processor list of available processors
+   * @param table the dispatch table for the registered processors
+   * @param phase processing phase
+   * @param processors the registered processors of the phase in the order of the dispatch table
    * @param node a node to process
    * @param ctx processing context
    */
-  private void process(Map<Class<? extends Node>, List<Processor<? extends Node>>> processors,
-      Node node, ProcessingContext ctx) {
+  @SuppressWarnings("unchecked")
+  private void process(ProcessorDispatchTable table, ProcessingPhase phase,
+      List<Processor<? extends Node>> processors, Node node, ProcessingContext ctx) {
     ThreadInterruptionUtil.checkThreadInterrupted();
-    final Class<? extends Node> nodeClass = node.getClass();
-    processors.forEach((key, value) -> {
-      if (!key.isAssignableFrom(nodeClass))
-        return;
-      for (Processor<? extends Node> p : value)
-        ((Processor<Node>) p).accept(node, ctx);
+    for (int index : table.find(phase, node.getClass()))
+      ((Processor<Node>) processors.get(index)).accept(node, ctx);
+    node.getChildren().forEach(n -> process(table, phase, processors, n, ctx));
+  }
+
+  private ProcessorDispatchTable getDispatchTable(ProcessingContext ctx) {
+    Map<ProcessingPhase, List<Class<? extends Node>>> registrations = new EnumMap<>(ProcessingPhase.class);
+    ctx.getProcessors().forEach((phase, processors) -> {
+      List<Class<? extends Node>> nodeClasses = new ArrayList<>();
+      processors.forEach((nodeClass, list) -> list.forEach(p -> nodeClasses.add(nodeClass)));
+      registrations.put(phase, nodeClasses);
     });
-    node.getChildren().forEach(n -> process(processors, n, ctx));
+    return dispatchTables.asMap().computeIfAbsent(registrations, ProcessorDispatchTable::new);
   }
 }
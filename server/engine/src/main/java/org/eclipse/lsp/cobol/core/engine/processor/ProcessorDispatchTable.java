@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.processor;
+
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.processor.ProcessingPhase;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the processors of a node class once for every processing phase. The table depends only on
+ * the classes of the nodes the processors are registered for, so the same table serves all the
+ * analyses with the same set of dialects, while the processor instances are created per analysis.
+ * The result for a node class is the list of indexes of the matching processors in the registration
+ * order.
+ */
+class ProcessorDispatchTable {
+  private static final int[] NONE = new int[0];
+
+  private final Map<ProcessingPhase, List<Class<? extends Node>>> registrations;
+  private final Map<ProcessingPhase, Map<Class<?>, int[]>> dispatch = new EnumMap<>(ProcessingPhase.class);
+
+  ProcessorDispatchTable(Map<ProcessingPhase, List<Class<? extends Node>>> registrations) {
+    this.registrations = registrations;
+    registrations.keySet().forEach(phase -> dispatch.put(phase, new ConcurrentHashMap<>()));
+  }
+
+  /**
+   * Find the processors for the nodes of the given class
+   *
+   * @param phase the processing phase
+   * @param nodeClass the class of the node
+   * @return the indexes of the processors registered for the class or its super classes
+   */
+  int[] find(ProcessingPhase phase, Class<? extends Node> nodeClass) {
+    Map<Class<?>, int[]> phaseDispatch = dispatch.get(phase);
+    if (phaseDispatch == null) return NONE;
+    return phaseDispatch.computeIfAbsent(nodeClass, c -> resolve(registrations.get(phase), c));
+  }
+
+  private static int[] resolve(List<Class<? extends Node>> nodeClasses, Class<?> nodeClass) {
+    List<Integer> indexes = new ArrayList<>();
+    for (int i = 0; i < nodeClasses.size(); i++) {
+      if (nodeClasses.get(i).isAssignableFrom(nodeClass)) indexes.add(i);
+    }
+    return indexes.isEmpty() ? NONE : indexes.stream().mapToInt(Integer::intValue).toArray();
+  }
+}
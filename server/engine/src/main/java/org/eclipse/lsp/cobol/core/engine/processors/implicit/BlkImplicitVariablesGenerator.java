@@ -14,6 +14,7 @@
  */
 package org.eclipse.lsp.cobol.core.engine.processors.implicit;
 
+import com.google.common.collect.ImmutableList;
 import lombok.experimental.UtilityClass;
 import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.tree.variable.ElementaryItemNode;
@@ -27,12 +28,17 @@ import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
  */
 @UtilityClass
 public class BlkImplicitVariablesGenerator {
+  private static final ImplicitVariablesTemplate TEMPLATE = new ImplicitVariablesTemplate(ImmutableList.of(build()));
 
   /**
    * Generates DFHEIBLK data structure
    * @return DFHEIBLK data structure
    */
   public VariableNode generate() {
+    return TEMPLATE.instantiate().get(0);
+  }
+
+  private VariableNode build() {
     // Add DFHEIBLK data structure
       /*
        01 DFHEIBLK.
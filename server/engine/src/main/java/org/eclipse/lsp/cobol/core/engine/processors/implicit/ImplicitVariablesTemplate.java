@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.processors.implicit;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.model.tree.variable.ElementaryItemNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.GroupItemNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.TableDataNameNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
+
+/**
+ * A predefined set of implicit variables, e.g. the special registers or SQLCA, that is built once
+ * and copied for each analysed program. The nodes of the template are never registered in a symbol
+ * table, and the copies share their immutable data, including the implicit code locality and the
+ * effective data types, so a copy costs only the node allocation.
+ *
+ * <p>The copies are needed because the variable nodes collect the usages and the parent links of
+ * the program they belong to.
+ */
+public final class ImplicitVariablesTemplate {
+  private final List<VariableNode> prototypes;
+
+  public ImplicitVariablesTemplate(List<VariableNode> prototypes) {
+    this.prototypes = ImmutableList.copyOf(prototypes);
+  }
+
+  /**
+   * Create new variable nodes with the same structure as the template
+   *
+   * @return the top-level variables with their nested variables
+   */
+  public List<VariableNode> instantiate() {
+    List<VariableNode> result = new ArrayList<>(prototypes.size());
+    for (VariableNode prototype : prototypes) {
+      result.add(copyTree(prototype));
+    }
+    return result;
+  }
+
+  private static VariableNode copyTree(VariableNode prototype) {
+    VariableNode copy = copyNode(prototype);
+    for (Node child : prototype.getChildren()) {
+      copy.addChild(copyTree((VariableNode) child));
+    }
+    return copy;
+  }
+
+  private static VariableNode copyNode(VariableNode prototype) {
+    if (prototype instanceof ElementaryItemNode) {
+      return new ElementaryItemNode((ElementaryItemNode) prototype);
+    }
+    if (prototype instanceof GroupItemNode) {
+      return new GroupItemNode((GroupItemNode) prototype);
+    }
+    if (prototype instanceof TableDataNameNode) {
+      return new TableDataNameNode((TableDataNameNode) prototype);
+    }
+    throw new IllegalArgumentException("Unsupported implicit variable type: " + prototype.getClass().getSimpleName());
+  }
+}
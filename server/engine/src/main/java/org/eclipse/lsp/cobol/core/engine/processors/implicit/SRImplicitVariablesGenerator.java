@@ -30,12 +30,17 @@ import java.util.List;
  */
 @UtilityClass
 public class SRImplicitVariablesGenerator {
+  private static final ImplicitVariablesTemplate TEMPLATE = new ImplicitVariablesTemplate(build());
 
   /**
    * Generates SPECIAL REGISTERS data structure
    * @return SPECIAL REGISTERS data structure
    */
   public List<VariableNode> generate() {
+    return TEMPLATE.instantiate();
+  }
+
+  private List<VariableNode> build() {
     /*
      01 DEBUG-ITEM.
      02 DEBUG-LINE PIC X(6).
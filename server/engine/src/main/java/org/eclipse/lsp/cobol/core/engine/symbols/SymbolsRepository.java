@@ -35,8 +35,6 @@ import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-import static org.eclipse.lsp.cobol.common.utils.RangeUtils.findNodeByPosition;
-
 /** This class is a repository for symbols */
 @Singleton
 @Slf4j
@@ -62,6 +60,16 @@ public class SymbolsRepository {
     programSymbols.putAll(symbols);
   }
 
+  /**
+   * Removes the symbols, unless they were replaced by a later analysis
+   *
+   * @param symbols the symbols to remove
+   */
+  @Synchronized
+  public void removeSymbols(Map<String, SymbolTable> symbols) {
+    symbols.forEach(programSymbols::remove);
+  }
+
   /**
    * Get variable data
    *
@@ -103,7 +111,7 @@ public class SymbolsRepository {
     if (result == null || result.getRootNode() == null) {
       return Optional.empty();
     }
-    Optional<Node> node = findNodeByPosition(result.getRootNode(), uri, position);
+    Optional<Node> node = result.findNodeByPosition(uri, position);
 
     return node.filter(DefinedAndUsedStructure.class::isInstance)
         .map(DefinedAndUsedStructure.class::cast)
@@ -25,6 +25,7 @@ import org.antlr.v4.runtime.Lexer;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
 import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
 import org.eclipse.lsp.cobol.common.mapping.ExtendedDocument;
 import org.eclipse.lsp.cobol.common.utils.ThreadInterruptionUtil;
@@ -44,13 +45,16 @@ import org.eclipse.lsp.cobol.core.semantics.CopybooksRepository;
 public class GrammarPreprocessorImpl implements GrammarPreprocessor {
   private final GrammarPreprocessorListenerFactory listenerFactory;
   private final ReplacePreprocessorFactory replacingFactory;
+  private final CopybookService copybookService;
 
   @Inject
   public GrammarPreprocessorImpl(
           GrammarPreprocessorListenerFactory listenerFactory,
-          ReplacePreprocessorFactory replacingFactory) {
+          ReplacePreprocessorFactory replacingFactory,
+          CopybookService copybookService) {
     this.listenerFactory = listenerFactory;
     this.replacingFactory = replacingFactory;
+    this.copybookService = copybookService;
   }
 
   @NonNull
@@ -59,6 +63,9 @@ public class GrammarPreprocessorImpl implements GrammarPreprocessor {
     List<SyntaxError> errors = new ArrayList<>();
 
     String replacedCode = replace(context.getCurrentDocument(), context.getHierarchy()).unwrap(errors::addAll);
+    if (context.getHierarchy().getCurrentCopybookId() == null) {
+      copybookService.prefetch(context.getProgramDocumentUri(), replacedCode, preprocessor);
+    }
 
     return preprocess(context, preprocessor, replacedCode).accumulateErrors(errors);
   }
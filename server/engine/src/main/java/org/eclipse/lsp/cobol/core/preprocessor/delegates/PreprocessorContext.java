@@ -31,4 +31,6 @@ public class PreprocessorContext {
   @NonNull CopybookProcessingMode copybookProcessingMode;
   @NonNull CopybookHierarchy hierarchy;
   @NonNull CopybooksRepository copybooksRepository;
+  /** The analysis results are not kept for the program, so its copybook usage is not tracked */
+  boolean detached;
 }
@@ -69,6 +69,7 @@ class CopybookPreprocessorService {
   private final ReplacingService replacingService;
   private final CopybookErrorService copybookErrorService;
   private final CleanerPreprocessor preprocessor;
+  private final boolean detached;
 
   private static final String HYPHEN = "-";
   private static final String UNDERSCORE = "_";
@@ -82,7 +83,8 @@ class CopybookPreprocessorService {
                               CopybookHierarchy hierarchy,
                               MessageService messageService,
                               ReplacingService replacingService,
-                              CleanerPreprocessor preprocessor) {
+                              CleanerPreprocessor preprocessor,
+                              boolean detached) {
     this.programDocumentUri = programDocumentUri;
     this.grammarPreprocessor = grammarPreprocessor;
     this.currentDocument = currentDocument;
@@ -93,6 +95,7 @@ class CopybookPreprocessorService {
     this.replacingService = replacingService;
     this.copybookErrorService = new CopybookErrorService(messageService);
     this.preprocessor = preprocessor;
+    this.detached = detached;
   }
 
   void addCopybook(ParserRuleContext ctx, CobolPreprocessor.CopySourceContext copySource,
@@ -164,7 +167,8 @@ class CopybookPreprocessorService {
 
     hierarchy.replaceCopybook(copybookDocument, replacingService::applyReplacing, errors);
 
-    PreprocessorContext copybookContext = new PreprocessorContext(programDocumentUri, copybookDocument, copybookConfig, hierarchy, copybooks);
+    PreprocessorContext copybookContext = new PreprocessorContext(programDocumentUri, copybookDocument, copybookConfig, hierarchy, copybooks,
+        detached);
     List<SyntaxError> copybookErrors = new LinkedList<>();
     grammarPreprocessor.preprocess(copybookContext, preprocessor).unwrap(copybookErrors::addAll);
 
@@ -225,13 +229,13 @@ class CopybookPreprocessorService {
   }
 
   private CopybookModel read(CopybookName copybookName, String documentUri) {
-    ResultWithErrors<CopybookModel> resolvedCopybook = copybookService.resolve(
-            copybookName.toCopybookId(programDocumentUri),
-            copybookName,
-            programDocumentUri,
-            documentUri,
-            preprocessor);
+    ResultWithErrors<CopybookModel> resolvedCopybook = detached
+        ? copybookService.resolveDetached(copybookName.toCopybookId(programDocumentUri), copybookName,
+            programDocumentUri, documentUri, preprocessor)
+        : copybookService.resolve(copybookName.toCopybookId(programDocumentUri), copybookName,
+            programDocumentUri, documentUri, preprocessor);
     CopybookModel copybookModel = resolvedCopybook.getResult();
+    copybooks.addResolved(copybookName, copybookModel.getUri());
     if (copybookModel.getContent() == null) {
       return null;
     }
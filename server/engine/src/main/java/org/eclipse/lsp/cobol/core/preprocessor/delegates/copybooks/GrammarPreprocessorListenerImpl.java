@@ -79,7 +79,8 @@ public class GrammarPreprocessorListenerImpl extends CobolPreprocessorBaseListen
         context.getHierarchy(),
         messageService,
         replacingService,
-        preprocessor);
+        preprocessor,
+        context.isDetached());
     this.replacingService = replacingService;
   }
 
@@ -20,8 +20,6 @@ import static org.eclipse.lsp.cobol.core.model.CobolLineTypeEnum.NORMAL;
 import static org.eclipse.lsp.cobol.core.model.CobolLineTypeEnum.PREPROCESSED;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -42,6 +40,8 @@ import org.eclipse.lsp4j.Range;
  */
 @Slf4j
 public abstract class CobolLineReader {
+  private static final int SEQUENCE_PREFIX_LENGTH = 6;
+
   private final MessageService messageService;
 
   protected CobolLineReader(MessageService messageService) {
@@ -49,7 +49,8 @@ public abstract class CobolLineReader {
   }
 
   /**
-   * Convert String with COBOL code into CobolLines that are used further in the parsing.
+   * Convert String with COBOL code into CobolLines that are used further in the parsing. The text is scanned once,
+   * and the lines are handled as ranges of the text, so only the areas of the resulting lines are copied.
    *
    * @param uri - URI of the currently open document
    * @param lines - a String to be converted into CobolLine list
@@ -59,48 +60,64 @@ public abstract class CobolLineReader {
   public ResultWithErrors<List<CobolLine>> processLines(@NonNull String uri, @NonNull String lines) {
     List<SyntaxError> accumulatedErrors = new ArrayList<>();
     List<CobolLine> result = new ArrayList<>();
-    try (Scanner scanner = new Scanner(lines)) {
-      String currentLine;
-      CobolLine lastCobolLine = null;
-      int lineNumber = 0;
+    CobolProgramLayout layout = getLayout();
+    CobolLine lastCobolLine = null;
+    int lineNumber = 0;
+    int start = 0;
 
-      while (scanner.hasNextLine()) {
-        currentLine = scanner.nextLine();
-        CobolLine currentCobolLine =
-                parseLine(currentLine, uri, lineNumber).unwrap(accumulatedErrors::addAll);
+    while (start < lines.length()) {
+      int end = findLineEnd(lines, start);
+      CobolLine currentCobolLine =
+              parseLine(lines, start, end, layout, uri, lineNumber).unwrap(accumulatedErrors::addAll);
 
-        currentCobolLine.setPredecessor(lastCobolLine);
-        result.add(currentCobolLine);
+      currentCobolLine.setPredecessor(lastCobolLine);
+      result.add(currentCobolLine);
 
-        lineNumber++;
-        lastCobolLine = currentCobolLine;
-      }
+      lineNumber++;
+      lastCobolLine = currentCobolLine;
+      start = skipLineSeparator(lines, end);
     }
     return new ResultWithErrors<>(result, accumulatedErrors);
   }
 
-  protected abstract Pattern getCompilerDirectives();
-
   protected abstract Map<String, CobolLineTypeEnum> getIndicator();
 
   protected abstract CobolProgramLayout getLayout();
 
-  @NonNull ResultWithErrors<CobolLine> parseLine(
-          @NonNull String line, @NonNull String uri, int lineNumber) {
+  /**
+   * Find the end of the line. The line separators are the same as {@link java.util.Scanner#nextLine()} recognizes.
+   */
+  private static int findLineEnd(String text, int start) {
+    for (int i = start; i < text.length(); i++) {
+      if (isLineSeparator(text.charAt(i))) {
+        return i;
+      }
+    }
+    return text.length();
+  }
+
+  private static int skipLineSeparator(String text, int end) {
+    if (end + 1 < text.length() && text.charAt(end) == '\r' && text.charAt(end + 1) == '\n') {
+      return end + 2;
+    }
+    return end + 1;
+  }
+
+  private static boolean isLineSeparator(char c) {
+    return c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029' || c == '\u0085';
+  }
+
+  private ResultWithErrors<CobolLine> parseLine(
+          String text, int start, int end, CobolProgramLayout layout, String uri, int lineNumber) {
     List<SyntaxError> errors = new ArrayList<>();
     CobolLine cobolLine;
 
-    Matcher usualLine = getLayout().getCobolLinePattern().matcher(line);
-    Matcher directivesLine = getCompilerDirectives().matcher(line);
-    if (directivesLine.matches()) {
+    int directivesStart = findCompilerDirectives(text, start, end);
+    if (directivesStart >= 0) {
       cobolLine =
-              processCompilerDirectives(line, uri, lineNumber, directivesLine).unwrap(errors::addAll);
-    } else if (usualLine.matches()) {
-      cobolLine = processNormalLine(line, uri, lineNumber, usualLine).unwrap(errors::addAll);
+              processCompilerDirectives(text, start, end, directivesStart, layout, uri, lineNumber).unwrap(errors::addAll);
     } else {
-      // It is impossible. Pattern must match any line.
-      LOG.error("The line '{}' can't be parsed.", line);
-      cobolLine = new CobolLine();
+      cobolLine = processNormalLine(text, start, end, layout, uri, lineNumber).unwrap(errors::addAll);
     }
 
     cobolLine.setNumber(lineNumber);
@@ -108,44 +125,122 @@ public abstract class CobolLineReader {
     return new ResultWithErrors<>(cobolLine, errors);
   }
 
+  /**
+   * Find the CBL or PROCESS statement that takes the whole line. The statement may follow up to 6 characters of the
+   * sequence area and spaces, or whitespaces only.
+   *
+   * @return the start of the statement, or -1 if the line is not a compiler directive line
+   */
+  private static int findCompilerDirectives(String text, int start, int end) {
+    int[] prefixEnds = new int[SEQUENCE_PREFIX_LENGTH + 1];
+    int prefixLength = 0;
+    prefixEnds[0] = start;
+    while (prefixLength < SEQUENCE_PREFIX_LENGTH && prefixEnds[prefixLength] < end) {
+      prefixEnds[prefixLength + 1] = advance(text, prefixEnds[prefixLength], end, 1);
+      prefixLength++;
+    }
+    for (int i = prefixLength; i >= 0; i--) {
+      int position = prefixEnds[i];
+      if (position < end && text.charAt(position) == ' ') {
+        while (position < end && text.charAt(position) == ' ') {
+          position++;
+        }
+        if (isCompilerDirectiveAt(text, position, end)) {
+          return position;
+        }
+      }
+    }
+    int position = start;
+    while (position < end && isRegexWhitespace(text.charAt(position))) {
+      position++;
+    }
+    return isCompilerDirectiveAt(text, position, end) ? position : -1;
+  }
+
+  private static boolean isCompilerDirectiveAt(String text, int position, int end) {
+    return isKeywordAt(text, position, end, "CBL") || isKeywordAt(text, position, end, "PROCESS");
+  }
+
+  /** The keyword must be followed by a space and at least one more character */
+  private static boolean isKeywordAt(String text, int position, int end, String keyword) {
+    int keywordEnd = position + keyword.length();
+    if (keywordEnd + 1 >= end || text.charAt(keywordEnd) != ' ') {
+      return false;
+    }
+    for (int i = 0; i < keyword.length(); i++) {
+      char c = text.charAt(position + i);
+      char k = keyword.charAt(i);
+      if (c != k && c != Character.toLowerCase(k)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isRegexWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  /**
+   * Move the position by the given number of code points, but not further than the end of the line. The areas are
+   * measured in code points, so a surrogate pair is a single column.
+   */
+  private static int advance(String text, int position, int end, int count) {
+    for (int i = 0; i < count && position < end; i++) {
+      if (Character.isHighSurrogate(text.charAt(position))
+              && position + 1 < end
+              && Character.isLowSurrogate(text.charAt(position + 1))) {
+        position += 2;
+      } else {
+        position++;
+      }
+    }
+    return position;
+  }
+
   private ResultWithErrors<CobolLine> processCompilerDirectives(
-          @NonNull String line, @NonNull String uri, int lineNumber, @NonNull Matcher matcher) {
+          String text, int start, int end, int directivesStart, CobolProgramLayout layout, String uri,
+          int lineNumber) {
     List<SyntaxError> errors = new ArrayList<>();
-    int contentStart = matcher.start("directives");
-    String directives = matcher.group("directives");
-    checkSequenceArea(line, uri, lineNumber, contentStart).ifPresent(errors::add);
-    checkLineLength(line, uri, lineNumber).ifPresent(errors::add);
+    int contentStart = directivesStart - start;
+    checkSequenceArea(text, start, layout, uri, lineNumber, contentStart).ifPresent(errors::add);
+    checkLineLength(end - start, layout, uri, lineNumber).ifPresent(errors::add);
     CobolLine cobolLine = new CobolLine();
-    cobolLine.setContentAreaA(cleanupString(directives, contentStart));
+    cobolLine.setContentAreaA(cleanupString(text.substring(directivesStart, end), contentStart, layout));
     cobolLine.setType(PREPROCESSED);
     return new ResultWithErrors<>(cobolLine, errors);
   }
 
   private ResultWithErrors<CobolLine> processNormalLine(
-          @NonNull String line, @NonNull String uri, int lineNumber, Matcher matcher) {
+          String text, int start, int end, CobolProgramLayout layout, String uri, int lineNumber) {
     List<SyntaxError> errors = new ArrayList<>();
     CobolLine cobolLine = new CobolLine();
-    cobolLine.setSequenceArea(matcher.group("sequence"));
-    String indicatorArea = matcher.group("indicator");
+    int indicatorStart = advance(text, start, end, layout.getSequenceLength());
+    int contentAStart = advance(text, indicatorStart, end, layout.getIndicatorLength());
+    int contentBStart = advance(text, contentAStart, end, layout.getAreaALength());
+    int commentStart = advance(text, contentBStart, end, layout.getAreaBLength());
+    int commentEnd = advance(text, commentStart, end, layout.getCommentAreaLength());
+    cobolLine.setSequenceArea(text.substring(start, indicatorStart));
+    String indicatorArea = text.substring(indicatorStart, contentAStart);
     cobolLine.setIndicatorArea(indicatorArea);
-    cobolLine.setType(determineType(indicatorArea, uri, lineNumber).unwrap(errors::addAll));
-    cobolLine.setContentAreaA(matcher.group("contentA"));
-    cobolLine.setContentAreaB(matcher.group("contentB"));
-    cobolLine.setCommentArea(matcher.group("comment"));
-    checkLineLength(line, uri, lineNumber).ifPresent(errors::add);
+    cobolLine.setType(determineType(indicatorArea, layout, uri, lineNumber).unwrap(errors::addAll));
+    cobolLine.setContentAreaA(text.substring(contentAStart, contentBStart));
+    cobolLine.setContentAreaB(text.substring(contentBStart, commentStart));
+    cobolLine.setCommentArea(text.substring(commentStart, commentEnd));
+    checkLineLength(end - start, layout, uri, lineNumber).ifPresent(errors::add);
 
     return new ResultWithErrors<>(cobolLine, errors);
   }
 
-  private String cleanupString(@NonNull String line, int contentStart) {
+  private String cleanupString(@NonNull String line, int contentStart, CobolProgramLayout layout) {
     String lineWithoutSequence = StringUtils.repeat(' ', contentStart) + line;
-    return lineWithoutSequence.length() > getLayout().getSourceCodeLength()
-            ? lineWithoutSequence.substring(0, getLayout().getSourceCodeLength())
+    return lineWithoutSequence.length() > layout.getSourceCodeLength()
+            ? lineWithoutSequence.substring(0, layout.getSourceCodeLength())
             : lineWithoutSequence;
   }
 
   private ResultWithErrors<CobolLineTypeEnum> determineType(
-          String indicatorArea, String uri, int lineNumber) {
+          String indicatorArea, CobolProgramLayout layout, String uri, int lineNumber) {
     return ofNullable(getIndicator().get(indicatorArea))
             .map(it -> new ResultWithErrors<>(it, Collections.emptyList()))
             .orElseGet(
@@ -157,14 +252,14 @@ public abstract class CobolLineReader {
                                                     uri,
                                                     messageService.getMessage("CobolLineReaderImpl.incorrectLineFormat"),
                                                     lineNumber,
-                                                    getLayout().getSequenceLength(), getLayout().getSequenceLength() + 1))));
+                                                    layout.getSequenceLength(), layout.getSequenceLength() + 1))));
   }
 
   @NonNull
   private Optional<SyntaxError> checkLineLength(
-          @NonNull String line, @NonNull String uri, int lineNumber) {
-    int maxLineLength = getLayout().getMaxLineLength();
-    if (line.length() <= maxLineLength) {
+          int lineLength, CobolProgramLayout layout, @NonNull String uri, int lineNumber) {
+    int maxLineLength = layout.getMaxLineLength();
+    if (lineLength <= maxLineLength) {
       return Optional.empty();
     }
     return Optional.of(
@@ -173,12 +268,12 @@ public abstract class CobolLineReader {
                     messageService.getMessage("CobolLineReaderImpl.longLineMsg", maxLineLength),
                     lineNumber,
                     maxLineLength,
-                    line.length()));
+                    lineLength));
   }
 
   private Optional<SyntaxError> checkSequenceArea(
-          @NonNull String line, @NonNull String uri, int lineNumber, int contentStart) {
-    if (isSequenceNumberFormatCorrect(line, contentStart)) {
+          String text, int start, CobolProgramLayout layout, @NonNull String uri, int lineNumber, int contentStart) {
+    if (isSequenceNumberFormatCorrect(text, start, layout, contentStart)) {
       return Optional.empty();
     }
     return Optional.of(
@@ -190,11 +285,20 @@ public abstract class CobolLineReader {
                     1));
   }
 
-  private boolean isSequenceNumberFormatCorrect(String line, int contentStart) {
+  private boolean isSequenceNumberFormatCorrect(String text, int start, CobolProgramLayout layout, int contentStart) {
     // issue error the sequence must start with a number.
-    return contentStart < (getLayout().getIndicatorLength() + getLayout().getSequenceLength())
-            || StringUtils.isBlank(line.substring(0, contentStart))
-            || Character.isDigit(line.charAt(0));
+    return contentStart < (layout.getIndicatorLength() + layout.getSequenceLength())
+            || isBlank(text, start, start + contentStart)
+            || Character.isDigit(text.charAt(start));
+  }
+
+  private static boolean isBlank(String text, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (!Character.isWhitespace(text.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
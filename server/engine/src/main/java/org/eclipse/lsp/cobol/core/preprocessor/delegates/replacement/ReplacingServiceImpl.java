@@ -15,6 +15,10 @@
 
 package org.eclipse.lsp.cobol.core.preprocessor.delegates.replacement;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import lombok.AllArgsConstructor;
@@ -37,6 +41,7 @@ import org.eclipse.lsp4j.Range;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
@@ -71,19 +76,55 @@ public class ReplacingServiceImpl implements ReplacingService {
 
   private static final String ERROR_REPLACING = "Error replacing on text: %s with the pattern: %s";
   private static final int INDIVIDUAL_WORD_VALID_LENGTH = 322;
+  private static final int MAX_COMPILED_CLAUSES = 512;
 
   private final MessageService messageService;
+  private final LoadingCache<List<Pair<String, String>>, CompiledReplacing> compiledClauses =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_COMPILED_CLAUSES)
+          .build(CacheLoader.from(CompiledReplacing::new));
 
   @Inject
   public ReplacingServiceImpl(MessageService messageService) {
     this.messageService = messageService;
   }
 
+  /**
+   * Apply the patterns of the given clause one by one, so each operand works on the result of the
+   * previous ones. The patterns are compiled once per clause and reused for every copybook and
+   * REPLACE statement that uses the same clause.
+   *
+   * @param extendedDocument the document to apply replacing to
+   * @param replaceData the patterns and the scope of the replacing
+   */
   @NonNull
   @Override
   public void applyReplacing(@NonNull ExtendedDocument extendedDocument, @NonNull ReplaceData replaceData) {
-    for (Pair<String, String> replacePattern : replaceData.getReplacePatterns()) {
-      replace(extendedDocument, replacePattern, replaceData.getRange(extendedDocument.getUri()));
+    CompiledReplacing compiled =
+        compiledClauses.getUnchecked(ImmutableList.copyOf(replaceData.getReplacePatterns()));
+    Range scope = replaceData.getRange(extendedDocument.getUri());
+    String text = null;
+    String upperCaseText = null;
+    for (int i = 0; i < compiled.patterns.size(); i++) {
+      if (text == null) {
+        text = extendedDocument.toString();
+        upperCaseText = null;
+      }
+      String literal = compiled.literals.get(i);
+      if (literal != null) {
+        if (upperCaseText == null) upperCaseText = text.toUpperCase(Locale.ROOT);
+        if (!upperCaseText.contains(literal)) {
+          // committing the earlier changes changes the text the next operand works on
+          if (extendedDocument.isDirty()) {
+            extendedDocument.commitTransformations();
+            text = null;
+          }
+          continue;
+        }
+      }
+      if (replace(extendedDocument, text, compiled.patterns.get(i), compiled.replacements.get(i), scope)) {
+        text = null;
+      }
     }
   }
 
@@ -229,38 +270,40 @@ public class ReplacingServiceImpl implements ReplacingService {
     return trim.replace(", ", " ").replace("; ", " ");
   }
 
-  private void replace(@NonNull ExtendedDocument extendedDocument, @NonNull Pair<String, String> pattern, @NonNull Range scope) {
-    String text = extendedDocument.toString();
+  /**
+   * Replace the matches of the pattern in the document text
+   *
+   * @return true if the document text was changed by the replacements or by the commit of the
+   *     earlier changes, so its text has to be taken again
+   */
+  private boolean replace(@NonNull ExtendedDocument extendedDocument, @NonNull String text, @NonNull Pattern pattern, @NonNull String replacement, @NonNull Range scope) {
     if (StringUtils.isBlank(text)) {
-      return;
+      return false;
     }
+    boolean changed = extendedDocument.isDirty();
     try {
-      Matcher matcher = Pattern.compile(pattern.getLeft(), Pattern.CASE_INSENSITIVE).matcher(text);
+      Matcher matcher = pattern.matcher(text);
       while (matcher.find()) {
-        Range range = getRange(text, matcher);
+        Range range = getRange(extendedDocument, matcher);
         if (RangeUtils.isInside(range, scope)) {
-          extendedDocument.replace(range, pattern.getRight());
+          extendedDocument.replace(range, replacement);
+          changed = true;
         }
       }
       extendedDocument.commitTransformations();
     } catch (IndexOutOfBoundsException e) {
-      LOG.error(format(ERROR_REPLACING, text, pattern), e);
+      LOG.error(format(ERROR_REPLACING, text, Pair.of(pattern.pattern(), replacement)), e);
+      return true;
     }
+    return changed;
   }
 
-  private Range getRange(String text, Matcher matcher) {
-    Position start = getPosition(text, matcher.start());
-    Position end = getPosition(text, matcher.end());
+  private Range getRange(ExtendedDocument extendedDocument, Matcher matcher) {
+    Position start = extendedDocument.getPosition(matcher.start());
+    Position end = extendedDocument.getPosition(matcher.end());
     return new Range(start, new Position(end.getLine(), end.getCharacter() - 1));
   }
 
-  private Position getPosition(String text, int positionInFile) {
-    String prefix = text.substring(0, positionInFile);
-    int character = positionInFile - prefix.lastIndexOf("\n") - 1;
-    int line = StringUtils.countMatches(prefix, "\n");
-    return new Position(line, character);
-  }
-
   private Function<String, Boolean> checkContainWord(String check) {
     return text ->
         Arrays.stream(text.toUpperCase().split("\b")).anyMatch(txt -> txt.equalsIgnoreCase(check));
@@ -285,4 +328,98 @@ public class ReplacingServiceImpl implements ReplacingService {
     String clause;
     SearchPattern searchPattern;
   }
+
+  /**
+   * The compiled replaceable patterns of a clause with their replacements, in the clause order. The
+   * text a pattern cannot match without is kept with it, so the operands that do not occur in the
+   * document are skipped without running the regex over the whole text.
+   */
+  private static final class CompiledReplacing {
+    private static final int MIN_LITERAL_LENGTH = 2;
+    private static final String QUANTIFIERS = "?*{";
+    private static final String META_CHARACTERS = "()[]{}?*+|.^$";
+    private static final String CHARACTER_CLASS_ESCAPES = "sSbBdDwWrntfAzZG";
+
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final List<String> replacements = new ArrayList<>();
+    private final List<String> literals = new ArrayList<>();
+
+    CompiledReplacing(List<Pair<String, String>> replacePatterns) {
+      for (Pair<String, String> replacePattern : replacePatterns) {
+        patterns.add(Pattern.compile(replacePattern.getLeft(), Pattern.CASE_INSENSITIVE));
+        replacements.add(replacePattern.getRight());
+        literals.add(findRequiredLiteral(replacePattern.getLeft()));
+      }
+    }
+
+    /**
+     * Find the longest literal that every match of the regex contains. Only the top level of the
+     * regex is considered: groups, lookarounds and character classes are skipped, and a regex with a
+     * top level alternation has no required literal.
+     *
+     * @return the upper-case literal or null if there is no literal long enough
+     */
+    private static String findRequiredLiteral(String regex) {
+      String longest = "";
+      StringBuilder current = new StringBuilder();
+      int depth = 0;
+      boolean inClass = false;
+      for (int i = 0; i < regex.length(); i++) {
+        char c = regex.charAt(i);
+        if (c == '\\' && i + 1 < regex.length()) {
+          char next = regex.charAt(++i);
+          if (next == 'Q') {
+            int end = regex.indexOf("\\E", i);
+            String quoted = regex.substring(i + 1, end < 0 ? regex.length() : end);
+            i = end < 0 ? regex.length() : end + 1;
+            if (depth == 0 && !inClass) current.append(quoted);
+          } else if (!Character.isLetterOrDigit(next)) {
+            if (depth == 0 && !inClass) current.append(next);
+          } else if (CHARACTER_CLASS_ESCAPES.indexOf(next) < 0) {
+            // code points, back references and named properties are not worth parsing here
+            return null;
+          } else if (depth == 0 && !inClass) {
+            longest = longer(longest, current);
+          }
+          continue;
+        }
+        if (inClass) {
+          inClass = c != ']';
+          continue;
+        }
+        if (c == '|' && depth == 0) return null;
+        if (c == '(' && regex.startsWith("(?", i) && !isGroupConstruct(regex, i)) {
+          // inline flags may change how the literals match
+          return null;
+        }
+        if (META_CHARACTERS.indexOf(c) < 0) {
+          if (depth == 0) current.append(c);
+          continue;
+        }
+        if (depth == 0) {
+          if (QUANTIFIERS.indexOf(c) >= 0 && current.length() > 0) {
+            current.setLength(current.length() - 1);
+          }
+          longest = longer(longest, current);
+        }
+        if (c == '(') depth++;
+        else if (c == ')') depth--;
+        else if (c == '[') inClass = true;
+        else if (c == '{') i = Math.max(i, regex.indexOf('}', i));
+      }
+      longest = longer(longest, current);
+      return longest.length() < MIN_LITERAL_LENGTH ? null : longest.toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean isGroupConstruct(String regex, int start) {
+      return regex.startsWith("(?:", start) || regex.startsWith("(?<", start)
+          || regex.startsWith("(?=", start) || regex.startsWith("(?!", start);
+    }
+
+    private static String longer(String longest, StringBuilder current) {
+      String candidate = current.toString();
+      current.setLength(0);
+      return candidate.length() > longest.length() ? candidate : longest;
+    }
+  }
 }
@@ -19,9 +19,11 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import lombok.Value;
 import org.eclipse.lsp.cobol.common.copybook.CopybookId;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
 import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp4j.Location;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -33,6 +35,7 @@ public class CopybooksRepository {
   Multimap<String, String> definitions = HashMultimap.create();
   Multimap<String, Location> usages = HashMultimap.create();
   Multimap<String, Locality> definitionStatements = HashMultimap.create();
+  Map<CopybookName, String> resolvedCopybooks = new LinkedHashMap<>();
 
   /**
    * Add defined language element to the context
@@ -68,6 +71,17 @@ public class CopybooksRepository {
     definitionStatements.put(toId(name, dialect, location.getUri()), location);
   }
 
+  /**
+   * Register a copybook that was requested from the copybook service while building the document,
+   * whether it was found or not
+   *
+   * @param copybookName the name of the requested copybook
+   * @param copybookUri the uri of the found copybook, or null if it was not found
+   */
+  public void addResolved(CopybookName copybookName, String copybookUri) {
+    resolvedCopybooks.put(copybookName, copybookUri);
+  }
+
   /**
    * Check if the context contains a language element with the provided name already defined
    *
@@ -80,6 +94,19 @@ public class CopybooksRepository {
     return definitions.containsKey(toId(name, dialect, uri));
   }
 
+  /**
+   * Creates a copy of the repository that can be modified independently
+   * @return a new repository with the same content
+   */
+  public CopybooksRepository copy() {
+    CopybooksRepository result = new CopybooksRepository();
+    result.definitions.putAll(definitions);
+    result.usages.putAll(usages);
+    result.definitionStatements.putAll(definitionStatements);
+    result.resolvedCopybooks.putAll(resolvedCopybooks);
+    return result;
+  }
+
   /**
    * Creates copybook id
    * @param name - name of the copybook
@@ -23,6 +23,7 @@ import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.common.dialects.TrueDialectService;
 import org.eclipse.lsp.cobol.common.message.MessageService;
 import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisStageCache;
 import org.eclipse.lsp.cobol.core.engine.dialects.DialectService;
 import org.eclipse.lsp.cobol.common.pipeline.Pipeline;
 import org.eclipse.lsp.cobol.core.engine.processor.AstProcessor;
@@ -58,11 +59,12 @@ public class TrueDialectServiceImpl implements TrueDialectService<AnalysisContex
                             AstProcessor astProcessor,
                             SymbolsRepository symbolsRepository,
                             CodeLayoutStore codeLayoutStore,
-                            CopybookService copybookService) {
+                            CopybookService copybookService,
+                            AnalysisStageCache stageCache) {
     dialects = new HashMap<>();
     dialects.put(CobolLanguageId.COBOL, new IbmTrueCobolDialect(grammarPreprocessor,
         messageService, treeListener, subroutineService, cachingConfigurationService, dialectService,
-        astProcessor, symbolsRepository, codeLayoutStore));
+        astProcessor, symbolsRepository, codeLayoutStore, stageCache, copybookService));
 
     dialects.put(CobolLanguageId.EXPERIMENTAL_COBOL, new EnterpriseCobol64(grammarPreprocessor,
         messageService, treeListener, subroutineService, cachingConfigurationService, dialectService,
@@ -19,7 +19,6 @@ import static org.eclipse.lsp.cobol.core.model.CobolLineTypeEnum.NORMAL;
 
 import com.google.common.collect.ImmutableMap;
 import java.util.*;
-import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.message.MessageService;
 import org.eclipse.lsp.cobol.core.model.CobolLineTypeEnum;
@@ -44,9 +43,6 @@ class HPCobolLineReader extends CobolLineReader {
     this.layoutStore = layoutStore;
   }
 
-  private static final Pattern COMPILER_DIRECTIVE_LINE =
-      Pattern.compile("(?i)(.{0,6} +|\\s*+)(?<directives>(CBL|PROCESS) .+)");
-
   private static final Map<String, CobolLineTypeEnum> INDICATORS =
       new ImmutableMap.Builder<String, CobolLineTypeEnum>()
           .put("*", COMMENT)
@@ -59,11 +55,6 @@ class HPCobolLineReader extends CobolLineReader {
           .put("", NORMAL)
           .build();
 
-  @Override
-  protected Pattern getCompilerDirectives() {
-    return COMPILER_DIRECTIVE_LINE;
-  }
-
   @Override
   protected Map<String, CobolLineTypeEnum> getIndicator() {
     return INDICATORS;
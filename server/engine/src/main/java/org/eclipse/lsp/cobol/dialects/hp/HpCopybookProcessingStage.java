@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.eclipse.lsp.cobol.common.copybook.CopybookId;
 import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
 import org.eclipse.lsp.cobol.common.copybook.CopybookName;
 import org.eclipse.lsp.cobol.common.copybook.CopybookService;
@@ -61,7 +62,7 @@ public class HpCopybookProcessingStage implements Stage<AnalysisContext, Dialect
     cbs.forEach(
         cb -> {
           List<CopyNode> copybookNodes =
-              insertHpCopybook(context.getDocumentUri(), context.getExtendedDocument(), cb, errors);
+              insertHpCopybook(context.getDocumentUri(), context.getExtendedDocument(), cb, context.isDetached(), errors);
           context.getDialectNodes().addAll(copybookNodes);
         });
 
@@ -73,6 +74,7 @@ public class HpCopybookProcessingStage implements Stage<AnalysisContext, Dialect
                 .config(context.getConfig())
                 .programDocumentUri(context.getExtendedDocument().getUri())
                 .extendedDocument(context.getExtendedDocument())
+                .detached(context.isDetached())
                 .build());
     return new StageResult<>(outcome);
   }
@@ -82,11 +84,13 @@ public class HpCopybookProcessingStage implements Stage<AnalysisContext, Dialect
     return "Copybook processing";
   }
 
-  private List<CopyNode> insertHpCopybook(String programUri, ExtendedDocument extendedDocument, CopybookDescriptor descriptor, List<SyntaxError> errors) {
+  private List<CopyNode> insertHpCopybook(String programUri, ExtendedDocument extendedDocument, CopybookDescriptor descriptor,
+                                          boolean detached, List<SyntaxError> errors) {
     CopybookName copybookName = new CopybookName(descriptor.getName());
-    CopybookModel model = copybookService.resolve(copybookName.toCopybookId(extendedDocument.getUri()),
-            copybookName, programUri,
-            extendedDocument.getUri(), null)
+    CopybookId copybookId = copybookName.toCopybookId(extendedDocument.getUri());
+    CopybookModel model = (detached
+        ? copybookService.resolveDetached(copybookId, copybookName, programUri, extendedDocument.getUri(), null)
+        : copybookService.resolve(copybookId, copybookName, programUri, extendedDocument.getUri(), null))
         .unwrap(errors::addAll);
 
     Location nameLocation = new Location(extendedDocument.getUri(), descriptor.getNameRange());
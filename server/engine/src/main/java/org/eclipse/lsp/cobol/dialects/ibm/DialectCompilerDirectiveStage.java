@@ -41,6 +41,7 @@ public class DialectCompilerDirectiveStage implements Stage<AnalysisContext, Lis
                     .config(context.getConfig())
                     .programDocumentUri(context.getExtendedDocument().getUri())
                     .extendedDocument(context.getExtendedDocument())
+                    .detached(context.isDetached())
                     .build();
     List<CobolDialect> allAvailableDialect = new ArrayList<>(dialectService.getActiveImplicitDialects(context.getConfig()));
     context.getConfig().getDialects().stream()
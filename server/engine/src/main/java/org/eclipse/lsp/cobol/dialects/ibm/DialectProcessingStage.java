@@ -15,31 +15,51 @@
 package org.eclipse.lsp.cobol.dialects.ibm;
 
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
-import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
 import org.eclipse.lsp.cobol.common.dialects.DialectOutcome;
 import org.eclipse.lsp.cobol.common.dialects.DialectProcessingContext;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedDocument;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedText;
 import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisStageCache;
 import org.eclipse.lsp.cobol.core.engine.dialects.DialectService;
 import org.eclipse.lsp.cobol.common.pipeline.Stage;
 import org.eclipse.lsp.cobol.common.pipeline.StageResult;
 
 /**
- * Dialect Processing Stage
+ * Dialect Processing Stage. If a stage cache is provided, the processed text is reused while the
+ * text that comes to the stage and the analysis settings stay the same. Only the results without
+ * dialect nodes and errors are reused, because the nodes become a part of the syntax tree of the
+ * analysis.
  */
-@RequiredArgsConstructor
 public class DialectProcessingStage implements Stage<AnalysisContext, DialectOutcome, Void> {
 
   private final DialectService dialectService;
   private final CleanerPreprocessor preprocessor;
+  private final AnalysisStageCache stageCache;
+
+  public DialectProcessingStage(DialectService dialectService, CleanerPreprocessor preprocessor) {
+    this(dialectService, preprocessor, null);
+  }
+
+  public DialectProcessingStage(DialectService dialectService, CleanerPreprocessor preprocessor,
+                                AnalysisStageCache stageCache) {
+    this.dialectService = dialectService;
+    this.preprocessor = preprocessor;
+    this.stageCache = stageCache;
+  }
 
   @Override
   public StageResult<DialectOutcome> run(AnalysisContext context, StageResult<Void> prevStageResult) {
     // Dialect processing
     dialectService.updateDialects(context.getConfig().getDialectRegistry());
-    DialectOutcome dialectOutcome = processDialects(context);
+    DialectOutcome dialectOutcome = stageCache == null || context.isDetached()
+        ? processDialects(context)
+        : processMemoizedDialects(context);
     return new StageResult<>(dialectOutcome, dialectOutcome.isDialectMissed());
   }
 
@@ -48,15 +68,29 @@ public class DialectProcessingStage implements Stage<AnalysisContext, DialectOut
     return "Dialects processing";
   }
 
+  private DialectOutcome processMemoizedDialects(AnalysisContext ctx) {
+    ExtendedDocument document = ctx.getExtendedDocument();
+    String fingerprint = stageCache.fingerprint(document.toString(), ctx.getLanguageId().getId(),
+        String.valueOf(ctx.getConfig()));
+    Optional<Snapshot> snapshot =
+        stageCache.get(ctx.getBenchmarkSession(), ctx.getDocumentUri(), getName(), fingerprint, Snapshot.class);
+    if (snapshot.isPresent()) {
+      dialectService.addDialectPredefinedCopybooks(ctx.getConfig(), preprocessor);
+      ctx.setExtendedDocument(new ExtendedDocument(snapshot.get().getText().copy(), document.getOriginalText()));
+      return new DialectOutcome(createDialectContext(ctx), snapshot.get().isDialectMissed());
+    }
+    int errorsBefore = ctx.getAccumulatedErrors().size();
+    DialectOutcome dialectOutcome = processDialects(ctx);
+    if (dialectOutcome.getDialectNodes().isEmpty() && ctx.getAccumulatedErrors().size() == errorsBefore) {
+      stageCache.put(ctx.getDocumentUri(), getName(), fingerprint,
+          new Snapshot(ctx.getExtendedDocument().getCurrentText().copy(), dialectOutcome.isDialectMissed()));
+    }
+    return dialectOutcome;
+  }
+
   private DialectOutcome processDialects(AnalysisContext ctx) {
     dialectService.addDialectPredefinedCopybooks(ctx.getConfig(), preprocessor);
-    DialectProcessingContext dialectProcessingContext =
-        DialectProcessingContext.builder()
-            .config(ctx.getConfig())
-            .programDocumentUri(ctx.getExtendedDocument().getUri())
-            .extendedDocument(ctx.getExtendedDocument())
-            .preprocessor(preprocessor)
-            .build();
+    DialectProcessingContext dialectProcessingContext = createDialectContext(ctx);
     dialectProcessingContext.getExtendedDocument().commitTransformations();
 
     DialectOutcome dialectOutcome = dialectService
@@ -68,4 +102,19 @@ public class DialectProcessingStage implements Stage<AnalysisContext, DialectOut
     return dialectOutcome;
   }
 
+  private DialectProcessingContext createDialectContext(AnalysisContext ctx) {
+    return DialectProcessingContext.builder()
+        .config(ctx.getConfig())
+        .programDocumentUri(ctx.getExtendedDocument().getUri())
+        .extendedDocument(ctx.getExtendedDocument())
+        .preprocessor(preprocessor)
+        .detached(ctx.isDetached())
+        .build();
+  }
+
+  @Value
+  private static class Snapshot {
+    ExtendedText text;
+    boolean dialectMissed;
+  }
 }
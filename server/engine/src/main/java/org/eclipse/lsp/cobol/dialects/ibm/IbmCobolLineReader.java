@@ -18,7 +18,6 @@ import static org.eclipse.lsp.cobol.core.model.CobolLineTypeEnum.*;
 
 import com.google.common.collect.ImmutableMap;
 import java.util.*;
-import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.message.MessageService;
 import org.eclipse.lsp.cobol.core.model.*;
@@ -36,9 +35,6 @@ import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutUtil;
  */
 @Slf4j
 class IbmCobolLineReader extends CobolLineReader {
-  private static final Pattern COMPILER_DIRECTIVE_LINE =
-      Pattern.compile("(?i)(.{0,6} +|\\s*+)(?<directives>(CBL|PROCESS) .+)");
-
   private final CodeLayoutStore layoutStore;
 
   IbmCobolLineReader(MessageService messageService, CodeLayoutStore layoutStore) {
@@ -58,11 +54,6 @@ class IbmCobolLineReader extends CobolLineReader {
           .put("", NORMAL)
           .build();
 
-  @Override
-  protected Pattern getCompilerDirectives() {
-    return COMPILER_DIRECTIVE_LINE;
-  }
-
   @Override
   protected Map<String, CobolLineTypeEnum> getIndicator() {
     return INDICATORS;
@@ -17,9 +17,11 @@ package org.eclipse.lsp.cobol.dialects.ibm;
 import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
 import org.eclipse.lsp.cobol.common.SubroutineService;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.common.message.MessageService;
 import org.eclipse.lsp.cobol.common.pipeline.Pipeline;
 import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisStageCache;
 import org.eclipse.lsp.cobol.core.engine.dialects.DialectService;
 import org.eclipse.lsp.cobol.core.engine.processor.AstProcessor;
 import org.eclipse.lsp.cobol.core.engine.symbols.SymbolsRepository;
@@ -44,15 +46,17 @@ public class IbmTrueCobolDialect implements TrueCobolDialect {
                              DialectService dialectService,
                              AstProcessor astProcessor,
                              SymbolsRepository symbolsRepository,
-                             CodeLayoutStore codeLayoutStore) {
+                             CodeLayoutStore codeLayoutStore,
+                             AnalysisStageCache stageCache,
+                             CopybookService copybookService) {
     preprocessor = new IbmTextPreprocessor(messageService, codeLayoutStore);
 
     pipeline = new Pipeline<>();
     pipeline.add(new IbmCleanupStage(preprocessor));
     pipeline.add(new DialectCompilerDirectiveStage(dialectService));
     pipeline.add(new CompilerDirectivesStage(messageService));
-    pipeline.add(new DialectProcessingStage(dialectService, preprocessor));
-    pipeline.add(new PreprocessorStage(grammarPreprocessor, preprocessor));
+    pipeline.add(new DialectProcessingStage(dialectService, preprocessor, stageCache));
+    pipeline.add(new PreprocessorStage(grammarPreprocessor, preprocessor, stageCache, copybookService));
     pipeline.add(new ImplicitDialectProcessingStage(dialectService));
     pipeline.add(new ParserStage(messageService, treeListener));
     pipeline.add(
@@ -25,6 +25,7 @@ import lombok.RequiredArgsConstructor;
 import org.eclipse.lsp.cobol.common.ResultWithErrors;
 import org.eclipse.lsp.cobol.common.dialects.DialectOutcome;
 import org.eclipse.lsp.cobol.common.dialects.DialectProcessingContext;
+import org.eclipse.lsp.cobol.common.dialects.EmbeddedCodeScanner;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
 import org.eclipse.lsp.cobol.common.mapping.OriginalLocation;
 import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
@@ -62,6 +63,7 @@ public class ImplicitDialectProcessingStage implements Stage<AnalysisContext, Di
             .config(ctx.getConfig())
             .programDocumentUri(ctx.getExtendedDocument().getUri())
             .extendedDocument(ctx.getExtendedDocument())
+            .detached(ctx.isDetached())
             .build();
     dialectProcessingContext.getExtendedDocument().commitTransformations();
 
@@ -72,9 +74,13 @@ public class ImplicitDialectProcessingStage implements Stage<AnalysisContext, Di
     ArrayList<Node> extendedNodes = new ArrayList<>(dialectProcessingContext.getDialectNodes());
     dialectProcessingContext.getDialectNodes().clear();
 
-    // process dialects
+    // process dialects, the embedded code is found once for all of them
+    DialectProcessingContext processingContext =
+        dialectProcessingContext.toBuilder()
+            .embeddedCode(EmbeddedCodeScanner.scan(dialectProcessingContext.getExtendedDocument().toString()))
+            .build();
     ResultWithErrors<DialectOutcome> dialectOutcomeResultWithErrors =
-        dialectService.processImplicitDialects(ctx, new ArrayList<>(), dialectProcessingContext);
+        dialectService.processImplicitDialects(ctx, new ArrayList<>(), processingContext);
 
     DialectOutcome dialectOutcome = dialectOutcomeResultWithErrors.getResult();
     dialectOutcome.getDialectNodes().forEach(node -> node.getLocality().toOriginalLocation());
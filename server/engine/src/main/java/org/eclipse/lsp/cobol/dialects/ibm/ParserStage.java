@@ -44,6 +44,8 @@ import java.util.stream.Collectors;
  */
 @RequiredArgsConstructor
 public class ParserStage implements Stage<AnalysisContext, ParserStageResult, DialectOutcome> {
+  public static final String PREDICTION_ATTRIBUTE = "prediction";
+
   private final MessageService messageService;
   private final ParseTreeListener treeListener;
 
@@ -56,9 +58,10 @@ public class ParserStage implements Stage<AnalysisContext, ParserStageResult, Di
             .build());
     ParserListener listener = new ParserListener(context.getExtendedDocument(), context.getCopybooksRepository());
     DefaultErrorStrategy errorStrategy = new CobolErrorStrategy(messageService);
-    AstBuilder parser = new AntlrCobolParser(CharStreams.fromString(context.getExtendedDocument().toString()),
+    AntlrCobolParser parser = new AntlrCobolParser(CharStreams.fromString(context.getExtendedDocument().toString()),
             listener, errorStrategy, treeListener);
     CobolParser.StartRuleContext tree = parser.runParser();
+    context.getBenchmarkSession().attr(PREDICTION_ATTRIBUTE, parser.getPrediction().name());
     context.getAccumulatedErrors().addAll(listener.getErrors());
     context.getAccumulatedErrors().addAll(getParsingError(context, parser));
     return new StageResult<>(new ParserStageResult(parser.getTokens(), tree));
@@ -16,14 +16,20 @@ package org.eclipse.lsp.cobol.dialects.ibm;
 
 import java.util.ArrayList;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import lombok.Value;
 import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.common.dialects.DialectOutcome;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
 import org.eclipse.lsp.cobol.common.mapping.ExtendedDocument;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedText;
 import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
 import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisStageCache;
+import org.eclipse.lsp.cobol.core.engine.analysis.CopybookDependencies;
 import org.eclipse.lsp.cobol.common.pipeline.Stage;
 import org.eclipse.lsp.cobol.common.pipeline.StageResult;
 import org.eclipse.lsp.cobol.core.preprocessor.CopybookHierarchy;
@@ -32,17 +38,45 @@ import org.eclipse.lsp.cobol.core.preprocessor.delegates.PreprocessorContext;
 import org.eclipse.lsp.cobol.core.semantics.CopybooksRepository;
 
 /**
- * Preprocessor stage
+ * Preprocessor stage. If a stage cache is provided, the expanded document is reused while the
+ * copybooks have the same content, see {@link CopybookDependencies}, the settings the stage
+ * depends on stay the same, and the text that comes to the
+ * stage is either the same or changed only after the last line the preprocessor changed, without
+ * new statements for it. In the latter case the expanded text before that line is reused and the
+ * rest of the text is taken as it comes, so an edit of the procedure division does not expand the
+ * copybooks again. The copybooks of a reused document are requested from the copybook service
+ * again, so its usage tracking and download requests stay the same as after a full run.
  */
-@RequiredArgsConstructor
 public class PreprocessorStage implements Stage<AnalysisContext, CopybooksRepository, DialectOutcome> {
+  // the text that the preprocessor may change: its statements, or a period that could end a statement before it
+  private static final Pattern PREPROCESSOR_STATEMENT = Pattern.compile(
+      "\\A\\s*[.;]|(?<![\\w-])(COPY|REPLACE|INCLUDE|TITLE|ENTER|CONTROL|CBL)(?![\\w-])", Pattern.CASE_INSENSITIVE);
+  private static final Pattern REPLACE_STATEMENT = Pattern.compile("(?<![\\w-])REPLACE(?![\\w-])",
+      Pattern.CASE_INSENSITIVE);
+
   private final GrammarPreprocessor grammarPreprocessor;
   private final CleanerPreprocessor preprocessor;
+  private final AnalysisStageCache stageCache;
+  private final CopybookService copybookService;
+
+  public PreprocessorStage(GrammarPreprocessor grammarPreprocessor, CleanerPreprocessor preprocessor) {
+    this(grammarPreprocessor, preprocessor, null, null);
+  }
+
+  public PreprocessorStage(GrammarPreprocessor grammarPreprocessor, CleanerPreprocessor preprocessor,
+                           AnalysisStageCache stageCache, CopybookService copybookService) {
+    this.grammarPreprocessor = grammarPreprocessor;
+    this.preprocessor = preprocessor;
+    this.stageCache = stageCache;
+    this.copybookService = copybookService;
+  }
 
   @Override
   public StageResult<CopybooksRepository> run(AnalysisContext context, StageResult<DialectOutcome> prevStageResult) {
     // Preprocessor (replacement, copybooks)
-    CopybooksRepository copybooksRepository = runPreprocessor(context.getExtendedDocument().getUri(), context);
+    CopybooksRepository copybooksRepository = stageCache == null || copybookService == null || context.isDetached()
+        ? runPreprocessor(context.getExtendedDocument().getUri(), context)
+        : runMemoizedPreprocessor(context);
     applyDialectCopybooks(copybooksRepository, prevStageResult.getData().getDialectNodes());
 
     context.setDialectNodes(prevStageResult.getData().getDialectNodes());
@@ -66,18 +100,113 @@ public class PreprocessorStage implements Stage<AnalysisContext, CopybooksReposi
         });
   }
 
+  private CopybooksRepository runMemoizedPreprocessor(AnalysisContext ctx) {
+    ExtendedDocument document = ctx.getExtendedDocument();
+    String input = document.toString();
+    String fingerprint = stageCache.fingerprint(ctx.getLanguageId().getId(),
+        ctx.getConfig().getCopybookProcessingMode().name());
+    Optional<Snapshot> snapshot = stageCache.find(ctx.getDocumentUri(), getName(), fingerprint, Snapshot.class)
+        .filter(s -> s.getCopybookDependencies().isUpToDate(copybookService));
+    Optional<ExtendedText> text = snapshot.flatMap(s -> s.restore(input, document.getCurrentText()));
+    stageCache.recordLookup(ctx.getBenchmarkSession(), getName(), text.isPresent());
+    if (text.isPresent()) {
+      ctx.setExtendedDocument(new ExtendedDocument(text.get(), document.getOriginalText()));
+      ctx.getAccumulatedErrors().addAll(snapshot.get().getErrors());
+      snapshot.get().getCopybookDependencies().replay(copybookService, preprocessor);
+      return snapshot.get().getCopybooks().copy();
+    }
+    int errorsBefore = ctx.getAccumulatedErrors().size();
+    CopybooksRepository copybooks = preprocess(document.getUri(), ctx);
+    List<SyntaxError> errors = new ArrayList<>(ctx.getAccumulatedErrors().subList(errorsBefore, ctx.getAccumulatedErrors().size()));
+    // a REPLACE statement changes all the text after it, so such a text is reused only as a whole
+    int tailLines = errors.isEmpty() && !REPLACE_STATEMENT.matcher(input).find()
+        ? document.countUnchangedTailLines(input)
+        : 0;
+    document.commitTransformations();
+    // a document with missing copybooks is expanded again, so it gets the copybooks once they are downloaded
+    CopybookDependencies.collect(copybookService, document.getUri(), copybooks.getResolvedCopybooks())
+        .ifPresent(dependencies -> stageCache.put(ctx.getDocumentUri(), getName(), fingerprint,
+            Snapshot.of(input, document, tailLines, copybooks.copy(), dependencies, errors)));
+    return copybooks;
+  }
+
   private CopybooksRepository runPreprocessor(String programDocumentUri, AnalysisContext ctx) {
+    CopybooksRepository copybooks = preprocess(programDocumentUri, ctx);
+    ctx.getExtendedDocument().commitTransformations();
+    return copybooks;
+  }
+
+  private CopybooksRepository preprocess(String programDocumentUri, AnalysisContext ctx) {
     List<SyntaxError> preprocessorErrors = new ArrayList<>();
     ExtendedDocument extendedDocument = ctx.getExtendedDocument();
     PreprocessorContext context = new PreprocessorContext(programDocumentUri, extendedDocument,
-        ctx.getConfig().getCopybookProcessingMode(), new CopybookHierarchy(), new CopybooksRepository());
+        ctx.getConfig().getCopybookProcessingMode(), new CopybookHierarchy(), new CopybooksRepository(), ctx.isDetached());
 
     CopybooksRepository copybooks = grammarPreprocessor.preprocess(context, preprocessor)
             .unwrap(preprocessorErrors::addAll);
-    extendedDocument.commitTransformations();
 
     ctx.getAccumulatedErrors().addAll(preprocessorErrors);
     return copybooks;
   }
 
+  /**
+   * The result of a full run of the stage. The last lines of the input that the preprocessor did not
+   * change are the tail of the input, and the snapshot also applies to an input that differs from
+   * this one only in the tail.
+   */
+  @Value
+  private static class Snapshot {
+    String input;
+    ExtendedText text;
+    CopybooksRepository copybooks;
+    CopybookDependencies copybookDependencies;
+    List<SyntaxError> errors;
+    /** The length of the input before the tail, or -1 if the snapshot applies only to the same input */
+    int inputPrefixLength;
+    int inputPrefixLines;
+    int textPrefixLines;
+
+    static Snapshot of(String input, ExtendedDocument document, int tailLines, CopybooksRepository copybooks,
+                       CopybookDependencies copybookDependencies, List<SyntaxError> errors) {
+      ExtendedText text = document.getCurrentText().copy();
+      if (tailLines == 0) {
+        return new Snapshot(input, text, copybooks, copybookDependencies, errors, -1, 0, 0);
+      }
+      int inputPrefixLines = countLines(input) - tailLines;
+      int inputPrefixLength = 0;
+      for (int line = 0; line < inputPrefixLines; line++) {
+        inputPrefixLength = input.indexOf('\n', inputPrefixLength) + 1;
+      }
+      return new Snapshot(input, text, copybooks, copybookDependencies, errors, inputPrefixLength, inputPrefixLines,
+          countLines(document.toString()) - tailLines);
+    }
+
+    /**
+     * Restore the expanded text for the input
+     *
+     * @param newInput the current input of the stage
+     * @param newText the current text of the document
+     * @return the expanded text, or empty if the snapshot does not apply to the input
+     */
+    Optional<ExtendedText> restore(String newInput, ExtendedText newText) {
+      if (input.equals(newInput)) {
+        return Optional.of(text.copy());
+      }
+      if (inputPrefixLength < 0 || !newInput.regionMatches(0, input, 0, inputPrefixLength)
+          || PREPROCESSOR_STATEMENT.matcher(newInput).region(inputPrefixLength, newInput.length()).find()) {
+        return Optional.empty();
+      }
+      return Optional.of(text.copyWithTail(textPrefixLines, newText, inputPrefixLines));
+    }
+
+    private static int countLines(String text) {
+      int count = 1;
+      for (int i = 0; i < text.length(); i++) {
+        if (text.charAt(i) == '\n') {
+          count++;
+        }
+      }
+      return count;
+    }
+  }
 }
@@ -17,6 +17,7 @@ package org.eclipse.lsp.cobol.dialects.ibm;
 import lombok.Value;
 import org.eclipse.lsp.cobol.common.model.tree.RootNode;
 import org.eclipse.lsp.cobol.common.symbols.SymbolTable;
+import org.eclipse.lsp.cobol.common.utils.NodePositionIndex;
 
 import java.util.Map;
 
@@ -27,4 +28,5 @@ import java.util.Map;
 public class ProcessingResult {
   Map<String, SymbolTable> symbolTableMap;
   RootNode rootNode;
+  NodePositionIndex positionIndex;
 }
@@ -33,6 +33,7 @@ import org.eclipse.lsp.cobol.common.model.tree.variables.FileDescriptionNode;
 import org.eclipse.lsp.cobol.common.pipeline.Stage;
 import org.eclipse.lsp.cobol.common.pipeline.StageResult;
 import org.eclipse.lsp.cobol.common.processor.*;
+import org.eclipse.lsp.cobol.common.utils.NodePositionIndex;
 import org.eclipse.lsp.cobol.common.utils.RangeUtils;
 import org.eclipse.lsp.cobol.core.CobolParser;
 import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
@@ -48,6 +49,7 @@ import org.eclipse.lsp.cobol.service.settings.CachingConfigurationService;
 import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
 import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutUtil;
 import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 
 /**
@@ -77,9 +79,12 @@ public class TransformTreeStage implements Stage<AnalysisContext, ProcessingResu
     SymbolAccumulatorService symbolAccumulatorService = new SymbolAccumulatorService();
     processSyntaxTree(context.getConfig(), symbolAccumulatorService, context, rootNode);
 
-    symbolsRepository.updateSymbols(symbolAccumulatorService.getProgramSymbols());
+    if (!context.isDetached()) {
+      symbolsRepository.updateSymbols(symbolAccumulatorService.getProgramSymbols());
+    }
 
-    return new StageResult<>(new ProcessingResult(symbolAccumulatorService.getProgramSymbols(), rootNode));
+    return new StageResult<>(new ProcessingResult(symbolAccumulatorService.getProgramSymbols(), rootNode,
+        NodePositionIndex.build(rootNode)));
   }
 
   @Override
@@ -88,17 +93,41 @@ public class TransformTreeStage implements Stage<AnalysisContext, ProcessingResu
   }
 
   private void addDialectsNode(AnalysisContext context, Node rootNode) {
+    // The index of the tree without dialect nodes gives the same parents only if no dialect node can
+    // become the parent of another one
+    NodePositionIndex index = canBeNested(context.getDialectNodes()) ? null : NodePositionIndex.build(rootNode);
     for (Node dialectNode : context.getDialectNodes()) {
-      Optional<Node> nodeByPosition =
-          RangeUtils.findNodeByPosition(
-              rootNode,
-              dialectNode.getLocality().getUri(),
-              dialectNode.getLocality().getRange().getStart());
+      String uri = dialectNode.getLocality().getUri();
+      Position start = dialectNode.getLocality().getRange().getStart();
+      Optional<Node> nodeByPosition = index == null
+          ? RangeUtils.findNodeByPosition(rootNode, uri, start)
+          : index.findNodeByPosition(uri, start);
 
       addChild(nodeByPosition.orElse(rootNode), dialectNode);
     }
   }
 
+  private static boolean canBeNested(List<Node> dialectNodes) {
+    Map<String, List<Range>> rangesByUri = new HashMap<>();
+    for (Node dialectNode : dialectNodes) {
+      if (dialectNode.getDepthFirstStream().anyMatch(CopyNode.class::isInstance)) {
+        return true;
+      }
+      rangesByUri.computeIfAbsent(dialectNode.getLocality().getUri(), u -> new ArrayList<>())
+          .add(dialectNode.getLocality().getRange());
+    }
+    for (List<Range> ranges : rangesByUri.values()) {
+      ranges.sort((a, b) -> RangeUtils.isBefore(a.getStart(), b.getStart()) ? -1
+          : RangeUtils.isAfter(a.getStart(), b.getStart()) ? 1 : 0);
+      for (int i = 1; i < ranges.size(); i++) {
+        if (!RangeUtils.isBefore(ranges.get(i - 1).getEnd(), ranges.get(i).getStart())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   private void addChild(Node node, Node dialectNode) {
     int index = 0;
     for (Node child : node.getChildren()) {
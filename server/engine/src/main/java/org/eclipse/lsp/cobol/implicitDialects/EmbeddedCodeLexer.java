@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.implicitDialects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.experimental.UtilityClass;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.Pair;
+import org.eclipse.lsp.cobol.common.dialects.DialectProcessingContext;
+import org.eclipse.lsp.cobol.common.dialects.EmbeddedCodeRegion;
+import org.eclipse.lsp.cobol.common.dialects.EmbeddedCodeScanner;
+
+/**
+ * Creates the token streams of the implicit dialects from the regions of embedded code only. Each
+ * region is lexed separately, starting at its line and column, so the tokens keep their positions
+ * in the whole document, and the parser sees the regions as one stream. The character indexes of
+ * the tokens refer to the whole document too, so the text of a rule that spans several regions can
+ * be taken from the input stream of its tokens. That input stream reads the document string
+ * directly, so the text outside of the regions is never copied into a character stream.
+ */
+@UtilityClass
+public class EmbeddedCodeLexer {
+
+  /**
+   * Find the regions of embedded code with the given keywords. The regions are taken from the
+   * context if they were already found for another dialect.
+   *
+   * @param context the dialect processing context
+   * @param text the current text of the document
+   * @param keywords the keywords of the regions the dialect is interested in
+   * @return the regions ordered by their positions
+   */
+  public List<EmbeddedCodeRegion> findRegions(DialectProcessingContext context, String text, Set<String> keywords) {
+    return Optional.ofNullable(context.getEmbeddedCode())
+        .orElseGet(() -> EmbeddedCodeScanner.scan(text))
+        .stream()
+        .filter(region -> keywords.contains(region.getKeyword()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Lex the regions of the text
+   *
+   * @param text the document text
+   * @param regions the regions to lex
+   * @param lexerFactory creates a dialect lexer for the character stream of a region
+   * @param listener the listener of the lexer errors
+   * @return the tokens of all the regions followed by EOF
+   */
+  public CommonTokenStream tokenize(
+      String text,
+      List<EmbeddedCodeRegion> regions,
+      Function<CharStream, Lexer> lexerFactory,
+      ANTLRErrorListener listener) {
+    List<Token> tokens = new ArrayList<>();
+    CharStream document = new DocumentText(text);
+    Token eof = null;
+    for (EmbeddedCodeRegion region : regions) {
+      int end = Math.min(region.getEnd(), text.length());
+      if (region.getStart() >= end) continue;
+      Lexer lexer = lexerFactory.apply(CharStreams.fromString(text.substring(region.getStart(), end)));
+      lexer.setTokenFactory(new DocumentTokenFactory(document, region.getStart()));
+      lexer.removeErrorListeners();
+      lexer.addErrorListener(listener);
+      lexer.setLine(region.getLine() + 1);
+      lexer.setCharPositionInLine(region.getColumn());
+      for (Token token = lexer.nextToken(); ; token = lexer.nextToken()) {
+        if (token.getType() == Token.EOF) {
+          eof = token;
+          break;
+        }
+        tokens.add(token);
+      }
+    }
+    if (eof != null) tokens.add(eof);
+    return new CommonTokenStream(new ListTokenSource(tokens));
+  }
+
+  /** The document as the input stream of the tokens, which is only used to take the text between them */
+  private static class DocumentText implements CharStream {
+    private final String text;
+    private int index;
+
+    DocumentText(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+      int start = Math.max(interval.a, 0);
+      int stop = Math.min(interval.b, text.length() - 1);
+      return start > stop ? "" : text.substring(start, stop + 1);
+    }
+
+    @Override
+    public void consume() {
+      if (index >= text.length()) throw new IllegalStateException("cannot consume EOF");
+      index++;
+    }
+
+    @Override
+    public int LA(int i) {
+      int position = i > 0 ? index + i - 1 : index + i;
+      return position < 0 || position >= text.length() ? IntStream.EOF : text.charAt(position);
+    }
+
+    @Override
+    public int mark() {
+      return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+      // nothing is buffered
+    }
+
+    @Override
+    public int index() {
+      return index;
+    }
+
+    @Override
+    public void seek(int index) {
+      this.index = Math.min(index, text.length());
+    }
+
+    @Override
+    public int size() {
+      return text.length();
+    }
+
+    @Override
+    public String getSourceName() {
+      return IntStream.UNKNOWN_SOURCE_NAME;
+    }
+  }
+
+  /** Creates the tokens of a region with the character indexes and the input stream of the document */
+  private static class DocumentTokenFactory implements TokenFactory<CommonToken> {
+    private final CharStream document;
+    private final int offset;
+
+    DocumentTokenFactory(CharStream document, int offset) {
+      this.document = document;
+      this.offset = offset;
+    }
+
+    @Override
+    public CommonToken create(Pair<TokenSource, CharStream> source, int type, String text, int channel,
+                              int start, int stop, int line, int charPositionInLine) {
+      CommonToken token =
+          new CommonToken(new Pair<>(source.a, document), type, channel, start + offset, stop + offset);
+      token.setLine(line);
+      token.setCharPositionInLine(charPositionInLine);
+      if (text != null) token.setText(text);
+      return token;
+    }
+
+    @Override
+    public CommonToken create(int type, String text) {
+      return new CommonToken(type, text);
+    }
+  }
+}
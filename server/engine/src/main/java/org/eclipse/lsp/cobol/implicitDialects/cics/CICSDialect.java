@@ -16,8 +16,10 @@
 package org.eclipse.lsp.cobol.implicitDialects.cics;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.antlr.v4.runtime.CharStreams;
@@ -27,6 +29,8 @@ import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.common.dialects.CobolDialect;
 import org.eclipse.lsp.cobol.common.dialects.DialectOutcome;
 import org.eclipse.lsp.cobol.common.dialects.DialectProcessingContext;
+import org.eclipse.lsp.cobol.common.dialects.EmbeddedCodeRegion;
+import org.eclipse.lsp.cobol.common.dialects.EmbeddedCodeScanner;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
 import org.eclipse.lsp.cobol.common.message.MessageService;
 import org.eclipse.lsp.cobol.common.model.tree.CompilerDirectiveNode;
@@ -35,6 +39,7 @@ import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
 import org.eclipse.lsp.cobol.common.model.tree.SectionNode;
 import org.eclipse.lsp.cobol.common.processor.ProcessingPhase;
 import org.eclipse.lsp.cobol.common.processor.ProcessorDescription;
+import org.eclipse.lsp.cobol.implicitDialects.EmbeddedCodeLexer;
 import org.eclipse.lsp.cobol.implicitDialects.cics.nodes.ExecCicsNode;
 import org.eclipse.lsp.cobol.implicitDialects.cics.processor.CICSExecBlockProcessor;
 import org.eclipse.lsp.cobol.implicitDialects.cics.processor.CICSImplicitVariablesProcessor;
@@ -45,6 +50,8 @@ import org.eclipse.lsp.cobol.implicitDialects.cics.processor.CICSTranslateMandat
 public class CICSDialect implements CobolDialect {
 
   public static final String DIALECT_NAME = "cics";
+  private static final Set<String> CICS_REGIONS =
+      ImmutableSet.of("CICS", EmbeddedCodeScanner.DFHRESP, EmbeddedCodeScanner.DFHVALUE);
   private final CopybookService copybookService;
   private final MessageService messageService;
 
@@ -64,10 +71,12 @@ public class CICSDialect implements CobolDialect {
 
     List<SyntaxError> parseError = new ArrayList<>();
 
-    // parse the document text to get parseTree
+    // parse the CICS parts of the document text to get parseTree
+    String text = context.getExtendedDocument().toString();
     CICSParser.StartRuleContext startRuleContext =
         parseCICS(
-            context.getExtendedDocument().toString(),
+            text,
+            EmbeddedCodeLexer.findRegions(context, text, CICS_REGIONS),
             context.getExtendedDocument().getUri(),
             parseError);
 
@@ -118,13 +127,10 @@ public class CICSDialect implements CobolDialect {
   }
 
   private CICSParser.StartRuleContext parseCICS(
-      String text, String programDocumentUri, List<SyntaxError> errors) {
-    CICSLexer lexer = new CICSLexer(CharStreams.fromString(text));
-    CommonTokenStream tokens = new CommonTokenStream(lexer);
-    CICSParser parser = new CICSParser(tokens);
+      String text, List<EmbeddedCodeRegion> regions, String programDocumentUri, List<SyntaxError> errors) {
     CICSErrorListener listener = new CICSErrorListener(programDocumentUri);
-    lexer.removeErrorListeners();
-    lexer.addErrorListener(listener);
+    CommonTokenStream tokens = EmbeddedCodeLexer.tokenize(text, regions, CICSLexer::new, listener);
+    CICSParser parser = new CICSParser(tokens);
     parser.removeErrorListeners();
     parser.addErrorListener(listener);
     parser.setErrorHandler(new CICSErrorStrategy(messageService));
@@ -15,6 +15,7 @@
 
 package org.eclipse.lsp.cobol.implicitDialects.cics.generator;
 
+import com.google.common.collect.ImmutableList;
 import lombok.experimental.UtilityClass;
 import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.tree.variable.ElementaryItemNode;
@@ -22,18 +23,24 @@ import org.eclipse.lsp.cobol.common.model.tree.variable.GroupItemNode;
 import org.eclipse.lsp.cobol.common.model.tree.variable.UsageFormat;
 import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
 import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
+import org.eclipse.lsp.cobol.core.engine.processors.implicit.ImplicitVariablesTemplate;
 
 /**
  * Generates DFHEIBLK data structure
  */
 @UtilityClass
 public class CICSBulkImplicitVariablesGenerator {
+    private static final ImplicitVariablesTemplate TEMPLATE = new ImplicitVariablesTemplate(ImmutableList.of(build()));
 
     /**
      * Generates DFHEIBLK data structure
      * @return DFHEIBLK data structure
      */
     public VariableNode generate() {
+        return TEMPLATE.instantiate().get(0);
+    }
+
+    private VariableNode build() {
         // Add DFHEIBLK data structure
       /*
        01 DFHEIBLK.
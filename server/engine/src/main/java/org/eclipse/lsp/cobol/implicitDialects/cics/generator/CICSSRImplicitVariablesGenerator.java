@@ -20,6 +20,7 @@ import org.eclipse.lsp.cobol.common.model.tree.variable.ElementaryItemNode;
 import org.eclipse.lsp.cobol.common.model.tree.variable.UsageFormat;
 import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
 import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
+import org.eclipse.lsp.cobol.core.engine.processors.implicit.ImplicitVariablesTemplate;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -29,6 +30,8 @@ import java.util.List;
  */
 @UtilityClass
 public class CICSSRImplicitVariablesGenerator {
+    private static final ImplicitVariablesTemplate TEMPLATE = new ImplicitVariablesTemplate(build());
+
     /*  CICS Translate introduced variables
       01   dfhb0040  comp-5 pic s9(8) is global.
       01   dfhb0041  comp-5 pic s9(8) is global.
@@ -252,6 +255,10 @@ public class CICSSRImplicitVariablesGenerator {
      * @return CICS special registers data structure
      */
     public static List<VariableNode> generate() {
+        return TEMPLATE.instantiate();
+    }
+
+    private static List<VariableNode> build() {
         List<VariableNode> result = new LinkedList<>();
         Locality locality = Locality.builder()
                 .uri(ImplicitCodeUtils.createFullUrl("implicit-code-CICS-SPECIALREGISTERS"))
@@ -16,11 +16,11 @@
 package org.eclipse.lsp.cobol.implicitDialects.sql;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.gson.JsonElement;
 import java.util.*;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
-import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.eclipse.lsp.cobol.common.AnalysisConfig;
 import org.eclipse.lsp.cobol.common.ResultWithErrors;
@@ -28,6 +28,8 @@ import org.eclipse.lsp.cobol.common.copybook.*;
 import org.eclipse.lsp.cobol.common.dialects.CobolDialect;
 import org.eclipse.lsp.cobol.common.dialects.DialectOutcome;
 import org.eclipse.lsp.cobol.common.dialects.DialectProcessingContext;
+import org.eclipse.lsp.cobol.common.dialects.EmbeddedCodeRegion;
+import org.eclipse.lsp.cobol.common.dialects.EmbeddedCodeScanner;
 import org.eclipse.lsp.cobol.common.error.SyntaxError;
 import org.eclipse.lsp.cobol.common.file.WorkspaceFileService;
 import org.eclipse.lsp.cobol.common.message.MessageService;
@@ -38,6 +40,7 @@ import org.eclipse.lsp.cobol.common.processor.ProcessorDescription;
 import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
 import org.eclipse.lsp.cobol.common.utils.KeywordsUtils;
 import org.eclipse.lsp.cobol.common.utils.PredefinedCopybooks;
+import org.eclipse.lsp.cobol.implicitDialects.EmbeddedCodeLexer;
 import org.eclipse.lsp.cobol.implicitDialects.sql.node.Db2DataAndProcedureDivisionNode;
 import org.eclipse.lsp.cobol.implicitDialects.sql.node.Db2DeclareVariableNode;
 import org.eclipse.lsp.cobol.implicitDialects.sql.node.Db2ProcedureDivisionNode;
@@ -49,6 +52,7 @@ import org.eclipse.lsp.cobol.implicitDialects.sql.processor.*;
 public class Db2SqlDialect implements CobolDialect {
   public static final String DIALECT_NAME = "db2";
   public static final String SQL_BACKEND_SETTING = "target-sql-backend";
+  private static final Set<String> SQL_REGIONS = ImmutableSet.of("SQL", "SQLIMS", EmbeddedCodeScanner.SQL_TYPE);
 
   private final CopybookService copybookService;
   private final MessageService messageService;
@@ -74,10 +78,12 @@ public class Db2SqlDialect implements CobolDialect {
 
     List<SyntaxError> parseError = new ArrayList<>();
 
-    // parse the document text to get parseTree
+    // parse the SQL parts of the document text to get parseTree
+    String text = context.getExtendedDocument().toString();
     Db2SqlParser.StartRuleContext startRuleContext =
         parseDB2(
-            context.getExtendedDocument().toString(),
+            text,
+            EmbeddedCodeLexer.findRegions(context, text, SQL_REGIONS),
             context.getExtendedDocument().getUri(),
             parseError);
 
@@ -136,13 +142,10 @@ public class Db2SqlDialect implements CobolDialect {
   }
 
   private Db2SqlParser.StartRuleContext parseDB2(
-      String text, String programDocumentUri, List<SyntaxError> errors) {
-    Db2SqlLexer lexer = new Db2SqlLexer(CharStreams.fromString(text));
-    CommonTokenStream tokens = new CommonTokenStream(lexer);
-    Db2SqlParser parser = new Db2SqlParser(tokens);
+      String text, List<EmbeddedCodeRegion> regions, String programDocumentUri, List<SyntaxError> errors) {
     Db2ErrorListener listener = new Db2ErrorListener(programDocumentUri);
-    lexer.removeErrorListeners();
-    lexer.addErrorListener(listener);
+    CommonTokenStream tokens = EmbeddedCodeLexer.tokenize(text, regions, Db2SqlLexer::new, listener);
+    Db2SqlParser parser = new Db2SqlParser(tokens);
     parser.removeErrorListeners();
     parser.addErrorListener(listener);
     parser.setErrorHandler(new Db2ErrorStrategy(messageService));
@@ -19,6 +19,7 @@ import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.tree.variable.*;
 import org.eclipse.lsp.cobol.common.processor.CompilerDirectiveName;
 import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
+import org.eclipse.lsp.cobol.core.engine.processors.implicit.ImplicitVariablesTemplate;
 
 import java.util.Collections;
 import java.util.List;
@@ -32,6 +33,9 @@ public class Db2ImplicitVariablesGenerator {
   static final Locality LOCALITY = Locality.builder()
           .uri(ImplicitCodeUtils.createFullUrl("implicit-code-SQLCA_DB2"))
           .build();
+  private static final ImplicitVariablesTemplate DB2_TEMPLATE = new ImplicitVariablesTemplate(buildDb2Nodes(false));
+  private static final ImplicitVariablesTemplate DB2_STDSQL_TEMPLATE = new ImplicitVariablesTemplate(buildDb2Nodes(true));
+  private static final ImplicitVariablesTemplate DATACOM_TEMPLATE = new ImplicitVariablesTemplate(buildDatacomNodes());
 
   /**
    * Generates SQLCA data structure for DB2
@@ -40,6 +44,12 @@ public class Db2ImplicitVariablesGenerator {
    * @return SQLCA data structure
    */
   public List<VariableNode> generateDb2Nodes(Map<CompilerDirectiveName, List<String>> compilerDirectiveMap) {
+    boolean stdSql = compilerDirectiveMap.get(CompilerDirectiveName.STDSQL) != null
+        && compilerDirectiveMap.get(CompilerDirectiveName.STDSQL).get(0).equalsIgnoreCase("YES");
+    return (stdSql ? DB2_STDSQL_TEMPLATE : DB2_TEMPLATE).instantiate();
+  }
+
+  private List<VariableNode> buildDb2Nodes(boolean stdSql) {
   /*
         01 SQLCA.
                 05 SQLCAID      PIC X(8).
@@ -69,8 +79,7 @@ public class Db2ImplicitVariablesGenerator {
     VariableNode variable = new GroupItemNode(LOCALITY, 1, "SQLCA", false, false, UsageFormat.UNDEFINED);
     addElement(variable, 5, "SQLCAID", "X(8)");
     addElement(variable, 5, "SQLCABC", "S9(9)", UsageFormat.COMP_5);
-    if (compilerDirectiveMap.get(CompilerDirectiveName.STDSQL) != null
-            && compilerDirectiveMap.get(CompilerDirectiveName.STDSQL).get(0).equalsIgnoreCase("YES")) {
+    if (stdSql) {
       addElement(variable, 5, "SQLCADE", "S9(9)", UsageFormat.COMP_5);
     } else {
       addElement(variable, 5, "SQLCODE", "S9(9)", UsageFormat.COMP_5);
@@ -98,8 +107,7 @@ public class Db2ImplicitVariablesGenerator {
     addElement(sqlext, 10, "SQLWARN8", "X");
     addElement(sqlext, 10, "SQLWARN9", "X");
     addElement(sqlext, 10, "SQLWARNA", "X");
-    if (compilerDirectiveMap.get(CompilerDirectiveName.STDSQL) != null
-            && compilerDirectiveMap.get(CompilerDirectiveName.STDSQL).get(0).equalsIgnoreCase("YES")) {
+    if (stdSql) {
       addElement(sqlext, 10, "SQLSTAT", "X(5)");
     } else {
       addElement(sqlext, 10, "SQLSTATE", "X(5)");
@@ -124,6 +132,10 @@ public class Db2ImplicitVariablesGenerator {
    * @return SQLCA data structure
    */
   public static List<VariableNode> generateDatacomNodes() {
+    return DATACOM_TEMPLATE.instantiate();
+  }
+
+  private static List<VariableNode> buildDatacomNodes() {
     /*
           01  SQLCA.
                 05  SQLCA-EYE-CATCH          PIC X(08).
@@ -29,6 +29,7 @@ import org.eclipse.lsp.cobol.lsp.handlers.extended.AnalysisHandler;
 import org.eclipse.lsp.cobol.lsp.handlers.text.*;
 import org.eclipse.lsp.cobol.lsp.jrpc.ExtendedApi;
 import org.eclipse.lsp.cobol.service.delegates.communications.Communications;
+import org.eclipse.lsp.cobol.service.metrics.MetricsService;
 import org.eclipse.lsp4j.*;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.TextDocumentService;
@@ -60,6 +61,8 @@ public class CobolTextDocumentService implements TextDocumentService, ExtendedAp
   private final ReferencesHandler referencesHandler;
   private final HoverHandler hoverHandler;
   private final FoldingRangeHandler foldingRangeHandler;
+  private final SemanticTokensHandler semanticTokensHandler;
+  private final MetricsService metricsService;
 
   @Inject
   public CobolTextDocumentService(
@@ -76,7 +79,9 @@ public class CobolTextDocumentService implements TextDocumentService, ExtendedAp
           DocumentHighlightHandler documentHighlightHandler,
           ReferencesHandler referencesHandler,
           HoverHandler hoverHandler,
-          FoldingRangeHandler foldingRangeHandler) {
+          FoldingRangeHandler foldingRangeHandler,
+          SemanticTokensHandler semanticTokensHandler,
+          MetricsService metricsService) {
     this.lspMessageBroker = lspMessageBroker;
     this.completionHandler = completionHandler;
     this.codeActionHandler = codeActionHandler;
@@ -91,6 +96,8 @@ public class CobolTextDocumentService implements TextDocumentService, ExtendedAp
     this.referencesHandler = referencesHandler;
     this.hoverHandler = hoverHandler;
     this.foldingRangeHandler = foldingRangeHandler;
+    this.semanticTokensHandler = semanticTokensHandler;
+    this.metricsService = metricsService;
   }
 
   @Override
@@ -157,6 +164,11 @@ public class CobolTextDocumentService implements TextDocumentService, ExtendedAp
     return lspMessageBroker.query(analysisHandler.createEvent(json));
   }
 
+  @Override
+  public CompletableFuture<JsonObject> metrics() {
+    return CompletableFuture.completedFuture(metricsService.snapshot());
+  }
+
   @Override
   public CompletableFuture<List<Either<SymbolInformation, DocumentSymbol>>> documentSymbol(
           DocumentSymbolParams params) {
@@ -172,4 +184,20 @@ public class CobolTextDocumentService implements TextDocumentService, ExtendedAp
   public CompletableFuture<List<FoldingRange>> foldingRange(FoldingRangeRequestParams params) {
     return lspMessageBroker.query(foldingRangeHandler.createEvent(params));
   }
+
+  @Override
+  public CompletableFuture<SemanticTokens> semanticTokensFull(SemanticTokensParams params) {
+    return lspMessageBroker.query(semanticTokensHandler.createEvent(params));
+  }
+
+  @Override
+  public CompletableFuture<Either<SemanticTokens, SemanticTokensDelta>> semanticTokensFullDelta(
+          SemanticTokensDeltaParams params) {
+    return lspMessageBroker.query(semanticTokensHandler.createEvent(params));
+  }
+
+  @Override
+  public CompletableFuture<SemanticTokens> semanticTokensRange(SemanticTokensRangeParams params) {
+    return lspMessageBroker.query(semanticTokensHandler.createEvent(params));
+  }
 }
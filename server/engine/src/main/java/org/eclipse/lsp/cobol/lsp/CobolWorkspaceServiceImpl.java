@@ -17,16 +17,20 @@ package org.eclipse.lsp.cobol.lsp;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.lsp.events.notifications.DidChangeWatchedFilesNotification;
 import org.eclipse.lsp.cobol.lsp.events.queries.ExecuteCommandQuery;
+import org.eclipse.lsp.cobol.lsp.events.queries.WorkspaceSymbolQuery;
 import org.eclipse.lsp.cobol.lsp.handlers.workspace.DidChangeConfigurationHandler;
 import org.eclipse.lsp.cobol.lsp.handlers.workspace.DidChangeWatchedFilesHandler;
 import org.eclipse.lsp.cobol.lsp.handlers.workspace.ExecuteCommandHandler;
+import org.eclipse.lsp.cobol.lsp.handlers.workspace.WorkspaceSymbolHandler;
 import org.eclipse.lsp4j.*;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.WorkspaceService;
 
 /**
@@ -40,17 +44,20 @@ public class CobolWorkspaceServiceImpl extends LspEventConsumer implements Works
   private final ExecuteCommandHandler executeCommandHandler;
   private final DidChangeConfigurationHandler didChangeConfigurationHandler;
   private final DidChangeWatchedFilesHandler didChangeWatchedFilesHandler;
+  private final WorkspaceSymbolHandler workspaceSymbolHandler;
 
   @Inject
   public CobolWorkspaceServiceImpl(
       LspMessageBroker lspMessageBroker,
       ExecuteCommandHandler executeCommandHandler,
       DidChangeConfigurationHandler didChangeConfigurationHandler,
-      DidChangeWatchedFilesHandler didChangeWatchedFilesHandler) {
+      DidChangeWatchedFilesHandler didChangeWatchedFilesHandler,
+      WorkspaceSymbolHandler workspaceSymbolHandler) {
     super(lspMessageBroker);
     this.executeCommandHandler = executeCommandHandler;
     this.didChangeConfigurationHandler = didChangeConfigurationHandler;
     this.didChangeWatchedFilesHandler = didChangeWatchedFilesHandler;
+    this.workspaceSymbolHandler = workspaceSymbolHandler;
   }
 
   /**
@@ -91,4 +98,17 @@ public class CobolWorkspaceServiceImpl extends LspEventConsumer implements Works
     getLspMessageBroker()
         .notify(new DidChangeWatchedFilesNotification(params, didChangeWatchedFilesHandler));
   }
+
+  /**
+   * Search the definitions of the workspace programs by name. The result is empty if the workspace
+   * index is not enabled.
+   *
+   * @param params - the query to search for
+   * @return the found workspace symbols
+   */
+  @Override
+  public CompletableFuture<Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>> symbol(
+      WorkspaceSymbolParams params) {
+    return getLspMessageBroker().query(new WorkspaceSymbolQuery(params, workspaceSymbolHandler));
+  }
 }
@@ -16,9 +16,11 @@ package org.eclipse.lsp.cobol.lsp;
 
 import static org.eclipse.lsp.cobol.lsp.LspMessageBroker.POISON_PILL;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -54,11 +56,15 @@ public class LspEventConsumer {
 
   private <T> void handle(LspQuery<T> event) {
     if (event.getResult().isCancelled()) {
-      LOG.info(event + " was canceled.");
+      LOG.debug(event + " was canceled.");
       return;
     }
     try {
-      if (!event.getDependencies().stream().allMatch(LspEventDependency::isSatisfied)) {
+      List<LspEventDependency> dependencies = event.getDependencies();
+      List<CompletableFuture<?>> signals = dependencies.stream()
+          .map(LspEventDependency::nextChange)
+          .collect(Collectors.toList());
+      if (!dependencies.stream().allMatch(LspEventDependency::isSatisfied)) {
         boolean isCanceled =
             event.getCancelConditions().stream()
                 .anyMatch(LspEventCancelCondition::shouldBeCanceled);
@@ -66,7 +72,7 @@ public class LspEventConsumer {
           LOG.debug("cancel event: " + event);
           event.getResult().cancel(true);
         } else {
-          this.lspMessageBroker.putBack(event);
+          this.lspMessageBroker.await(event, signals);
         }
         return;
       }
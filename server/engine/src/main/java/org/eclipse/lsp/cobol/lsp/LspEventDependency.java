@@ -14,6 +14,8 @@
  */
 package org.eclipse.lsp.cobol.lsp;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Contains event handler execution precondition.
  */
@@ -24,4 +26,16 @@ public interface LspEventDependency {
    * @return false is execution should be postponed.
    */
   boolean isSatisfied();
+
+  /**
+   * Get a signal of the next change of the dependency state. The signal must be taken before the
+   * {@link #isSatisfied()} check, so a change between the check and the subscription is not lost.
+   * The postponed event is re-checked as soon as the signal completes, or after a timeout if the
+   * dependency never signals.
+   *
+   * @return the future that completes when the dependency state may have changed
+   */
+  default CompletableFuture<?> nextChange() {
+    return new CompletableFuture<>();
+  }
 }
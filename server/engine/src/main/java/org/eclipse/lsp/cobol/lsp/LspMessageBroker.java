@@ -15,18 +15,37 @@
 package org.eclipse.lsp.cobol.lsp;
 
 import com.google.inject.Singleton;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Queue LSP messages.
+ *
+ * <p>Queries with unsatisfied dependencies wait outside the queue until one of their dependencies
+ * signals a change, and then they are put back to the queue to be checked again. The number of the
+ * queued events is tracked per event type, so the queue is never scanned to report it.
  */
 @Slf4j
 @Singleton
 public class LspMessageBroker {
   public static final LspNotification POISON_PILL = () -> {};
-  private final BlockingDeque<LspEvent> eventQueue = new LinkedBlockingDeque<>();
+  private static final long RECHECK_TIMEOUT_MS = 1000;
+  private static final ScheduledExecutorService RECHECK_TIMER =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "LSP dependency timer");
+        thread.setDaemon(true);
+        return thread;
+      });
 
+  private final BlockingDeque<LspEvent> eventQueue = new LinkedBlockingDeque<>();
+  private final Map<Class<?>, AtomicInteger> queuedByType = new ConcurrentHashMap<>();
+  private final Set<LspQuery<?>> waiting = ConcurrentHashMap.newKeySet();
+  private final Map<String, LspQuery<?>> latestQueries = new ConcurrentHashMap<>();
 
   /**
    * Return queue size
@@ -42,22 +61,49 @@ public class LspMessageBroker {
    * @return queue size
    */
   public int queueSizeForType(Class<?> clazz) {
-      return (int) eventQueue.stream().filter(next -> next.getClass().equals(clazz)).count();
+    AtomicInteger counter = queuedByType.get(clazz);
+    return counter == null ? 0 : counter.get();
   }
 
   /**
-   * Put backs an event to the end of queue
-   * @param nextEven
-   * @param <Q>
-   * @throws InterruptedException
+   * Return count of events in the queue per event type
+   * @return the map of event class simple names to their counts
    */
-  public <Q> void putBack(LspQuery<Q> nextEven) throws InterruptedException {
-    LOG.debug("putBack: " + nextEven);
-    if (!eventQueue.offer(nextEven)) {
-      LOG.warn("Event " + nextEven + " dropped");
-    }
-    // save the CPU
-    TimeUnit.MILLISECONDS.sleep(100);
+  public Map<String, Long> queueSizeByType() {
+    Map<String, Long> result = new HashMap<>();
+    queuedByType.forEach((type, counter) -> {
+      if (counter.get() > 0) result.merge(type.getSimpleName(), (long) counter.get(), Long::sum);
+    });
+    return result;
+  }
+
+  /**
+   * Return count of the queries that wait for their dependencies
+   * @return the number of the waiting queries
+   */
+  public int waitingSize() {
+    return waiting.size();
+  }
+
+  /**
+   * Postpone a query until one of its dependencies signals a change. The query is put back to the
+   * end of the queue then, or after a timeout if no signal comes, so its dependencies and cancel
+   * conditions are checked again.
+   *
+   * @param event the query to postpone
+   * @param signals the signals of the next changes of the query dependencies
+   * @param <Q> type of the query result
+   */
+  public <Q> void await(LspQuery<Q> event, List<CompletableFuture<?>> signals) {
+    LOG.debug("await: " + event);
+    waiting.add(event);
+    Runnable release = () -> {
+      if (waiting.remove(event)) {
+        offer(event, "dropped");
+      }
+    };
+    CompletableFuture.anyOf(signals.toArray(new CompletableFuture[0])).whenComplete((r, e) -> release.run());
+    RECHECK_TIMER.schedule(release, RECHECK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
   }
 
   /**
@@ -67,7 +113,9 @@ public class LspMessageBroker {
    * @throws InterruptedException
    */
   public LspEvent take() throws InterruptedException {
-    return eventQueue.take();
+    LspEvent event = eventQueue.take();
+    queuedByType.get(event.getClass()).decrementAndGet();
+    return event;
   }
 
 
@@ -79,9 +127,8 @@ public class LspMessageBroker {
    * @return future object for the event
    */
   public <R> CompletableFuture<R> query(LspQuery<R> event) {
-      if (!eventQueue.offer(event)) {
-        LOG.warn("Event " + event + " skipped");
-      }
+    supersede(event);
+    offer(event, "skipped");
     return event.getResult();
   }
 
@@ -91,9 +138,7 @@ public class LspMessageBroker {
    * @param event the event
    */
   public void notify(LspNotification event) {
-      if (!eventQueue.offer(event)) {
-        LOG.warn("Event " + event + " skipped");
-      }
+    offer(event, "skipped");
   }
 
   /**
@@ -102,6 +147,30 @@ public class LspMessageBroker {
    * @throws InterruptedException can be interrupted
    */
   public void stop() throws InterruptedException {
+    counter(POISON_PILL).incrementAndGet();
     eventQueue.put(POISON_PILL);
   }
+
+  private void supersede(LspQuery<?> event) {
+    String key = event.getSupersedingKey();
+    if (key == null) return;
+    LspQuery<?> previous = latestQueries.put(key, event);
+    if (previous != null && previous != event && previous.getResult().cancel(true)) {
+      LOG.debug("Event " + previous + " superseded");
+    }
+    event.getResult().whenComplete((r, e) -> latestQueries.remove(key, event));
+  }
+
+  private void offer(LspEvent event, String failure) {
+    AtomicInteger counter = counter(event);
+    counter.incrementAndGet();
+    if (!eventQueue.offer(event)) {
+      counter.decrementAndGet();
+      LOG.warn("Event " + event + " " + failure);
+    }
+  }
+
+  private AtomicInteger counter(LspEvent event) {
+    return queuedByType.computeIfAbsent(event.getClass(), c -> new AtomicInteger());
+  }
 }
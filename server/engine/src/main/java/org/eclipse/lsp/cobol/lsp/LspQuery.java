@@ -51,6 +51,17 @@ public interface LspQuery<T> extends LspEvent {
     return ImmutableList.of();
   }
 
+  /**
+   * The key of the queries that supersede each other, e.g. the hovers of the same document. When a
+   * new query with the same key is published, the previous one is canceled if it is not answered
+   * yet, so only the latest request is processed.
+   *
+   * @return the key or null if the query is always processed
+   */
+  default String getSupersedingKey() {
+    return null;
+  }
+
   /**
    *
    * @return CompletableFuture for a {@link LspQuery}
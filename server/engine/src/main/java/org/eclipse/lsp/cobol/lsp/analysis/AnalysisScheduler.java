@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.lsp.analysis;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs analysis tasks on a fixed number of worker threads. Tasks for the same URI are executed one
+ * by one in the order of submission, while tasks for different URIs run in parallel. Each URI has a
+ * queue of pending tasks, and only the head of the queue competes for a worker, so a URI never
+ * occupies more than one worker.
+ *
+ * <p>Priority tasks, e.g. the analysis of a document the user is editing, are taken by the next
+ * free worker before the background ones. Background work that does not belong to a document,
+ * e.g. a scan of the workspace folders, is submitted without a URI and has no queue. The number of
+ * workers is set by the {@code analysis.workers} system property and defaults to the number of
+ * available processors.
+ *
+ * <p>The analyses caused by typing are debounced: such a task waits a half of the last analysis
+ * time of its URI, but not longer than {@code analysis.debounce.max} milliseconds (500 by
+ * default), and a newer task for the same URI that comes within this delay replaces it. So a burst
+ * of changes results in one analysis of the latest text.
+ */
+@Slf4j
+@Singleton
+public class AnalysisScheduler {
+  private static final String ANALYSIS_WORKERS = "analysis.workers";
+  private static final String MAX_DEBOUNCE = "analysis.debounce.max";
+  private static final int DEBOUNCE_DIVISOR = 2;
+  private static final ScheduledExecutorService DEBOUNCE_TIMER =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "Analysis debounce timer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final ThreadPoolExecutor executor;
+  private final Map<String, Deque<Task>> queues = new HashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final long maxDebounceMillis;
+  private final Map<String, RunnableFuture<?>> debounced = new ConcurrentHashMap<>();
+  private final Map<String, Long> analysisTimes = new ConcurrentHashMap<>();
+  private final LongAdder coalesced = new LongAdder();
+
+  @Inject
+  public AnalysisScheduler() {
+    this(Integer.getInteger(ANALYSIS_WORKERS, Runtime.getRuntime().availableProcessors()),
+        Integer.getInteger(MAX_DEBOUNCE, 500));
+  }
+
+  @VisibleForTesting
+  AnalysisScheduler(int workers) {
+    this(workers, 0);
+  }
+
+  @VisibleForTesting
+  AnalysisScheduler(int workers, long maxDebounceMillis) {
+    this.maxDebounceMillis = maxDebounceMillis;
+    AtomicInteger counter = new AtomicInteger();
+    int size = Math.max(1, workers);
+    executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+        r -> {
+          Thread thread = new Thread(r, "Analysis thread #" + counter.getAndIncrement());
+          thread.setDaemon(true);
+          return thread;
+        });
+    LOG.debug("Analysis scheduler started with {} workers", size);
+  }
+
+  /**
+   * Schedule a task for the URI. It starts after all the tasks previously submitted for the same
+   * URI are finished.
+   *
+   * @param uri the document URI
+   * @param priority true if the task should run before the background tasks of other documents
+   * @param task the task to run
+   */
+  public void submit(String uri, boolean priority, Runnable task) {
+    Task next = new Task(uri, priority, sequence.getAndIncrement(), task);
+    synchronized (queues) {
+      Deque<Task> queue = queues.get(uri);
+      if (queue != null) {
+        queue.add(next);
+        return;
+      }
+      queues.put(uri, new ArrayDeque<>());
+    }
+    executor.execute(next);
+  }
+
+  /**
+   * Schedule a background task that does not belong to a document. It runs after the priority
+   * tasks and does not wait for the tasks of any URI.
+   *
+   * @param task the task to run
+   */
+  public void submitBackground(Runnable task) {
+    executor.execute(new Task(null, false, sequence.getAndIncrement(), task));
+  }
+
+  /**
+   * Schedule the analysis of a changed document after the debounce delay of the URI. If a debounced
+   * task of the URI is still waiting, it is cancelled and replaced by this one.
+   *
+   * @param uri the document URI
+   * @param task the analysis task
+   */
+  public void submitDebounced(String uri, RunnableFuture<?> task) {
+    long delay = getDebounceDelay(uri);
+    if (delay == 0) {
+      submit(uri, true, task);
+      return;
+    }
+    RunnableFuture<?> replaced = debounced.put(uri, task);
+    if (replaced != null) {
+      coalesced.increment();
+      replaced.cancel(false);
+    }
+    DEBOUNCE_TIMER.schedule(
+        () -> {
+          if (debounced.remove(uri, task)) {
+            submit(uri, true, task);
+          }
+        },
+        delay,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Drop the debounced task and the timings of the URI, e.g. when the document is closed
+   *
+   * @param uri the document URI
+   */
+  public void cancelDebounced(String uri) {
+    analysisTimes.remove(uri);
+    RunnableFuture<?> task = debounced.remove(uri);
+    if (task != null) {
+      task.cancel(false);
+    }
+  }
+
+  /**
+   * Record the time of a finished analysis to adjust the debounce delay of the URI
+   *
+   * @param uri the document URI
+   * @param nanos the analysis time in nanoseconds
+   */
+  public void recordAnalysisTime(String uri, long nanos) {
+    analysisTimes.put(uri, nanos);
+  }
+
+  /**
+   * Get the delay a changed document waits before its analysis starts
+   *
+   * @param uri the document URI
+   * @return the delay in milliseconds
+   */
+  public long getDebounceDelay(String uri) {
+    long lastAnalysis = TimeUnit.NANOSECONDS.toMillis(analysisTimes.getOrDefault(uri, 0L));
+    return Math.min(maxDebounceMillis, lastAnalysis / DEBOUNCE_DIVISOR);
+  }
+
+  /**
+   * Get the number of analyses that were replaced by a newer change while waiting for the debounce
+   *
+   * @return the number of coalesced analyses
+   */
+  public long getCoalescedCount() {
+    return coalesced.sum();
+  }
+
+  /**
+   * Get the number of debounced analyses waiting for their delay
+   *
+   * @return the number of debounced analyses
+   */
+  public int getDebouncedCount() {
+    return debounced.size();
+  }
+
+  /**
+   * Get the number of URIs that have running or pending tasks
+   *
+   * @return the number of URIs in work
+   */
+  public int getActiveUris() {
+    synchronized (queues) {
+      return queues.size();
+    }
+  }
+
+  private void complete(String uri) {
+    Task next;
+    synchronized (queues) {
+      Deque<Task> queue = queues.get(uri);
+      next = queue.poll();
+      if (next == null) {
+        queues.remove(uri);
+        return;
+      }
+      if (queue.stream().anyMatch(t -> t.priority)) {
+        next = next.promote();
+      }
+    }
+    executor.execute(next);
+  }
+
+  /**
+   * A queued task. Priority tasks come first, and the tasks of the same priority keep their order.
+   * The URI is null for the background tasks that do not belong to a document.
+   */
+  private final class Task implements Runnable, Comparable<Task> {
+    private final String uri;
+    private final boolean priority;
+    private final long order;
+    private final Runnable delegate;
+
+    private Task(String uri, boolean priority, long order, Runnable delegate) {
+      this.uri = uri;
+      this.priority = priority;
+      this.order = order;
+      this.delegate = delegate;
+    }
+
+    /**
+     * A background task that blocks a priority task of the same URI inherits its priority,
+     * otherwise the priority task would wait for the whole background lane.
+     */
+    private Task promote() {
+      return priority ? this : new Task(uri, true, order, delegate);
+    }
+
+    @Override
+    public void run() {
+      try {
+        delegate.run();
+      } catch (RuntimeException e) {
+        if (uri == null) {
+          LOG.error("Background task failed", e);
+        } else {
+          LOG.error("Analysis task for {} failed", uri, e);
+        }
+      } finally {
+        Thread.interrupted();
+        if (uri != null) {
+          complete(uri);
+        }
+      }
+    }
+
+    @Override
+    public int compareTo(Task other) {
+      if (priority != other.priority) {
+        return priority ? -1 : 1;
+      }
+      return Long.compare(order, other.order);
+    }
+  }
+}
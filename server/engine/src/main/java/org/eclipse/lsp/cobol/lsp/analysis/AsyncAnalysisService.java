@@ -14,6 +14,9 @@
  */
 package org.eclipse.lsp.cobol.lsp.analysis;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -22,8 +25,10 @@ import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.eclipse.lsp.cobol.common.AnalysisResult;
 import org.eclipse.lsp.cobol.common.SubroutineService;
+import org.eclipse.lsp.cobol.common.UserInterruptException;
 import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
 import org.eclipse.lsp.cobol.common.dialects.TrueDialectService;
@@ -42,41 +47,40 @@ import org.eclipse.lsp.cobol.service.delegates.communications.Communications;
 @Singleton
 public class AsyncAnalysisService implements AnalysisStateNotifier {
   private static final ExecutorService SINGLE_THREAD_EXECUTOR = Executors.newSingleThreadExecutor(r -> new Thread(r, "LSP workspace service"));
+  private static final long CHANGE_SIGNAL_EXPIRY_MINUTES = 1;
   private final TrueDialectService dialectService;
   private final DocumentModelService documentModelService;
   private final AnalysisService analysisService;
   private final CopybookService copybookService;
   private final SubroutineService subroutineService;
   private final Communications communications;
+  private final AnalysisScheduler scheduler;
 
   private final Map<String, FutureTask<CobolDocumentModel>> analysisResults = Collections.synchronizedMap(new HashMap<>());
   private final Map<String, Integer> analysisResultsRevisions = Collections.synchronizedMap(new HashMap<>());
-  private final Map<String, ExecutorService> analysisExecutors = Collections.synchronizedMap(new HashMap<>());
+  // the signals of the documents that do not change are dropped after a while, and their waiters re-check the documents
+  private final LoadingCache<String, CompletableFuture<Void>> changeSignals = CacheBuilder.newBuilder()
+      .expireAfterAccess(CHANGE_SIGNAL_EXPIRY_MINUTES, TimeUnit.MINUTES)
+      .<String, CompletableFuture<Void>>removalListener(notification -> notification.getValue().complete(null))
+      .build(CacheLoader.from((String uri) -> new CompletableFuture<>()));
 
   private final List<AnalysisStateListener> analysisStateListeners;
 
-  private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
-    private int counter = 0;
-
-    public Thread newThread(Runnable r) {
-      return new Thread(r, "Analysis thread #" + counter++);
-    }
-  };
-
-
   @Inject
   public AsyncAnalysisService(TrueDialectService dialectService,
                               DocumentModelService documentModelService,
                               AnalysisService analysisService,
                               CopybookService copybookService,
                               SubroutineService subroutineService,
-                              Communications communications) {
+                              Communications communications,
+                              AnalysisScheduler scheduler) {
     this.dialectService = dialectService;
     this.documentModelService = documentModelService;
     this.analysisService = analysisService;
     this.copybookService = copybookService;
     this.subroutineService = subroutineService;
     this.communications = communications;
+    this.scheduler = scheduler;
     analysisStateListeners = new ArrayList<>();
   }
 
@@ -125,7 +129,6 @@ public class AsyncAnalysisService implements AnalysisStateNotifier {
       notifyAllListeners(AnalysisState.SKIPPED, documentModelService.get(uri), eventSource);
       return analysisResults.get(id);
     }
-    ExecutorService analysisExecutor = getExecutor(uri);
     CobolDocumentModel documentModel = documentModelService.get(uri);
     if (documentModel.getLastAnalysisResult() != null) {
       // initiate cancel on prev running analysis
@@ -133,7 +136,12 @@ public class AsyncAnalysisService implements AnalysisStateNotifier {
     }
     FutureTask<CobolDocumentModel> futureTask = new FutureTask<>(scheduleAnalysis(uri, text, currentRevision, open, force, eventSource, id));
     analysisResults.put(id, futureTask);
-    analysisExecutor.submit(futureTask);
+    if (open || force) {
+      // forced re-analysis comes from workspace-wide events, so it must not delay the documents in edit
+      scheduler.submit(uri, !force, futureTask);
+    } else {
+      scheduler.submitDebounced(uri, futureTask);
+    }
     if (prevId != null && !force) {
       Optional.ofNullable(analysisResults.get(makeId(uri, prevId))).ifPresent(cf -> cf.cancel(true));
     }
@@ -158,10 +166,16 @@ public class AsyncAnalysisService implements AnalysisStateNotifier {
         notifyAllListeners(AnalysisState.STARTED, documentModelService.get(uri), eventSource);
         communications.notifyProgressBegin(uri);
         documentModelService.get(uri).setOutlineResult(null);
+        long start = System.nanoTime();
         analysisService.analyzeDocument(uri, text, open);
+        scheduler.recordAnalysisTime(uri, System.nanoTime() - start);
         notifyAllListeners(AnalysisState.COMPLETED, documentModelService.get(uri), eventSource);
         analysisResults.remove(id);
         return documentModelService.get(uri);
+      } catch (UserInterruptException | ParseCancellationException interruption) {
+        LOG.debug("[scheduleAnalysis] analysis of {} revision {} was cancelled", uri, currentRevision);
+        notifyAllListeners(AnalysisState.SKIPPED, documentModelService.get(uri), eventSource);
+        return documentModelService.get(uri);
       } catch (Exception genericException) { // Ideally we should not do this, but a safer catch might help to remove unknown issues
         LOG.error("Encountered Exception {} , while analysing uri : {}", genericException, uri, genericException);
         notifyAllListeners(AnalysisState.EXCEPTIONALLY_FINISHED, documentModelService.get(uri), eventSource);
@@ -176,25 +190,6 @@ public class AsyncAnalysisService implements AnalysisStateNotifier {
   }
 
 
-  /**
-   * IMPORTANT:
-   *  1. Never shutdown or terminate Executor service as we rely on this for synchronization
-   *  2. Each uri will always have a singleThreadExecutor and should not be modified as we rely on this for synchronization
-   *
-   * @param uri
-   * @return
-   */
-  private ExecutorService getExecutor(String uri) {
-    synchronized (analysisExecutors) {
-      ExecutorService analysisExecutor = analysisExecutors.computeIfAbsent(uri, u -> Executors.newSingleThreadExecutor(THREAD_FACTORY));
-      if (analysisExecutor.isShutdown()) {
-        analysisExecutor = Executors.newSingleThreadExecutor(THREAD_FACTORY);
-        analysisExecutors.put(uri, analysisExecutor);
-      }
-      return analysisExecutor;
-    }
-  }
-
   private static String makeId(String uri, Integer revision) {
     return revision + "#" + uri;
   }
@@ -279,6 +274,8 @@ public class AsyncAnalysisService implements AnalysisStateNotifier {
     if (analysisResults.containsKey(analysisID)) {
       analysisResults.get(analysisID).cancel(true);
     }
+    scheduler.cancelDebounced(uri);
+    signalChange(uri);
   }
 
   /**
@@ -288,15 +285,23 @@ public class AsyncAnalysisService implements AnalysisStateNotifier {
    * @return LspEventDependency object
    */
   public LspEventDependency createDependencyOn(String uri) {
-    return () -> {
-      CobolDocumentModel doc = documentModelService.get(uri);
-      if (doc == null) {
-        return false;
+    return new LspEventDependency() {
+      @Override
+      public boolean isSatisfied() {
+        CobolDocumentModel doc = documentModelService.get(uri);
+        if (doc == null) {
+          return false;
+        }
+        if (analysisService.isCopybook(uri, doc.getText())) {
+          return true;
+        }
+        return doc.getLastAnalysisResult() != null && doc.getLastAnalysisResult() != AnalysisResult.EMPTY;
       }
-      if (analysisService.isCopybook(uri, doc.getText())) {
-        return true;
+
+      @Override
+      public CompletableFuture<?> nextChange() {
+        return changeSignals.getUnchecked(uri);
       }
-      return doc.getLastAnalysisResult() != null && doc.getLastAnalysisResult() != AnalysisResult.EMPTY;
     };
   }
 
@@ -325,6 +330,7 @@ public class AsyncAnalysisService implements AnalysisStateNotifier {
    */
   public void openDocument(String uri, String text, String languageId) {
     documentModelService.openDocument(uri, text, languageId);
+    signalChange(uri);
   }
 
   @Override
@@ -334,7 +340,14 @@ public class AsyncAnalysisService implements AnalysisStateNotifier {
 
   @Override
   public void notifyAllListeners(AnalysisState state, CobolDocumentModel model, SourceUnitGraph.EventSource eventSource) {
+    if (model != null && state != AnalysisState.SCHEDULED && state != AnalysisState.STARTED) {
+      signalChange(model.getUri());
+    }
     SINGLE_THREAD_EXECUTOR
             .execute(() -> this.analysisStateListeners.forEach(lis -> lis.notifyState(state, model, eventSource)));
   }
+
+  private void signalChange(String uri) {
+    changeSignals.invalidate(uri);
+  }
 }
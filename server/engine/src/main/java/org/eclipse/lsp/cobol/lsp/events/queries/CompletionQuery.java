@@ -46,6 +46,11 @@ public class CompletionQuery implements LspQuery<Either<List<CompletionItem>, Co
     return completionHandler.getDocumentHighlightDependency(params);
   }
 
+  @Override
+  public String getSupersedingKey() {
+    return "completion#" + params.getTextDocument().getUri();
+  }
+
   @Override
   public CompletableFuture<Either<List<CompletionItem>, CompletionList>> getResult() {
     return result;
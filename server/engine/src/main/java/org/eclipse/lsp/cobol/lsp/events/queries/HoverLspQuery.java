@@ -42,6 +42,11 @@ public class HoverLspQuery implements LspQuery<Hover> {
     return hoverHandler.getDependencies(params);
   }
 
+  @Override
+  public String getSupersedingKey() {
+    return "hover#" + params.getTextDocument().getUri();
+  }
+
   @Override
   public CompletableFuture<Hover> getResult() {
     return result;
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.lsp.events.queries;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.eclipse.lsp.cobol.lsp.LspEventCancelCondition;
+import org.eclipse.lsp.cobol.lsp.LspEventDependency;
+import org.eclipse.lsp.cobol.lsp.LspQuery;
+import org.eclipse.lsp.cobol.lsp.handlers.text.SemanticTokensHandler;
+import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensParams;
+
+/**
+ * `textDocument/semanticTokens/full` language server event
+ */
+public class SemanticTokensQuery implements LspQuery<SemanticTokens> {
+  final CompletableFuture<SemanticTokens> result;
+  private final String uri;
+  private final SemanticTokensParams params;
+  private final SemanticTokensHandler semanticTokensHandler;
+
+  public SemanticTokensQuery(SemanticTokensParams params, SemanticTokensHandler semanticTokensHandler) {
+    this.uri = params.getTextDocument().getUri();
+    this.params = params;
+    this.semanticTokensHandler = semanticTokensHandler;
+    result = new CompletableFuture<>();
+  }
+
+  @Override
+  public List<LspEventDependency> getDependencies() {
+    return semanticTokensHandler.getDependencies(uri);
+  }
+
+  @Override
+  public List<LspEventCancelCondition> getCancelConditions() {
+    return semanticTokensHandler.getCancelConditions(uri);
+  }
+
+  @Override
+  public CompletableFuture<SemanticTokens> getResult() {
+    return result;
+  }
+
+  @Override
+  public SemanticTokens query() {
+    return semanticTokensHandler.semanticTokensFull(params);
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.lsp.events.queries;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.NonNull;
+import org.eclipse.lsp.cobol.lsp.LspQuery;
+import org.eclipse.lsp.cobol.lsp.handlers.workspace.WorkspaceSymbolHandler;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.WorkspaceSymbol;
+import org.eclipse.lsp4j.WorkspaceSymbolParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+
+/**
+ * `workspace/symbol` language server event
+ */
+public class WorkspaceSymbolQuery
+    implements LspQuery<Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>> {
+  private final CompletableFuture<Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>> result;
+  private final @NonNull WorkspaceSymbolParams params;
+  private final WorkspaceSymbolHandler workspaceSymbolHandler;
+
+  public WorkspaceSymbolQuery(@NonNull WorkspaceSymbolParams params, WorkspaceSymbolHandler workspaceSymbolHandler) {
+    this.params = params;
+    this.workspaceSymbolHandler = workspaceSymbolHandler;
+    result = new CompletableFuture<>();
+  }
+
+  @Override
+  public Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>> query() {
+    return Either.forRight(workspaceSymbolHandler.symbol(params));
+  }
+
+  @Override
+  public CompletableFuture<Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>> getResult() {
+    return result;
+  }
+}
@@ -84,7 +84,7 @@ public class AnalysisHandler {
         int line = analysisResultEvent.getLine();
         int character = analysisResultEvent.getCharacter();
         Position position = new Position(line, character);
-        Optional<Node> selectedNode = RangeUtils.findNodeByPosition(rootNode, analysisResultEvent.getUri(), position);
+        Optional<Node> selectedNode = doc.getLastAnalysisResult().findNodeByPosition(analysisResultEvent.getUri(), position);
 
         ProgramNode programNode;
         if (selectedNode.isPresent() && !(selectedNode.get() instanceof RootNode)) {
@@ -19,6 +19,8 @@ import com.google.inject.Inject;
 import lombok.NonNull;
 import org.eclipse.lsp.cobol.common.error.ErrorCodes;
 import org.eclipse.lsp.cobol.service.WatcherService;
+import org.eclipse.lsp.cobol.service.delegates.semantictokens.SemanticTokensProvider;
+import org.eclipse.lsp.cobol.service.index.WorkspaceIndex;
 import org.eclipse.lsp4j.*;
 
 import java.util.Optional;
@@ -32,10 +34,12 @@ import static org.eclipse.lsp4j.TextDocumentSyncKind.Full;
  */
 public class InitializeHandler {
   private final WatcherService watchingService;
+  private final WorkspaceIndex workspaceIndex;
 
   @Inject
-  public InitializeHandler(WatcherService watchingService) {
+  public InitializeHandler(WatcherService watchingService, WorkspaceIndex workspaceIndex) {
     this.watchingService = watchingService;
+    this.workspaceIndex = workspaceIndex;
   }
 
   /**
@@ -63,6 +67,12 @@ public class InitializeHandler {
     capabilities.setDocumentSymbolProvider(documentSymbolOptions);
     capabilities.setHoverProvider(TRUE);
     capabilities.setFoldingRangeProvider(TRUE);
+    capabilities.setSemanticTokensProvider(
+        new SemanticTokensWithRegistrationOptions(
+            SemanticTokensProvider.LEGEND, new SemanticTokensServerFull(TRUE), TRUE));
+    if (workspaceIndex.isEnabled()) {
+      capabilities.setWorkspaceSymbolProvider(TRUE);
+    }
     WorkspaceFoldersOptions workspaceFoldersOptions = new WorkspaceFoldersOptions();
     workspaceFoldersOptions.setSupported(TRUE);
     WorkspaceServerCapabilities workspaceServiceCapabilities =
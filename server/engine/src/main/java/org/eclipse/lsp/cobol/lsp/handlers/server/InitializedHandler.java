@@ -25,6 +25,7 @@ import org.eclipse.lsp.cobol.service.AnalysisService;
 import org.eclipse.lsp.cobol.service.WatcherService;
 import org.eclipse.lsp.cobol.service.copybooks.CopybookNameService;
 import org.eclipse.lsp.cobol.service.delegates.completions.Keywords;
+import org.eclipse.lsp.cobol.service.index.WorkspaceIndexer;
 import org.eclipse.lsp.cobol.service.settings.SettingsService;
 import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
 import org.eclipse.lsp4j.InitializedParams;
@@ -41,6 +42,7 @@ public class InitializedHandler {
   private final CodeLayoutStore codeLayoutStore;
   private final AnalysisService analysisService;
   private final MessageService messageService;
+  private final WorkspaceIndexer workspaceIndexer;
 
   @Inject
   public InitializedHandler(WatcherService watchingService,
@@ -50,7 +52,8 @@ public class InitializedHandler {
                             LocaleStore localeStore,
                             AnalysisService analysisService,
                             MessageService messageService,
-                            CodeLayoutStore codeLayoutStore) {
+                            CodeLayoutStore codeLayoutStore,
+                            WorkspaceIndexer workspaceIndexer) {
     this.watchingService = watchingService;
     this.copybookNameService = copybookNameService;
     this.keywords = keywords;
@@ -59,6 +62,7 @@ public class InitializedHandler {
     this.analysisService = analysisService;
     this.messageService = messageService;
     this.codeLayoutStore = codeLayoutStore;
+    this.workspaceIndexer = workspaceIndexer;
   }
 
   /**
@@ -74,6 +78,7 @@ public class InitializedHandler {
     keywords.updateStorage();
     messageService.reloadMessages();
     notifyConfiguredCopybookExtensions();
+    workspaceIndexer.indexWorkspace();
   }
 
   private void getCobolProgramLayout() {
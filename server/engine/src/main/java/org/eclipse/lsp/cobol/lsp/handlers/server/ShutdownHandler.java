@@ -17,6 +17,7 @@ package org.eclipse.lsp.cobol.lsp.handlers.server;
 import com.google.inject.Inject;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.lsp.DisposableLSPStateService;
 import org.eclipse.lsp.cobol.lsp.LspMessageBroker;
 
@@ -27,11 +28,14 @@ import org.eclipse.lsp.cobol.lsp.LspMessageBroker;
 public class ShutdownHandler {
   private final DisposableLSPStateService disposableLSPStateService;
   private final LspMessageBroker lspMessageBroker;
+  private final CopybookService copybookService;
 
   @Inject
-  public ShutdownHandler(DisposableLSPStateService disposableLSPStateService, LspMessageBroker lspMessageBroker) {
+  public ShutdownHandler(DisposableLSPStateService disposableLSPStateService, LspMessageBroker lspMessageBroker,
+                         CopybookService copybookService) {
     this.disposableLSPStateService = disposableLSPStateService;
     this.lspMessageBroker = lspMessageBroker;
+    this.copybookService = copybookService;
   }
 
   /**
@@ -43,6 +47,7 @@ public class ShutdownHandler {
     try {
       disposableLSPStateService.shutdown();
       lspMessageBroker.stop();
+      copybookService.shutdown();
     } catch (Exception exception) {
       return new ShutdownResponse(null, exception.getMessage());
     }
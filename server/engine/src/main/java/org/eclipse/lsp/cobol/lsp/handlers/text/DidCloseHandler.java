@@ -26,6 +26,8 @@ import org.eclipse.lsp.cobol.lsp.analysis.AsyncAnalysisService;
 import org.eclipse.lsp.cobol.service.DocumentModelService;
 import org.eclipse.lsp.cobol.service.WatcherService;
 import org.eclipse.lsp.cobol.service.copybooks.CopybookServiceImpl;
+import org.eclipse.lsp.cobol.service.delegates.semantictokens.SemanticTokensProvider;
+import org.eclipse.lsp.cobol.service.memory.AnalysisMemoryManager;
 import org.eclipse.lsp4j.DidCloseTextDocumentParams;
 
 /**
@@ -39,16 +41,21 @@ public class DidCloseHandler {
   private final WatcherService watcherService;
   private final CopybookService copybookService;
   private final SourceUnitGraph sourceUnitGraph;
+  private final AnalysisMemoryManager memoryManager;
+  private final SemanticTokensProvider semanticTokensProvider;
 
   @Inject
   public DidCloseHandler(DisposableLSPStateService disposableLSPStateService,
-                         AsyncAnalysisService asyncAnalysisService, DocumentModelService documentModelService, WatcherService watcherService, CopybookService copybookService, SourceUnitGraph sourceUnitGraph) {
+                         AsyncAnalysisService asyncAnalysisService, DocumentModelService documentModelService, WatcherService watcherService, CopybookService copybookService, SourceUnitGraph sourceUnitGraph,
+                         AnalysisMemoryManager memoryManager, SemanticTokensProvider semanticTokensProvider) {
     this.disposableLSPStateService = disposableLSPStateService;
     this.asyncAnalysisService = asyncAnalysisService;
     this.documentModelService = documentModelService;
     this.watcherService = watcherService;
     this.copybookService = copybookService;
     this.sourceUnitGraph = sourceUnitGraph;
+    this.memoryManager = memoryManager;
+    this.semanticTokensProvider = semanticTokensProvider;
   }
 
   /**
@@ -77,5 +84,7 @@ public class DidCloseHandler {
               copybookModel -> copybookServiceImpl.invalidateCache(copybookModel.getCopybookId()));
     }
     asyncAnalysisService.cancelAnalysis(uri);
+    memoryManager.documentClosed(uri);
+    semanticTokensProvider.invalidate(uri);
   }
 }
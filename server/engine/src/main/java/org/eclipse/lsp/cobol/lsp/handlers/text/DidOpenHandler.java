@@ -22,6 +22,7 @@ import org.eclipse.lsp.cobol.lsp.analysis.AsyncAnalysisService;
 import org.eclipse.lsp.cobol.lsp.events.notifications.DidOpenNotification;
 import org.eclipse.lsp.cobol.lsp.handlers.HandlerUtility;
 import org.eclipse.lsp.cobol.service.WatcherService;
+import org.eclipse.lsp.cobol.service.memory.AnalysisMemoryManager;
 import org.eclipse.lsp4j.DidOpenTextDocumentParams;
 
 /**
@@ -32,11 +33,14 @@ public class DidOpenHandler {
 
   private final AsyncAnalysisService asyncAnalysisService;
   private final WatcherService watcherService;
+  private final AnalysisMemoryManager memoryManager;
 
   @Inject
-  public DidOpenHandler(AsyncAnalysisService asyncAnalysisService, WatcherService watcherService) {
+  public DidOpenHandler(AsyncAnalysisService asyncAnalysisService, WatcherService watcherService,
+                        AnalysisMemoryManager memoryManager) {
     this.asyncAnalysisService = asyncAnalysisService;
     this.watcherService = watcherService;
+    this.memoryManager = memoryManager;
   }
 
   /**
@@ -51,6 +55,7 @@ public class DidOpenHandler {
       return;
     }
     watcherService.addRuntimeWatchers(uri);
+    memoryManager.documentOpened(uri);
     asyncAnalysisService.openDocument(uri, params.getTextDocument().getText(), params.getTextDocument().getLanguageId());
     asyncAnalysisService.scheduleAnalysis(uri, params.getTextDocument().getText(), params.getTextDocument().getVersion(), true, eventSource);
   }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.lsp.handlers.text;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import java.util.Collections;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.lsp.LspEventCancelCondition;
+import org.eclipse.lsp.cobol.lsp.LspEventDependency;
+import org.eclipse.lsp.cobol.lsp.LspQuery;
+import org.eclipse.lsp.cobol.lsp.analysis.AsyncAnalysisService;
+import org.eclipse.lsp.cobol.lsp.events.queries.SemanticTokensDeltaQuery;
+import org.eclipse.lsp.cobol.lsp.events.queries.SemanticTokensQuery;
+import org.eclipse.lsp.cobol.lsp.events.queries.SemanticTokensRangeQuery;
+import org.eclipse.lsp.cobol.service.AnalysisService;
+import org.eclipse.lsp.cobol.service.DocumentModelService;
+import org.eclipse.lsp.cobol.service.delegates.semantictokens.SemanticTokensProvider;
+import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensDeltaParams;
+import org.eclipse.lsp4j.SemanticTokensParams;
+import org.eclipse.lsp4j.SemanticTokensRangeParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+
+/**
+ * LSP SemanticTokens Handler
+ */
+@Slf4j
+public class SemanticTokensHandler {
+
+  private final DocumentModelService documentService;
+  private final AsyncAnalysisService asyncAnalysisService;
+  private final AnalysisService analysisService;
+  private final SemanticTokensProvider semanticTokensProvider;
+
+  @Inject
+  public SemanticTokensHandler(DocumentModelService documentService, AsyncAnalysisService asyncAnalysisService,
+                               AnalysisService analysisService, SemanticTokensProvider semanticTokensProvider) {
+    this.documentService = documentService;
+    this.asyncAnalysisService = asyncAnalysisService;
+    this.analysisService = analysisService;
+    this.semanticTokensProvider = semanticTokensProvider;
+  }
+
+  /**
+   * Process semanticTokens/full LSP request
+   *
+   * @param params SemanticTokensParams
+   * @return the semantic tokens of the document
+   */
+  public SemanticTokens semanticTokensFull(SemanticTokensParams params) {
+    String uri = params.getTextDocument().getUri();
+    AnalysisResult result = getAnalysisResult(uri);
+    return result == null ? new SemanticTokens(Collections.emptyList()) : semanticTokensProvider.full(uri, result);
+  }
+
+  /**
+   * Process semanticTokens/full/delta LSP request
+   *
+   * @param params SemanticTokensDeltaParams
+   * @return the edits of the previous semantic tokens or the full tokens
+   */
+  public Either<SemanticTokens, SemanticTokensDelta> semanticTokensFullDelta(SemanticTokensDeltaParams params) {
+    String uri = params.getTextDocument().getUri();
+    AnalysisResult result = getAnalysisResult(uri);
+    return result == null
+        ? Either.forLeft(new SemanticTokens(Collections.emptyList()))
+        : semanticTokensProvider.fullDelta(uri, result, params.getPreviousResultId());
+  }
+
+  /**
+   * Process semanticTokens/range LSP request
+   *
+   * @param params SemanticTokensRangeParams
+   * @return the semantic tokens in the range
+   */
+  public SemanticTokens semanticTokensRange(SemanticTokensRangeParams params) {
+    String uri = params.getTextDocument().getUri();
+    AnalysisResult result = getAnalysisResult(uri);
+    return result == null
+        ? new SemanticTokens(Collections.emptyList())
+        : semanticTokensProvider.range(uri, result, params.getRange());
+  }
+
+  private AnalysisResult getAnalysisResult(String uri) {
+    return documentService.isDocumentSynced(uri) ? documentService.get(uri).getAnalysisResult() : null;
+  }
+
+  /**
+   * Create semanticTokens/full LSP event.
+   *
+   * @param params SemanticTokensParams
+   * @return LspQuery.
+   */
+  public LspQuery<SemanticTokens> createEvent(SemanticTokensParams params) {
+    return new SemanticTokensQuery(params, this);
+  }
+
+  /**
+   * Create semanticTokens/full/delta LSP event.
+   *
+   * @param params SemanticTokensDeltaParams
+   * @return LspQuery.
+   */
+  public LspQuery<Either<SemanticTokens, SemanticTokensDelta>> createEvent(SemanticTokensDeltaParams params) {
+    return new SemanticTokensDeltaQuery(params, this);
+  }
+
+  /**
+   * Create semanticTokens/range LSP event.
+   *
+   * @param params SemanticTokensRangeParams
+   * @return LspQuery.
+   */
+  public LspQuery<SemanticTokens> createEvent(SemanticTokensRangeParams params) {
+    return new SemanticTokensRangeQuery(params, this);
+  }
+
+  /**
+   * Get dependency for this handler
+   * @param uri
+   * @return list of {@link LspEventDependency}
+   */
+  public List<LspEventDependency> getDependencies(String uri) {
+    return ImmutableList.of(
+        asyncAnalysisService.createDependencyOn(uri),
+        () -> documentService.isDocumentSynced(uri));
+  }
+
+  /**
+   * Gives cancel condition
+   * @param uri
+   * @return list of {@link LspEventCancelCondition}
+   */
+  public List<LspEventCancelCondition> getCancelConditions(String uri) {
+    return ImmutableList.of(
+        asyncAnalysisService.createCancelConditionOnClose(uri),
+        () -> analysisService.isCopybook(uri, documentService.get(uri).getText()));
+  }
+}
@@ -29,6 +29,7 @@ import org.eclipse.lsp.cobol.lsp.analysis.AsyncAnalysisService;
 import org.eclipse.lsp.cobol.service.WatcherService;
 import org.eclipse.lsp.cobol.service.copybooks.CopybookNameService;
 import org.eclipse.lsp.cobol.service.delegates.completions.Keywords;
+import org.eclipse.lsp.cobol.service.settings.ConfigurationService;
 import org.eclipse.lsp.cobol.service.settings.SettingsService;
 import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
 import org.eclipse.lsp4j.DidChangeConfigurationParams;
@@ -48,6 +49,7 @@ public class DidChangeConfigurationHandler {
   private final AsyncAnalysisService asyncAnalysisService;
   private final CodeLayoutStore codeLayoutStore;
   private final CopybookService copybookService;
+  private final ConfigurationService configurationService;
 
   @Inject
   public DidChangeConfigurationHandler(DisposableLSPStateService disposableLSPStateService,
@@ -59,7 +61,8 @@ public class DidChangeConfigurationHandler {
                                        MessageService messageService,
                                        AsyncAnalysisService asyncAnalysisService,
                                        CodeLayoutStore codeLayoutStore,
-                                       CopybookService copybookService) {
+                                       CopybookService copybookService,
+                                       ConfigurationService configurationService) {
     this.disposableLSPStateService = disposableLSPStateService;
     this.settingsService = settingsService;
     this.copybookNameService = copybookNameService;
@@ -70,6 +73,7 @@ public class DidChangeConfigurationHandler {
     this.asyncAnalysisService = asyncAnalysisService;
     this.codeLayoutStore = codeLayoutStore;
     this.copybookService = copybookService;
+    this.configurationService = configurationService;
   }
 
   /**
@@ -81,6 +85,7 @@ public class DidChangeConfigurationHandler {
       return;
     }
     copybookService.invalidateCache(false);
+    configurationService.invalidateCache();
     messageService.reloadMessages();
     copybookNameService
         .copybookLocalFolders(null)
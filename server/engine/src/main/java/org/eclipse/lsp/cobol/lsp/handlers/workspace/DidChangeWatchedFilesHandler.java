@@ -14,6 +14,7 @@
  */
 package org.eclipse.lsp.cobol.lsp.handlers.workspace;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 
 import java.net.URI;
@@ -31,6 +32,8 @@ import org.eclipse.lsp.cobol.common.UserInterruptException;
 import org.eclipse.lsp.cobol.lsp.DisposableLSPStateService;
 import org.eclipse.lsp.cobol.lsp.SourceUnitGraph;
 import org.eclipse.lsp.cobol.lsp.analysis.AsyncAnalysisService;
+import org.eclipse.lsp.cobol.service.index.WorkspaceIndexer;
+import org.eclipse.lsp.cobol.service.settings.ConfigurationService;
 import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
 import org.eclipse.lsp4j.FileChangeType;
 import org.eclipse.lsp4j.FileEvent;
@@ -38,18 +41,26 @@ import org.eclipse.lsp4j.FileEvent;
 /** LSP DidChangeWatchedFiles Handler */
 @Slf4j
 public class DidChangeWatchedFilesHandler {
+  private static final Set<String> PROCESSOR_GROUPS_FILES = ImmutableSet.of("pgm_conf.json", "proc_grps.json");
+
   private final DisposableLSPStateService disposableLSPStateService;
   private final SourceUnitGraph sourceUnitGraph;
   private final AsyncAnalysisService asyncAnalysisService;
+  private final WorkspaceIndexer workspaceIndexer;
+  private final ConfigurationService configurationService;
 
   @Inject
   public DidChangeWatchedFilesHandler(
       DisposableLSPStateService disposableLSPStateService,
       SourceUnitGraph sourceUnitGraph,
-      AsyncAnalysisService asyncAnalysisService) {
+      AsyncAnalysisService asyncAnalysisService,
+      WorkspaceIndexer workspaceIndexer,
+      ConfigurationService configurationService) {
     this.disposableLSPStateService = disposableLSPStateService;
     this.sourceUnitGraph = sourceUnitGraph;
     this.asyncAnalysisService = asyncAnalysisService;
+    this.workspaceIndexer = workspaceIndexer;
+    this.configurationService = configurationService;
   }
 
   /**
@@ -61,6 +72,10 @@ public class DidChangeWatchedFilesHandler {
     if (disposableLSPStateService.isServerShutdown()) return;
     if (isRelevant(params.getChanges())) {
       Set<FileEvent> changedFiles = new HashSet<>(params.getChanges());
+      if (changedFiles.stream().map(FileEvent::getUri).anyMatch(DidChangeWatchedFilesHandler::isProcessorGroupsConfig)) {
+        // the client resolves the settings of a program from its processor group
+        configurationService.invalidateCache();
+      }
       LOG.info(
           "[File change event] : {}",
           changedFiles.stream().map(FileEvent::getUri).collect(Collectors.joining(", ")));
@@ -69,6 +84,7 @@ public class DidChangeWatchedFilesHandler {
             URI uri = URI.create(file.getUri());
             if ("file".equals(uri.getScheme())) {
               LOG.info("[File change event] uri in progress : {}", uri);
+              workspaceIndexer.fileChanged(file.getUri(), file.getType());
               Path path = Paths.get(uri);
               if (file.getType() == FileChangeType.Deleted) {
                 path = path.getParent();
@@ -96,6 +112,11 @@ public class DidChangeWatchedFilesHandler {
         .anyMatch(c -> !c.getUri().startsWith("git:"));
   }
 
+  private static boolean isProcessorGroupsConfig(String uri) {
+    String fileName = uri.substring(uri.lastIndexOf('/') + 1);
+    return PROCESSOR_GROUPS_FILES.contains(fileName);
+  }
+
   private static boolean isGitFolder(String uri) {
     return uri.startsWith("file:") && uri.contains("/.git/");
   }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.lsp.handlers.workspace;
+
+import com.google.inject.Inject;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.NonNull;
+import org.eclipse.lsp.cobol.service.index.IndexedSymbol;
+import org.eclipse.lsp.cobol.service.index.WorkspaceIndex;
+import org.eclipse.lsp4j.SymbolKind;
+import org.eclipse.lsp4j.WorkspaceSymbol;
+import org.eclipse.lsp4j.WorkspaceSymbolParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+
+/** LSP WorkspaceSymbol Handler. Searches the definitions in the {@link WorkspaceIndex}. */
+public class WorkspaceSymbolHandler {
+  private static final int MAX_RESULTS = 500;
+  private final WorkspaceIndex workspaceIndex;
+
+  @Inject
+  public WorkspaceSymbolHandler(WorkspaceIndex workspaceIndex) {
+    this.workspaceIndex = workspaceIndex;
+  }
+
+  /**
+   * Find the workspace definitions with names that start with the query
+   *
+   * @param params WorkspaceSymbolParams
+   * @return the found symbols
+   */
+  public List<WorkspaceSymbol> symbol(@NonNull WorkspaceSymbolParams params) {
+    return workspaceIndex.search(params.getQuery(), MAX_RESULTS).stream()
+        .map(s -> new WorkspaceSymbol(s.getName(), toSymbolKind(s.getKind()), Either.forLeft(s.getLocation())))
+        .collect(Collectors.toList());
+  }
+
+  private static SymbolKind toSymbolKind(IndexedSymbol.Kind kind) {
+    switch (kind) {
+      case VARIABLE:
+        return SymbolKind.Variable;
+      case PARAGRAPH:
+        return SymbolKind.Method;
+      case SECTION:
+        return SymbolKind.Class;
+      case COPYBOOK:
+        return SymbolKind.File;
+      default:
+        return SymbolKind.Module;
+    }
+  }
+}
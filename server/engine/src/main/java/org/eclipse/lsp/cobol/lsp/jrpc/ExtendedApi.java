@@ -36,4 +36,12 @@ public interface ExtendedApi {
   */
   @JsonRequest
   CompletableFuture<ExtendedApiResult> analysis(@NonNull JsonObject json);
+
+  /**
+   * Returns the performance metrics of the server. The request is answered immediately, without
+   * waiting in the LSP event queue, so it also shows the state of a busy server.
+   * @return Future object with the metrics in the json format
+   */
+  @JsonRequest
+  CompletableFuture<JsonObject> metrics();
 }
@@ -24,9 +24,11 @@ import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.eclipse.lsp.cobol.common.AnalysisConfig;
 import org.eclipse.lsp.cobol.common.AnalysisResult;
 import org.eclipse.lsp.cobol.common.LanguageEngineFacade;
+import org.eclipse.lsp.cobol.common.UserInterruptException;
 import org.eclipse.lsp.cobol.common.copybook.CopybookProcessingMode;
 import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.common.utils.ThreadInterruptionUtil;
@@ -120,6 +122,10 @@ public class AnalysisService {
       copybookService.sendCopybookDownloadRequest(
               uri, DocumentServiceHelper.extractCopybookUris(result), copybookProcessingMode);
       LOG.debug("[doAnalysis] Document " + uri + " analyzed: " + result.getDiagnostics());
+    } catch (UserInterruptException | ParseCancellationException e) {
+      documentService.processAnalysisResult(uri, AnalysisResult.EMPTY, text);
+      LOG.debug("Analysis of {} was interrupted", uri);
+      throw e;
     } catch (Exception e) {
       documentService.processAnalysisResult(uri, AnalysisResult.EMPTY, text);
       LOG.debug(format("An exception thrown while applying %s for %s:", "analysis", uri));
@@ -94,6 +94,16 @@ public class CobolDocumentModel {
     this.analysisResult = analysisResult;
   }
 
+  /**
+   * Drop the analysis results to free the memory, the document has to be analyzed again to use them
+   */
+  public void releaseAnalysisResult() {
+    LOG.debug("releaseAnalysisResult: " + uri);
+    analysisResult = null;
+    lastAnalysisResult = null;
+    outlineResult = null;
+  }
+
   /**
    * Update CobolDocumentModel with a new text
    *
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.copybooks;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.experimental.UtilityClass;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
+
+/**
+ * Finds the names of the copybooks referenced by COPY, EXEC SQL INCLUDE and ++INCLUDE statements
+ * without parsing the text. The result is a best-effort guess used to resolve copybooks ahead of
+ * the preprocessing, so statements it does not recognize are simply skipped. COPY IDMS and COPY MAID
+ * statements are skipped too, because their names are not COBOL copybooks and they are resolved by
+ * the dialects.
+ */
+@UtilityClass
+class CopyStatementScanner {
+  private static final Pattern COPY_STATEMENT =
+      Pattern.compile(
+          "(?i)(?:(?<![\\w-])COPY(?!\\s+(?:IDMS|MAID)\\s+[\\w$#@\"'-])"
+              + "|\\+\\+INCLUDE|(?<![\\w-])EXEC\\s+SQL\\s+INCLUDE)\\s+"
+              + "(?:\"([^\"\\n]+)\"|'([^'\\n]+)'|([\\w$#@-]++))(?!\\s+(?:OF|IN)(?![\\w-]))");
+
+  /**
+   * Collect the names of the copybooks referenced in the given text
+   *
+   * @param text the cleaned text of a program or a copybook
+   * @return distinct copybook names in order of appearance
+   */
+  Set<CopybookName> scan(String text) {
+    Set<CopybookName> names = new LinkedHashSet<>();
+    Matcher matcher = COPY_STATEMENT.matcher(text);
+    while (matcher.find()) {
+      for (int group = 1; group <= 3; group++) {
+        if (matcher.group(group) != null) {
+          names.add(new CopybookName(matcher.group(group)));
+          break;
+        }
+      }
+    }
+    return names;
+  }
+}
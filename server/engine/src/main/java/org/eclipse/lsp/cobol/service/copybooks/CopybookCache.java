@@ -16,12 +16,14 @@ package org.eclipse.lsp.cobol.service.copybooks;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -47,6 +49,7 @@ public class CopybookCache {
         CacheBuilder.newBuilder()
             .expireAfterWrite(duration, TimeUnit.valueOf(timeUnitName))
             .maximumSize(cacheSize)
+            .recordStats()
             .build();
   }
 
@@ -72,6 +75,14 @@ public class CopybookCache {
     return model.getUri() == null || !ImplicitCodeUtils.isImplicit(model.getUri());
   }
 
+  /**
+   * Returns the hit and miss counts of the cache since the server start
+   * @return the cache statistics
+   */
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+
   /**
    * Gets copybook model from cache
    * @param copybookId copybook name
@@ -83,6 +94,24 @@ public class CopybookCache {
     return cache.get(copybookId, callable);
   }
 
+  /**
+   * Check if the copybook model is in cache
+   * @param copybookId copybook id
+   * @return true if the cache has an entry for the id
+   */
+  public boolean contains(CopybookId copybookId) {
+    return cache.getIfPresent(copybookId) != null;
+  }
+
+  /**
+   * Gets copybook model from cache without resolving it
+   * @param copybookId copybook id
+   * @return the cached copybook model, if any
+   */
+  public Optional<CopybookModel> find(CopybookId copybookId) {
+    return Optional.ofNullable(cache.getIfPresent(copybookId));
+  }
+
   /**
    * Store copybook model to cache
    * @param copybookModel to store
@@ -14,22 +14,29 @@
  */
 package org.eclipse.lsp.cobol.service.copybooks;
 
+import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.CharMatcher;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
 import com.google.common.util.concurrent.ExecutionError;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
@@ -55,22 +62,39 @@ public class CopybookServiceImpl implements CopybookService {
 
   private final Map<String, List<SyntaxError>> preprocessCopybookErrors = new ConcurrentHashMap<>();
   private final Map<String, Set<CopybookModel>> copybookUsage = new ConcurrentHashMap<>();
+  // the hashes of the copybook files as they were read, by copybook URI
+  private final Map<String, String> contentHashes = new ConcurrentHashMap<>();
   private final Provider<CobolLanguageClient> clientProvider;
   private final FileSystemService files;
   private static final String COBOL = "COBOL";
+  // the prefetch threads mostly wait for the file system, so there may be more of them than processors
+  private static final int PREFETCH_THREADS = Math.max(8, Runtime.getRuntime().availableProcessors());
+  private static final long PREFETCH_THREAD_KEEP_ALIVE_SECONDS = 60;
+  private final AtomicInteger prefetchThreadCount = new AtomicInteger();
+  // the analysis thread waits for the prefetch, so it cannot share the pool of the analysis workers
+  private final ThreadPoolExecutor prefetchExecutor = new ThreadPoolExecutor(PREFETCH_THREADS, PREFETCH_THREADS,
+      PREFETCH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+        Thread thread = new Thread(r, "Copybook prefetch #" + prefetchThreadCount.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      });
 
   private final Map<String, Set<CopybookName>> copybooksForDownloading =
       new ConcurrentHashMap<>(8, 0.9f, 1);
 
   private final CopybookCache copybookCache;
+  private final PersistentCopybookCache persistentCache;
 
   @Inject
   public CopybookServiceImpl(Provider<CobolLanguageClient> clientProvider,
       FileSystemService files,
-      CopybookCache copybookCache) {
+      CopybookCache copybookCache,
+      PersistentCopybookCache persistentCache) {
     this.files = files;
     this.clientProvider = clientProvider;
     this.copybookCache = copybookCache;
+    this.persistentCache = persistentCache;
+    prefetchExecutor.allowCoreThreadTimeOut(true);
   }
 
   @Override
@@ -82,8 +106,10 @@ public class CopybookServiceImpl implements CopybookService {
     copybooksForDownloading.clear();
     if (onlyNonImplicit) {
       copybookCache.invalidateAllNonImplicit();
+      contentHashes.keySet().removeIf(uri -> !ImplicitCodeUtils.isImplicit(uri));
     } else {
       copybookCache.invalidateAll();
+      contentHashes.clear();
     }
   }
 
@@ -135,49 +161,185 @@ public class CopybookServiceImpl implements CopybookService {
     }
   }
 
+  /**
+   * Retrieve a copybook for a detached analysis. It is not added to the copybook usage of the
+   * program. A copybook that is not found is not registered for downloading, and it is not cached,
+   * so the analysis of the opened program still registers it.
+   *
+   * @param copybookId         - the id of the copybook to be retrieved
+   * @param copybookName       - the name of the copybook to be retrieved
+   * @param programDocumentUri - the currently processing program document
+   * @param documentUri        - the currently processing document that contains the copy statement
+   * @param preprocessor       - Cleanup preprocessor that will be used for new copybooks or null
+   * @return a CopybookModel wrapped inside {@link ResultWithErrors}
+   */
+  @Override
+  public ResultWithErrors<CopybookModel> resolveDetached(
+          @NonNull CopybookId copybookId,
+          @NonNull CopybookName copybookName,
+          @NonNull String programDocumentUri,
+          @NonNull String documentUri,
+          CleanerPreprocessor preprocessor) {
+    ThreadInterruptionUtil.checkThreadInterrupted();
+    CopybookModel copybookModel = copybookCache.find(copybookId).orElseGet(() -> {
+      CopybookModel loaded = load(copybookName, programDocumentUri, preprocessor, false);
+      if (loaded.getUri() != null) {
+        copybookCache.store(loaded);
+      }
+      return loaded;
+    });
+    List<SyntaxError> errors = Optional.ofNullable(copybookModel.getUri())
+        .map(d -> preprocessCopybookErrors.getOrDefault(d, Collections.emptyList()))
+        .orElse(Collections.emptyList());
+    return new ResultWithErrors<>(copybookModel, errors);
+  }
+
   private CopybookModel getFromCache(String programDocumentUri, CopybookId copybookId,
                                      CopybookName copybookName, CleanerPreprocessor preprocessor) throws ExecutionException {
-    return copybookCache.get(copybookId, () -> {
+    return copybookCache.get(copybookId, () -> load(copybookName, programDocumentUri, preprocessor, true));
+  }
+
+  private CopybookModel load(CopybookName copybookName, String programDocumentUri, CleanerPreprocessor preprocessor,
+                             boolean registerMissing) {
+    ThreadInterruptionUtil.checkThreadInterrupted();
+    CopybookModel copybookModel = resolveSync(copybookName, programDocumentUri, registerMissing);
+    if (preprocessor != null && copybookModel.getUri() != null) {
+      ResultWithErrors<CopybookModel> copybookModelResultWithErrors = cleanupCopybook(copybookModel, preprocessor);
+      copybookModel = copybookModelResultWithErrors.getResult();
+      preprocessCopybookErrors.put(copybookModel.getUri(), copybookModelResultWithErrors.getErrors());
+    }
+    return copybookModel;
+  }
+
+  /**
+   * Resolve all the copybooks referenced in the given text ahead of the preprocessing. The
+   * resolution requests are sent to the client at once and the found files are read and cleaned up
+   * concurrently, then the copybooks referenced by them are processed the same way. The resolved
+   * copybooks are stored in the cache, so the following {@link #resolve} calls do not wait for the
+   * client. Copybooks that cannot be found are left for the regular resolution.
+   *
+   * @param programDocumentUri - the currently processing program document
+   * @param text               - the cleaned text to look for copy statements in
+   * @param preprocessor       - Cleanup preprocessor that will be used for new copybooks or null
+   */
+  @Override
+  public void prefetch(@NonNull String programDocumentUri, @NonNull String text, CleanerPreprocessor preprocessor) {
+    if (prefetchExecutor.isShutdown()) {
+      return;
+    }
+    Set<CopybookName> requested = new HashSet<>();
+    Set<CopybookName> wave = CopyStatementScanner.scan(text);
+    while (!wave.isEmpty()) {
       ThreadInterruptionUtil.checkThreadInterrupted();
-      CopybookModel copybookModel = resolveSync(copybookName, programDocumentUri);
-      if (preprocessor != null && copybookModel.getUri() != null) {
-        ResultWithErrors<CopybookModel> copybookModelResultWithErrors = cleanupCopybook(copybookModel, preprocessor);
-        copybookModel = copybookModelResultWithErrors.getResult();
-        preprocessCopybookErrors.put(copybookModel.getUri(), copybookModelResultWithErrors.getErrors());
-      }
-      return copybookModel;
-    });
+      List<CompletableFuture<Optional<CopybookModel>>> futures = wave.stream()
+          .filter(requested::add)
+          .filter(name -> !copybookCache.contains(name.toCopybookId(programDocumentUri)))
+          .map(name -> prefetchCopybook(name, programDocumentUri, preprocessor))
+          .collect(toList());
+      wave = awaitPrefetch(futures).stream()
+          .map(CopybookModel::getContent)
+          .map(CopyStatementScanner::scan)
+          .flatMap(Set::stream)
+          .filter(name -> !requested.contains(name))
+          .collect(toCollection(LinkedHashSet::new));
+    }
+  }
+
+  private CompletableFuture<Optional<CopybookModel>> prefetchCopybook(
+      CopybookName copybookName, String programUri, CleanerPreprocessor preprocessor) {
+    CompletableFuture<String> future = clientProvider.get().resolveCopybook(
+        programUri,
+        copybookName.getDisplayName(),
+        Optional.ofNullable(copybookName.getDialectType()).orElse(COBOL));
+    if (future == null) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    // every copybook is read in its own task, so the reads do not wait for each other
+    return future
+        .thenCompose(uri -> CompletableFuture.supplyAsync(
+            () -> readCopybook(copybookName, uri, programUri, preprocessor), prefetchExecutor))
+        .exceptionally(e -> {
+          LOG.debug("Copybook {} was not prefetched", copybookName, e);
+          return Optional.empty();
+        });
+  }
+
+  private Optional<CopybookModel> readCopybook(
+      CopybookName copybookName, String uri, String programUri, CleanerPreprocessor preprocessor) {
+    return Optional.ofNullable(uri)
+        .filter(it -> files.fileExists(files.getPathFromURI(it)))
+        .map(it -> {
+          CopybookModel copybookModel = new CopybookModel(copybookName.toCopybookId(programUri), copybookName, it,
+              readContent(it, Objects.requireNonNull(files.getPathFromURI(it))));
+          if (preprocessor == null) {
+            return copybookModel;
+          }
+          ResultWithErrors<CopybookModel> cleaned = cleanupCopybook(copybookModel, preprocessor);
+          preprocessCopybookErrors.put(it, cleaned.getErrors());
+          return cleaned.getResult();
+        });
+  }
+
+  /**
+   * Stop the copybook prefetching. The copybooks that are not prefetched yet are left for the
+   * regular resolution.
+   */
+  @Override
+  public void shutdown() {
+    prefetchExecutor.shutdownNow();
+  }
+
+  @SuppressWarnings("java:S2142")
+  private List<CopybookModel> awaitPrefetch(List<CompletableFuture<Optional<CopybookModel>>> futures) {
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+    } catch (InterruptedException e) {
+      // rethrowing the InterruptedException to interrupt the parent thread.
+      throw new UncheckedExecutionException(e);
+    } catch (ExecutionException e) {
+      LOG.debug("An exception thrown while prefetching copybooks", e);
+    }
+    List<CopybookModel> prefetched = futures.stream()
+        .map(f -> f.getNow(Optional.empty()))
+        .filter(Optional::isPresent)
+        .map(Optional::get)
+        .collect(toList());
+    prefetched.forEach(copybookCache::store);
+    return prefetched;
   }
 
   @Override
   public void store(CopybookModel copybookModel) {
+    recordContentHash(copybookModel.getUri(), copybookModel.getContent());
     copybookCache.store(copybookModel);
   }
 
   @Override
   public void store(CopybookModel copybookModel, CleanerPreprocessor preprocessor) {
+    recordContentHash(copybookModel.getUri(), copybookModel.getContent());
     if (preprocessor != null) {
       ResultWithErrors<CopybookModel> processedCopybook = cleanupCopybook(copybookModel, preprocessor);
       copybookModel = processedCopybook.getResult();
       preprocessCopybookErrors.put(copybookModel.getUri(), processedCopybook.getErrors());
     }
-    store(copybookModel);
+    copybookCache.store(copybookModel);
   }
 
   private CopybookModel resolveSync(
       @NonNull CopybookName copybookName,
-      @NonNull String programUri) {
+      @NonNull String programUri,
+      boolean registerMissing) {
     ThreadInterruptionUtil.checkThreadInterrupted();
     LOG.debug(
         "Trying to resolve copybook {} for {}",
         copybookName,
         programUri);
-    Optional<CopybookModel> copybookModel = tryResolveCopybookFromWorkspace(copybookName, programUri);
+    Optional<CopybookModel> copybookModel = tryResolveCopybookFromWorkspace(copybookName, programUri, registerMissing);
     if (copybookModel.isPresent()) {
       return copybookModel.get();
     }
     Optional<CopybookModel> predefineCopybook = tryResolvePredefinedCopybook(copybookName);
-      return predefineCopybook.orElseGet(() -> registerForDownloading(copybookName, programUri));
+      return predefineCopybook.orElseGet(() -> missingCopybook(copybookName, programUri, registerMissing));
   }
 
   private Optional<CopybookModel> tryResolvePredefinedCopybook(CopybookName copybookName) {
@@ -194,10 +356,24 @@ public class CopybookServiceImpl implements CopybookService {
   }
 
   private ResultWithErrors<CopybookModel> cleanupCopybook(CopybookModel dirtyCopybook, CleanerPreprocessor preprocessor) {
+    String uri = dirtyCopybook.getUri();
+    String content = dirtyCopybook.getContent();
+    String dialect = dirtyCopybook.getCopybookName().getDialectType();
+    String cleaner = preprocessor.getClass().getName();
+    ResultWithErrors<String> cleaned = persistentCache.load(uri, content, dialect, cleaner)
+        .orElseGet(() -> {
+          ResultWithErrors<String> result = cleanupText(dirtyCopybook, preprocessor);
+          persistentCache.save(uri, content, dialect, cleaner, result);
+          return result;
+        });
+    CopybookModel copybookModel = new CopybookModel(dirtyCopybook.getCopybookId(), dirtyCopybook.getCopybookName(), uri, cleaned.getResult());
+    return new ResultWithErrors<>(copybookModel, cleaned.getErrors());
+  }
+
+  private ResultWithErrors<String> cleanupText(CopybookModel dirtyCopybook, CleanerPreprocessor preprocessor) {
     ResultWithErrors<ExtendedText> textTransformationsResultWithErrors = preprocessor.cleanUpCode(dirtyCopybook.getUri(), dirtyCopybook.getContent());
     String cleanText = CharMatcher.whitespace().trimTrailingFrom(textTransformationsResultWithErrors.getResult().toString());
-    CopybookModel copybookModel = new CopybookModel(dirtyCopybook.getCopybookId(), dirtyCopybook.getCopybookName(), dirtyCopybook.getUri(), cleanText);
-    return new ResultWithErrors<>(copybookModel, adjustErrorLocation(dirtyCopybook, textTransformationsResultWithErrors.getErrors()));
+    return new ResultWithErrors<>(cleanText, adjustErrorLocation(dirtyCopybook, textTransformationsResultWithErrors.getErrors()));
   }
 
   private List<SyntaxError> adjustErrorLocation(
@@ -218,7 +394,7 @@ public class CopybookServiceImpl implements CopybookService {
   }
 
   private Optional<CopybookModel> tryResolveCopybookFromWorkspace(
-      CopybookName copybookName, String programUri) {
+      CopybookName copybookName, String programUri, boolean registerMissing) {
     LOG.debug(
         "Trying to resolve copybook copybook {} for {} from workspace",
         copybookName,
@@ -226,7 +402,7 @@ public class CopybookServiceImpl implements CopybookService {
     ThreadInterruptionUtil.checkThreadInterrupted();
     final Optional<CopybookModel> copybookModel =
         resolveCopybookFromWorkspace(copybookName, programUri)
-                .map(uri -> loadCopybook(uri, copybookName, programUri));
+                .map(uri -> loadCopybook(uri, copybookName, programUri, registerMissing));
     LOG.debug("Copybook from workspace: {}", copybookModel);
     return copybookModel;
   }
@@ -252,6 +428,12 @@ public class CopybookServiceImpl implements CopybookService {
     }
   }
 
+  private CopybookModel missingCopybook(CopybookName copybookName, String programUri, boolean register) {
+    return register
+        ? registerForDownloading(copybookName, programUri)
+        : new CopybookModel(copybookName.toCopybookId(programUri), copybookName, null, null);
+  }
+
   private CopybookModel registerForDownloading(CopybookName copybookName, String programUri) {
     String cobolFileName = files.getNameFromURI(programUri);
     LOG.debug("Registering copybook {} of {} for further downloading", copybookName, cobolFileName);
@@ -261,12 +443,12 @@ public class CopybookServiceImpl implements CopybookService {
     return new CopybookModel(copybookName.toCopybookId(programUri), copybookName, null, null);
   }
 
-  private CopybookModel loadCopybook(String uri, CopybookName copybookName, String programUri) {
+  private CopybookModel loadCopybook(String uri, CopybookName copybookName, String programUri, boolean registerMissing) {
     Path file = files.getPathFromURI(uri);
     LOG.debug("Loading {} with URI {} for {} from path {}", copybookName, uri, files.getNameFromURI(programUri), file);
     return files.fileExists(file)
-        ? new CopybookModel(copybookName.toCopybookId(programUri), copybookName, uri, files.getContentByPath(Objects.requireNonNull(file)))
-        : registerForDownloading(copybookName, programUri);
+        ? new CopybookModel(copybookName.toCopybookId(programUri), copybookName, uri, readContent(uri, Objects.requireNonNull(file)))
+        : missingCopybook(copybookName, programUri, registerMissing);
   }
 
   @Override
@@ -303,6 +485,54 @@ public class CopybookServiceImpl implements CopybookService {
     return Collections.unmodifiableSet(copybookUsage.getOrDefault(documentUri, ImmutableSet.of()));
   }
 
+  /**
+   * Get the hash of the copybook as it is currently resolved. The hash is computed from the content
+   * of the copybook file, before it is cleaned up, so a copybook that is read again after the cache
+   * invalidation has the same hash if the file has not changed.
+   *
+   * @param copybookId the id of the copybook
+   * @param uri the URI the copybook was resolved to before, or null if it is not known
+   * @return the hash of the copybook URI and content, or empty if the copybook was not resolved or
+   *     its file cannot be read
+   */
+  @Override
+  public Optional<String> getContentHash(CopybookId copybookId, String uri) {
+    Optional<CopybookModel> cached = copybookCache.find(copybookId);
+    String resolvedUri = cached.isPresent() ? cached.get().getUri() : uri;
+    if (resolvedUri == null) {
+      return Optional.empty();
+    }
+    String hash = cached.isPresent() ? contentHashes.get(resolvedUri) : null;
+    return Optional.ofNullable(hash == null ? readContentHash(resolvedUri) : hash);
+  }
+
+  private String readContent(String uri, Path file) {
+    String content = files.getContentByPath(file);
+    recordContentHash(uri, content);
+    return content;
+  }
+
+  private String readContentHash(String uri) {
+    Path file = files.getPathFromURI(uri);
+    if (file == null || !files.fileExists(file)) {
+      return null;
+    }
+    return recordContentHash(uri, files.getContentByPath(file));
+  }
+
+  private String recordContentHash(String uri, String content) {
+    if (uri == null || content == null) {
+      return null;
+    }
+    String hash = Hashing.murmur3_128().newHasher()
+        .putString(uri, StandardCharsets.UTF_8)
+        .putChar('\n')
+        .putString(content, StandardCharsets.UTF_8)
+        .hash().toString();
+    contentHashes.put(uri, hash);
+    return hash;
+  }
+
   @VisibleForTesting
   Map<String, Set<CopybookName>> getCopybooksForDownloading() {
     return ImmutableMap.copyOf(copybooksForDownloading);
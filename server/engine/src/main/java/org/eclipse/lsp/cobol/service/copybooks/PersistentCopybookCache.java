@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.copybooks;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.error.ErrorCodes;
+import org.eclipse.lsp.cobol.common.error.ErrorSeverity;
+import org.eclipse.lsp.cobol.common.error.ErrorSource;
+import org.eclipse.lsp.cobol.common.error.SyntaxError;
+import org.eclipse.lsp.cobol.common.mapping.OriginalLocation;
+import org.eclipse.lsp.cobol.common.message.MessageTemplate;
+import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * Second-tier, on-disk store of cleaned copybooks. An entry is keyed by the copybook URI, the hash
+ * of its raw content, its dialect, the code layout and the cleaner that produced it, so a restart
+ * or a settings change that keeps those values can skip the cleanup completely.
+ *
+ * <p>Each entry is a single file in a compact binary format that is read through a memory-mapped
+ * buffer. The store is enabled by the {@code copybook.cache.path} system property and is a no-op
+ * otherwise. The store keeps as many entries as the in-memory copybook cache, and the least recently
+ * used entries are removed when it grows over that size.
+ */
+@Slf4j
+@Singleton
+@SuppressWarnings("UnstableApiUsage")
+public class PersistentCopybookCache {
+  private static final String COPYBOOK_CACHE_PATH = "copybook.cache.path";
+  private static final int MAGIC = 0x43424b43; // "CBKC"
+  private static final int VERSION = 2;
+  private static final String ENTRY_EXTENSION = ".cbk";
+  private static final int NULL_LENGTH = -1;
+  private static final byte NULL_ARG = 0;
+  private static final byte STRING_ARG = 1;
+  private static final byte INTEGER_ARG = 2;
+  private static final byte TEMPLATE_ARG = 3;
+
+  private final Path cacheFolder;
+  private final CodeLayoutStore layoutStore;
+  private final int maxEntries;
+  private final AtomicInteger savesSincePruning = new AtomicInteger();
+
+  @Inject
+  public PersistentCopybookCache(CodeLayoutStore layoutStore, @Named("CACHE-MAX-SIZE") int maxEntries) {
+    this(Optional.ofNullable(System.getProperty(COPYBOOK_CACHE_PATH)).map(Paths::get).orElse(null), layoutStore,
+        maxEntries);
+  }
+
+  @VisibleForTesting
+  PersistentCopybookCache(Path cacheFolder, CodeLayoutStore layoutStore, int maxEntries) {
+    this.cacheFolder = cacheFolder;
+    this.layoutStore = layoutStore;
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Check if the persistent store is configured
+   *
+   * @return true if the entries are read and written to the disk
+   */
+  public boolean isEnabled() {
+    return cacheFolder != null;
+  }
+
+  /**
+   * Load a cleaned copybook text and its cleanup errors
+   *
+   * @param uri the copybook URI
+   * @param content the raw copybook content
+   * @param dialect the copybook dialect
+   * @param cleaner the name of the cleaner that is going to process the content
+   * @return the cleaned text with errors, or empty if there is no valid entry for the key
+   */
+  public Optional<ResultWithErrors<String>> load(String uri, String content, String dialect, String cleaner) {
+    if (!isEnabled()) return Optional.empty();
+    String key = createKey(uri, content, dialect, cleaner);
+    Path entry = entryPath(key);
+    if (!Files.isRegularFile(entry)) return Optional.empty();
+    try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      Optional<ResultWithErrors<String>> result = Optional.ofNullable(read(buffer, key));
+      if (result.isPresent()) touch(entry);
+      return result;
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Cannot read copybook cache entry {} for {}", entry, uri, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Store a cleaned copybook text and its cleanup errors. Message templates are stored with their
+   * arguments, so the messages are localized again when the entry is loaded. Entries with errors
+   * that cannot be represented in the binary format, like related information or template
+   * arguments other than strings, integers and nested templates, are not stored.
+   *
+   * @param uri the copybook URI
+   * @param content the raw copybook content
+   * @param dialect the copybook dialect
+   * @param cleaner the name of the cleaner that processed the content
+   * @param cleaned the cleaned text and the cleanup errors
+   */
+  public void save(String uri, String content, String dialect, String cleaner, ResultWithErrors<String> cleaned) {
+    if (!isEnabled() || !cleaned.getErrors().stream().allMatch(PersistentCopybookCache::isStorable)) return;
+    String key = createKey(uri, content, dialect, cleaner);
+    Path entry = entryPath(key);
+    Path tmp = null;
+    try {
+      Files.createDirectories(cacheFolder);
+      tmp = Files.createTempFile(cacheFolder, "entry", ".tmp");
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        write(out, key, cleaned);
+      }
+      try {
+        Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      LOG.debug("Cannot write copybook cache entry {} for {}", entry, uri, e);
+    } finally {
+      if (tmp != null) delete(tmp);
+    }
+    if (savesSincePruning.getAndIncrement() % maxEntries == 0) prune();
+  }
+
+  // runs on the first save and then once per the maximal number of saves
+  private void prune() {
+    List<Path> entries;
+    try (Stream<Path> files = Files.list(cacheFolder)) {
+      entries = files.filter(f -> f.toString().endsWith(ENTRY_EXTENSION)).collect(Collectors.toList());
+    } catch (IOException | UncheckedIOException e) {
+      LOG.debug("Cannot list copybook cache entries in {}", cacheFolder, e);
+      return;
+    }
+    if (entries.size() <= maxEntries) return;
+    Map<Path, Long> lastUsed = new HashMap<>();
+    entries.forEach(e -> lastUsed.put(e, e.toFile().lastModified()));
+    entries.sort(Comparator.comparing(lastUsed::get));
+    entries.subList(0, entries.size() - maxEntries).forEach(PersistentCopybookCache::delete);
+    LOG.debug("Removed {} copybook cache entries from {}", entries.size() - maxEntries, cacheFolder);
+  }
+
+  // the modification time marks the recently used entries that are kept on pruning
+  private static void touch(Path entry) {
+    try {
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException e) {
+      LOG.debug("Cannot update copybook cache entry {}", entry, e);
+    }
+  }
+
+  private static void delete(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      LOG.debug("Cannot remove copybook cache file {}", path, e);
+    }
+  }
+
+  private String createKey(String uri, String content, String dialect, String cleaner) {
+    String layout = layoutStore.getCodeLayout()
+        .map(l -> String.format("%s/%s/%s/%s/%s", l.getSequenceLength(), l.getIndicatorLength(),
+            l.getAreaALength(), l.getAreaBLength(), l.getCommentAreaLength()))
+        .orElse("default");
+    return String.join("\n", uri, hash(content), String.valueOf(dialect), layout, cleaner);
+  }
+
+  private Path entryPath(String key) {
+    return cacheFolder.resolve(hash(key) + ENTRY_EXTENSION);
+  }
+
+  private static String hash(String text) {
+    return Hashing.sha256().hashString(text, StandardCharsets.UTF_8).toString();
+  }
+
+  private static boolean isStorable(SyntaxError error) {
+    return (error.getMessageTemplate() == null || isStorable(error.getMessageTemplate()))
+        && (error.getErrorCode() == null || error.getErrorCode() instanceof ErrorCodes)
+        && error.getRelatedInformation() == null;
+  }
+
+  private static boolean isStorable(MessageTemplate template) {
+    if (template.getArgs() == null) return true;
+    for (Object arg : template.getArgs()) {
+      if (arg instanceof MessageTemplate) {
+        if (!isStorable((MessageTemplate) arg)) return false;
+      } else if (arg != null && !(arg instanceof String) && !(arg instanceof Integer)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void write(DataOutputStream out, String key, ResultWithErrors<String> cleaned) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    writeString(out, key);
+    writeString(out, cleaned.getResult());
+    out.writeInt(cleaned.getErrors().size());
+    for (SyntaxError error : cleaned.getErrors()) {
+      writeString(out, error.getSuggestion());
+      out.writeByte(error.getSeverity() == null ? NULL_LENGTH : error.getSeverity().ordinal());
+      out.writeByte(error.getErrorSource() == null ? NULL_LENGTH : error.getErrorSource().ordinal());
+      writeString(out, error.getErrorCode() == null ? null : ((ErrorCodes) error.getErrorCode()).name());
+      out.writeBoolean(error.getMessageTemplate() != null);
+      if (error.getMessageTemplate() != null) writeTemplate(out, error.getMessageTemplate());
+      OriginalLocation location = error.getLocation();
+      out.writeBoolean(location != null);
+      if (location == null) continue;
+      writeString(out, location.getCopybookId());
+      Location lspLocation = location.getLocation();
+      out.writeBoolean(lspLocation != null);
+      if (lspLocation == null) continue;
+      writeString(out, lspLocation.getUri());
+      Range range = lspLocation.getRange();
+      out.writeInt(range.getStart().getLine());
+      out.writeInt(range.getStart().getCharacter());
+      out.writeInt(range.getEnd().getLine());
+      out.writeInt(range.getEnd().getCharacter());
+    }
+  }
+
+  private static ResultWithErrors<String> read(ByteBuffer buffer, String key) {
+    if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !key.equals(readString(buffer))) {
+      return null;
+    }
+    String text = readString(buffer);
+    int count = buffer.getInt();
+    List<SyntaxError> errors = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      SyntaxError.SyntaxErrorBuilder error = SyntaxError.syntaxError().suggestion(readString(buffer));
+      byte severity = buffer.get();
+      byte source = buffer.get();
+      if (severity != NULL_LENGTH) error.severity(ErrorSeverity.values()[severity]);
+      if (source != NULL_LENGTH) error.errorSource(ErrorSource.values()[source]);
+      String errorCode = readString(buffer);
+      if (errorCode != null) error.errorCode(ErrorCodes.valueOf(errorCode));
+      if (buffer.get() != 0) error.messageTemplate(readTemplate(buffer));
+      if (buffer.get() != 0) {
+        String copybookId = readString(buffer);
+        Location location = null;
+        if (buffer.get() != 0) {
+          String uri = readString(buffer);
+          Position start = new Position(buffer.getInt(), buffer.getInt());
+          Position end = new Position(buffer.getInt(), buffer.getInt());
+          location = new Location(uri, new Range(start, end));
+        }
+        error.location(new OriginalLocation(location, copybookId));
+      }
+      errors.add(error.build());
+    }
+    return new ResultWithErrors<>(text, errors);
+  }
+
+  private static void writeTemplate(DataOutputStream out, MessageTemplate template) throws IOException {
+    writeString(out, template.getTemplate());
+    writeString(out, template.getDelimiter());
+    Object[] args = template.getArgs();
+    out.writeInt(args == null ? NULL_LENGTH : args.length);
+    if (args == null) return;
+    for (Object arg : args) {
+      if (arg == null) {
+        out.writeByte(NULL_ARG);
+      } else if (arg instanceof String) {
+        out.writeByte(STRING_ARG);
+        writeString(out, (String) arg);
+      } else if (arg instanceof Integer) {
+        out.writeByte(INTEGER_ARG);
+        out.writeInt((Integer) arg);
+      } else {
+        out.writeByte(TEMPLATE_ARG);
+        writeTemplate(out, (MessageTemplate) arg);
+      }
+    }
+  }
+
+  private static MessageTemplate readTemplate(ByteBuffer buffer) {
+    String template = readString(buffer);
+    String delimiter = readString(buffer);
+    int count = buffer.getInt();
+    Object[] args = count == NULL_LENGTH ? null : new Object[count];
+    for (int i = 0; i < count; i++) {
+      byte type = buffer.get();
+      if (type == STRING_ARG) args[i] = readString(buffer);
+      else if (type == INTEGER_ARG) args[i] = buffer.getInt();
+      else if (type == TEMPLATE_ARG) args[i] = readTemplate(buffer);
+    }
+    return MessageTemplate.concatenatingArgs(template, delimiter, args);
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(NULL_LENGTH);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length == NULL_LENGTH) return null;
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.delegates.completions;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.function.Function;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+
+/**
+ * Keeps a {@link PrefixIndex} of the completion candidates for each analysis result, so the
+ * candidates are collected from the syntax tree once per analysis and not for every typed
+ * character. The results are held weakly and compared by identity, so the index of an outdated
+ * result is dropped together with it.
+ *
+ * @param <T> the type of the indexed candidates
+ */
+final class AnalysisResultIndex<T> {
+  private static final int MAX_RESULTS = 64;
+
+  private final Cache<AnalysisResult, PrefixIndex<T>> indexes =
+      CacheBuilder.newBuilder().weakKeys().maximumSize(MAX_RESULTS).build();
+  private final Function<AnalysisResult, PrefixIndex<T>> indexBuilder;
+
+  AnalysisResultIndex(Function<AnalysisResult, PrefixIndex<T>> indexBuilder) {
+    this.indexBuilder = indexBuilder;
+  }
+
+  /**
+   * Get the index of the analysis result, building it on the first call
+   *
+   * @param result the analysis result
+   * @return the prefix index of the completion candidates
+   */
+  PrefixIndex<T> get(AnalysisResult result) {
+    return indexes.asMap().computeIfAbsent(result, indexBuilder);
+  }
+}
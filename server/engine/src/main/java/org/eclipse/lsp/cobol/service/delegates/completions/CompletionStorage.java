@@ -15,29 +15,35 @@
 package org.eclipse.lsp.cobol.service.delegates.completions;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp.cobol.service.settings.SettingsService;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 import static org.eclipse.lsp.cobol.service.settings.SettingsParametersEnum.DIALECTS;
 
 /**
  * This class represents a storage for static completion content, e.g. keywords. It provides
  * elements as strings and documentation for them if provided.
+ *
+ * <p>The content is loaded on the first request and then only when the enabled dialects change, and
+ * the labels are kept in a {@link PrefixIndex} for the lookup by the typed token.
  */
 @Slf4j
 public abstract class CompletionStorage<T> {
   private List<String> dialectType = ImmutableList.of();
-  private Map<String, T> storage;
+  private volatile Snapshot<T> snapshot;
   private final SettingsService settingsService;
 
   CompletionStorage(final SettingsService settingsService) {
     this.settingsService = settingsService;
-    resetStorage();
   }
 
   /** Updates the storage of keywords based on enabled dialects defined in user's settings */
@@ -53,8 +59,17 @@ public abstract class CompletionStorage<T> {
    * @return A set of keywords
    */
   Set<String> getLabels() {
-    resetStorage();
-    return storage.keySet();
+    return getSnapshot().storage.keySet();
+  }
+
+  /**
+   * Return the registered keywords that start with the given prefix ignoring case
+   *
+   * @param prefix - the typed part of the keyword
+   * @return the matching keywords ordered alphabetically
+   */
+  List<String> findLabels(final String prefix) {
+    return getSnapshot().labels.find(prefix);
   }
 
   /**
@@ -64,23 +79,39 @@ public abstract class CompletionStorage<T> {
    * @return description
    */
   String getInformationFor(final String label) {
-    return (String) storage.get(label);
+    return (String) getSnapshot().storage.get(label);
   }
 
-  private void fillInStorage(final Map<String, T> props) {
-    this.storage =
-        props.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+  private Snapshot<T> getSnapshot() {
+    Snapshot<T> current = snapshot;
+    if (current == null) {
+      synchronized (this) {
+        current = snapshot;
+        if (current == null) {
+          current = load(dialectType);
+          snapshot = current;
+        }
+      }
+    }
+    return current;
   }
 
-  private void updateDialects(final List<String> dialects) {
-    this.dialectType = dialects;
-    resetStorage();
+  private synchronized void updateDialects(final List<String> dialects) {
+    List<String> types = Optional.ofNullable(dialects).<List<String>>map(ArrayList::new).orElse(ImmutableList.of());
+    if (snapshot != null && types.equals(dialectType)) return;
+    this.dialectType = types;
+    snapshot = load(dialectType);
   }
 
-  private void resetStorage() {
-    Map<String, T> dataMap;
-    dataMap = getDataMap(this.dialectType);
-    fillInStorage(dataMap);
+  private Snapshot<T> load(List<String> dialects) {
+    Map<String, T> storage = ImmutableMap.copyOf(getDataMap(dialects));
     LOG.info("The properties file has been loaded successfully");
+    return new Snapshot<>(storage, PrefixIndex.of(storage.keySet(), Function.identity()));
+  }
+
+  @Value
+  private static class Snapshot<T> {
+    Map<String, T> storage;
+    PrefixIndex<String> labels;
   }
 }
@@ -25,7 +25,9 @@ import org.eclipse.lsp4j.CompletionList;
 import org.eclipse.lsp4j.CompletionParams;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -47,11 +49,19 @@ import static java.util.stream.Collectors.toList;
 @Singleton
 public class Completions {
 
+  private static final String MAX_ITEMS_PROPERTY = "completion.max.items";
+
   private final Set<Completion> providers;
+  private final int maxItems;
 
   @Inject
   Completions(Set<Completion> providers) {
+    this(providers, Integer.getInteger(MAX_ITEMS_PROPERTY, 1000));
+  }
+
+  Completions(Set<Completion> providers, int maxItems) {
     this.providers = providers;
+    this.maxItems = maxItems;
   }
 
   /**
@@ -59,6 +69,10 @@ public class Completions {
    * is invoked before the didOpen() request has been resolved, and the document model is not stored
    * on the server yet.
    *
+   * <p>Only the first suggestions in the {@link CompletionOrder} are returned if there are too many
+   * of them, e.g. for an empty token, and the list is marked as incomplete, so the client asks again
+   * when the user types more characters.
+   *
    * @param document - document model that should be used to retrieve the required token. May be
    *                 null.
    * @param params   - request parameters that contain the position of the required token in the
@@ -69,7 +83,9 @@ public class Completions {
   public CompletionList collectFor(
           @Nullable CobolDocumentModel document, @NonNull CompletionParams params) {
     List<CompletionItem> items = collectCompletions(document, params);
-    return new CompletionList(false, items);
+    if (items.size() <= maxItems) return new CompletionList(false, items);
+    items.sort(Comparator.comparing(CompletionItem::getSortText, Comparator.nullsLast(Comparator.naturalOrder())));
+    return new CompletionList(true, new ArrayList<>(items.subList(0, maxItems)));
   }
 
   @NonNull
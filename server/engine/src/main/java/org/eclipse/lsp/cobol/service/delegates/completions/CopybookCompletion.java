@@ -16,6 +16,7 @@ package org.eclipse.lsp.cobol.service.delegates.completions;
 
 import com.google.inject.Singleton;
 import lombok.NonNull;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
 import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
 import org.eclipse.lsp.cobol.service.CobolDocumentModel;
 import org.eclipse.lsp4j.CompletionItem;
@@ -23,6 +24,7 @@ import org.eclipse.lsp4j.CompletionItemKind;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.function.Function;
 
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
@@ -33,23 +35,29 @@ import static org.eclipse.lsp.cobol.service.delegates.completions.CompletionOrde
 /** This class provides completion suggestions for copybook usages in the document */
 @Singleton
 public class CopybookCompletion implements Completion {
+  private final AnalysisResultIndex<String> index = new AnalysisResultIndex<>(CopybookCompletion::buildIndex);
 
   @Override
   public @NonNull Collection<CompletionItem> getCompletionItems(
       @NonNull String token, @Nullable CobolDocumentModel document) {
     if (!isDocumentReadyForSemanticCollection(document)) return emptyList();
-    return document
-        .getLastAnalysisResult()
-        .getRootNode()
-        .getDepthFirstStream()
-        .filter(hasType(COPY))
-        .map(CopyNode.class::cast)
-        .map(CopyNode::getName)
-        .filter(DocumentationUtils.startsWithIgnoreCase(token))
+    return index.get(document.getLastAnalysisResult()).find(token).stream()
         .map(CopybookCompletion::toCopybookCompletion)
         .collect(toList());
   }
 
+  private static PrefixIndex<String> buildIndex(AnalysisResult result) {
+    return PrefixIndex.of(
+        result
+            .getRootNode()
+            .getDepthFirstStream()
+            .filter(hasType(COPY))
+            .map(CopyNode.class::cast)
+            .map(CopyNode::getName)
+            .collect(toList()),
+        Function.identity());
+  }
+
   private static CompletionItem toCopybookCompletion(String name) {
     CompletionItem item = new CompletionItem(name);
     item.setLabel(name);
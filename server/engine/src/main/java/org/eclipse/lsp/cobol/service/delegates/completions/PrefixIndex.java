@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.delegates.completions;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * An immutable case-insensitive prefix index of completion candidates. The names are upper-cased
+ * and sorted once, so a lookup is a binary search for the first name with the prefix followed by a
+ * scan of the matching names only. The candidates with the same name keep their original order.
+ *
+ * @param <T> the type of the indexed candidates
+ */
+final class PrefixIndex<T> {
+  private final String[] keys;
+  private final List<T> values;
+
+  private PrefixIndex(String[] keys, List<T> values) {
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /**
+   * Build an index of the given candidates
+   *
+   * @param candidates the candidates to index
+   * @param nameFunction the function to get the name of a candidate
+   * @param <T> the type of the indexed candidates
+   * @return the prefix index
+   */
+  static <T> PrefixIndex<T> of(Collection<T> candidates, Function<T, String> nameFunction) {
+    List<Entry<T>> entries = new ArrayList<>(candidates.size());
+    for (T candidate : candidates) {
+      entries.add(new Entry<>(nameFunction.apply(candidate).toUpperCase(Locale.ROOT), candidate));
+    }
+    entries.sort(Comparator.comparing(e -> e.key));
+    String[] keys = new String[entries.size()];
+    ImmutableList.Builder<T> values = ImmutableList.builderWithExpectedSize(entries.size());
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = entries.get(i).key;
+      values.add(entries.get(i).value);
+    }
+    return new PrefixIndex<>(keys, values.build());
+  }
+
+  /**
+   * Find all the candidates with names that start with the prefix ignoring case
+   *
+   * @param prefix the name prefix
+   * @return the matching candidates ordered by name
+   */
+  List<T> find(String prefix) {
+    return find(prefix, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Find the first candidates with names that start with the prefix ignoring case
+   *
+   * @param prefix the name prefix
+   * @param limit the maximal number of candidates to return
+   * @return the matching candidates ordered by name
+   */
+  List<T> find(String prefix, int limit) {
+    String key = prefix.toUpperCase(Locale.ROOT);
+    int from = lowerBound(key);
+    int to = from;
+    while (to < keys.length && to - from < limit && keys[to].startsWith(key)) {
+      to++;
+    }
+    return values.subList(from, to);
+  }
+
+  /**
+   * Get the number of the indexed candidates
+   *
+   * @return the index size
+   */
+  int size() {
+    return keys.length;
+  }
+
+  private int lowerBound(String key) {
+    int low = 0;
+    int high = keys.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (keys[middle].compareTo(key) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static final class Entry<T> {
+    private final String key;
+    private final T value;
+
+    private Entry(String key, T value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+}
@@ -18,6 +18,7 @@ import com.google.common.collect.Multimap;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import lombok.NonNull;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
 import org.eclipse.lsp.cobol.common.model.tree.ProgramNode;
 import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
 import org.eclipse.lsp.cobol.core.engine.symbols.SymbolsRepository;
@@ -27,7 +28,6 @@ import org.eclipse.lsp4j.CompletionItem;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
-import java.util.function.Predicate;
 
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
@@ -46,6 +46,7 @@ import static org.eclipse.lsp4j.CompletionItemKind.Variable;
 public class VariableCompletion implements Completion {
 
   private final SymbolsRepository symbolsRepository;
+  private final AnalysisResultIndex<VariableNode> index = new AnalysisResultIndex<>(this::buildIndex);
 
   @Inject
   public VariableCompletion(SymbolsRepository symbolsRepository) {
@@ -56,22 +57,23 @@ public class VariableCompletion implements Completion {
   public @NonNull Collection<CompletionItem> getCompletionItems(
       @NonNull String token, @Nullable CobolDocumentModel document) {
     if (!isDocumentReadyForSemanticCollection(document)) return emptyList();
-    return document
-        .getLastAnalysisResult()
-        .getRootNode()
-        .getDepthFirstStream()
-        .filter(hasType(PROGRAM))
-        .map(ProgramNode.class::cast)
-        .map(symbolsRepository::getVariables)
-        .map(Multimap::values)
-        .flatMap(Collection::stream)
-        .filter(matchNames(token))
+    return index.get(document.getLastAnalysisResult()).find(token).stream()
         .map(this::toCompletionItem)
         .collect(toList());
   }
 
-  private Predicate<VariableNode> matchNames(@NonNull String token) {
-    return it -> it.getName().regionMatches(true, 0, token, 0, token.length());
+  private PrefixIndex<VariableNode> buildIndex(AnalysisResult result) {
+    return PrefixIndex.of(
+        result
+            .getRootNode()
+            .getDepthFirstStream()
+            .filter(hasType(PROGRAM))
+            .map(ProgramNode.class::cast)
+            .map(symbolsRepository::getVariables)
+            .map(Multimap::values)
+            .flatMap(Collection::stream)
+            .collect(toList()),
+        VariableNode::getName);
   }
 
   private CompletionItem toCompletionItem(VariableNode it) {
@@ -19,9 +19,7 @@ import com.google.inject.Singleton;
 import java.util.Optional;
 import javax.annotation.Nullable;
 import lombok.NonNull;
-import org.eclipse.lsp.cobol.common.AnalysisResult;
 import org.eclipse.lsp.cobol.common.model.Describable;
-import org.eclipse.lsp.cobol.common.utils.RangeUtils;
 import org.eclipse.lsp.cobol.lsp.SourceUnitGraph;
 import org.eclipse.lsp.cobol.service.CobolDocumentModel;
 import org.eclipse.lsp4j.Hover;
@@ -39,11 +37,7 @@ public class VariableHover implements HoverProvider {
       @Nullable CobolDocumentModel document, @NonNull TextDocumentPositionParams position, SourceUnitGraph documentGraph) {
     return Optional.ofNullable(document)
         .map(CobolDocumentModel::getAnalysisResult)
-        .map(AnalysisResult::getRootNode)
-        .flatMap(
-            root ->
-                RangeUtils.findNodeByPosition(
-                    root, position.getTextDocument().getUri(), position.getPosition()))
+        .flatMap(result -> result.findNodeByPosition(position.getTextDocument().getUri(), position.getPosition()))
         .filter(Describable.class::isInstance)
         .map(Describable.class::cast)
         .map(VariableHover::createHoverInfo)
@@ -27,18 +27,25 @@ import org.eclipse.lsp.cobol.common.model.DefinedAndUsedStructure;
 import org.eclipse.lsp.cobol.core.engine.symbols.SymbolsRepository;
 import org.eclipse.lsp.cobol.lsp.SourceUnitGraph;
 import org.eclipse.lsp.cobol.service.CobolDocumentModel;
+import org.eclipse.lsp.cobol.service.index.IndexedSymbol;
+import org.eclipse.lsp.cobol.service.index.SymbolExtractor;
+import org.eclipse.lsp.cobol.service.index.WorkspaceIndex;
 import org.eclipse.lsp4j.*;
 
 /**
  * This occurrences provider resolves the requests for the semantic elements based on its positions.
+ * References of copybook elements and programs also include the usages from the other programs of
+ * the {@link WorkspaceIndex}.
  */
 @Slf4j
 public class ElementOccurrences implements Occurrences {
   private final SourceUnitGraph sourceUnitGraph;
+  private final WorkspaceIndex workspaceIndex;
 
   @Inject
-  public ElementOccurrences(SourceUnitGraph sourceUnitGraph) {
+  public ElementOccurrences(SourceUnitGraph sourceUnitGraph, WorkspaceIndex workspaceIndex) {
     this.sourceUnitGraph = sourceUnitGraph;
+    this.workspaceIndex = workspaceIndex;
   }
 
   @Override
@@ -79,9 +86,41 @@ public class ElementOccurrences implements Occurrences {
     if (refCtx.isIncludeDeclaration()) {
       references.addAll(element.get().getDefinitions());
     }
+    findWorkspaceReferences(document.getAnalysisResult(), position, refCtx).stream()
+        .filter(location -> !references.contains(location))
+        .distinct()
+        .forEach(references::add);
     return references;
   }
 
+  private List<Location> findWorkspaceReferences(
+      AnalysisResult analysisResult, TextDocumentPositionParams position, ReferenceContext refCtx) {
+    if (!workspaceIndex.isEnabled() || analysisResult == null || analysisResult.getRootNode() == null) {
+      return Collections.emptyList();
+    }
+    String uri = position.getTextDocument().getUri();
+    return analysisResult.findNodeByPosition(uri, position.getPosition())
+        .flatMap(node -> SymbolExtractor.toSymbol(node, Collections.emptySet()))
+        .filter(symbol -> isSharedAcrossPrograms(symbol, uri))
+        .map(symbol -> workspaceIndex.find(symbol.getKind(), symbol.getName(), symbol.getScope()).stream()
+            .filter(s -> refCtx.isIncludeDeclaration() || !s.isDefinition())
+            .map(IndexedSymbol::getLocation)
+            .collect(Collectors.toList()))
+        .orElse(Collections.emptyList());
+  }
+
+  private static boolean isSharedAcrossPrograms(IndexedSymbol symbol, String documentUri) {
+    switch (symbol.getKind()) {
+      case COPYBOOK:
+      case PROGRAM:
+        return true;
+      case VARIABLE:
+        return symbol.getScope() != null && !symbol.getScope().equals(documentUri);
+      default:
+        return false;
+    }
+  }
+
   @Override
   public @NonNull List<DocumentHighlight> findHighlights(
       AnalysisResult analysisResult, @NonNull TextDocumentPositionParams position) {
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.delegates.semantictokens;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Singleton;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.NonNull;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.model.tree.CodeBlockUsageNode;
+import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
+import org.eclipse.lsp.cobol.common.model.tree.FunctionReference;
+import org.eclipse.lsp.cobol.common.model.tree.Node;
+import org.eclipse.lsp.cobol.common.model.tree.ParagraphNameNode;
+import org.eclipse.lsp.cobol.common.model.tree.SectionNameNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableDefinitionNameNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableUsageNode;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SemanticTokenModifiers;
+import org.eclipse.lsp4j.SemanticTokenTypes;
+import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensEdit;
+import org.eclipse.lsp4j.SemanticTokensLegend;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+
+/**
+ * This class builds the semantic tokens of a document from its analysed syntax tree. Only the
+ * names the analysis resolves are reported: data items, paragraphs and sections, intrinsic
+ * functions and copybooks, the rest is left to the client grammar.
+ *
+ * <p>The encoded tokens are kept for the last analysis result of each document, so repeated
+ * requests for the same result are answered from the cache, and a delta request gets only the
+ * changed span of the previous result.
+ */
+@Singleton
+public class SemanticTokensProvider {
+  public static final SemanticTokensLegend LEGEND =
+      new SemanticTokensLegend(
+          ImmutableList.of(
+              SemanticTokenTypes.Variable, SemanticTokenTypes.Function, SemanticTokenTypes.Macro),
+          ImmutableList.of(SemanticTokenModifiers.Declaration, SemanticTokenModifiers.DefaultLibrary));
+
+  private static final int VARIABLE = 0;
+  private static final int FUNCTION = 1;
+  private static final int MACRO = 2;
+  private static final int DECLARATION = 1;
+  private static final int DEFAULT_LIBRARY = 1 << 1;
+  private static final int MAX_DOCUMENTS = 256;
+
+  private final AtomicLong resultIds = new AtomicLong();
+  private final Cache<String, Snapshot> snapshots =
+      CacheBuilder.newBuilder().maximumSize(MAX_DOCUMENTS).build();
+
+  /**
+   * Get the semantic tokens of the whole document
+   *
+   * @param uri the document uri
+   * @param result the analysis result of the document
+   * @return the encoded tokens with the id to request a delta against
+   */
+  public SemanticTokens full(@NonNull String uri, @NonNull AnalysisResult result) {
+    Snapshot snapshot = getSnapshot(uri, result);
+    return new SemanticTokens(snapshot.resultId, snapshot.data);
+  }
+
+  /**
+   * Get the semantic tokens of the document as the edits of the previously sent result. The full
+   * tokens are returned if the previous result is not known anymore.
+   *
+   * @param uri the document uri
+   * @param result the analysis result of the document
+   * @param previousResultId the id of the result the client has
+   * @return the delta or the full tokens
+   */
+  public Either<SemanticTokens, SemanticTokensDelta> fullDelta(
+      @NonNull String uri, @NonNull AnalysisResult result, String previousResultId) {
+    Snapshot previous = snapshots.getIfPresent(uri);
+    Snapshot current = getSnapshot(uri, result);
+    if (previous == null || !previous.resultId.equals(previousResultId)) {
+      return Either.forLeft(new SemanticTokens(current.resultId, current.data));
+    }
+    return Either.forRight(
+        new SemanticTokensDelta(diff(previous.data, current.data), current.resultId));
+  }
+
+  /**
+   * Get the semantic tokens of the document located in the range
+   *
+   * @param uri the document uri
+   * @param result the analysis result of the document
+   * @param range the requested range
+   * @return the encoded tokens
+   */
+  public SemanticTokens range(@NonNull String uri, @NonNull AnalysisResult result, @NonNull Range range) {
+    Stream<Node> nodes =
+        result.getPositionIndex() == null
+            ? result.getRootNode().getDepthFirstStream()
+            : result.getPositionIndex().findNodesInRange(uri, range).stream();
+    return new SemanticTokens(encode(collectTokens(uri, nodes, range)));
+  }
+
+  /**
+   * Drop the tokens kept for the document
+   *
+   * @param uri the document uri
+   */
+  public void invalidate(@NonNull String uri) {
+    snapshots.invalidate(uri);
+  }
+
+  private Snapshot getSnapshot(String uri, AnalysisResult result) {
+    return snapshots
+        .asMap()
+        .compute(
+            uri,
+            (key, snapshot) ->
+                snapshot != null && snapshot.result.get() == result
+                    ? snapshot
+                    : new Snapshot(
+                        String.valueOf(resultIds.incrementAndGet()),
+                        result,
+                        encode(collectTokens(uri, result.getRootNode().getDepthFirstStream(), null))));
+  }
+
+  private static List<Token> collectTokens(String uri, Stream<Node> nodes, Range range) {
+    List<Token> tokens = new ArrayList<>();
+    nodes.forEach(node -> addToken(tokens, uri, node));
+    tokens.sort(Comparator.comparingInt((Token token) -> token.line).thenComparingInt(token -> token.character));
+    List<Token> result = new ArrayList<>(tokens.size());
+    Token last = null;
+    for (Token token : tokens) {
+      if (range != null && !token.isInside(range)) continue;
+      if (last != null && last.line == token.line && token.character < last.character + last.length) continue;
+      result.add(token);
+      last = token;
+    }
+    return result;
+  }
+
+  private static void addToken(List<Token> tokens, String uri, Node node) {
+    if (node instanceof VariableDefinitionNameNode) {
+      addToken(tokens, uri, node.getLocality().toLocation(), VARIABLE, DECLARATION);
+    } else if (node instanceof VariableUsageNode) {
+      addToken(tokens, uri, node.getLocality().toLocation(), VARIABLE, 0);
+    } else if (node instanceof ParagraphNameNode || node instanceof SectionNameNode) {
+      addToken(tokens, uri, node.getLocality().toLocation(), FUNCTION, DECLARATION);
+    } else if (node instanceof CodeBlockUsageNode) {
+      addToken(tokens, uri, node.getLocality().toLocation(), FUNCTION, 0);
+    } else if (node instanceof FunctionReference) {
+      addToken(tokens, uri, node.getLocality().toLocation(), FUNCTION, DEFAULT_LIBRARY);
+    } else if (node instanceof CopyNode) {
+      addToken(tokens, uri, ((CopyNode) node).getNameLocation(), MACRO, 0);
+    }
+  }
+
+  private static void addToken(List<Token> tokens, String uri, Location location, int type, int modifiers) {
+    if (location == null || !uri.equals(location.getUri())) return;
+    Range range = location.getRange();
+    int length = range.getEnd().getCharacter() - range.getStart().getCharacter();
+    if (range.getStart().getLine() != range.getEnd().getLine() || length <= 0) return;
+    tokens.add(new Token(range.getStart().getLine(), range.getStart().getCharacter(), length, type, modifiers));
+  }
+
+  private static List<Integer> encode(List<Token> tokens) {
+    List<Integer> data = new ArrayList<>(tokens.size() * 5);
+    int line = 0;
+    int character = 0;
+    for (Token token : tokens) {
+      data.add(token.line - line);
+      data.add(token.line == line ? token.character - character : token.character);
+      data.add(token.length);
+      data.add(token.type);
+      data.add(token.modifiers);
+      line = token.line;
+      character = token.character;
+    }
+    return ImmutableList.copyOf(data);
+  }
+
+  /**
+   * Compute the edit that turns the previous data into the current one. The common prefix and
+   * suffix are kept, so a change in one place of a large document sends only that span.
+   */
+  private static List<SemanticTokensEdit> diff(List<Integer> previous, List<Integer> current) {
+    int prefix = 0;
+    int maxPrefix = Math.min(previous.size(), current.size());
+    while (prefix < maxPrefix && previous.get(prefix).equals(current.get(prefix))) prefix++;
+    int suffix = 0;
+    int maxSuffix = maxPrefix - prefix;
+    while (suffix < maxSuffix
+        && previous.get(previous.size() - 1 - suffix).equals(current.get(current.size() - 1 - suffix))) {
+      suffix++;
+    }
+    int deleteCount = previous.size() - prefix - suffix;
+    List<Integer> inserted = current.subList(prefix, current.size() - suffix);
+    if (deleteCount == 0 && inserted.isEmpty()) return ImmutableList.of();
+    return ImmutableList.of(new SemanticTokensEdit(prefix, deleteCount, ImmutableList.copyOf(inserted)));
+  }
+
+  private static final class Snapshot {
+    private final String resultId;
+    private final WeakReference<AnalysisResult> result;
+    private final List<Integer> data;
+
+    Snapshot(String resultId, AnalysisResult result, List<Integer> data) {
+      this.resultId = resultId;
+      this.result = new WeakReference<>(result);
+      this.data = data;
+    }
+  }
+
+  private static final class Token {
+    private final int line;
+    private final int character;
+    private final int length;
+    private final int type;
+    private final int modifiers;
+
+    Token(int line, int character, int length, int type, int modifiers) {
+      this.line = line;
+      this.character = character;
+      this.length = length;
+      this.type = type;
+      this.modifiers = modifiers;
+    }
+
+    boolean isInside(Range range) {
+      return compare(line, character + length, range.getStart().getLine(), range.getStart().getCharacter()) > 0
+          && compare(line, character, range.getEnd().getLine(), range.getEnd().getCharacter()) < 0;
+    }
+
+    private static int compare(int line, int character, int otherLine, int otherCharacter) {
+      return line != otherLine ? Integer.compare(line, otherLine) : Integer.compare(character, otherCharacter);
+    }
+  }
+}
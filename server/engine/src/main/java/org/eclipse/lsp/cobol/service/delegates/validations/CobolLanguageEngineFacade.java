@@ -19,23 +19,36 @@ import com.google.inject.Singleton;
 import org.eclipse.lsp.cobol.common.AnalysisConfig;
 import org.eclipse.lsp.cobol.common.AnalysisResult;
 import org.eclipse.lsp.cobol.common.LanguageEngineFacade;
+import org.eclipse.lsp.cobol.common.dialects.TrueDialectService;
 import org.eclipse.lsp.cobol.core.engine.CobolLanguageEngine;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisResultCache;
+import org.eclipse.lsp.cobol.core.engine.symbols.SymbolsRepository;
 import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
 import org.eclipse.lsp4j.Diagnostic;
 
+import java.util.Optional;
+
 /**
  * This class is a facade that maps the result of the syntax and semantic analysis to a model
  * consumed by the LSP, i.e. convert {@link org.eclipse.lsp.cobol.common.error.SyntaxError} to {@link Diagnostic} and adjust semantic
- * context.
+ * context. The result of the previous analysis is reused if the input has not changed since, see
+ * {@link AnalysisResultCache}.
  */
 @Singleton
 public class CobolLanguageEngineFacade implements LanguageEngineFacade {
 
   private final CobolLanguageEngine engine;
+  private final AnalysisResultCache resultCache;
+  private final SymbolsRepository symbolsRepository;
+  private final TrueDialectService dialectService;
 
   @Inject
-  CobolLanguageEngineFacade(CobolLanguageEngine engine) {
+  CobolLanguageEngineFacade(CobolLanguageEngine engine, AnalysisResultCache resultCache,
+                            SymbolsRepository symbolsRepository, TrueDialectService dialectService) {
     this.engine = engine;
+    this.resultCache = resultCache;
+    this.symbolsRepository = symbolsRepository;
+    this.dialectService = dialectService;
   }
 
   /**
@@ -67,6 +80,17 @@ public class CobolLanguageEngineFacade implements LanguageEngineFacade {
    */
   @Override
   public AnalysisResult analyze(String uri, String text, AnalysisConfig analysisConfig, String languageId) {
-    return engine.run(uri, text, analysisConfig, CobolLanguageId.MAPPER.get(languageId));
+    CobolLanguageId cobolLanguageId = CobolLanguageId.MAPPER.get(languageId);
+    String fingerprint = resultCache.fingerprint(text, analysisConfig, languageId);
+    Optional<AnalysisResult> cached =
+        resultCache.get(uri, fingerprint, dialectService.getPreprocessor(cobolLanguageId));
+    if (cached.isPresent()) {
+      // the analysis updates the program symbols, so the skipped one has to do the same
+      symbolsRepository.updateSymbols(cached.get().getSymbolTableMap());
+      return cached.get();
+    }
+    AnalysisResult result = engine.run(uri, text, analysisConfig, cobolLanguageId);
+    resultCache.put(uri, fingerprint, result);
+    return result;
   }
 }
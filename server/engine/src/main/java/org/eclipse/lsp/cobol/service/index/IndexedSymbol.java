@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.index;
+
+import lombok.Value;
+import org.eclipse.lsp4j.Location;
+
+/**
+ * A definition or a usage of a named element stored in the {@link WorkspaceIndex}. Symbols with the
+ * same kind, name and scope refer to the same element.
+ */
+@Value
+public class IndexedSymbol {
+  Kind kind;
+  String name;
+  /** The URI of the element definition for elements visible in several files, or null */
+  String scope;
+  boolean definition;
+  Location location;
+
+  /** The kind of the indexed element */
+  public enum Kind {
+    VARIABLE,
+    PARAGRAPH,
+    SECTION,
+    COPYBOOK,
+    /** A program ID or a CALL target */
+    PROGRAM
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.index;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.experimental.UtilityClass;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.model.tree.*;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableDefinitionNameNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableUsageNode;
+import org.eclipse.lsp.cobol.common.utils.ImplicitCodeUtils;
+import org.eclipse.lsp.cobol.service.index.IndexedSymbol.Kind;
+import org.eclipse.lsp4j.Location;
+
+/** Collects the definitions and usages of the named elements of an analyzed program */
+@UtilityClass
+public class SymbolExtractor {
+
+  /**
+   * Extract the symbols of the program
+   *
+   * @param result the analysis result of the program
+   * @return the symbols of the program and its copybooks, except the implicit code
+   */
+  public List<IndexedSymbol> extract(AnalysisResult result) {
+    if (result == null || result.getRootNode() == null) return Collections.emptyList();
+    Set<String> sections = result.getRootNode().getDepthFirstStream()
+        .filter(SectionNameNode.class::isInstance)
+        .map(n -> ((SectionNameNode) n).getName().toUpperCase())
+        .collect(Collectors.toSet());
+    return result.getRootNode().getDepthFirstStream()
+        .map(node -> toSymbol(node, sections))
+        .filter(Optional::isPresent)
+        .map(Optional::get)
+        .filter(s -> !ImplicitCodeUtils.isImplicit(s.getLocation().getUri()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Find the symbol that represents the node
+   *
+   * @param node the syntax tree node
+   * @param sections the upper case names of the sections of the program
+   * @return the symbol if the node is a definition or a usage of an indexed element
+   */
+  public Optional<IndexedSymbol> toSymbol(Node node, Set<String> sections) {
+    if (node instanceof VariableDefinitionNameNode) {
+      Location location = node.getLocality().toLocation();
+      return symbol(Kind.VARIABLE, ((VariableDefinitionNameNode) node).getName(), location.getUri(), true, location);
+    }
+    if (node instanceof VariableUsageNode) {
+      VariableUsageNode usage = (VariableUsageNode) node;
+      String scope = usage.getDefinitions().stream().findFirst().map(Location::getUri).orElse(null);
+      return symbol(Kind.VARIABLE, usage.getName(), scope, false, node.getLocality().toLocation());
+    }
+    if (node instanceof ParagraphNameNode) {
+      return symbol(Kind.PARAGRAPH, ((ParagraphNameNode) node).getName(), null, true, node.getLocality().toLocation());
+    }
+    if (node instanceof SectionNameNode) {
+      return symbol(Kind.SECTION, ((SectionNameNode) node).getName(), null, true, node.getLocality().toLocation());
+    }
+    if (node instanceof CodeBlockUsageNode) {
+      String name = ((CodeBlockUsageNode) node).getName();
+      Kind kind = sections.contains(name.toUpperCase()) ? Kind.SECTION : Kind.PARAGRAPH;
+      return symbol(kind, name, null, false, node.getLocality().toLocation());
+    }
+    if (node instanceof CopyNode) {
+      CopyNode copy = (CopyNode) node;
+      return Optional.ofNullable(copy.getNameLocation())
+          .flatMap(location -> symbol(Kind.COPYBOOK, copy.getName(), null, false, location));
+    }
+    if (node instanceof ProgramIdNode) {
+      return symbol(Kind.PROGRAM, ((ProgramIdNode) node).getName(), null, true, node.getLocality().toLocation());
+    }
+    if (node instanceof SubroutineNameNode) {
+      return symbol(Kind.PROGRAM, ((SubroutineNameNode) node).getName(), null, false, node.getLocality().toLocation());
+    }
+    return Optional.empty();
+  }
+
+  private static Optional<IndexedSymbol> symbol(Kind kind, String name, String scope, boolean definition, Location location) {
+    if (name == null || location == null || location.getUri() == null) return Optional.empty();
+    return Optional.of(new IndexedSymbol(kind, name.toUpperCase(), scope, definition, location));
+  }
+}
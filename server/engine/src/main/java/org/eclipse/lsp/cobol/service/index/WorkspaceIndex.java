@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.index;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.service.index.IndexedSymbol.Kind;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * Definitions and usages of the named elements of all the programs in the workspace. The index keeps
+ * only the symbols, not the syntax trees, and it is stored on the disk with a file per program, so
+ * it survives restarts and is updated program by program.
+ *
+ * <p>In memory a symbol is a single compact record with its name, kind and location. The records
+ * are sorted by name, so both the lookup of an element and the search by a name prefix read only
+ * the matching records.
+ *
+ * <p>The index is enabled by the {@code workspace.index.path} system property that points to the
+ * index folder, and it is empty otherwise. The stored entries are loaded in the background, and the
+ * queries see only the programs updated since the start until the loading is finished.
+ */
+@Slf4j
+@Singleton
+@SuppressWarnings("UnstableApiUsage")
+public class WorkspaceIndex {
+  private static final String WORKSPACE_INDEX_PATH = "workspace.index.path";
+  private static final int MAGIC = 0x57534958; // "WSIX"
+  private static final int VERSION = 2;
+  private static final String ENTRY_EXTENSION = ".idx";
+  private static final int NULL_LENGTH = -1;
+  private static final Kind[] KINDS = Kind.values();
+
+  private final Path indexFolder;
+  private final Map<String, ProgramEntry> programs = new HashMap<>();
+  private final NavigableMap<String, List<SymbolRecord>> symbolsByName = new TreeMap<>();
+  // orders the file updates of the entries the same way as the updates in memory
+  private final Object fileLock = new Object();
+  // the programs updated or removed while loading, whose stored entries are outdated
+  private final Set<String> changedWhileLoading = new HashSet<>();
+  private boolean loaded;
+  private final CompletableFuture<Void> loading;
+
+  @Inject
+  public WorkspaceIndex() {
+    this(Optional.ofNullable(System.getProperty(WORKSPACE_INDEX_PATH)).map(Paths::get).orElse(null));
+  }
+
+  @VisibleForTesting
+  public WorkspaceIndex(Path indexFolder) {
+    this.indexFolder = indexFolder;
+    loaded = !isEnabled();
+    loading = loaded ? CompletableFuture.completedFuture(null) : CompletableFuture.runAsync(this::load);
+  }
+
+  /** Wait until the stored entries are loaded, so the index covers all the indexed programs */
+  public void awaitLoaded() {
+    try {
+      loading.get();
+    } catch (ExecutionException e) {
+      LOG.warn("Cannot load workspace index from {}", indexFolder, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Check if the workspace index is configured
+   *
+   * @return true if the programs are indexed
+   */
+  public boolean isEnabled() {
+    return indexFolder != null;
+  }
+
+  /**
+   * Create the hash of the program content that is used to detect outdated entries
+   *
+   * @param content the program text
+   * @return the content hash
+   */
+  public static String hash(String content) {
+    return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * Check if the program is indexed for the given content
+   *
+   * @param programUri the program URI
+   * @param contentHash the hash of the current program content
+   * @return true if the index entry of the program was created for the same content
+   */
+  public synchronized boolean isUpToDate(String programUri, String contentHash) {
+    return Optional.ofNullable(programs.get(programUri)).map(e -> e.contentHash.equals(contentHash)).orElse(false);
+  }
+
+  /**
+   * Get the language id the program was analyzed with when it was indexed
+   *
+   * @param programUri the program URI
+   * @return the language id, or empty if the program is not indexed
+   */
+  public synchronized Optional<String> getLanguageId(String programUri) {
+    return Optional.ofNullable(programs.get(programUri)).map(e -> e.languageId);
+  }
+
+  /**
+   * Replace the symbols of the program
+   *
+   * @param programUri the program URI
+   * @param contentHash the hash of the program content the symbols were extracted from
+   * @param languageId the language id the program was analyzed with
+   * @param symbols the symbols of the program and its copybooks
+   */
+  public void update(String programUri, String contentHash, String languageId, List<IndexedSymbol> symbols) {
+    if (!isEnabled()) return;
+    StringPool pool = new StringPool();
+    SymbolRecord[] records = new SymbolRecord[symbols.size()];
+    for (int i = 0; i < records.length; i++) {
+      records[i] = SymbolRecord.of(programUri, symbols.get(i), pool);
+    }
+    ProgramEntry entry = new ProgramEntry(programUri, contentHash, languageId, records);
+    synchronized (fileLock) {
+      synchronized (this) {
+        removeSymbols(programUri);
+        addSymbols(entry);
+        if (!loaded) changedWhileLoading.add(programUri);
+      }
+      write(entry);
+    }
+  }
+
+  /**
+   * Remove the program from the index
+   *
+   * @param programUri the program URI
+   */
+  public void remove(String programUri) {
+    if (!isEnabled()) return;
+    synchronized (fileLock) {
+      synchronized (this) {
+        removeSymbols(programUri);
+        if (!loaded) changedWhileLoading.add(programUri);
+      }
+      try {
+        Files.deleteIfExists(entryPath(programUri));
+      } catch (IOException e) {
+        LOG.debug("Cannot remove workspace index entry for {}", programUri, e);
+      }
+    }
+  }
+
+  /**
+   * Find the symbols of an element in all the indexed programs
+   *
+   * @param kind the element kind
+   * @param name the element name
+   * @param scope the URI of the element definition, or null for elements of any scope
+   * @return the definitions and usages of the element
+   */
+  public synchronized List<IndexedSymbol> find(Kind kind, String name, String scope) {
+    return symbolsByName.getOrDefault(name.toUpperCase(Locale.ROOT), Collections.emptyList()).stream()
+        .filter(r -> r.kind == kind)
+        .filter(r -> scope == null || scope.equals(r.scope))
+        .map(SymbolRecord::toSymbol)
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Find the definitions with names that start with the query
+   *
+   * @param query the name prefix, case-insensitive
+   * @param limit the maximal number of results
+   * @return the distinct definitions ordered by name
+   */
+  public synchronized List<IndexedSymbol> search(String query, int limit) {
+    String prefix = query.toUpperCase(Locale.ROOT);
+    return symbolsByName.subMap(prefix, prefix + Character.MAX_VALUE).values().stream()
+        .flatMap(List::stream)
+        .filter(r -> r.definition)
+        .map(SymbolRecord::toSymbol)
+        .distinct()
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Get the indexed programs
+   *
+   * @return the URIs of the programs in the index
+   */
+  public synchronized Set<String> getPrograms() {
+    return new HashSet<>(programs.keySet());
+  }
+
+  private void addSymbols(ProgramEntry entry) {
+    programs.put(entry.programUri, entry);
+    for (SymbolRecord record : entry.records) {
+      symbolsByName.computeIfAbsent(record.name.toUpperCase(Locale.ROOT), n -> new ArrayList<>(1)).add(record);
+    }
+  }
+
+  private void removeSymbols(String programUri) {
+    ProgramEntry previous = programs.remove(programUri);
+    if (previous == null) return;
+    for (SymbolRecord record : previous.records) {
+      String key = record.name.toUpperCase(Locale.ROOT);
+      List<SymbolRecord> records = symbolsByName.get(key);
+      if (records == null) continue;
+      records.removeIf(r -> r.program.equals(programUri));
+      if (records.isEmpty()) symbolsByName.remove(key);
+    }
+  }
+
+  private void load() {
+    List<ProgramEntry> entries = new ArrayList<>();
+    try (Stream<Path> files = Files.isDirectory(indexFolder) ? Files.list(indexFolder) : Stream.empty()) {
+      files.filter(f -> f.toString().endsWith(ENTRY_EXTENSION))
+          .map(this::read)
+          .forEach(e -> e.ifPresent(entries::add));
+    } catch (IOException | UncheckedIOException e) {
+      LOG.warn("Cannot read workspace index from {}", indexFolder, e);
+    }
+    synchronized (this) {
+      entries.stream().filter(e -> !changedWhileLoading.contains(e.programUri)).forEach(this::addSymbols);
+      changedWhileLoading.clear();
+      loaded = true;
+      LOG.debug("Workspace index loaded with {} programs", programs.size());
+    }
+  }
+
+  private Path entryPath(String programUri) {
+    return indexFolder.resolve(hash(programUri) + ENTRY_EXTENSION);
+  }
+
+  private void write(ProgramEntry entry) {
+    Path path = entryPath(entry.programUri);
+    try {
+      Files.createDirectories(indexFolder);
+      Path tmp = Files.createTempFile(indexFolder, "entry", ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(out, entry.programUri);
+        writeString(out, entry.contentHash);
+        writeString(out, entry.languageId);
+        out.writeInt(entry.records.length);
+        for (SymbolRecord record : entry.records) {
+          out.writeByte(record.kind.ordinal());
+          writeString(out, record.name);
+          writeString(out, record.scope);
+          out.writeBoolean(record.definition);
+          writeString(out, record.uri);
+          out.writeInt(record.startLine);
+          out.writeInt(record.startCharacter);
+          out.writeInt(record.endLine);
+          out.writeInt(record.endCharacter);
+        }
+      }
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOG.debug("Cannot write workspace index entry {} for {}", path, entry.programUri, e);
+    }
+  }
+
+  private Optional<ProgramEntry> read(Path path) {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) return Optional.empty();
+      String programUri = readString(in);
+      String contentHash = readString(in);
+      String languageId = readString(in);
+      StringPool pool = new StringPool();
+      SymbolRecord[] records = new SymbolRecord[in.readInt()];
+      for (int i = 0; i < records.length; i++) {
+        records[i] = new SymbolRecord(programUri, KINDS[in.readByte()], readString(in), pool.get(readString(in)),
+            in.readBoolean(), pool.get(readString(in)), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+      }
+      return Optional.of(new ProgramEntry(programUri, contentHash, languageId, records));
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Cannot read workspace index entry {}", path, e);
+      return Optional.empty();
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(NULL_LENGTH);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length == NULL_LENGTH) return null;
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @AllArgsConstructor
+  private static final class ProgramEntry {
+    private final String programUri;
+    private final String contentHash;
+    private final String languageId;
+    private final SymbolRecord[] records;
+  }
+
+  /** A symbol of a program with its location flattened, so it takes a single object */
+  @AllArgsConstructor
+  private static final class SymbolRecord {
+    private final String program;
+    private final Kind kind;
+    private final String name;
+    private final String scope;
+    private final boolean definition;
+    private final String uri;
+    private final int startLine;
+    private final int startCharacter;
+    private final int endLine;
+    private final int endCharacter;
+
+    private static SymbolRecord of(String program, IndexedSymbol symbol, StringPool pool) {
+      Range range = symbol.getLocation().getRange();
+      return new SymbolRecord(program, symbol.getKind(), symbol.getName(), pool.get(symbol.getScope()),
+          symbol.isDefinition(), pool.get(symbol.getLocation().getUri()), range.getStart().getLine(),
+          range.getStart().getCharacter(), range.getEnd().getLine(), range.getEnd().getCharacter());
+    }
+
+    private IndexedSymbol toSymbol() {
+      return new IndexedSymbol(kind, name, scope, definition, new Location(uri,
+          new Range(new Position(startLine, startCharacter), new Position(endLine, endCharacter))));
+    }
+  }
+
+  /** Shares the URIs of the symbols of a program, which repeat for every symbol of the same file */
+  private static final class StringPool {
+    private final Map<String, String> strings = new HashMap<>();
+
+    private String get(String value) {
+      return value == null ? null : strings.computeIfAbsent(value, v -> v);
+    }
+  }
+}
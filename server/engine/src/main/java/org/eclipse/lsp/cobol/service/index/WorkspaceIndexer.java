@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.index;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.common.AnalysisConfig;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.copybook.CopybookProcessingMode;
+import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
+import org.eclipse.lsp.cobol.common.file.FileSystemService;
+import org.eclipse.lsp.cobol.core.engine.CobolLanguageEngine;
+import org.eclipse.lsp.cobol.lsp.SourceUnitGraph;
+import org.eclipse.lsp.cobol.lsp.analysis.AnalysisScheduler;
+import org.eclipse.lsp.cobol.lsp.analysis.AnalysisState;
+import org.eclipse.lsp.cobol.lsp.analysis.AnalysisStateListener;
+import org.eclipse.lsp.cobol.lsp.analysis.AsyncAnalysisService;
+import org.eclipse.lsp.cobol.service.AnalysisService;
+import org.eclipse.lsp.cobol.service.CobolDocumentModel;
+import org.eclipse.lsp.cobol.service.DocumentModelService;
+import org.eclipse.lsp.cobol.service.WatcherService;
+import org.eclipse.lsp.cobol.service.settings.ConfigurationService;
+import org.eclipse.lsp4j.FileChangeType;
+
+/**
+ * Keeps the {@link WorkspaceIndex} up to date. The programs of the workspace folders are analyzed
+ * once in the background lane of the {@link AnalysisScheduler}, so they never delay the analysis of
+ * the documents in edit, and only the programs that changed since they were indexed are analyzed
+ * again. Opened programs are indexed from the results of their regular analysis. The background
+ * analysis is detached, so neither its symbols nor its syntax tree stay in memory after the symbols
+ * of the index are extracted.
+ */
+@Slf4j
+@Singleton
+public class WorkspaceIndexer implements AnalysisStateListener {
+  private static final Set<String> PROGRAM_EXTENSIONS = ImmutableSet.of("cbl", "cob", "cobol");
+  private static final Set<String> SKIPPED_FOLDERS = ImmutableSet.of(".git", ".c4z", "node_modules");
+
+  private final WorkspaceIndex index;
+  private final WatcherService watcherService;
+  private final FileSystemService files;
+  private final CobolLanguageEngine engine;
+  private final ConfigurationService configurationService;
+  private final AnalysisService analysisService;
+  private final DocumentModelService documentModelService;
+  private final AnalysisScheduler scheduler;
+
+  @Inject
+  public WorkspaceIndexer(WorkspaceIndex index,
+                          WatcherService watcherService,
+                          FileSystemService files,
+                          CobolLanguageEngine engine,
+                          ConfigurationService configurationService,
+                          AnalysisService analysisService,
+                          DocumentModelService documentModelService,
+                          AnalysisScheduler scheduler,
+                          AsyncAnalysisService asyncAnalysisService) {
+    this.index = index;
+    this.watcherService = watcherService;
+    this.files = files;
+    this.engine = engine;
+    this.configurationService = configurationService;
+    this.analysisService = analysisService;
+    this.documentModelService = documentModelService;
+    this.scheduler = scheduler;
+    asyncAnalysisService.register(ImmutableList.of(this));
+  }
+
+  /** Schedule indexing of all the programs in the workspace folders */
+  public void indexWorkspace() {
+    if (!index.isEnabled()) return;
+    scheduler.submitBackground(() -> {
+      // the programs that did not change since the last run are checked against the stored index
+      index.awaitLoaded();
+      Set<String> programs = watcherService.getWorkspaceFolders().stream()
+          .flatMap(folder -> findPrograms(folder.getUri()))
+          .collect(Collectors.toCollection(LinkedHashSet::new));
+      LOG.info("Indexing {} workspace programs", programs.size());
+      index.getPrograms().stream().filter(p -> !programs.contains(p)).forEach(index::remove);
+      programs.forEach(this::scheduleIndexing);
+    });
+  }
+
+  /**
+   * Update the index for a changed file
+   *
+   * @param uri the file URI
+   * @param changeType the type of the change
+   */
+  public void fileChanged(String uri, FileChangeType changeType) {
+    if (!index.isEnabled()) return;
+    if (changeType == FileChangeType.Deleted) {
+      index.remove(uri);
+    } else if (isProgramFile(uri)) {
+      scheduleIndexing(uri);
+    }
+  }
+
+  @Override
+  public void notifyState(AnalysisState state, CobolDocumentModel model, SourceUnitGraph.EventSource eventSource) {
+    if (state != AnalysisState.COMPLETED || !index.isEnabled() || model == null || model.getText() == null) return;
+    AnalysisResult result = model.getLastAnalysisResult();
+    if (result != null && result != AnalysisResult.EMPTY) {
+      index.update(model.getUri(), WorkspaceIndex.hash(model.getText()), model.getLanguageId(),
+          SymbolExtractor.extract(result));
+    }
+  }
+
+  private void scheduleIndexing(String uri) {
+    scheduler.submit(uri, false, () -> indexProgram(uri));
+  }
+
+  private void indexProgram(String uri) {
+    if (Optional.ofNullable(documentModelService.get(uri)).map(CobolDocumentModel::isOpened).orElse(false)) {
+      return;
+    }
+    String text = files.getContentByPath(files.getPathFromURI(uri));
+    if (text == null) return;
+    String hash = WorkspaceIndex.hash(text);
+    if (index.isUpToDate(uri, hash) || analysisService.isCopybook(uri, text)) return;
+    AnalysisConfig config = configurationService.getConfig(uri, CopybookProcessingMode.ENABLED);
+    CobolLanguageId languageId = getLanguageId(uri);
+    AnalysisResult result = engine.runDetached(uri, text, config, languageId);
+    index.update(uri, hash, languageId.getId(), SymbolExtractor.extract(result));
+    LOG.debug("Indexed {}", uri);
+  }
+
+  /**
+   * The client sends the language id of a document when it is opened, so a program that was ever
+   * opened or indexed is analyzed in the same language. The other programs are COBOL, as the client
+   * associates all the program extensions with it.
+   */
+  private CobolLanguageId getLanguageId(String uri) {
+    String languageId = Optional.ofNullable(documentModelService.get(uri))
+        .map(CobolDocumentModel::getLanguageId)
+        .orElseGet(() -> index.getLanguageId(uri).orElse(null));
+    return languageId == null
+        ? CobolLanguageId.COBOL
+        : CobolLanguageId.MAPPER.getOrDefault(languageId, CobolLanguageId.COBOL);
+  }
+
+  private Stream<String> findPrograms(String folderUri) {
+    Path folder = Paths.get(URI.create(folderUri));
+    try (Stream<Path> paths = Files.walk(folder)) {
+      return paths
+          .filter(p -> SKIPPED_FOLDERS.stream().noneMatch(s -> folder.relativize(p).startsWith(s)))
+          .filter(Files::isRegularFile)
+          .map(p -> p.toUri().toString())
+          .filter(WorkspaceIndexer::isProgramFile)
+          .collect(Collectors.toList())
+          .stream();
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Cannot list programs in {}", folderUri, e);
+      return Stream.empty();
+    }
+  }
+
+  private static boolean isProgramFile(String uri) {
+    return PROGRAM_EXTENSIONS.contains(uri.substring(uri.lastIndexOf('.') + 1).toLowerCase());
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.memory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisResultCache;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisStageCache;
+import org.eclipse.lsp.cobol.core.engine.symbols.SymbolsRepository;
+import org.eclipse.lsp.cobol.service.CobolDocumentModel;
+import org.eclipse.lsp.cobol.service.DocumentModelService;
+
+/**
+ * Limits the memory held by the analysis results of closed documents. A closed document keeps its
+ * syntax tree, diagnostics and symbols, so it can be reopened without a new analysis. The manager
+ * tracks the approximate size of these results, and when their total exceeds the budget it releases
+ * the documents closed the longest time ago: the results are removed from the document model, the
+ * analysis caches and the symbols repository. A released document is analyzed again when it is
+ * opened.
+ *
+ * <p>The budget is set in megabytes by the {@code analysis.memory.budget} system property and
+ * defaults to a quarter of the maximum heap size.
+ */
+@Slf4j
+@Singleton
+public class AnalysisMemoryManager {
+  private static final String BUDGET_PROPERTY = "analysis.memory.budget";
+  private static final long MEGABYTE = 1024 * 1024;
+  // a node with its locality, range, positions, children list and position index entry
+  private static final long NODE_BYTES = 600;
+  // a diagnostic with its range, message and related information
+  private static final long DIAGNOSTIC_BYTES = 400;
+
+  private final DocumentModelService documentModelService;
+  private final AnalysisResultCache resultCache;
+  private final AnalysisStageCache stageCache;
+  private final SymbolsRepository symbolsRepository;
+  private final long budget;
+  private final Map<String, Long> closedDocuments = new LinkedHashMap<>();
+  private long retained;
+  private long released;
+
+  @Inject
+  public AnalysisMemoryManager(DocumentModelService documentModelService, AnalysisResultCache resultCache,
+                               AnalysisStageCache stageCache, SymbolsRepository symbolsRepository) {
+    this(documentModelService, resultCache, stageCache, symbolsRepository,
+        Long.getLong(BUDGET_PROPERTY, Runtime.getRuntime().maxMemory() / 4 / MEGABYTE) * MEGABYTE);
+  }
+
+  @VisibleForTesting
+  AnalysisMemoryManager(DocumentModelService documentModelService, AnalysisResultCache resultCache,
+                        AnalysisStageCache stageCache, SymbolsRepository symbolsRepository, long budget) {
+    this.documentModelService = documentModelService;
+    this.resultCache = resultCache;
+    this.stageCache = stageCache;
+    this.symbolsRepository = symbolsRepository;
+    this.budget = budget;
+  }
+
+  /**
+   * Start tracking the analysis result of the closed document and release the results of the
+   * least recently closed documents if the budget is exceeded
+   *
+   * @param uri the document URI
+   */
+  public synchronized void documentClosed(String uri) {
+    forget(uri);
+    Optional.ofNullable(documentModelService.get(uri))
+        .map(CobolDocumentModel::getLastAnalysisResult)
+        .filter(result -> result != AnalysisResult.EMPTY)
+        .ifPresent(result -> {
+          long size = estimateSize(result);
+          closedDocuments.put(uri, size);
+          retained += size;
+        });
+    Iterator<Map.Entry<String, Long>> iterator = closedDocuments.entrySet().iterator();
+    while (retained > budget && iterator.hasNext()) {
+      Map.Entry<String, Long> entry = iterator.next();
+      iterator.remove();
+      retained -= entry.getValue();
+      release(entry.getKey());
+    }
+  }
+
+  /**
+   * Stop tracking the document, its analysis result is needed while it is opened
+   *
+   * @param uri the document URI
+   */
+  public synchronized void documentOpened(String uri) {
+    forget(uri);
+  }
+
+  /**
+   * Get the memory budget for the analysis results of closed documents
+   *
+   * @return the budget in bytes
+   */
+  public long getBudget() {
+    return budget;
+  }
+
+  /**
+   * Get the approximate memory held by the analysis results of closed documents
+   *
+   * @return the retained size in bytes
+   */
+  public synchronized long getRetained() {
+    return retained;
+  }
+
+  /**
+   * Get the number of closed documents that still keep their analysis results
+   *
+   * @return the number of documents
+   */
+  public synchronized int getRetainedDocuments() {
+    return closedDocuments.size();
+  }
+
+  /**
+   * Get the number of analysis results released to stay within the budget
+   *
+   * @return the number of released results since the server start
+   */
+  public synchronized long getReleased() {
+    return released;
+  }
+
+  private void forget(String uri) {
+    Optional.ofNullable(closedDocuments.remove(uri)).ifPresent(size -> retained -= size);
+  }
+
+  private void release(String uri) {
+    CobolDocumentModel document = documentModelService.get(uri);
+    if (document == null || document.isOpened()) {
+      return;
+    }
+    Optional.ofNullable(document.getLastAnalysisResult())
+        .ifPresent(result -> symbolsRepository.removeSymbols(result.getSymbolTableMap()));
+    document.releaseAnalysisResult();
+    resultCache.invalidate(uri);
+    stageCache.invalidate(uri);
+    released++;
+    LOG.debug("Analysis result of closed document {} released, retained: {} of {} bytes", uri, retained, budget);
+  }
+
+  private static long estimateSize(AnalysisResult result) {
+    long nodes = Optional.ofNullable(result.getRootNode()).map(root -> root.getDepthFirstStream().count()).orElse(0L);
+    long diagnostics = result.getDiagnostics().values().stream().mapToLong(List::size).sum();
+    return nodes * NODE_BYTES + diagnostics * DIAGNOSTIC_BYTES;
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.metrics;
+
+import com.google.common.cache.CacheStats;
+import com.google.gson.JsonObject;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkSession;
+import org.eclipse.lsp.cobol.common.benchmark.Measurement;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisResultCache;
+import org.eclipse.lsp.cobol.dialects.ibm.ParserStage;
+import org.eclipse.lsp.cobol.lsp.LspMessageBroker;
+import org.eclipse.lsp.cobol.lsp.analysis.AnalysisScheduler;
+import org.eclipse.lsp.cobol.parser.AntlrCobolParser;
+import org.eclipse.lsp.cobol.parser.AntlrCobolParser.Prediction;
+import org.eclipse.lsp.cobol.service.copybooks.CopybookCache;
+import org.eclipse.lsp.cobol.service.memory.AnalysisMemoryManager;
+
+/**
+ * Aggregated performance metrics of the server. It collects the analysis latencies per stage and
+ * per dialect, and reports them together with the state of the caches, the queues and the memory
+ * budget of the server.
+ */
+@Singleton
+public class MetricsService {
+  private static final double NANOS_IN_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final CopybookCache copybookCache;
+  private final LspMessageBroker lspMessageBroker;
+  private final AnalysisScheduler analysisScheduler;
+  private final AnalysisResultCache resultCache;
+  private final AnalysisMemoryManager memoryManager;
+  private final Map<String, LatencyHistogram> stages = new ConcurrentHashMap<>();
+  private final Map<String, LatencyHistogram> dialects = new ConcurrentHashMap<>();
+  private final Map<Prediction, LongAdder> predictions = new ConcurrentHashMap<>();
+
+  @Inject
+  public MetricsService(CopybookCache copybookCache, LspMessageBroker lspMessageBroker,
+                        AnalysisScheduler analysisScheduler, AnalysisResultCache resultCache,
+                        AnalysisMemoryManager memoryManager) {
+    this.copybookCache = copybookCache;
+    this.lspMessageBroker = lspMessageBroker;
+    this.analysisScheduler = analysisScheduler;
+    this.resultCache = resultCache;
+    this.memoryManager = memoryManager;
+  }
+
+  /**
+   * Record the timings of a finished analysis
+   *
+   * @param session the benchmark session of the analysis
+   * @param languageId the language of the analyzed document
+   */
+  public void recordAnalysis(BenchmarkSession session, String languageId) {
+    long total = 0;
+    for (Measurement measurement : session.getMeasurements()) {
+      stages.computeIfAbsent(measurement.getId(), id -> new LatencyHistogram()).record(measurement.getTime());
+      total += measurement.getTime();
+    }
+    dialects.computeIfAbsent(languageId, id -> new LatencyHistogram()).record(total);
+    Optional.ofNullable(session.attr(ParserStage.PREDICTION_ATTRIBUTE))
+        .map(Prediction::valueOf)
+        .ifPresent(p -> predictions.computeIfAbsent(p, k -> new LongAdder()).increment());
+  }
+
+  /**
+   * Create a snapshot of the current metrics. The durations are in milliseconds.
+   *
+   * @return the metrics as a JSON object
+   */
+  public JsonObject snapshot() {
+    JsonObject metrics = new JsonObject();
+    metrics.add("stages", toJson(stages));
+    metrics.add("dialects", toJson(dialects));
+    metrics.add("copybookCache", copybookCacheStats());
+    metrics.add("resultCache", resultCacheStats());
+    metrics.add("messageBroker", messageBrokerStats());
+    metrics.add("parser", parserStats());
+    metrics.add("scheduler", schedulerStats());
+    metrics.add("memory", memoryStats());
+    return metrics;
+  }
+
+  private JsonObject copybookCacheStats() {
+    CacheStats stats = copybookCache.getStats();
+    JsonObject result = new JsonObject();
+    result.addProperty("hits", stats.hitCount());
+    result.addProperty("misses", stats.missCount());
+    result.addProperty("hitRate", stats.hitRate());
+    return result;
+  }
+
+  private JsonObject resultCacheStats() {
+    JsonObject result = new JsonObject();
+    long hits = resultCache.getHitCount();
+    long misses = resultCache.getMissCount();
+    result.addProperty("hits", hits);
+    result.addProperty("misses", misses);
+    result.addProperty("hitRate", hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+    return result;
+  }
+
+  private JsonObject schedulerStats() {
+    JsonObject result = new JsonObject();
+    result.addProperty("activeUris", analysisScheduler.getActiveUris());
+    result.addProperty("debounced", analysisScheduler.getDebouncedCount());
+    result.addProperty("coalesced", analysisScheduler.getCoalescedCount());
+    return result;
+  }
+
+  private JsonObject memoryStats() {
+    JsonObject result = new JsonObject();
+    long budget = memoryManager.getBudget();
+    long retained = memoryManager.getRetained();
+    result.addProperty("budget", budget);
+    result.addProperty("retained", retained);
+    result.addProperty("usage", budget == 0 ? 0 : (double) retained / budget);
+    result.addProperty("retainedDocuments", memoryManager.getRetainedDocuments());
+    result.addProperty("released", memoryManager.getReleased());
+    return result;
+  }
+
+  private JsonObject parserStats() {
+    JsonObject result = new JsonObject();
+    long sll = count(Prediction.SLL);
+    long fallback = count(Prediction.LL_FALLBACK);
+    result.addProperty("sll", sll);
+    result.addProperty("llFallback", fallback);
+    result.addProperty("ll", count(Prediction.LL));
+    result.addProperty("fallbackRate", sll + fallback == 0 ? 0 : (double) fallback / (sll + fallback));
+    result.addProperty("dfaStates", AntlrCobolParser.getDfaCache().getStateCount());
+    result.addProperty("dfaClears", AntlrCobolParser.getDfaCache().getClearCount());
+    return result;
+  }
+
+  private long count(Prediction prediction) {
+    return Optional.ofNullable(predictions.get(prediction)).map(LongAdder::sum).orElse(0L);
+  }
+
+  private JsonObject messageBrokerStats() {
+    JsonObject result = new JsonObject();
+    result.addProperty("queueSize", lspMessageBroker.queueSize());
+    result.addProperty("waiting", lspMessageBroker.waitingSize());
+    JsonObject byType = new JsonObject();
+    new TreeMap<>(lspMessageBroker.queueSizeByType()).forEach(byType::addProperty);
+    result.add("byType", byType);
+    return result;
+  }
+
+  private static JsonObject toJson(Map<String, LatencyHistogram> histograms) {
+    JsonObject result = new JsonObject();
+    new TreeMap<>(histograms).forEach((name, histogram) -> {
+      JsonObject json = new JsonObject();
+      json.addProperty("count", histogram.getCount());
+      json.addProperty("mean", toMillis(histogram.getMean()));
+      json.addProperty("p50", toMillis(histogram.getPercentile(50)));
+      json.addProperty("p90", toMillis(histogram.getPercentile(90)));
+      json.addProperty("p99", toMillis(histogram.getPercentile(99)));
+      json.addProperty("max", toMillis(histogram.getMax()));
+      result.add(name, json);
+    });
+    return result;
+  }
+
+  private static double toMillis(double nanos) {
+    return Math.round(nanos / NANOS_IN_MILLI * 1000) / 1000.0;
+  }
+}
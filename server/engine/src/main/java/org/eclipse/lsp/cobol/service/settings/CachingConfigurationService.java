@@ -16,6 +16,8 @@ package org.eclipse.lsp.cobol.service.settings;
 
 import static org.eclipse.lsp.cobol.service.settings.SettingsParametersEnum.*;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -32,12 +34,22 @@ import org.eclipse.lsp.cobol.common.copybook.CopybookProcessingMode;
 import org.eclipse.lsp.cobol.core.engine.dialects.DialectService;
 import org.eclipse.lsp.cobol.service.utils.ServerTypeUtil;
 
-/** This service fetches configuration settings from the client. */
+/**
+ * This service fetches configuration settings from the client. The settings are cached per document
+ * until the configuration changes, and concurrent requests for the same document share one request
+ * to the client.
+ */
 @Slf4j
 @Singleton
 public class CachingConfigurationService implements ConfigurationService {
+  private static final String NO_SCOPE = "";
+  private static final int MAX_CACHED_SCOPES = 1000;
+  private static final ConfigurationEntity NO_CONFIG = new ConfigurationEntity();
+
   private final SettingsService settingsService;
   private final DialectService dialectService;
+  private final Cache<String, CompletableFuture<ConfigurationEntity>> configs =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_SCOPES).build();
 
   @Inject
   public CachingConfigurationService(SettingsService settingsService, DialectService dialectService) {
@@ -45,6 +57,22 @@ public class CachingConfigurationService implements ConfigurationService {
     this.dialectService = dialectService;
   }
 
+  @Override
+  public void invalidateCache() {
+    configs.invalidateAll();
+    LOG.debug("Configuration cache invalidated");
+  }
+
+  private CompletableFuture<ConfigurationEntity> getConfigFuture(String documentURI) {
+    String key = Optional.ofNullable(documentURI).orElse(NO_SCOPE);
+    CompletableFuture<ConfigurationEntity> future = configs.asMap().computeIfAbsent(key, k -> createConfigFuture(documentURI));
+    // failed or unanswered requests are not cached, so the next analysis asks the client again
+    future.whenComplete((config, error) -> {
+      if (error != null || config == NO_CONFIG) configs.asMap().remove(key, future);
+    });
+    return future;
+  }
+
   private CompletableFuture<ConfigurationEntity> createConfigFuture(String documentURI) {
     List<String> settingsList = new LinkedList<>(Arrays.asList(
         DIALECTS.label,
@@ -64,21 +92,22 @@ public class CachingConfigurationService implements ConfigurationService {
         .map(c -> c.thenApply(future ->
             Optional.ofNullable(future)
                 .map(list -> parseConfig(list, dialectsSections))
-                .orElse(new ConfigurationEntity()))
-        ).orElse(CompletableFuture.completedFuture(new ConfigurationEntity()));
+                .orElse(NO_CONFIG))
+        ).orElse(CompletableFuture.completedFuture(NO_CONFIG));
   }
 
   @Override
   @SuppressWarnings("java:S2142")
   public AnalysisConfig getConfig(String scopeURI, CopybookProcessingMode mode) {
     try {
-      AnalysisConfig config = AnalysisConfigHelper.fromConfigEntity(mode, createConfigFuture(scopeURI).get());
+      AnalysisConfig config = AnalysisConfigHelper.fromConfigEntity(mode, getConfigFuture(scopeURI).get());
       if (ServerTypeUtil.isNativeServerType()) {
         return config;
       }
       if (dialectService.updateDialects(config.getDialectRegistry())) {
-        // if list of dialects were changed - request config one more time
-        config = AnalysisConfigHelper.fromConfigEntity(mode, createConfigFuture(scopeURI).get());
+        // if list of dialects were changed - the settings sections are different, so request config one more time
+        invalidateCache();
+        config = AnalysisConfigHelper.fromConfigEntity(mode, getConfigFuture(scopeURI).get());
       }
       return config;
     } catch (InterruptedException e) {
@@ -93,7 +122,7 @@ public class CachingConfigurationService implements ConfigurationService {
   @Override
   public List<String> getSubroutineDirectories() {
     try {
-      return createConfigFuture(null).get().getSubroutines();
+      return getConfigFuture(null).get().getSubroutines();
     } catch (InterruptedException e) {
       LOG.error("Issue while resolving subroutine configuration", e);
       Thread.currentThread().interrupt();
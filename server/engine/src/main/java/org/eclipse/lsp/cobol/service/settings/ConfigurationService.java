@@ -66,6 +66,9 @@ public interface ConfigurationService {
    */
   List<String> getDialectWatchingFolders();
 
+  /** Drop the cached client settings, so they are requested again on the next analysis */
+  void invalidateCache();
+
   /**
    * A value class to store the configuration. Reflects the required values from the settings.json
    * file
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.eclipse.lsp.cobol.cli.command.Cli;
+import org.eclipse.lsp.cobol.cli.command.CliBatchAnalysis;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+/** Test for {@link CliBatchAnalysis} */
+class CliBatchAnalysisTest {
+  @TempDir Path sources;
+
+  @Test
+  void testFolderIsAnalysedInParallel() throws Exception {
+    Path program = Paths.get("src/test/resources/HelloWorld.cbl");
+    Files.copy(program, sources.resolve("A.cbl"));
+    Files.createDirectories(sources.resolve("nested"));
+    Files.copy(program, sources.resolve("nested/B.CBL"));
+    Files.write(sources.resolve("README.md"), "not a program".getBytes(StandardCharsets.UTF_8));
+
+    List<JsonObject> output = execute(CommandLine.ExitCode.OK, "batch_analysis", "-sf", sources.toString(), "-t", "2");
+
+    assertEquals(3, output.size());
+    List<String> uris = output.subList(0, 2).stream()
+        .map(line -> line.get("uri").getAsString())
+        .sorted()
+        .collect(Collectors.toList());
+    assertTrue(uris.get(0).endsWith("A.cbl"));
+    assertTrue(uris.get(1).endsWith("nested/B.CBL"));
+    assertTrue(output.get(0).has("timings"));
+    assertTrue(output.get(0).has("diagnostics"));
+
+    JsonObject summary = output.get(2).getAsJsonObject("summary");
+    assertEquals(2, summary.get("files").getAsInt());
+    assertEquals(0, summary.get("failed").getAsInt());
+    assertTrue(summary.getAsJsonObject("stages").has("total"));
+  }
+
+  @Test
+  void testSourceList() throws Exception {
+    Path list = sources.resolve("programs.txt");
+    Files.write(list, Arrays.asList("# programs", Paths.get("src/test/resources/HelloWorld.cbl").toAbsolutePath().toString(),
+        sources.resolve("MISSING.cbl").toString()));
+
+    List<JsonObject> output = execute(CommandLine.ExitCode.SOFTWARE, "batch_analysis", "-sl", list.toString(), "-nd");
+
+    assertEquals(3, output.size());
+    JsonObject summary = output.get(2).getAsJsonObject("summary");
+    assertEquals(2, summary.get("files").getAsInt());
+    assertEquals(1, summary.get("failed").getAsInt());
+  }
+
+  private static List<JsonObject> execute(int exitCode, String... args) {
+    PrintStream stdout = System.out;
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try {
+      System.setOut(new PrintStream(buffer, true));
+      assertEquals(exitCode, new CommandLine(new Cli()).execute(args));
+    } finally {
+      System.setOut(stdout);
+    }
+    return Arrays.stream(new String(buffer.toByteArray(), StandardCharsets.UTF_8).split("\\R"))
+        .filter(line -> line.startsWith("{"))
+        .map(line -> JsonParser.parseString(line).getAsJsonObject())
+        .collect(Collectors.toList());
+  }
+}
@@ -46,7 +46,11 @@ class CliTest {
           + System.lineSeparator()
           + "  analysis        analyse cobol source"
           + System.lineSeparator()
+          + "  batch_analysis  analyse cobol sources in parallel"
+          + System.lineSeparator()
           + "  cfast           generate cfast from cobol source"
+          + System.lineSeparator()
+          + "  stats           print analysis metrics"
           + System.lineSeparator();
 
   @Test
@@ -75,10 +79,12 @@ class CliTest {
   void testCliCommands() {
     CommandLine commandLine = new CommandLine(new Cli());
     Set<String> commandList = commandLine.getSubcommands().keySet();
-    assertEquals(4, commandList.size());
+    assertEquals(6, commandList.size());
     assertTrue(commandList.contains("analysis"));
+    assertTrue(commandList.contains("batch_analysis"));
     assertTrue(commandList.contains("list_copybooks"));
     assertTrue(commandList.contains("list_sources"));
     assertTrue(commandList.contains("cfast"));
+    assertTrue(commandList.contains("stats"));
   }
 }
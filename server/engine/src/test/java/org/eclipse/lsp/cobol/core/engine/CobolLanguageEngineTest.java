@@ -20,6 +20,7 @@ import static org.eclipse.lsp.cobol.common.error.ErrorSeverity.ERROR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
@@ -40,6 +41,7 @@ import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.common.model.NodeType;
 import org.eclipse.lsp.cobol.common.model.tree.Node;
 import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisStageCache;
 import org.eclipse.lsp.cobol.core.engine.dialects.DialectService;
 import org.eclipse.lsp.cobol.core.engine.errors.ErrorFinalizerService;
 import org.eclipse.lsp.cobol.core.engine.processor.AstProcessor;
@@ -50,6 +52,7 @@ import org.eclipse.lsp.cobol.core.strategy.CobolErrorStrategy;
 import org.eclipse.lsp.cobol.core.strategy.ErrorMessageHelper;
 import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
 import org.eclipse.lsp.cobol.dialects.TrueDialectServiceImpl;
+import org.eclipse.lsp.cobol.service.metrics.MetricsService;
 import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
 import org.eclipse.lsp.cobol.usecases.DialectConfigs;
 import org.eclipse.lsp4j.Position;
@@ -92,12 +95,13 @@ class CobolLanguageEngineTest {
 
     TrueDialectService<AnalysisContext> trueDialectService = new TrueDialectServiceImpl(grammarPreprocessor, mockMessageService, treeListener, mock(SubroutineService.class),
         null,
-        dialectService, astProcessor, symbolsRepository, store, copybookService);
+        dialectService, astProcessor, symbolsRepository, store, copybookService, mock(AnalysisStageCache.class));
     CobolLanguageEngine engine =
             new CobolLanguageEngine(trueDialectService,
                 mockMessageService,
                 mock(ErrorFinalizerService.class),
-                benchmarkService);
+                benchmarkService,
+                mock(MetricsService.class));
     when(mockMessageService.getMessage(anyString(), anyString(), anyString())).thenReturn("");
     Locality locality =
             Locality.builder()
@@ -151,6 +155,10 @@ class CobolLanguageEngineTest {
     assertEquals(NodeType.DIVISION, division.getNodeType());
     assertEquals(programRange, division.getLocality().getRange());
     assertEquals(0, division.getChildren().size());
+    verify(symbolsRepository).updateSymbols(any());
+
+    engine.runDetached(URI, TEXT, AnalysisConfig.defaultConfig(ENABLED), CobolLanguageId.COBOL);
+    verify(symbolsRepository).updateSymbols(any());
   }
 
   @Test
@@ -164,12 +172,13 @@ class CobolLanguageEngineTest {
 
     TrueDialectService<AnalysisContext> trueDialectService = new TrueDialectServiceImpl(grammarPreprocessor, mockMessageService, treeListener, mock(SubroutineService.class),
         null,
-        dialectService, astProcessor, symbolsRepository, store, copybookService);
+        dialectService, astProcessor, symbolsRepository, store, copybookService, mock(AnalysisStageCache.class));
     CobolLanguageEngine engine =
         new CobolLanguageEngine(trueDialectService,
             mockMessageService,
             mock(ErrorFinalizerService.class),
-            benchmarkService);
+            benchmarkService,
+            mock(MetricsService.class));
 
     AnalysisResult actual = engine.run(URI, TEXT, DialectConfigs.getDaCoAnalysisConfig(), CobolLanguageId.COBOL);
     Assertions.assertEquals(1, actual.getDiagnostics().size());
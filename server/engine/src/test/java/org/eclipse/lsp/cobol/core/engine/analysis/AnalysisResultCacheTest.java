@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
+import org.eclipse.lsp.cobol.common.AnalysisConfig;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
+import org.eclipse.lsp.cobol.common.SubroutineService;
+import org.eclipse.lsp.cobol.common.copybook.CopybookId;
+import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
+import org.eclipse.lsp.cobol.common.copybook.CopybookProcessingMode;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
+import org.eclipse.lsp.cobol.common.model.Locality;
+import org.eclipse.lsp.cobol.common.model.tree.CopyNode;
+import org.eclipse.lsp.cobol.common.model.tree.RootNode;
+import org.eclipse.lsp.cobol.service.settings.CachingConfigurationService;
+import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link AnalysisResultCache} */
+class AnalysisResultCacheTest {
+  private static final String URI = "file:///c:/workspace/document.cbl";
+  private static final String TEXT = "       PROCEDURE DIVISION.";
+  private static final String COBOL = "COBOL";
+  private static final AnalysisConfig CONFIG = AnalysisConfig.defaultConfig(CopybookProcessingMode.ENABLED);
+  private static final CopybookName COPYBOOK = new CopybookName("CPY");
+  private static final CopybookId COPYBOOK_ID = COPYBOOK.toCopybookId(URI);
+  private static final String COPYBOOK_URI = "file:///c:/workspace/CPY.cpy";
+
+  private final CopybookService copybookService = mock(CopybookService.class);
+  private final SubroutineService subroutineService = mock(SubroutineService.class);
+  private final CachingConfigurationService configurationService = mock(CachingConfigurationService.class);
+  private final AnalysisResultCache cache =
+      new AnalysisResultCache(new CodeLayoutStore(), copybookService, subroutineService, configurationService);
+  private final AnalysisResult result = createResult(COPYBOOK_URI);
+
+  @BeforeEach
+  void init() {
+    when(copybookService.getContentHash(COPYBOOK_ID, COPYBOOK_URI)).thenReturn(Optional.of("hash"));
+    when(subroutineService.getNames()).thenReturn(ImmutableList.of());
+    when(configurationService.getSubroutineDirectories()).thenReturn(ImmutableList.of());
+  }
+
+  @Test
+  void testSameInputIsServedFromCache() {
+    cache.put(URI, cache.fingerprint(TEXT, CONFIG, COBOL), result);
+
+    assertSame(result, cache.get(URI, cache.fingerprint(TEXT, CONFIG, COBOL), null).orElse(null));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(0, cache.getMissCount());
+  }
+
+  @Test
+  void testCopybooksOfServedResultAreRequestedAgain() {
+    CleanerPreprocessor preprocessor = mock(CleanerPreprocessor.class);
+    cache.put(URI, cache.fingerprint(TEXT, CONFIG, COBOL), result);
+    verify(copybookService, never()).resolve(any(), any(), any(), any(), any());
+
+    assertTrue(cache.get(URI, cache.fingerprint(TEXT, CONFIG, COBOL), preprocessor).isPresent());
+    verify(copybookService).resolve(COPYBOOK_ID, COPYBOOK, URI, URI, preprocessor);
+  }
+
+  @Test
+  void testChangedInputIsMissed() {
+    cache.put(URI, cache.fingerprint(TEXT, CONFIG, COBOL), result);
+
+    assertFalse(cache.get(URI, cache.fingerprint(TEXT + " ", CONFIG, COBOL), null).isPresent());
+    assertFalse(cache.get(URI, cache.fingerprint(TEXT, CONFIG, "HPCOBOL"), null).isPresent());
+    assertFalse(cache.get(URI, cache.fingerprint(TEXT, AnalysisConfig.defaultConfig(CopybookProcessingMode.DISABLED), COBOL), null).isPresent());
+    assertFalse(cache.get("file:///c:/workspace/other.cbl", cache.fingerprint(TEXT, CONFIG, COBOL), null).isPresent());
+    assertEquals(0, cache.getHitCount());
+    assertEquals(4, cache.getMissCount());
+  }
+
+  @Test
+  void testChangedCopybookIsMissed() {
+    cache.put(URI, cache.fingerprint(TEXT, CONFIG, COBOL), result);
+    when(copybookService.getContentHash(COPYBOOK_ID, COPYBOOK_URI)).thenReturn(Optional.of("changed"));
+    assertFalse(cache.get(URI, cache.fingerprint(TEXT, CONFIG, COBOL), null).isPresent());
+
+    when(copybookService.getContentHash(COPYBOOK_ID, COPYBOOK_URI)).thenReturn(Optional.empty());
+    assertFalse(cache.get(URI, cache.fingerprint(TEXT, CONFIG, COBOL), null).isPresent());
+  }
+
+  @Test
+  void testResultWithUnresolvedCopybookIsNotStored() {
+    when(copybookService.getContentHash(COPYBOOK_ID, COPYBOOK_URI)).thenReturn(Optional.empty());
+    cache.put(URI, cache.fingerprint(TEXT, CONFIG, COBOL), result);
+    when(copybookService.getContentHash(COPYBOOK_ID, COPYBOOK_URI)).thenReturn(Optional.of("hash"));
+
+    assertFalse(cache.get(URI, cache.fingerprint(TEXT, CONFIG, COBOL), null).isPresent());
+  }
+
+  @Test
+  void testResultWithMissingCopybookIsNotStored() {
+    cache.put(URI, cache.fingerprint(TEXT, CONFIG, COBOL), createResult(null));
+
+    assertFalse(cache.get(URI, cache.fingerprint(TEXT, CONFIG, COBOL), null).isPresent());
+  }
+
+  @Test
+  void testCopybooksOfEarlierVersionsAreIgnored() {
+    CopybookModel missing = new CopybookModel(CopybookId.fromString("OLD"), new CopybookName("OLD"), null, null);
+    when(copybookService.getCopybookUsage(URI)).thenReturn(ImmutableSet.of(missing));
+    AnalysisResult withoutCopybooks = AnalysisResult.builder().rootNode(new RootNode()).build();
+    cache.put(URI, cache.fingerprint(TEXT, CONFIG, COBOL), withoutCopybooks);
+
+    assertSame(withoutCopybooks, cache.get(URI, cache.fingerprint(TEXT, CONFIG, COBOL), null).orElse(null));
+  }
+
+  @Test
+  void testChangedSubroutinesAreMissed() {
+    cache.put(URI, cache.fingerprint(TEXT, CONFIG, COBOL), result);
+    when(subroutineService.getNames()).thenReturn(ImmutableList.of("SUB"));
+    when(subroutineService.getUri("SUB")).thenReturn(Optional.of("file:///c:/workspace/SUB.cbl"));
+    assertFalse(cache.get(URI, cache.fingerprint(TEXT, CONFIG, COBOL), null).isPresent());
+
+    when(subroutineService.getNames()).thenReturn(ImmutableList.of());
+    when(configurationService.getSubroutineDirectories()).thenReturn(ImmutableList.of("subroutines"));
+    assertFalse(cache.get(URI, cache.fingerprint(TEXT, CONFIG, COBOL), null).isPresent());
+  }
+
+  @Test
+  void testDocumentInvalidation() {
+    cache.put(URI, cache.fingerprint(TEXT, CONFIG, COBOL), result);
+    cache.invalidate(URI);
+
+    assertFalse(cache.get(URI, cache.fingerprint(TEXT, CONFIG, COBOL), null).isPresent());
+  }
+
+  private static AnalysisResult createResult(String copybookUri) {
+    RootNode rootNode = new RootNode();
+    Location nameLocation = new Location(URI, new Range(new Position(1, 12), new Position(1, 15)));
+    Locality statement = Locality.builder().uri(URI).range(new Range(new Position(1, 7), new Position(1, 16))).build();
+    rootNode.addChild(new CopyNode(statement, nameLocation, "CPY", copybookUri));
+    return AnalysisResult.builder().rootNode(rootNode).build();
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Optional;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkSession;
+import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link AnalysisStageCache} */
+class AnalysisStageCacheTest {
+  private static final String URI = "file:///c:/workspace/document.cbl";
+  private static final String STAGE = "Preprocessor";
+
+  private final AnalysisStageCache cache = new AnalysisStageCache(new CodeLayoutStore());
+
+  @Test
+  void testSameInputIsServedFromCache() {
+    cache.put(URI, STAGE, cache.fingerprint("text"), "snapshot");
+    BenchmarkSession session = new BenchmarkSession();
+
+    assertEquals(Optional.of("snapshot"), cache.get(session, URI, STAGE, cache.fingerprint("text"), String.class));
+    assertEquals("hit", session.attr(STAGE + " cache"));
+    assertEquals(1.0, cache.getHitRate(STAGE));
+  }
+
+  @Test
+  void testChangedInputIsMissed() {
+    cache.put(URI, STAGE, cache.fingerprint("text"), "snapshot");
+    BenchmarkSession session = new BenchmarkSession();
+
+    assertFalse(cache.get(session, URI, STAGE, cache.fingerprint("other text"), String.class).isPresent());
+    assertEquals("miss", session.attr(STAGE + " cache"));
+    assertEquals(0.0, cache.getHitRate(STAGE));
+  }
+
+  @Test
+  void testFingerprintDependsOnlyOnInput() {
+    assertEquals(cache.fingerprint("text"), cache.fingerprint("text"));
+    assertNotEquals(cache.fingerprint("text"), cache.fingerprint("other text"));
+  }
+
+  @Test
+  void testDocumentInvalidation() {
+    cache.put(URI, STAGE, cache.fingerprint("text"), "snapshot");
+    cache.invalidate(URI);
+
+    assertFalse(cache.get(new BenchmarkSession(), URI, STAGE, cache.fingerprint("text"), String.class).isPresent());
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.engine.processors.implicit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import org.eclipse.lsp.cobol.common.model.tree.variable.ElementaryItemNode;
+import org.eclipse.lsp.cobol.common.model.tree.variable.VariableNode;
+import org.eclipse.lsp.cobol.common.processor.CompilerDirectiveName;
+import org.eclipse.lsp.cobol.implicitDialects.sql.generator.Db2ImplicitVariablesGenerator;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link ImplicitVariablesTemplate} */
+class ImplicitVariablesTemplateTest {
+
+  @Test
+  void testInstancesAreEqualButIndependent() {
+    List<VariableNode> first = SRImplicitVariablesGenerator.generate();
+    List<VariableNode> second = SRImplicitVariablesGenerator.generate();
+
+    assertEquals(first, second);
+    for (int i = 0; i < first.size(); i++) {
+      assertNotSame(first.get(i), second.get(i));
+      assertNull(first.get(i).getParent());
+    }
+    VariableNode debugItem = first.get(0);
+    assertEquals(11, debugItem.getChildren().size());
+    assertSame(debugItem, debugItem.getChildren().get(0).getParent());
+    assertNotSame(debugItem.getChildren().get(0), second.get(0).getChildren().get(0));
+  }
+
+  @Test
+  void testCopiesKeepNodeData() {
+    ElementaryItemNode pointer = (ElementaryItemNode) new ImplicitVariablesTemplate(ImmutableList.of(
+        SRImplicitVariablesGenerator.generate().get(1))).instantiate().get(0);
+    ElementaryItemNode returnCode = (ElementaryItemNode) SRImplicitVariablesGenerator.generate().stream()
+        .filter(v -> v.getName().equals("RETURN-CODE")).findFirst().orElseThrow(IllegalStateException::new);
+
+    assertEquals("JNIENVPTR", pointer.getName());
+    assertTrue(returnCode.isGlobal());
+    assertEquals("S9(4)", returnCode.getPicClause());
+    assertEquals(new ElementaryItemNode(returnCode.getLocality(), 1, "RETURN-CODE", true, "S9(4)", null,
+        returnCode.getUsageFormat(), false, false, false).getEffectiveDataType(), returnCode.getEffectiveDataType());
+  }
+
+  @Test
+  void testDb2TemplateDependsOnStdSql() {
+    VariableNode sqlca = Db2ImplicitVariablesGenerator.generateDb2Nodes(ImmutableMap.of()).get(0);
+    VariableNode stdSqlca = Db2ImplicitVariablesGenerator.generateDb2Nodes(
+        ImmutableMap.of(CompilerDirectiveName.STDSQL, ImmutableList.of("YES"))).get(0);
+
+    assertTrue(sqlca.getChildren().stream().anyMatch(c -> ((VariableNode) c).getName().equals("SQLCODE")));
+    assertTrue(stdSqlca.getChildren().stream().anyMatch(c -> ((VariableNode) c).getName().equals("SQLCADE")));
+  }
+}
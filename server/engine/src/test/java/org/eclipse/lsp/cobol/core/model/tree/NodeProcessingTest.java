@@ -216,6 +216,32 @@ class NodeProcessingTest {
     assertEquals(ImmutableList.of(ERROR_2), errors);
   }
 
+  @Test
+  void testDispatchTableIsSharedBetweenContexts() {
+    /** Parent of the processed nodes */
+    class ParentNode extends Node {
+      ParentNode() {
+        super(null, NodeType.ROOT);
+      }
+    }
+
+    /** Processed by the processors of both classes */
+    class ChildNode extends ParentNode {}
+
+    ParentNode root = new ParentNode();
+    root.addChild(new ChildNode());
+    AstProcessor astProcessor = new AstProcessor();
+
+    for (SyntaxError childError : ImmutableList.of(ERROR_2, ERROR_3)) {
+      ProcessingContext ctx = new ProcessingContext(new ArrayList<>(), new SymbolAccumulatorService(), ImmutableMap.of());
+      ctx.register(new ProcessorDescription(ChildNode.class, ProcessingPhase.USAGE, (n, c) -> c.getErrors().add(childError)));
+      ctx.register(new ProcessorDescription(ParentNode.class, ProcessingPhase.USAGE, (n, c) -> c.getErrors().add(ERROR_1)));
+
+      astProcessor.processSyntaxTree(ctx, root);
+      assertEquals(ImmutableList.of(ERROR_1, childError, ERROR_1), ctx.getErrors());
+    }
+  }
+
   private static SyntaxError getError(String message) {
     return SyntaxError.syntaxError().messageTemplate(MessageTemplate.of(message)).build();
   }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.core.preprocessor.delegates.reader;
+
+import static java.lang.System.getProperty;
+import static java.util.Optional.ofNullable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
+import org.eclipse.lsp.cobol.common.dialects.CobolProgramLayout;
+import org.eclipse.lsp.cobol.common.error.SyntaxError;
+import org.eclipse.lsp.cobol.common.message.MessageService;
+import org.eclipse.lsp.cobol.core.model.CobolLineTypeEnum;
+import org.eclipse.lsp.cobol.core.preprocessor.CobolLine;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks that the line reader produces the same lines and errors as the regular expression based reading
+ * it replaced, over the test file corpus and the corner cases of the line format.
+ */
+class CobolLineReaderDifferentialTest {
+  private static final String PATH_TO_TEST_RESOURCES = "filesToTestPath";
+  private static final Pattern COMPILER_DIRECTIVE_LINE =
+      Pattern.compile("(?i)(.{0,6} +|\\s*+)(?<directives>(CBL|PROCESS) .+)");
+  private static final Map<String, CobolLineTypeEnum> INDICATORS =
+      new ImmutableMap.Builder<String, CobolLineTypeEnum>()
+          .put("*", CobolLineTypeEnum.COMMENT)
+          .put("/", CobolLineTypeEnum.COMMENT)
+          .put("d", CobolLineTypeEnum.DEBUG)
+          .put("D", CobolLineTypeEnum.DEBUG)
+          .put("-", CobolLineTypeEnum.CONTINUATION)
+          .put("$", CobolLineTypeEnum.COMPILER_DIRECTIVE)
+          .put(" ", CobolLineTypeEnum.NORMAL)
+          .put("", CobolLineTypeEnum.NORMAL)
+          .build();
+  private static final List<CobolProgramLayout> LAYOUTS = new ArrayList<>();
+  private static final List<String> CORNER_CASES = new ArrayList<>();
+
+  static {
+    LAYOUTS.add(CobolLanguageId.COBOL.getLayout());
+    LAYOUTS.add(CobolLanguageId.HP_COBOL.getLayout());
+    LAYOUTS.add(new CobolProgramLayout(0, 1, 4, 61, 8));
+    CORNER_CASES.add("");
+    CORNER_CASES.add("\n");
+    CORNER_CASES.add("\n\n\r\n");
+    CORNER_CASES.add("abc\rdef\r\n\r\nghi jkl mno\u0085pqr\n");
+    CORNER_CASES.add("000100 IDENTIFICATION DIVISION.\r\n000200*COMMENT\r\n000300-    'CONT'.\r\n000400$SET X\r\n");
+    CORNER_CASES.add("       d  DISPLAY X.\n       D  DISPLAY X.\n       /\n      x BAD INDICATOR.\n");
+    CORNER_CASES.add(StringUtils.repeat('X', 79) + "\n" + StringUtils.repeat('X', 80) + "\n"
+        + StringUtils.repeat('X', 81) + "\n" + StringUtils.repeat('Y', 200));
+    CORNER_CASES.add("CBL LIB\nprocess x\nPROCESS \nPROCESS  \nCBLX A\n cbl  OPT\n\t CBL A\n\t\u000B\fPROCESS A");
+    CORNER_CASES.add("123456 CBL A\n1234567 CBL A\nABCDEF  PROCESS A\nABCDEFG PROCESS A\nAB CD  CBL X\n"
+        + "ABCDE   CBL X\n12 4 6 CBL X\n  12 CBL X\n1234567890 CBL X");
+    CORNER_CASES.add("      CBL " + StringUtils.repeat('O', 100));
+    CORNER_CASES.add("😀1234 CBL A\n😀😀😀😀 DISPLAY "
+        + StringUtils.repeat("😀", 80) + "\n𝐀𝐀𝐀𝐀\uD835"
+        + "\uDC00𝐀𝐀 A\n12345\uD83D\n\uDE00😀 Xéé CBL A");
+    CORNER_CASES.add("      CBL A\n　CBL A\ncıl A\nPROCESſ A\nKBL A");
+  }
+
+  @Test
+  void testCornerCases() {
+    for (String text : CORNER_CASES) {
+      assertSameResult("corner case", text);
+    }
+  }
+
+  @Test
+  void testTestFiles() throws IOException {
+    Path root = Paths.get(ofNullable(getProperty(PATH_TO_TEST_RESOURCES)).orElse("../../tests/test_files"));
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(root)) {
+      files = paths.filter(Files::isRegularFile).filter(CobolLineReaderDifferentialTest::isCobolFile)
+          .collect(Collectors.toList());
+    }
+    assertFalse(files.isEmpty());
+    for (Path file : files) {
+      assertSameResult(file.toString(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+  }
+
+  private static boolean isCobolFile(Path file) {
+    String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    return name.endsWith(".cbl") || name.endsWith(".cob") || name.endsWith(".cpy");
+  }
+
+  private void assertSameResult(String name, String text) {
+    MessageService messageService = mock(MessageService.class, invocation -> invocation.getArgument(0).toString());
+    for (CobolProgramLayout layout : LAYOUTS) {
+      CobolLineReader reader = new CobolLineReader(messageService) {
+        @Override
+        protected Map<String, CobolLineTypeEnum> getIndicator() {
+          return INDICATORS;
+        }
+
+        @Override
+        protected CobolProgramLayout getLayout() {
+          return layout;
+        }
+      };
+      ResultWithErrors<List<CobolLine>> expected = readWithRegex(reader, text);
+      ResultWithErrors<List<CobolLine>> actual = reader.processLines("uri", text);
+      assertEquals(describeLines(expected.getResult()), describeLines(actual.getResult()), name);
+      assertEquals(describeErrors(expected.getErrors()), describeErrors(actual.getErrors()), name);
+    }
+  }
+
+  /** The line reading as it was implemented with a scanner and regular expressions */
+  private static ResultWithErrors<List<CobolLine>> readWithRegex(CobolLineReader reader, String text) {
+    CobolProgramLayout layout = reader.getLayout();
+    Map<String, CobolLineTypeEnum> indicators = reader.getIndicator();
+    Pattern linePattern = Pattern.compile(String.format(
+        "^(?<sequence>.{0,%s})(?<indicator>.{0,%s})(?<contentA>.{0,%s})(?<contentB>.{0,%s})(?<comment>.{0,%s})(?<extra>.*)$",
+        layout.getSequenceLength(), layout.getIndicatorLength(), layout.getAreaALength(), layout.getAreaBLength(),
+        layout.getCommentAreaLength()));
+    List<CobolLine> lines = new ArrayList<>();
+    List<String> errors = new ArrayList<>();
+    try (Scanner scanner = new Scanner(text)) {
+      int lineNumber = 0;
+      while (scanner.hasNextLine()) {
+        String line = scanner.nextLine();
+        CobolLine cobolLine = new CobolLine();
+        Matcher directives = COMPILER_DIRECTIVE_LINE.matcher(line);
+        Matcher usual = linePattern.matcher(line);
+        if (directives.matches()) {
+          int contentStart = directives.start("directives");
+          if (contentStart >= layout.getIndicatorLength() + layout.getSequenceLength()
+              && !StringUtils.isBlank(line.substring(0, contentStart))
+              && !Character.isDigit(line.charAt(0))) {
+            errors.add(lineNumber + ":0-1:CompilerDirectivesTransformation.sequenceNumber");
+          }
+          addLongLineError(errors, layout, line, lineNumber);
+          String content = StringUtils.repeat(' ', contentStart) + directives.group("directives");
+          cobolLine.setContentAreaA(StringUtils.left(content, layout.getSourceCodeLength()));
+          cobolLine.setType(CobolLineTypeEnum.PREPROCESSED);
+        } else {
+          assertTrue(usual.matches());
+          cobolLine.setSequenceArea(usual.group("sequence"));
+          cobolLine.setIndicatorArea(usual.group("indicator"));
+          CobolLineTypeEnum type = indicators.get(usual.group("indicator"));
+          if (type == null) {
+            type = CobolLineTypeEnum.NORMAL;
+            errors.add(lineNumber + ":" + layout.getSequenceLength() + "-" + (layout.getSequenceLength() + 1)
+                + ":CobolLineReaderImpl.incorrectLineFormat");
+          }
+          cobolLine.setType(type);
+          cobolLine.setContentAreaA(usual.group("contentA"));
+          cobolLine.setContentAreaB(usual.group("contentB"));
+          cobolLine.setCommentArea(usual.group("comment"));
+          addLongLineError(errors, layout, line, lineNumber);
+        }
+        cobolLine.setNumber(lineNumber++);
+        lines.add(cobolLine);
+      }
+    }
+    return new ResultWithErrors<>(lines, errors.stream().map(CobolLineReaderDifferentialTest::toError)
+        .collect(Collectors.toList()));
+  }
+
+  private static void addLongLineError(List<String> errors, CobolProgramLayout layout, String line, int lineNumber) {
+    if (line.length() > layout.getMaxLineLength()) {
+      errors.add(lineNumber + ":" + layout.getMaxLineLength() + "-" + line.length()
+          + ":CobolLineReaderImpl.longLineMsg");
+    }
+  }
+
+  private static SyntaxError toError(String description) {
+    return SyntaxError.syntaxError().suggestion(description).build();
+  }
+
+  private static List<String> describeLines(List<CobolLine> lines) {
+    return lines.stream()
+        .map(line -> String.join("|", String.valueOf(line.getNumber()), line.getType().name(),
+            line.getSequenceArea(), line.getIndicatorArea(), line.getContentAreaA(), line.getContentAreaB(),
+            line.getCommentArea()))
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> describeErrors(List<SyntaxError> errors) {
+    return errors.stream()
+        .map(error -> {
+          if (error.getLocation() == null) {
+            return error.getSuggestion();
+          }
+          Range range = error.getLocation().getLocation().getRange();
+          return range.getStart().getLine() + ":" + range.getStart().getCharacter() + "-"
+              + range.getEnd().getCharacter() + ":" + error.getSuggestion();
+        })
+        .collect(Collectors.toList());
+  }
+}
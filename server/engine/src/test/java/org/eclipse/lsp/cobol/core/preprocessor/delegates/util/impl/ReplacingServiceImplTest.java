@@ -24,6 +24,7 @@ import org.eclipse.lsp.cobol.common.model.Locality;
 import org.eclipse.lsp.cobol.core.preprocessor.delegates.replacement.ReplaceData;
 import org.eclipse.lsp.cobol.core.preprocessor.delegates.replacement.ReplacingService;
 import org.eclipse.lsp.cobol.core.preprocessor.delegates.replacement.ReplacingServiceImpl;
+import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.junit.jupiter.api.Test;
 
@@ -59,6 +60,41 @@ class ReplacingServiceImplTest {
     assertEquals("01 ABC.", dm2.toString());
   }
 
+  /**
+   * Test the pseudo-text patterns are applied whatever the case of the text is, including the
+   * quoted literals and the operands of several words, while the operands that do not occur in the
+   * text leave it unchanged.
+   */
+  @Test
+  void testApplyPseudoTextReplacing() {
+    ReplacingService replacingService = new ReplacingServiceImpl(messageService);
+    ExtendedDocument document =
+        new ExtendedDocument("       move 'abc' to child-1.\n       DISPLAY Child-1 UPON\n   CONSOLE.", "");
+    replacingService.applyReplacing(document, new ReplaceData(ImmutableList.of(
+            replacingService.retrievePseudoTextReplacingPattern("==MISSING== BY ==OTHER==", locality).getResult(),
+            replacingService.retrievePseudoTextReplacingPattern("=='abc'== BY =='xyz'==", locality).getResult(),
+            replacingService.retrievePseudoTextReplacingPattern("==CHILD-1== BY ==CHILD-2==", locality).getResult(),
+            replacingService.retrievePseudoTextReplacingPattern("==UPON CONSOLE== BY ====", locality).getResult()),
+        "", new Range()));
+    assertEquals("       move 'xyz' to CHILD-2.\n       DISPLAY CHILD-2 \n.", document.toString());
+  }
+
+  /**
+   * Test the changes made to the document before the replacing are committed when the first operand
+   * is skipped, and the next operands work on the committed text.
+   */
+  @Test
+  void testApplyReplacingAfterUncommittedChanges() {
+    ReplacingService replacingService = new ReplacingServiceImpl(messageService);
+    ExtendedDocument document = new ExtendedDocument("01 ABC.", "");
+    document.replace(new Range(new Position(0, 3), new Position(0, 5)), "DEFINED");
+    replacingService.applyReplacing(document, new ReplaceData(ImmutableList.of(
+            replacingService.retrievePseudoTextReplacingPattern("==MISSING== BY ==OTHER==", locality).getResult(),
+            replacingService.retrievePseudoTextReplacingPattern("==DEFINED== BY ==GHI==", locality).getResult()),
+        "", new Range()));
+    assertEquals("01 GHI.", document.toString());
+  }
+
   /**
    * Test the way service retrieves the replacing pattern from the pseudo text. It should remove all
    * the equals chars and provide a trimmed regex that matches expected token sequence ignoring the
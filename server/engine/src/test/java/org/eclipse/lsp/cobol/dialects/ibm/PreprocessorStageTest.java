@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.dialects.ibm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Optional;
+import org.eclipse.lsp.cobol.common.AnalysisConfig;
+import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
+import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkSession;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
+import org.eclipse.lsp.cobol.common.copybook.CopybookProcessingMode;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
+import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
+import org.eclipse.lsp.cobol.common.dialects.DialectOutcome;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedDocument;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedText;
+import org.eclipse.lsp.cobol.common.pipeline.StageResult;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisContext;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisStageCache;
+import org.eclipse.lsp.cobol.core.preprocessor.delegates.GrammarPreprocessor;
+import org.eclipse.lsp.cobol.core.preprocessor.delegates.PreprocessorContext;
+import org.eclipse.lsp.cobol.core.semantics.CopybooksRepository;
+import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link PreprocessorStage} reuses the expanded copybooks */
+class PreprocessorStageTest {
+  private static final String URI = "file:///c:/workspace/document.cbl";
+  private static final String COPYBOOK_URI = "file:///c:/workspace/CPY.cpy";
+  private static final CopybookName COPYBOOK = new CopybookName("CPY");
+  private static final String TEXT = "       DATA DIVISION.\n"
+      + "       WORKING-STORAGE SECTION.\n"
+      + "       COPY CPY.\n"
+      + "       PROCEDURE DIVISION.\n"
+      + "           DISPLAY 'A'.";
+
+  private final GrammarPreprocessor grammarPreprocessor = mock(GrammarPreprocessor.class);
+  private final CleanerPreprocessor cleaner = mock(CleanerPreprocessor.class);
+  private final CopybookService copybookService = mock(CopybookService.class);
+  private final AnalysisStageCache stageCache = new AnalysisStageCache(new CodeLayoutStore());
+  private PreprocessorStage stage;
+
+  @BeforeEach
+  void setUp() {
+    // expand the copy statement on the third line, like the grammar preprocessor does
+    when(grammarPreprocessor.preprocess(any(), any())).thenAnswer(invocation -> {
+      PreprocessorContext context = invocation.getArgument(0);
+      context.getCurrentDocument().insertCopybook(new Range(new Position(2, 7), new Position(2, 15)),
+          new ExtendedText("       01 ITEM PIC X.\n       01 OTHER PIC X.", COPYBOOK_URI));
+      CopybooksRepository copybooks = new CopybooksRepository();
+      copybooks.define(COPYBOOK.getQualifiedName(), null, URI, COPYBOOK_URI);
+      copybooks.addResolved(COPYBOOK, COPYBOOK_URI);
+      return new ResultWithErrors<>(copybooks, ImmutableList.of());
+    });
+    when(copybookService.getContentHash(any(), eq(COPYBOOK_URI))).thenReturn(Optional.of("hash"));
+    stage = new PreprocessorStage(grammarPreprocessor, cleaner, stageCache, copybookService);
+  }
+
+  @Test
+  void testEditAfterCopybooksDoesNotExpandThemAgain() {
+    run(stage, TEXT);
+    String editedText = TEXT.replace("'A'", "'B'");
+    AnalysisContext context = run(stage, editedText);
+
+    verify(grammarPreprocessor, times(1)).preprocess(any(), any());
+    verify(copybookService).resolve(any(), eq(COPYBOOK), eq(URI), eq(URI), eq(cleaner));
+    assertTrue(stageCache.getHitRate(stage.getName()) > 0);
+
+    AnalysisContext expected = run(new PreprocessorStage(grammarPreprocessor, cleaner), editedText);
+    ExtendedDocument document = context.getExtendedDocument();
+    assertEquals(expected.getExtendedDocument().toString(), document.toString());
+    assertTrue(document.toString().endsWith("DISPLAY 'B'."));
+    Range lastLine = new Range(new Position(7, 11), new Position(7, 23));
+    Location location = document.mapLocation(lastLine);
+    assertEquals(expected.getExtendedDocument().mapLocation(lastLine), location);
+    assertEquals(URI, location.getUri());
+    assertEquals(4, location.getRange().getStart().getLine());
+    assertEquals(expected.getCopybooksRepository().getResolvedCopybooks(),
+        context.getCopybooksRepository().getResolvedCopybooks());
+  }
+
+  @Test
+  void testEditOfCopyStatementsExpandsCopybooksAgain() {
+    run(stage, TEXT);
+    run(stage, TEXT.replace("WORKING-STORAGE", "LOCAL-STORAGE"));
+
+    verify(grammarPreprocessor, times(2)).preprocess(any(), any());
+  }
+
+  @Test
+  void testNewCopyStatementAfterCopybooksExpandsCopybooksAgain() {
+    run(stage, TEXT);
+    run(stage, TEXT.replace("DISPLAY 'A'.", "COPY OTHER."));
+
+    verify(grammarPreprocessor, times(2)).preprocess(any(), any());
+  }
+
+  @Test
+  void testChangedCopybookExpandsCopybooksAgain() {
+    run(stage, TEXT);
+    when(copybookService.getContentHash(any(), eq(COPYBOOK_URI))).thenReturn(Optional.of("changed"));
+    run(stage, TEXT.replace("'A'", "'B'"));
+
+    verify(grammarPreprocessor, times(2)).preprocess(any(), any());
+  }
+
+  @Test
+  void testMissingCopybookIsExpandedAgain() {
+    when(copybookService.getContentHash(any(), eq(COPYBOOK_URI))).thenReturn(Optional.empty());
+    run(stage, TEXT);
+    run(stage, TEXT.replace("'A'", "'B'"));
+
+    verify(grammarPreprocessor, times(2)).preprocess(any(), any());
+  }
+
+  private AnalysisContext run(PreprocessorStage preprocessorStage, String text) {
+    AnalysisContext context = new AnalysisContext(new ExtendedDocument(text, URI),
+        AnalysisConfig.defaultConfig(CopybookProcessingMode.ENABLED), new BenchmarkSession(), URI, text,
+        CobolLanguageId.COBOL);
+    preprocessorStage.run(context, new StageResult<>(new DialectOutcome(null)));
+    return context;
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.implicitDialects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.eclipse.lsp.cobol.common.dialects.EmbeddedCodeScanner;
+import org.eclipse.lsp.cobol.core.visitor.VisitorHelper;
+import org.eclipse.lsp.cobol.implicitDialects.sql.Db2SqlLexer;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link EmbeddedCodeLexer} */
+class EmbeddedCodeLexerTest {
+  private static final String TEXT = "       EXEC SQL SELECT A FROM T END-EXEC.\n"
+      + "       MOVE 1 TO B.\n"
+      + "       EXEC SQL DELETE FROM T END-EXEC.\n";
+
+  @Test
+  void testTokensKeepDocumentPositions() {
+    List<Token> tokens = tokenize();
+    Token delete = tokens.stream().filter(t -> t.getText().equals("DELETE")).findFirst().orElseThrow(AssertionError::new);
+
+    assertEquals(3, delete.getLine());
+    assertEquals(16, delete.getCharPositionInLine());
+    assertEquals(TEXT.indexOf("DELETE"), delete.getStartIndex());
+  }
+
+  @Test
+  void testIntervalTextOfRuleSpanningRegions() {
+    List<Token> tokens = tokenize();
+    ParserRuleContext ctx = new ParserRuleContext();
+    ctx.start = tokens.get(0);
+    ctx.stop = tokens.get(tokens.size() - 1);
+
+    assertEquals(TEXT.substring(TEXT.indexOf("EXEC"), TEXT.lastIndexOf("END-EXEC") + "END-EXEC".length()),
+        VisitorHelper.getIntervalText(ctx));
+  }
+
+  private static List<Token> tokenize() {
+    CommonTokenStream stream = EmbeddedCodeLexer.tokenize(TEXT, EmbeddedCodeScanner.scan(TEXT), Db2SqlLexer::new,
+        new BaseErrorListener());
+    stream.fill();
+    return stream.getTokens().stream()
+        .filter(t -> t.getChannel() == Token.DEFAULT_CHANNEL && t.getType() != Token.EOF)
+        .filter(t -> !t.getText().trim().isEmpty() && !t.getText().equals("."))
+        .collect(Collectors.toList());
+  }
+}
@@ -15,11 +15,16 @@
 package org.eclipse.lsp.cobol.lsp;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.google.common.collect.ImmutableList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.lsp4j.InitializeResult;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -61,4 +66,89 @@ class EventLoopTest {
     });
     assertEquals(initResult, result.get(1, TimeUnit.SECONDS));
   }
+
+  @Test
+  void testWaitingQueryIsReleasedByDependencySignal() throws Exception {
+    TestDependency dependency = new TestDependency();
+    CompletableFuture<String> result = messageBroker.query(new TestQuery("result", null, dependency));
+
+    TimeUnit.MILLISECONDS.sleep(100);
+    assertFalse(result.isDone());
+    assertEquals(1, messageBroker.waitingSize());
+
+    dependency.satisfied.set(true);
+    dependency.signal.complete(null);
+    assertEquals("result", result.get(500, TimeUnit.MILLISECONDS));
+    assertEquals(0, messageBroker.waitingSize());
+  }
+
+  @Test
+  void testQueryIsSupersededByTheLatestOne() throws Exception {
+    CompletableFuture<String> first = messageBroker.query(new TestQuery("first", "hover#uri", new TestDependency()));
+    CompletableFuture<String> second = messageBroker.query(new TestQuery("second", "hover#uri", null));
+
+    assertEquals("second", second.get(1, TimeUnit.SECONDS));
+    assertTrue(first.isCancelled());
+  }
+
+  @Test
+  void testQueueSizeIsCountedPerType() throws InterruptedException {
+    LspMessageBroker broker = new LspMessageBroker();
+    broker.query(new TestQuery("1", null, null));
+    broker.query(new TestQuery("2", null, null));
+    broker.notify(() -> { });
+
+    assertEquals(2, broker.queueSizeForType(TestQuery.class));
+    assertEquals(2L, broker.queueSizeByType().get("TestQuery"));
+    broker.take();
+    assertEquals(1, broker.queueSizeForType(TestQuery.class));
+  }
+
+  private static class TestDependency implements LspEventDependency {
+    private final AtomicBoolean satisfied = new AtomicBoolean();
+    private final CompletableFuture<Void> signal = new CompletableFuture<>();
+
+    @Override
+    public boolean isSatisfied() {
+      return satisfied.get();
+    }
+
+    @Override
+    public CompletableFuture<?> nextChange() {
+      return signal;
+    }
+  }
+
+  private static class TestQuery implements LspQuery<String> {
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private final String value;
+    private final String key;
+    private final LspEventDependency dependency;
+
+    TestQuery(String value, String key, LspEventDependency dependency) {
+      this.value = value;
+      this.key = key;
+      this.dependency = dependency;
+    }
+
+    @Override
+    public String query() {
+      return value;
+    }
+
+    @Override
+    public List<LspEventDependency> getDependencies() {
+      return dependency == null ? ImmutableList.of() : ImmutableList.of(dependency);
+    }
+
+    @Override
+    public String getSupersedingKey() {
+      return key;
+    }
+
+    @Override
+    public CompletableFuture<String> getResult() {
+      return result;
+    }
+  }
 }
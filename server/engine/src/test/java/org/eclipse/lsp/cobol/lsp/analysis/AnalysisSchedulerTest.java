@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.lsp.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link AnalysisScheduler} */
+class AnalysisSchedulerTest {
+
+  @Test
+  void testTasksOfSameUriRunInOrder() throws InterruptedException {
+    AnalysisScheduler scheduler = new AnalysisScheduler(4);
+    List<Integer> order = new CopyOnWriteArrayList<>();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger overlaps = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(20);
+    for (int i = 0; i < 20; i++) {
+      int id = i;
+      scheduler.submit("uri", false, () -> {
+        if (running.incrementAndGet() > 1) overlaps.incrementAndGet();
+        order.add(id);
+        running.decrementAndGet();
+        done.countDown();
+      });
+    }
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(0, overlaps.get());
+    for (int i = 0; i < 20; i++) {
+      assertEquals(i, order.get(i));
+    }
+  }
+
+  @Test
+  void testWorkerCountIsBounded() throws InterruptedException {
+    AnalysisScheduler scheduler = new AnalysisScheduler(2);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(10);
+    for (int i = 0; i < 10; i++) {
+      scheduler.submit("uri" + i, false, () -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        sleep(20);
+        running.decrementAndGet();
+        done.countDown();
+      });
+    }
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(2, maxRunning.get());
+  }
+
+  @Test
+  void testPriorityTasksGoFirst() throws InterruptedException {
+    AnalysisScheduler scheduler = new AnalysisScheduler(1);
+    CountDownLatch blocker = new CountDownLatch(1);
+    List<String> order = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(4);
+    scheduler.submit("busy", false, () -> await(blocker));
+    scheduler.submit("background1", false, record(order, "background1", done));
+    scheduler.submit("background2", false, record(order, "background2", done));
+    scheduler.submit("focused", true, record(order, "focused", done));
+    scheduler.submit("busy", false, record(order, "busy", done));
+    blocker.countDown();
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(ImmutableList.of("focused", "background1", "background2", "busy"), order);
+  }
+
+  @Test
+  void testBackgroundTaskDoesNotTakeUriQueue() throws InterruptedException {
+    AnalysisScheduler scheduler = new AnalysisScheduler(2);
+    CountDownLatch blocker = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(1);
+    scheduler.submit("uri", false, () -> await(blocker));
+    scheduler.submitBackground(done::countDown);
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(1, scheduler.getActiveUris());
+    blocker.countDown();
+    waitForIdle(scheduler);
+    assertEquals(0, scheduler.getActiveUris());
+  }
+
+  @Test
+  void testFailedTaskDoesNotBlockUri() throws InterruptedException {
+    AnalysisScheduler scheduler = new AnalysisScheduler(1);
+    CountDownLatch done = new CountDownLatch(1);
+    scheduler.submit("uri", true, () -> {
+      throw new IllegalStateException("test");
+    });
+    scheduler.submit("uri", true, done::countDown);
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    waitForIdle(scheduler);
+    assertEquals(0, scheduler.getActiveUris());
+  }
+
+  @Test
+  void testDebounceDelayFollowsLastAnalysisTime() {
+    AnalysisScheduler scheduler = new AnalysisScheduler(1, 500);
+    assertEquals(0, scheduler.getDebounceDelay("uri"));
+
+    scheduler.recordAnalysisTime("uri", TimeUnit.MILLISECONDS.toNanos(300));
+    assertEquals(150, scheduler.getDebounceDelay("uri"));
+
+    scheduler.recordAnalysisTime("uri", TimeUnit.SECONDS.toNanos(5));
+    assertEquals(500, scheduler.getDebounceDelay("uri"));
+
+    scheduler.cancelDebounced("uri");
+    assertEquals(0, scheduler.getDebounceDelay("uri"));
+  }
+
+  @Test
+  void testChangesWithinDebounceDelayAreCoalesced() throws Exception {
+    AnalysisScheduler scheduler = new AnalysisScheduler(1, 500);
+    scheduler.recordAnalysisTime("uri", TimeUnit.MILLISECONDS.toNanos(400));
+    List<FutureTask<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      int revision = i;
+      FutureTask<Integer> task = new FutureTask<>(() -> revision);
+      tasks.add(task);
+      scheduler.submitDebounced("uri", task);
+    }
+
+    assertEquals(4, (int) tasks.get(4).get(10, TimeUnit.SECONDS));
+    for (int i = 0; i < 4; i++) {
+      assertTrue(tasks.get(i).isCancelled());
+    }
+    assertEquals(4, scheduler.getCoalescedCount());
+    assertEquals(0, scheduler.getDebouncedCount());
+  }
+
+  private static Runnable record(List<String> order, String name, CountDownLatch done) {
+    return () -> {
+      order.add(name);
+      done.countDown();
+    };
+  }
+
+  private static void waitForIdle(AnalysisScheduler scheduler) {
+    for (int i = 0; i < 100 && scheduler.getActiveUris() > 0; i++) {
+      sleep(10);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
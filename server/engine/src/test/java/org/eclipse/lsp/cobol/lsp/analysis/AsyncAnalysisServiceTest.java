@@ -56,7 +56,7 @@ class AsyncAnalysisServiceTest {
     @BeforeEach
     void setUp() {
         asyncAnalysisService = new AsyncAnalysisService(mock(TrueDialectService.class),
-            documentModelService, analysisService, copybookService, subroutineService, communication);
+            documentModelService, analysisService, copybookService, subroutineService, communication, new AnalysisScheduler(1));
     }
 
     @Test
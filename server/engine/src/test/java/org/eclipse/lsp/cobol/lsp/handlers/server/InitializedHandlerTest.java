@@ -33,6 +33,7 @@ import org.eclipse.lsp.cobol.service.AnalysisService;
 import org.eclipse.lsp.cobol.service.WatcherService;
 import org.eclipse.lsp.cobol.service.copybooks.CopybookNameService;
 import org.eclipse.lsp.cobol.service.delegates.completions.Keywords;
+import org.eclipse.lsp.cobol.service.index.WorkspaceIndexer;
 import org.eclipse.lsp.cobol.service.settings.SettingsService;
 import org.eclipse.lsp.cobol.service.settings.SettingsServiceImpl;
 import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
@@ -50,6 +51,7 @@ class InitializedHandlerTest {
     CopybookNameService copybookNameService = mock(CopybookNameService.class);
     MessageService messageService = mock(MessageService.class);
     Keywords keywords = mock(Keywords.class);
+    WorkspaceIndexer workspaceIndexer = mock(WorkspaceIndexer.class);
 
     DialectService dialectService = mock(DialectService.class);
     when(dialectService.getWatchingFolderSettings()).thenReturn(ImmutableList.of("dialect"));
@@ -69,8 +71,9 @@ class InitializedHandlerTest {
             settingsService,
             localeStore,
             mock(AnalysisService.class),
-            messageService, codeLayoutStore);
+            messageService, codeLayoutStore, workspaceIndexer);
     initializedHandler.initialized(new InitializedParams());
+    verify(workspaceIndexer).indexWorkspace();
     verify(watchingService).watchConfigurationChange();
     verify(settingsService).fetchConfiguration(LOCALE.label);
     verify(settingsService).fetchConfiguration(LOGGING_LEVEL.label);
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.lsp.handlers.text;
+
+import static org.mockito.Mockito.*;
+
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
+import org.eclipse.lsp.cobol.lsp.SourceUnitGraph;
+import org.eclipse.lsp.cobol.lsp.analysis.AsyncAnalysisService;
+import org.eclipse.lsp.cobol.service.CobolLSPServerStateService;
+import org.eclipse.lsp.cobol.service.DocumentModelService;
+import org.eclipse.lsp.cobol.service.WatcherService;
+import org.eclipse.lsp.cobol.service.delegates.semantictokens.SemanticTokensProvider;
+import org.eclipse.lsp.cobol.service.memory.AnalysisMemoryManager;
+import org.eclipse.lsp4j.DidCloseTextDocumentParams;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link DidCloseHandler} */
+class DidCloseHandlerTest {
+  private static final String URI = "file:///c:/workspace/document.cbl";
+
+  @Test
+  void testClosedDocumentIsReleased() throws InterruptedException {
+    SourceUnitGraph sourceUnitGraph = mock(SourceUnitGraph.class);
+    when(sourceUnitGraph.isFileOpened(URI)).thenReturn(true);
+    AsyncAnalysisService asyncAnalysisService = mock(AsyncAnalysisService.class);
+    DocumentModelService documentModelService = mock(DocumentModelService.class);
+    AnalysisMemoryManager memoryManager = mock(AnalysisMemoryManager.class);
+    SemanticTokensProvider semanticTokensProvider = mock(SemanticTokensProvider.class);
+    DidCloseHandler handler = new DidCloseHandler(new CobolLSPServerStateService(), asyncAnalysisService,
+        documentModelService, mock(WatcherService.class), mock(CopybookService.class), sourceUnitGraph,
+        memoryManager, semanticTokensProvider);
+
+    handler.didClose(new DidCloseTextDocumentParams(new TextDocumentIdentifier(URI)));
+
+    verify(documentModelService).closeDocument(URI);
+    verify(asyncAnalysisService).cancelAnalysis(URI);
+    verify(memoryManager).documentClosed(URI);
+    verify(semanticTokensProvider).invalidate(URI);
+  }
+}
@@ -38,6 +38,7 @@ import org.eclipse.lsp.cobol.service.CobolLSPServerStateService;
 import org.eclipse.lsp.cobol.service.WatcherService;
 import org.eclipse.lsp.cobol.service.copybooks.CopybookNameService;
 import org.eclipse.lsp.cobol.service.delegates.completions.Keywords;
+import org.eclipse.lsp.cobol.service.settings.ConfigurationService;
 import org.eclipse.lsp.cobol.service.settings.SettingsService;
 import org.eclipse.lsp.cobol.service.settings.SettingsServiceImpl;
 import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
@@ -61,6 +62,7 @@ class DidChangeConfigurationHandlerTest {
         Keywords keywords = mock(Keywords.class);
         MessageService messageService = mock(MessageService.class);
         AsyncAnalysisService asyncAnalysisService = mock(AsyncAnalysisService.class);
+        ConfigurationService configurationService = mock(ConfigurationService.class);
 
         DidChangeConfigurationHandler didChangeConfigurationHandler =
                 new DidChangeConfigurationHandler(
@@ -71,7 +73,7 @@ class DidChangeConfigurationHandlerTest {
                         localeStore,
                         keywords,
                         messageService,
-                        asyncAnalysisService, getMockLayoutStore(), copybookService);
+                        asyncAnalysisService, getMockLayoutStore(), copybookService, configurationService);
 
 
         when(copybookNameService.copybookLocalFolders(null))
@@ -89,6 +91,7 @@ class DidChangeConfigurationHandlerTest {
         verify(watchingService).addWatchers(emptyList());
         verify(watchingService).removeWatchers(emptyList());
         verify(asyncAnalysisService).reanalyseOpenedPrograms();
+        verify(configurationService).invalidateCache();
     }
 
     /** Test no watchers added or removed when the path list not changed */
@@ -115,7 +118,7 @@ class DidChangeConfigurationHandlerTest {
                         messageService,
                         asyncAnalysisService,
                         getMockLayoutStore(),
-                        copybookService);
+                        copybookService, mock(ConfigurationService.class));
 
         String path = "foo/bar";
 
@@ -160,7 +163,7 @@ class DidChangeConfigurationHandlerTest {
                         keywords,
                         messageService,
                         asyncAnalysisService,
-                        getMockLayoutStore(), copybookService);
+                        getMockLayoutStore(), copybookService, mock(ConfigurationService.class));
 
         ArgumentCaptor<List<String>> watcherCaptor = forClass(List.class);
         String path = "foo/bar";
@@ -210,7 +213,7 @@ class DidChangeConfigurationHandlerTest {
                         messageService,
                         asyncAnalysisService,
                         getMockLayoutStore(),
-                        copybookService);
+                        copybookService, mock(ConfigurationService.class));
         ArgumentCaptor<List<String>> watcherCaptor = forClass(List.class);
         JsonArray arr = new JsonArray();
         String path = "foo/bar";
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link AntlrCobolParser} prediction stages */
+class AntlrCobolParserTest {
+  private static final String VALID = "       IDENTIFICATION DIVISION.\n"
+      + "       PROGRAM-ID. TEST1.\n"
+      + "       DATA DIVISION.\n"
+      + "       WORKING-STORAGE SECTION.\n"
+      + "       01 A PIC 9.\n"
+      + "       PROCEDURE DIVISION.\n"
+      + "           MOVE 1 TO A.\n"
+      + "           DISPLAY A.\n";
+  private static final String INVALID = VALID.replace("MOVE 1 TO A.", "MOVE 1 TO TO A.");
+
+  @AfterEach
+  void cleanUp() {
+    System.clearProperty("parser.prediction.mode");
+  }
+
+  @Test
+  void testValidProgramIsParsedWithSll() {
+    Result result = parse(VALID);
+    assertEquals(AntlrCobolParser.Prediction.SLL, result.prediction);
+    assertTrue(result.errors.isEmpty());
+  }
+
+  @Test
+  void testInvalidProgramFallsBackToLl() {
+    Result twoStage = parse(INVALID);
+    System.setProperty("parser.prediction.mode", "LL");
+    Result ll = parse(INVALID);
+
+    assertEquals(AntlrCobolParser.Prediction.LL_FALLBACK, twoStage.prediction);
+    assertEquals(AntlrCobolParser.Prediction.LL, ll.prediction);
+    assertEquals(ll.errors, twoStage.errors);
+    assertEquals(ll.tree, twoStage.tree);
+  }
+
+  @Test
+  void testWarmUpFillsDfaCache() throws IOException {
+    try (InputStream stream = ParserWarmUp.class.getResourceAsStream("/warmup/WARMUP.cbl")) {
+      Result result = parse(new String(ByteStreams.toByteArray(stream), StandardCharsets.UTF_8));
+      assertEquals(AntlrCobolParser.Prediction.SLL, result.prediction);
+      assertTrue(result.errors.isEmpty());
+    }
+    ParserWarmUp.run();
+    assertTrue(AntlrCobolParser.getDfaCache().getStateCount() > 0);
+  }
+
+  private static Result parse(String text) {
+    List<String> errors = new ArrayList<>();
+    BaseErrorListener listener = new BaseErrorListener() {
+      @Override
+      public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine,
+                              String msg, RecognitionException e) {
+        errors.add(line + ":" + charPositionInLine + " " + msg);
+      }
+    };
+    AntlrCobolParser parser = new AntlrCobolParser(CharStreams.fromString(text), listener, new DefaultErrorStrategy(), null);
+    ParseTree tree = parser.runParser();
+    return new Result(parser.getPrediction(), errors, tree.toStringTree());
+  }
+
+  private static class Result {
+    final AntlrCobolParser.Prediction prediction;
+    final List<String> errors;
+    final String tree;
+
+    Result(AntlrCobolParser.Prediction prediction, List<String> errors, String tree) {
+      this.prediction = prediction;
+      this.errors = errors;
+      this.tree = tree;
+    }
+  }
+}
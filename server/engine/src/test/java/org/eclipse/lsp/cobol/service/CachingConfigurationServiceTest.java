@@ -140,6 +140,27 @@ class CachingConfigurationServiceTest {
         configuration.getConfig("", CopybookProcessingMode.DISABLED));
   }
 
+  @Test
+  void testConfigurationIsCachedUntilInvalidated() {
+    SettingsService settingsService = mock(SettingsService.class);
+    DialectService dialectService = mock(DialectService.class);
+    when(dialectService.getSettingsSections()).thenReturn(ImmutableList.of());
+    CompletableFuture<List<Object>> clientConfig = new CompletableFuture<>();
+    when(settingsService.fetchConfigurations(eq("uri"), anyList())).thenReturn(clientConfig);
+    CachingConfigurationService configuration = new CachingConfigurationService(settingsService, dialectService);
+
+    CompletableFuture<AnalysisConfig> first = supplyAsync(() -> configuration.getConfig("uri", CopybookProcessingMode.ENABLED));
+    CompletableFuture<AnalysisConfig> second = supplyAsync(() -> configuration.getConfig("uri", CopybookProcessingMode.ENABLED));
+    clientConfig.complete(Arrays.asList(new JsonArray(), new JsonArray(), new JsonPrimitive("true"), new JsonArray(), new JsonArray()));
+    assertEquals(first.join(), second.join());
+    configuration.getConfig("uri", CopybookProcessingMode.ENABLED);
+    verify(settingsService, times(1)).fetchConfigurations(eq("uri"), anyList());
+
+    configuration.invalidateCache();
+    configuration.getConfig("uri", CopybookProcessingMode.ENABLED);
+    verify(settingsService, times(2)).fetchConfigurations(eq("uri"), anyList());
+  }
+
   @Test
   void testFetchingListConfiguration() {
     String expectedValue = "list-of-some-values-from-client";
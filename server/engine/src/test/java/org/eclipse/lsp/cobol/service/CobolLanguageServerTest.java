@@ -32,6 +32,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.common.dialects.CobolLanguageId;
 import org.eclipse.lsp.cobol.common.error.ErrorCodes;
 import org.eclipse.lsp.cobol.common.message.LocaleStore;
@@ -44,8 +45,11 @@ import org.eclipse.lsp.cobol.lsp.handlers.text.CodeActionHandler;
 import org.eclipse.lsp.cobol.lsp.handlers.workspace.DidChangeConfigurationHandler;
 import org.eclipse.lsp.cobol.lsp.handlers.workspace.DidChangeWatchedFilesHandler;
 import org.eclipse.lsp.cobol.lsp.handlers.workspace.ExecuteCommandHandler;
+import org.eclipse.lsp.cobol.lsp.handlers.workspace.WorkspaceSymbolHandler;
 import org.eclipse.lsp.cobol.service.copybooks.CopybookNameService;
 import org.eclipse.lsp.cobol.service.delegates.completions.Keywords;
+import org.eclipse.lsp.cobol.service.index.WorkspaceIndex;
+import org.eclipse.lsp.cobol.service.index.WorkspaceIndexer;
 import org.eclipse.lsp.cobol.service.settings.SettingsService;
 import org.eclipse.lsp.cobol.service.settings.SettingsServiceImpl;
 import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
@@ -83,6 +87,7 @@ class CobolLanguageServerTest {
 
   private DisposableLSPStateService stateService;
   private final CancelProgressHandler cancelProgressHandler = mock(CancelProgressHandler.class);
+  private final CopybookService copybookService = mock(CopybookService.class);
 
   @BeforeEach
   void getStateService() {
@@ -108,7 +113,7 @@ class CobolLanguageServerTest {
     prepareSettingsService(settingsService, localeStore);
 
     LspMessageBroker lspMessageBroker = new LspMessageBroker();
-    CobolWorkspaceServiceImpl lspEventConsumer = new CobolWorkspaceServiceImpl(lspMessageBroker, executeCommandHandler, didChangeConfigurationHandler, didChangeWatchedFilesHandler);
+    CobolWorkspaceServiceImpl lspEventConsumer = new CobolWorkspaceServiceImpl(lspMessageBroker, executeCommandHandler, didChangeConfigurationHandler, didChangeWatchedFilesHandler, mock(WorkspaceSymbolHandler.class));
 
     lspEventConsumer.startConsumer();
     InitializedHandler initializedHandler = mock(InitializedHandler.class);
@@ -119,7 +124,7 @@ class CobolLanguageServerTest {
                     null,
                     null,
                     new ExitHandler(stateService),
-                    new ShutdownHandler(stateService, lspMessageBroker),
+                    new ShutdownHandler(stateService, lspMessageBroker, copybookService),
                     mock(InitializeHandler.class),
                     initializedHandler,
                     lspEventConsumer,
@@ -185,7 +190,7 @@ class CobolLanguageServerTest {
     prepareSettingsService(settingsService, localeStore);
 
     LspMessageBroker lspMessageBroker = new LspMessageBroker();
-    CobolWorkspaceServiceImpl lspEventConsumer = new CobolWorkspaceServiceImpl(lspMessageBroker, executeCommandHandler, didChangeConfigurationHandler, didChangeWatchedFilesHandler);
+    CobolWorkspaceServiceImpl lspEventConsumer = new CobolWorkspaceServiceImpl(lspMessageBroker, executeCommandHandler, didChangeConfigurationHandler, didChangeWatchedFilesHandler, mock(WorkspaceSymbolHandler.class));
 
     when(layoutStore.getCodeLayout()).thenReturn(Optional.of(CobolLanguageId.COBOL.getLayout()));
     when(layoutStore.updateCodeLayout()).thenReturn(mock -> {});
@@ -197,9 +202,9 @@ class CobolLanguageServerTest {
                     textService,
                     null,
                     new ExitHandler(stateService),
-                    new ShutdownHandler(stateService, lspMessageBroker),
-                    new InitializeHandler(watchingService),
-                    new InitializedHandler(watchingService, copybookNameService, keywords, settingsService, localeStore, analysisService, messageService, layoutStore),
+                    new ShutdownHandler(stateService, lspMessageBroker, copybookService),
+                    new InitializeHandler(watchingService, new WorkspaceIndex(null)),
+                    new InitializedHandler(watchingService, copybookNameService, keywords, settingsService, localeStore, analysisService, messageService, layoutStore, mock(WorkspaceIndexer.class)),
                     lspEventConsumer,
                     cancelProgressHandler);
 
@@ -234,7 +239,7 @@ class CobolLanguageServerTest {
     DidChangeWatchedFilesHandler didChangeWatchedFilesHandler = mock(DidChangeWatchedFilesHandler.class);
     DidChangeConfigurationHandler didChangeConfigurationHandler = mock(DidChangeConfigurationHandler.class);
     LspMessageBroker lspMessageBroker = new LspMessageBroker();
-    CobolWorkspaceServiceImpl lspEventConsumer = new CobolWorkspaceServiceImpl(lspMessageBroker, executeCommandHandler, didChangeConfigurationHandler, didChangeWatchedFilesHandler);
+    CobolWorkspaceServiceImpl lspEventConsumer = new CobolWorkspaceServiceImpl(lspMessageBroker, executeCommandHandler, didChangeConfigurationHandler, didChangeWatchedFilesHandler, mock(WorkspaceSymbolHandler.class));
     lspEventConsumer.startConsumer();
     CobolLanguageServer server =
             new CobolLanguageServer(
@@ -242,9 +247,9 @@ class CobolLanguageServerTest {
                     null,
                     null,
                     new ExitHandler(stateService),
-                    new ShutdownHandler(stateService, lspMessageBroker),
-                    new InitializeHandler(mock(WatcherServiceImpl.class)),
-                    new InitializedHandler(mock(WatcherServiceImpl.class), null, null, null, null, null, null, null),
+                    new ShutdownHandler(stateService, lspMessageBroker, copybookService),
+                    new InitializeHandler(mock(WatcherServiceImpl.class), new WorkspaceIndex(null)),
+                    new InitializedHandler(mock(WatcherServiceImpl.class), null, null, null, null, null, null, null, null),
                     lspEventConsumer,
                     cancelProgressHandler);
 
@@ -294,7 +299,7 @@ class CobolLanguageServerTest {
     DidChangeWatchedFilesHandler didChangeWatchedFilesHandler = mock(DidChangeWatchedFilesHandler.class);
     DidChangeConfigurationHandler didChangeConfigurationHandler = mock(DidChangeConfigurationHandler.class);
     LspMessageBroker lspMessageBroker = new LspMessageBroker();
-    CobolWorkspaceServiceImpl lspEventConsumer = new CobolWorkspaceServiceImpl(lspMessageBroker, executeCommandHandler, didChangeConfigurationHandler, didChangeWatchedFilesHandler);
+    CobolWorkspaceServiceImpl lspEventConsumer = new CobolWorkspaceServiceImpl(lspMessageBroker, executeCommandHandler, didChangeConfigurationHandler, didChangeWatchedFilesHandler, mock(WorkspaceSymbolHandler.class));
     lspEventConsumer.startConsumer();
 
     CobolLanguageServer server =
@@ -303,9 +308,9 @@ class CobolLanguageServerTest {
                     textDocumentService,
                     null,
                     new ExitHandler(stateService),
-                    new ShutdownHandler(stateService, lspMessageBroker),
-                    new InitializeHandler(null),
-                    new InitializedHandler(null, null, null, null, null, null, null, null),
+                    new ShutdownHandler(stateService, lspMessageBroker, copybookService),
+                    new InitializeHandler(null, new WorkspaceIndex(null)),
+                    new InitializedHandler(null, null, null, null, null, null, null, null, null),
                     lspEventConsumer,
                     cancelProgressHandler);
     assertEquals(1, stateService.getExitCode());
@@ -327,6 +332,8 @@ class CobolLanguageServerTest {
     assertTrue(capabilities.getCodeActionProvider().getLeft());
     assertTrue(capabilities.getDocumentSymbolProvider().getRight().getWorkDoneProgress());
     assertTrue(capabilities.getFoldingRangeProvider().getLeft());
+    assertTrue(capabilities.getSemanticTokensProvider().getFull().getRight().getDelta());
+    assertTrue(capabilities.getSemanticTokensProvider().getRange().getLeft());
     assertEquals(ImmutableList.of(ErrorCodes.MISSING_COPYBOOK.getLabel()),
             capabilities.getExecuteCommandProvider().getCommands());
 
@@ -24,6 +24,7 @@ import org.eclipse.lsp.cobol.common.SubroutineService;
 import org.eclipse.lsp.cobol.common.copybook.CopybookService;
 import org.eclipse.lsp.cobol.common.dialects.TrueDialectService;
 import org.eclipse.lsp.cobol.lsp.*;
+import org.eclipse.lsp.cobol.lsp.analysis.AnalysisScheduler;
 import org.eclipse.lsp.cobol.lsp.analysis.AsyncAnalysisService;
 import org.eclipse.lsp.cobol.lsp.events.notifications.DidChangeNotification;
 import org.eclipse.lsp.cobol.lsp.events.queries.CompletionQuery;
@@ -38,6 +39,9 @@ import org.eclipse.lsp.cobol.service.delegates.completions.Completions;
 import org.eclipse.lsp.cobol.service.delegates.formations.Formations;
 import org.eclipse.lsp.cobol.service.delegates.hover.HoverProvider;
 import org.eclipse.lsp.cobol.service.delegates.references.Occurrences;
+import org.eclipse.lsp.cobol.service.delegates.semantictokens.SemanticTokensProvider;
+import org.eclipse.lsp.cobol.service.memory.AnalysisMemoryManager;
+import org.eclipse.lsp.cobol.service.metrics.MetricsService;
 import org.eclipse.lsp4j.*;
 import org.eclipse.lsp4j.services.TextDocumentService;
 import org.junit.jupiter.api.AfterEach;
@@ -94,7 +98,7 @@ class CobolTextDocumentServiceTest {
     DisposableLSPStateService disposableLSPStateService = new CobolLSPServerStateService();
     CopybookService copybookService = mock(CopybookService.class);
     SubroutineService subroutineService = mock(SubroutineService.class);
-    AsyncAnalysisService asyncAnalysisService = new AsyncAnalysisService(mock(TrueDialectService.class), documentModelService, analysisService, copybookService, subroutineService, communications);
+    AsyncAnalysisService asyncAnalysisService = new AsyncAnalysisService(mock(TrueDialectService.class), documentModelService, analysisService, copybookService, subroutineService, communications, new AnalysisScheduler());
 
     CompletionHandler completionHandler = new CompletionHandler(asyncAnalysisService, completions, documentModelService);
     FormattingHandler formattingHandler = new FormattingHandler(documentModelService, formations, asyncAnalysisService);
@@ -102,8 +106,8 @@ class CobolTextDocumentServiceTest {
     CodeActionHandler codeActionHandler = new CodeActionHandler(actions);
     AnalysisHandler analysisHandler = new AnalysisHandler(asyncAnalysisService, analysisService, builder, communications, documentModelService);
 
-    DidOpenHandler didOpenHandler = new DidOpenHandler(asyncAnalysisService, watcherService);
-    DidCloseHandler didCloseHandler = new DidCloseHandler(disposableLSPStateService, asyncAnalysisService, documentModelService, watcherService, copybookService, documentGraph);
+    DidOpenHandler didOpenHandler = new DidOpenHandler(asyncAnalysisService, watcherService, mock(AnalysisMemoryManager.class));
+    DidCloseHandler didCloseHandler = new DidCloseHandler(disposableLSPStateService, asyncAnalysisService, documentModelService, watcherService, copybookService, documentGraph, mock(AnalysisMemoryManager.class), new SemanticTokensProvider());
     DidChangeHandler didChangeHandler = new DidChangeHandler(asyncAnalysisService, documentGraph);
     DefinitionHandler definitionHandler = new DefinitionHandler(asyncAnalysisService, documentModelService, occurrences);
     DocumentSymbolHandler documentSymbolHandler = new DocumentSymbolHandler(asyncAnalysisService, analysisService, documentModelService);
@@ -126,7 +130,9 @@ class CobolTextDocumentServiceTest {
             documentHighlightHandler,
             referencesHandler,
             hoverHandler,
-            foldingRangeHandler);
+            foldingRangeHandler,
+            new SemanticTokensHandler(documentModelService, asyncAnalysisService, analysisService, new SemanticTokensProvider()),
+            mock(MetricsService.class));
   }
 
   @AfterEach
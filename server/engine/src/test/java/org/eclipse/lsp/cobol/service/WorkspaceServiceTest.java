@@ -37,7 +37,9 @@ import org.eclipse.lsp.cobol.lsp.handlers.text.CodeActionHandler;
 import org.eclipse.lsp.cobol.lsp.handlers.workspace.DidChangeConfigurationHandler;
 import org.eclipse.lsp.cobol.lsp.handlers.workspace.DidChangeWatchedFilesHandler;
 import org.eclipse.lsp.cobol.lsp.handlers.workspace.ExecuteCommandHandler;
+import org.eclipse.lsp.cobol.lsp.handlers.workspace.WorkspaceSymbolHandler;
 import org.eclipse.lsp.cobol.service.copybooks.CopybookNameService;
+import org.eclipse.lsp.cobol.service.settings.ConfigurationService;
 import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
 import org.eclipse.lsp.cobol.test.engine.UseCaseUtils;
 import org.eclipse.lsp4j.*;
@@ -76,7 +78,7 @@ class WorkspaceServiceTest {
             null,
             null,
             messageService,
-            asyncAnalysisService, getMockLayoutStore(), copybookService);
+            asyncAnalysisService, getMockLayoutStore(), copybookService, mock(ConfigurationService.class));
     ExecuteCommandHandler executeCommandHandler = new ExecuteCommandHandler(stateService, asyncAnalysisService);
     DidChangeWatchedFilesHandler didChangeWatchedFilesHandler = mock(DidChangeWatchedFilesHandler.class);
 
@@ -85,7 +87,8 @@ class WorkspaceServiceTest {
             lspMessageBroker,
             executeCommandHandler,
             didChangeConfigurationHandler,
-            didChangeWatchedFilesHandler);
+            didChangeWatchedFilesHandler,
+            mock(WorkspaceSymbolHandler.class));
     ((LspEventConsumer) service).startConsumer();
     CompletableFuture<Object> result =
         service.executeCommand(
@@ -120,7 +123,7 @@ class WorkspaceServiceTest {
             null,
             null,
             null,
-            asyncAnalysisService, getMockLayoutStore(), copybookService);
+            asyncAnalysisService, getMockLayoutStore(), copybookService, mock(ConfigurationService.class));
     ExecuteCommandHandler executeCommandHandler = new ExecuteCommandHandler(stateService, asyncAnalysisService);
     DidChangeWatchedFilesHandler didChangeWatchedFilesHandler = mock(DidChangeWatchedFilesHandler.class);
 
@@ -129,7 +132,8 @@ class WorkspaceServiceTest {
             lspMessageBroker,
             executeCommandHandler,
             didChangeConfigurationHandler,
-            didChangeWatchedFilesHandler);
+            didChangeWatchedFilesHandler,
+            mock(WorkspaceSymbolHandler.class));
     ((LspEventConsumer) service).startConsumer();
 
     CompletableFuture<Object> result =
@@ -167,7 +171,8 @@ class WorkspaceServiceTest {
             lspMessageBroker,
             executeCommandHandler,
             didChangeConfigurationHandler,
-            didChangeWatchedFilesHandler);
+            didChangeWatchedFilesHandler,
+            mock(WorkspaceSymbolHandler.class));
     ((LspEventConsumer) workspaceService).startConsumer();
     doNothing().when(didChangeConfigurationHandler).didChangeConfiguration(any(DidChangeConfigurationParams.class));
     DidChangeConfigurationParams didChangeConfigurationParams = new DidChangeConfigurationParams(new Object());
@@ -219,7 +224,7 @@ class WorkspaceServiceTest {
 
     DidChangeConfigurationHandler didChangeConfigurationHandler =
         new DidChangeConfigurationHandler(
-            stateService, null, copybookNameService, null, null, null, null, asyncAnalysisService, getMockLayoutStore(), copybookService);
+            stateService, null, copybookNameService, null, null, null, null, asyncAnalysisService, getMockLayoutStore(), copybookService, mock(ConfigurationService.class));
 
     ExecuteCommandHandler executeCommandHandler =
         new ExecuteCommandHandler(stateService, asyncAnalysisService);
@@ -231,7 +236,8 @@ class WorkspaceServiceTest {
             lspMessageBroker,
             executeCommandHandler,
             didChangeConfigurationHandler,
-            didChangeWatchedFilesHandler);
+            didChangeWatchedFilesHandler,
+            mock(WorkspaceSymbolHandler.class));
 
     ((LspEventConsumer) service).startConsumer();
     DidChangeWatchedFilesParams params = new DidChangeWatchedFilesParams(singletonList(event));
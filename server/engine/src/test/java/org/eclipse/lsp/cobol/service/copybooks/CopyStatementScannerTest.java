@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.copybooks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link CopyStatementScanner} */
+class CopyStatementScannerTest {
+
+  @Test
+  void testCopyStatementsFound() {
+    String text = "       COPY CPY1.\n"
+        + "       COPY \"CPY-2\" REPLACING ==A== BY ==B==.\n"
+        + "           EXEC SQL INCLUDE SQLCA END-EXEC.\n"
+        + "      ++INCLUDE CPY3\n"
+        + "       copy cpy1.\n"
+        + "       COPY CPY4 OF LIB.\n"
+        + "       MOVE NOCOPY TO COPY-FIELD.\n";
+
+    assertEquals(ImmutableList.of("CPY1", "CPY-2", "SQLCA", "CPY3", "cpy1"), scan(text));
+  }
+
+  @Test
+  void testIdmsAndMaidCopyStatementsSkipped() {
+    String text = "       COPY IDMS SUBSCHEMA-NAMES.\n"
+        + "       COPY IDMS RECORD EMPLOYEE.\n"
+        + "       COPY MAID CPY1.\n"
+        + "       COPY IDMS.\n"
+        + "       COPY CPY2.\n";
+
+    assertEquals(ImmutableList.of("IDMS", "CPY2"), scan(text));
+  }
+
+  private static List<String> scan(String text) {
+    return new ArrayList<>(CopyStatementScanner.scan(text)).stream()
+        .map(CopybookName::getDisplayName)
+        .collect(Collectors.toList());
+  }
+}
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.Optional;
 import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
 import org.eclipse.lsp.cobol.common.ResultWithErrors;
 import org.eclipse.lsp.cobol.common.copybook.*;
@@ -40,6 +41,7 @@ import org.eclipse.lsp.cobol.common.mapping.OriginalLocation;
 import org.eclipse.lsp.cobol.common.utils.PredefinedCopybooks;
 import org.eclipse.lsp.cobol.lsp.jrpc.CobolLanguageClient;
 import org.eclipse.lsp.cobol.service.providers.ClientProvider;
+import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -528,11 +530,84 @@ class CopybookServiceTest {
     assertTrue(copybookService.getCopybooksForDownloading().isEmpty());
   }
 
+  /**
+   * Test that the copybooks found in the program text and in the prefetched copybooks are resolved
+   * ahead, so the following resolve calls do not request the client again.
+   */
+  @Test
+  void testPrefetchResolvesNestedCopybooksAhead() {
+    when(client.resolveCopybook(DOCUMENT_URI, PARENT_CPY_NAME, "COBOL"))
+        .thenReturn(completedFuture(PARENT_CPY_URI));
+    when(client.resolveCopybook(DOCUMENT_URI, "NESTED", "COBOL"))
+        .thenReturn(completedFuture(VALID_CPY_URI));
+    when(files.getPathFromURI(PARENT_CPY_URI)).thenReturn(parentPath);
+    when(files.getContentByPath(parentPath)).thenReturn(PARENT_CONTENT);
+    CopybookServiceImpl copybookService = createCopybookService();
+
+    copybookService.prefetch(DOCUMENT_URI, "       COPY PARENT.\n       COPY 'INVALID'.", null);
+
+    CopybookName parent = createCopybook(PARENT_CPY_NAME);
+    CopybookName nested = createCopybook("NESTED");
+    assertEquals(PARENT_CONTENT,
+        copybookService.resolve(parent.toCopybookId(DOCUMENT_URI), parent, DOCUMENT_URI, DOCUMENT_URI, null)
+            .getResult().getContent());
+    assertEquals(CONTENT,
+        copybookService.resolve(nested.toCopybookId(DOCUMENT_URI), nested, DOCUMENT_URI, PARENT_CPY_URI, null)
+            .getResult().getContent());
+    verify(client, times(1)).resolveCopybook(DOCUMENT_URI, PARENT_CPY_NAME, "COBOL");
+    verify(client, times(1)).resolveCopybook(DOCUMENT_URI, "NESTED", "COBOL");
+    verify(client, times(1)).resolveCopybook(DOCUMENT_URI, INVALID_CPY_NAME, "COBOL");
+    assertTrue(copybookService.getCopybooksForDownloading().isEmpty());
+  }
+
+  /**
+   * Test the copybooks resolved for a detached analysis are not added to the program usage, and the missing ones are
+   * neither registered for downloading nor cached, so the analysis of the opened program still registers them.
+   */
+  @Test
+  void testDetachedResolutionDoesNotRegisterCopybooks() {
+    CopybookServiceImpl copybookService = createCopybookService();
+    CopybookName valid = createCopybook(VALID_CPY_NAME);
+    CopybookName invalid = createCopybook(INVALID_CPY_NAME);
+
+    assertEquals(CONTENT,
+        copybookService.resolveDetached(valid.toCopybookId(DOCUMENT_URI), valid, DOCUMENT_URI, DOCUMENT_URI, null)
+            .getResult().getContent());
+    assertNull(copybookService.resolveDetached(invalid.toCopybookId(DOCUMENT_URI), invalid, DOCUMENT_URI,
+        DOCUMENT_URI, null).getResult().getUri());
+
+    assertTrue(copybookService.getCopybookUsage(DOCUMENT_URI).isEmpty());
+    assertTrue(copybookService.getCopybooksForDownloading().isEmpty());
+
+    copybookService.resolve(invalid.toCopybookId(DOCUMENT_URI), invalid, DOCUMENT_URI, DOCUMENT_URI, null);
+    assertEquals(1, copybookService.getCopybooksForDownloading().size());
+    copybookService.resolve(valid.toCopybookId(DOCUMENT_URI), valid, DOCUMENT_URI, DOCUMENT_URI, null);
+    verify(client, times(1)).resolveCopybook(DOCUMENT_URI, VALID_CPY_NAME, "COBOL");
+  }
+
+  /**
+   * Test that the copybooks are not prefetched after the service is shut down, so they are left for
+   * the regular resolution.
+   */
+  @Test
+  void testPrefetchAfterShutdownLeavesCopybooksForResolution() {
+    CopybookServiceImpl copybookService = createCopybookService();
+    copybookService.shutdown();
+
+    copybookService.prefetch(DOCUMENT_URI, "       COPY " + VALID_CPY_NAME + ".", null);
+    verify(client, never()).resolveCopybook(DOCUMENT_URI, VALID_CPY_NAME, "COBOL");
+
+    CopybookName valid = createCopybook(VALID_CPY_NAME);
+    assertEquals(CONTENT,
+        copybookService.resolve(valid.toCopybookId(DOCUMENT_URI), valid, DOCUMENT_URI, DOCUMENT_URI, null)
+            .getResult().getContent());
+  }
+
   private CopybookServiceImpl createCopybookService() {
     ClientProvider provider = new ClientProvider();
     provider.setClient(client);
     return new CopybookServiceImpl(
-        provider, files, new CopybookCache(3, 3, "HOURS"));
+        provider, files, new CopybookCache(3, 3, "HOURS"), new PersistentCopybookCache(null, new CodeLayoutStore(), 3));
   }
 
   private CopybookName createCopybook(String displayName) {
@@ -576,6 +651,49 @@ class CopybookServiceTest {
     assertEquals(CONTENT, resolve.getContent());
   }
 
+  @Test
+  void testContentHash() {
+    CopybookServiceImpl copybookService = createCopybookService();
+    CopybookName copybookName = createCopybook(VALID_CPY_NAME);
+    CopybookId copybookId = CopybookId.fromString(VALID_CPY_NAME);
+    assertFalse(copybookService.getContentHash(copybookId, null).isPresent());
+
+    copybookService.store(new CopybookModel(copybookId, copybookName, VALID_CPY_URI, CONTENT));
+    String hash = copybookService.getContentHash(copybookId, VALID_CPY_URI).orElse(null);
+    assertNotNull(hash);
+    assertEquals(Optional.of(hash), copybookService.getContentHash(copybookId, VALID_CPY_URI));
+
+    copybookService.store(new CopybookModel(copybookId, copybookName, VALID_CPY_URI, CONTENT + " "));
+    assertNotEquals(Optional.of(hash), copybookService.getContentHash(copybookId, VALID_CPY_URI));
+
+    copybookService.store(new CopybookModel(copybookId, copybookName, null, null));
+    assertFalse(copybookService.getContentHash(copybookId, VALID_CPY_URI).isPresent());
+  }
+
+  /**
+   * Test that the hash of a copybook that is no longer cached is computed from its file, so it is
+   * the same as the hash of the cleaned up copybook before the cache invalidation
+   */
+  @Test
+  void testContentHashAfterInvalidation() {
+    when(preprocessor.cleanUpCode(VALID_CPY_URI, CONTENT))
+        .thenReturn(new ResultWithErrors<>(new ExtendedText("cleaned", VALID_CPY_URI), ImmutableList.of()));
+    CopybookServiceImpl copybookService = createCopybookService();
+    CopybookName copybookName = createCopybook(VALID_CPY_NAME);
+    CopybookId copybookId = copybookName.toCopybookId(DOCUMENT_URI);
+    copybookService.resolve(copybookId, copybookName, DOCUMENT_URI, DOCUMENT_URI, preprocessor);
+    String hash = copybookService.getContentHash(copybookId, VALID_CPY_URI).orElse(null);
+    assertNotNull(hash);
+
+    copybookService.invalidateCache(true);
+    assertEquals(Optional.of(hash), copybookService.getContentHash(copybookId, VALID_CPY_URI));
+
+    when(files.getContentByPath(cpyPath)).thenReturn(CONTENT + " ");
+    assertNotEquals(Optional.of(hash), copybookService.getContentHash(copybookId, VALID_CPY_URI));
+    when(files.fileExists(cpyPath)).thenReturn(false);
+    assertFalse(copybookService.getContentHash(copybookId, VALID_CPY_URI).isPresent());
+  }
+
   @Test
   void whenErrorInPreprocessOfCopybook_thenResolveReturnsPreprocessErrors() {
     CopybookName copybookName = createCopybook(VALID_CPY_NAME);
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.copybooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.lsp.cobol.common.CleanerPreprocessor;
+import org.eclipse.lsp.cobol.common.ResultWithErrors;
+import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
+import org.eclipse.lsp.cobol.common.copybook.CopybookName;
+import org.eclipse.lsp.cobol.common.error.ErrorCodes;
+import org.eclipse.lsp.cobol.common.error.ErrorSeverity;
+import org.eclipse.lsp.cobol.common.error.ErrorSource;
+import org.eclipse.lsp.cobol.common.error.SyntaxError;
+import org.eclipse.lsp.cobol.common.file.FileSystemService;
+import org.eclipse.lsp.cobol.common.mapping.ExtendedText;
+import org.eclipse.lsp.cobol.common.mapping.OriginalLocation;
+import org.eclipse.lsp.cobol.common.message.MessageTemplate;
+import org.eclipse.lsp.cobol.service.providers.ClientProvider;
+import org.eclipse.lsp.cobol.service.settings.layout.CodeLayoutStore;
+import org.eclipse.lsp4j.DiagnosticRelatedInformation;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Test {@link PersistentCopybookCache} */
+class PersistentCopybookCacheTest {
+  private static final String URI = "file:///c:/workspace/.c4z/.copybooks/CPY.CPY";
+  private static final String CONTENT = "       01 A PIC 9.";
+  private static final String CLEANER = "cleaner";
+
+  @TempDir Path cacheFolder;
+
+  @Test
+  void testEntryRoundTrip() {
+    PersistentCopybookCache cache = new PersistentCopybookCache(cacheFolder, new CodeLayoutStore(), 3);
+    SyntaxError error = SyntaxError.syntaxError()
+        .suggestion("Unclosed string")
+        .severity(ErrorSeverity.ERROR)
+        .errorSource(ErrorSource.PREPROCESSING)
+        .location(new OriginalLocation(new Location(URI, new Range(new Position(0, 1), new Position(0, 5))), "CPY"))
+        .build();
+    cache.save(URI, CONTENT, "COBOL", CLEANER, new ResultWithErrors<>("01 A PIC 9.", ImmutableList.of(error)));
+
+    ResultWithErrors<String> loaded = new PersistentCopybookCache(cacheFolder, new CodeLayoutStore(), 3)
+        .load(URI, CONTENT, "COBOL", CLEANER).orElseThrow(AssertionError::new);
+
+    assertEquals("01 A PIC 9.", loaded.getResult());
+    assertEquals(ImmutableList.of(error), loaded.getErrors());
+  }
+
+  @Test
+  void testKeyComponentsInvalidateEntry() {
+    PersistentCopybookCache cache = new PersistentCopybookCache(cacheFolder, new CodeLayoutStore(), 3);
+    cache.save(URI, CONTENT, "COBOL", CLEANER, new ResultWithErrors<>("01 A PIC 9.", Collections.emptyList()));
+
+    assertTrue(cache.load(URI, CONTENT, "COBOL", CLEANER).isPresent());
+    assertFalse(cache.load(URI, CONTENT + " ", "COBOL", CLEANER).isPresent());
+    assertFalse(cache.load(URI, CONTENT, "IDMS", CLEANER).isPresent());
+    assertFalse(cache.load(URI, CONTENT, "COBOL", "other").isPresent());
+    assertFalse(cache.load(URI + "2", CONTENT, "COBOL", CLEANER).isPresent());
+  }
+
+  @Test
+  void testMessageTemplateAndErrorCodeRoundTrip() {
+    PersistentCopybookCache cache = new PersistentCopybookCache(cacheFolder, new CodeLayoutStore(), 3);
+    SyntaxError error = SyntaxError.syntaxError()
+        .messageTemplate(MessageTemplate.of("preprocessor.lineLength", "CPY", 80, MessageTemplate.of("nested")))
+        .errorCode(ErrorCodes.MISSING_COPYBOOK)
+        .severity(ErrorSeverity.WARNING)
+        .build();
+    cache.save(URI, CONTENT, "COBOL", CLEANER, new ResultWithErrors<>("text", ImmutableList.of(error)));
+
+    ResultWithErrors<String> loaded = cache.load(URI, CONTENT, "COBOL", CLEANER).orElseThrow(AssertionError::new);
+
+    assertEquals(ImmutableList.of(error), loaded.getErrors());
+  }
+
+  @Test
+  void testNotStorableErrorsAreSkipped() {
+    PersistentCopybookCache cache = new PersistentCopybookCache(cacheFolder, new CodeLayoutStore(), 3);
+    SyntaxError error = SyntaxError.syntaxError()
+        .relatedInformation(new DiagnosticRelatedInformation(new Location(URI, new Range()), "related"))
+        .build();
+    cache.save(URI, CONTENT, "COBOL", CLEANER, new ResultWithErrors<>("text", ImmutableList.of(error)));
+
+    assertFalse(cache.load(URI, CONTENT, "COBOL", CLEANER).isPresent());
+  }
+
+  @Test
+  void testDisabledCache() {
+    PersistentCopybookCache cache = new PersistentCopybookCache(null, new CodeLayoutStore(), 3);
+    cache.save(URI, CONTENT, "COBOL", CLEANER, new ResultWithErrors<>("text", Collections.emptyList()));
+
+    assertFalse(cache.isEnabled());
+    assertEquals(Optional.empty(), cache.load(URI, CONTENT, "COBOL", CLEANER));
+  }
+
+  @Test
+  void testLeastRecentlyUsedEntriesArePruned() throws IOException {
+    PersistentCopybookCache cache = new PersistentCopybookCache(cacheFolder, new CodeLayoutStore(), 2);
+    ResultWithErrors<String> cleaned = new ResultWithErrors<>("text", Collections.emptyList());
+    cache.save(URI + "1", CONTENT, "COBOL", CLEANER, cleaned);
+    cache.save(URI + "2", CONTENT, "COBOL", CLEANER, cleaned);
+    try (Stream<Path> entries = Files.list(cacheFolder)) {
+      for (Path entry : entries.collect(Collectors.toList())) {
+        Files.setLastModifiedTime(entry, FileTime.fromMillis(0));
+      }
+    }
+    assertTrue(cache.load(URI + "2", CONTENT, "COBOL", CLEANER).isPresent());
+    cache.save(URI + "3", CONTENT, "COBOL", CLEANER, cleaned);
+
+    assertFalse(cache.load(URI + "1", CONTENT, "COBOL", CLEANER).isPresent());
+    assertTrue(cache.load(URI + "2", CONTENT, "COBOL", CLEANER).isPresent());
+    assertTrue(cache.load(URI + "3", CONTENT, "COBOL", CLEANER).isPresent());
+    try (Stream<Path> files = Files.list(cacheFolder)) {
+      assertEquals(2, files.count());
+    }
+  }
+
+  @Test
+  void testWarmStartSkipsCleanup() {
+    FileSystemService files = mock(FileSystemService.class);
+    CleanerPreprocessor preprocessor = mock(CleanerPreprocessor.class);
+    ExtendedText cleaned = mock(ExtendedText.class);
+    when(cleaned.toString()).thenReturn("01 A PIC 9.");
+    when(preprocessor.cleanUpCode(URI, CONTENT)).thenReturn(new ResultWithErrors<>(cleaned, Collections.emptyList()));
+    CopybookName name = new CopybookName("CPY");
+    CopybookModel model = new CopybookModel(name.toCopybookId(URI), name, URI, CONTENT);
+
+    createService(files).store(model, preprocessor);
+    createService(files).store(model, preprocessor);
+
+    verify(preprocessor, times(1)).cleanUpCode(any(), any());
+  }
+
+  private CopybookServiceImpl createService(FileSystemService files) {
+    return new CopybookServiceImpl(new ClientProvider(), files, new CopybookCache(3, 3, "HOURS"),
+        new PersistentCopybookCache(cacheFolder, new CodeLayoutStore(), 3));
+  }
+}
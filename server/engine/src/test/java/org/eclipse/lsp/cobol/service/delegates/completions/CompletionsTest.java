@@ -25,6 +25,7 @@ import static org.eclipse.lsp.cobol.service.delegates.completions.CompletionOrde
 import static org.eclipse.lsp.cobol.service.delegates.completions.CompletionOrder.VARIABLES;
 import static org.eclipse.lsp.cobol.service.delegates.completions.MockCompletionModel.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * This test checks the logic of completion support. It retrieves the token by the given position
@@ -46,6 +47,20 @@ class CompletionsTest {
     assertThat(actual.getItems(), Matchers.containsInAnyOrder(createExpected()));
   }
 
+  @Test
+  void testTooManyItemsAreTruncatedInOrder() {
+    Completions completions =
+        new Completions(ImmutableSet.of(new CopybookCompletion(), new VariableCompletion(REPO)), 2);
+    CompletionList actual =
+        completions.collectFor(
+            new CobolDocumentModel("", "Lorem ipsum dolor c amet", RESULT),
+            new CompletionParams(new TextDocumentIdentifier(""), new Position(0, 19)));
+    assertTrue(actual.isIncomplete());
+    assertThat(actual.getItems(), Matchers.contains(
+        createItem("ConstD2", CompletionItemKind.Variable, VARIABLES, "sys IS ConstD2."),
+        createItem("constD1", CompletionItemKind.Variable, VARIABLES, "sys IS constD1.")));
+  }
+
   private CompletionItem[] createExpected() {
     return new CompletionItem[] {
       createItem("cpyU1", CompletionItemKind.Class, COPYBOOKS),
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.delegates.completions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link PrefixIndex} */
+class PrefixIndexTest {
+  private final PrefixIndex<String> index =
+      PrefixIndex.of(ImmutableList.of("move", "MOVE-CORR", "Add", "ACCEPT", "ADDRESS", "add"), Function.identity());
+
+  @Test
+  void testFindIgnoresCase() {
+    assertEquals(ImmutableList.of("Add", "add", "ADDRESS"), index.find("aDd"));
+    assertEquals(ImmutableList.of("move", "MOVE-CORR"), index.find("Mo"));
+  }
+
+  @Test
+  void testEmptyPrefixReturnsAllSorted() {
+    assertEquals(ImmutableList.of("ACCEPT", "Add", "add", "ADDRESS", "move", "MOVE-CORR"), index.find(""));
+  }
+
+  @Test
+  void testLimit() {
+    assertEquals(ImmutableList.of("ACCEPT", "Add"), index.find("A", 2));
+  }
+
+  @Test
+  void testNoMatch() {
+    assertTrue(index.find("ZERO").isEmpty());
+    assertTrue(index.find("MOVES").isEmpty());
+    assertTrue(PrefixIndex.of(ImmutableList.<String>of(), Function.identity()).find("A").isEmpty());
+  }
+}
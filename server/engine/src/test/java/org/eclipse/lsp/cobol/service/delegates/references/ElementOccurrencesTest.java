@@ -31,6 +31,7 @@ import org.eclipse.lsp.cobol.common.model.tree.variables.MnemonicNameNode;
 import org.eclipse.lsp.cobol.core.semantics.CopybooksRepository;
 import org.eclipse.lsp.cobol.lsp.SourceUnitGraph;
 import org.eclipse.lsp.cobol.service.CobolDocumentModel;
+import org.eclipse.lsp.cobol.service.index.WorkspaceIndex;
 import org.eclipse.lsp4j.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -177,7 +178,7 @@ class ElementOccurrencesTest {
     CobolDocumentModel cobolDocumentModel = new CobolDocumentModel(URI, "", analysisResult);
     TextDocumentPositionParams textDocumentPositionParams =
         new TextDocumentPositionParams(new TextDocumentIdentifier(URI), insideUsage);
-    ElementOccurrences elementOccurrences = new ElementOccurrences(documentGraph);
+    ElementOccurrences elementOccurrences = new ElementOccurrences(documentGraph, new WorkspaceIndex(null));
     assertEquals(
         ImmutableList.of(definition),
         elementOccurrences.findDefinitions(cobolDocumentModel, textDocumentPositionParams));
@@ -213,7 +214,7 @@ class ElementOccurrencesTest {
     rootNode.addChild(variableUsageNodeInOtherFile);
     AnalysisResult analysisResult = AnalysisResult.builder().rootNode(rootNode).build();
     List<DocumentHighlight> highlights =
-        new ElementOccurrences(documentGraph)
+        new ElementOccurrences(documentGraph, new WorkspaceIndex(null))
             .findHighlights(
                 analysisResult,
                 new TextDocumentPositionParams(new TextDocumentIdentifier(URI), insideUsage));
@@ -231,7 +232,7 @@ class ElementOccurrencesTest {
     SourceUnitGraph documentGraph = mock(SourceUnitGraph.class);
     when(documentGraph.isUserSuppliedCopybook(anyString())).thenReturn(false);
     List<Location> actualLocations =
-        new ElementOccurrences(documentGraph)
+        new ElementOccurrences(documentGraph, new WorkspaceIndex(null))
             .findReferences(
                 new CobolDocumentModel(URI, "", analysisResult),
                 new TextDocumentPositionParams(new TextDocumentIdentifier(URI), position),
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.delegates.semantictokens;
+
+import static org.eclipse.lsp.cobol.test.engine.UseCaseUtils.DOCUMENT_URI;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.test.CobolText;
+import org.eclipse.lsp.cobol.test.engine.UseCase;
+import org.eclipse.lsp.cobol.test.engine.UseCaseUtils;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensEdit;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.junit.jupiter.api.Test;
+
+/** This test checks the semantic tokens that {@link SemanticTokensProvider} builds from the syntax tree */
+class SemanticTokensProviderTest {
+  private static final String TEXT =
+      "       IDENTIFICATION DIVISION.\n"
+          + "       PROGRAM-ID. TEST1.\n"
+          + "       DATA DIVISION.\n"
+          + "       WORKING-STORAGE SECTION.\n"
+          + "       01 PARENT.\n"
+          + "          05 CHILD PIC 9.\n"
+          + "       COPY BOOK.\n"
+          + "       PROCEDURE DIVISION.\n"
+          + "       MAIN-LINE.\n"
+          + "           MOVE FUNCTION LENGTH(PARENT) TO CHILD.\n"
+          + "           PERFORM MAIN-LINE.\n"
+          + "           GOBACK.";
+
+  private static final String CHANGED_TEXT = TEXT.replace("MOVE FUNCTION LENGTH(PARENT) TO CHILD", "MOVE 1 TO CHILD");
+
+  private static final List<CobolText> COPYBOOKS =
+      ImmutableList.of(new CobolText("BOOK", "       01 BOOK-ITEM PIC X."));
+
+  private final SemanticTokensProvider provider = new SemanticTokensProvider();
+
+  @Test
+  void testFullTokens() {
+    SemanticTokens tokens = provider.full(DOCUMENT_URI, analyze(TEXT));
+
+    assertEquals(
+        ImmutableList.of(
+            "PARENT variable declaration",
+            "CHILD variable declaration",
+            "BOOK macro",
+            "MAIN-LINE function declaration",
+            "LENGTH function defaultLibrary",
+            "PARENT variable",
+            "CHILD variable",
+            "MAIN-LINE function"),
+        decode(TEXT, tokens.getData()));
+  }
+
+  @Test
+  void testTokensAreCachedForTheSameResult() {
+    AnalysisResult result = analyze(TEXT);
+    SemanticTokens first = provider.full(DOCUMENT_URI, result);
+    SemanticTokens second = provider.full(DOCUMENT_URI, result);
+
+    assertEquals(first.getResultId(), second.getResultId());
+    assertSame(first.getData(), second.getData());
+  }
+
+  @Test
+  void testDeltaContainsOnlyTheChangedSpan() {
+    SemanticTokens previous = provider.full(DOCUMENT_URI, analyze(TEXT));
+    SemanticTokens expected = new SemanticTokensProvider().full(DOCUMENT_URI, analyze(CHANGED_TEXT));
+
+    Either<SemanticTokens, SemanticTokensDelta> delta =
+        provider.fullDelta(DOCUMENT_URI, analyze(CHANGED_TEXT), previous.getResultId());
+
+    assertTrue(delta.isRight());
+    assertNotEquals(previous.getResultId(), delta.getRight().getResultId());
+    List<SemanticTokensEdit> edits = delta.getRight().getEdits();
+    assertEquals(1, edits.size());
+    assertTrue(edits.get(0).getDeleteCount() < previous.getData().size());
+    assertEquals(expected.getData(), apply(previous.getData(), edits.get(0)));
+  }
+
+  @Test
+  void testUnknownPreviousResultGivesFullTokens() {
+    AnalysisResult result = analyze(TEXT);
+    Either<SemanticTokens, SemanticTokensDelta> delta = provider.fullDelta(DOCUMENT_URI, result, "unknown");
+
+    assertTrue(delta.isLeft());
+    assertEquals(provider.full(DOCUMENT_URI, result).getData(), delta.getLeft().getData());
+  }
+
+  @Test
+  void testRangeTokens() {
+    SemanticTokens tokens =
+        provider.range(DOCUMENT_URI, analyze(TEXT), new Range(new Position(8, 0), new Position(10, 0)));
+
+    assertEquals(
+        ImmutableList.of(
+            "MAIN-LINE function declaration",
+            "LENGTH function defaultLibrary",
+            "PARENT variable",
+            "CHILD variable"),
+        decode(TEXT, tokens.getData()));
+  }
+
+  private static AnalysisResult analyze(String text) {
+    return UseCaseUtils.analyze(UseCase.builder().text(text).copybooks(COPYBOOKS).build());
+  }
+
+  private static List<String> decode(String text, List<Integer> data) {
+    String[] lines = text.split("\n");
+    List<String> result = new ArrayList<>();
+    int line = 0;
+    int character = 0;
+    for (int i = 0; i < data.size(); i += 5) {
+      character = data.get(i) == 0 ? character + data.get(i + 1) : data.get(i + 1);
+      line += data.get(i);
+      StringBuilder token =
+          new StringBuilder(lines[line].substring(character, character + data.get(i + 2)))
+              .append(' ')
+              .append(SemanticTokensProvider.LEGEND.getTokenTypes().get(data.get(i + 3)));
+      for (int bit = 0; bit < SemanticTokensProvider.LEGEND.getTokenModifiers().size(); bit++) {
+        if ((data.get(i + 4) & (1 << bit)) != 0) {
+          token.append(' ').append(SemanticTokensProvider.LEGEND.getTokenModifiers().get(bit));
+        }
+      }
+      result.add(token.toString());
+    }
+    return result;
+  }
+
+  private static List<Integer> apply(List<Integer> data, SemanticTokensEdit edit) {
+    List<Integer> result = new ArrayList<>(data.subList(0, edit.getStart()));
+    result.addAll(edit.getData());
+    result.addAll(data.subList(edit.getStart() + edit.getDeleteCount(), data.size()));
+    return result;
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.eclipse.lsp.cobol.service.index.IndexedSymbol.Kind;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Test {@link WorkspaceIndex} */
+class WorkspaceIndexTest {
+  private static final String PROGRAM_1 = "file:///c:/workspace/PROG1.cbl";
+  private static final String PROGRAM_2 = "file:///c:/workspace/PROG2.cbl";
+  private static final String COPYBOOK = "file:///c:/workspace/CPY.cpy";
+  private static final String LANGUAGE_ID = "cobol";
+
+  @TempDir Path indexFolder;
+
+  @Test
+  void testFindUsagesAcrossPrograms() {
+    WorkspaceIndex index = new WorkspaceIndex(indexFolder);
+    IndexedSymbol definition = symbol(Kind.VARIABLE, "FIELD", COPYBOOK, true, COPYBOOK, 1);
+    index.update(PROGRAM_1, "1", LANGUAGE_ID, ImmutableList.of(definition, symbol(Kind.VARIABLE, "FIELD", COPYBOOK, false, PROGRAM_1, 10)));
+    index.update(PROGRAM_2, "2", LANGUAGE_ID, ImmutableList.of(definition, symbol(Kind.VARIABLE, "FIELD", PROGRAM_2, false, PROGRAM_2, 20)));
+
+    assertEquals(ImmutableSet.of(definition, symbol(Kind.VARIABLE, "FIELD", COPYBOOK, false, PROGRAM_1, 10)),
+        ImmutableSet.copyOf(index.find(Kind.VARIABLE, "field", COPYBOOK)));
+    assertEquals(3, index.find(Kind.VARIABLE, "FIELD", null).size());
+    assertTrue(index.find(Kind.PARAGRAPH, "FIELD", null).isEmpty());
+  }
+
+  @Test
+  void testUpdateReplacesProgramSymbols() {
+    WorkspaceIndex index = new WorkspaceIndex(indexFolder);
+    index.update(PROGRAM_1, "1", LANGUAGE_ID, ImmutableList.of(symbol(Kind.PARAGRAPH, "OLD", null, true, PROGRAM_1, 1)));
+    index.update(PROGRAM_1, "2", LANGUAGE_ID, ImmutableList.of(symbol(Kind.PARAGRAPH, "NEW", null, true, PROGRAM_1, 1)));
+
+    assertTrue(index.find(Kind.PARAGRAPH, "OLD", null).isEmpty());
+    assertEquals(1, index.find(Kind.PARAGRAPH, "NEW", null).size());
+    assertTrue(index.isUpToDate(PROGRAM_1, "2"));
+    assertFalse(index.isUpToDate(PROGRAM_1, "1"));
+  }
+
+  @Test
+  void testIndexIsRestoredFromDisk() {
+    IndexedSymbol program = symbol(Kind.PROGRAM, "PROG1", null, true, PROGRAM_1, 2);
+    new WorkspaceIndex(indexFolder).update(PROGRAM_1, "1", LANGUAGE_ID, ImmutableList.of(program));
+    new WorkspaceIndex(indexFolder).update(PROGRAM_2, "2", LANGUAGE_ID, ImmutableList.of(symbol(Kind.PROGRAM, "PROG1", null, false, PROGRAM_2, 5)));
+
+    WorkspaceIndex restored = new WorkspaceIndex(indexFolder);
+    restored.awaitLoaded();
+
+    assertTrue(restored.isUpToDate(PROGRAM_1, "1"));
+    assertEquals(Optional.of(LANGUAGE_ID), restored.getLanguageId(PROGRAM_1));
+    assertEquals(ImmutableList.of(program), restored.search("prog", 10));
+    assertEquals(2, restored.find(Kind.PROGRAM, "PROG1", null).size());
+  }
+
+  @Test
+  void testSearchDefinitionsByPrefix() {
+    WorkspaceIndex index = new WorkspaceIndex(indexFolder);
+    IndexedSymbol main = symbol(Kind.SECTION, "MAIN", null, true, PROGRAM_1, 1);
+    IndexedSymbol mainLoop = symbol(Kind.PARAGRAPH, "MAIN-LOOP", null, true, PROGRAM_1, 2);
+    index.update(PROGRAM_1, "1", LANGUAGE_ID, ImmutableList.of(mainLoop, main,
+        symbol(Kind.PARAGRAPH, "MAIN-LOOP", null, false, PROGRAM_1, 3),
+        symbol(Kind.PARAGRAPH, "DOMAIN", null, true, PROGRAM_1, 4)));
+
+    assertEquals(ImmutableList.of(main, mainLoop), index.search("main", 10));
+    assertEquals(ImmutableList.of(main), index.search("MAIN", 1));
+    assertTrue(index.search("AIN", 10).isEmpty());
+  }
+
+  @Test
+  void testRemoveProgram() {
+    WorkspaceIndex index = new WorkspaceIndex(indexFolder);
+    index.update(PROGRAM_1, "1", LANGUAGE_ID, ImmutableList.of(symbol(Kind.SECTION, "MAIN", null, true, PROGRAM_1, 1)));
+    index.remove(PROGRAM_1);
+
+    assertTrue(index.find(Kind.SECTION, "MAIN", null).isEmpty());
+    WorkspaceIndex restored = new WorkspaceIndex(indexFolder);
+    restored.awaitLoaded();
+    assertTrue(restored.getPrograms().isEmpty());
+  }
+
+  @Test
+  void testUpdateWhileLoadingIsNotOverwritten() {
+    new WorkspaceIndex(indexFolder).update(PROGRAM_1, "1", LANGUAGE_ID, ImmutableList.of());
+    new WorkspaceIndex(indexFolder).update(PROGRAM_2, "2", LANGUAGE_ID, ImmutableList.of());
+
+    WorkspaceIndex index = new WorkspaceIndex(indexFolder);
+    index.update(PROGRAM_1, "3", LANGUAGE_ID, ImmutableList.of());
+    index.remove(PROGRAM_2);
+    index.awaitLoaded();
+
+    assertTrue(index.isUpToDate(PROGRAM_1, "3"));
+    assertEquals(ImmutableSet.of(PROGRAM_1), index.getPrograms());
+  }
+
+  @Test
+  void testDisabledIndex() {
+    WorkspaceIndex index = new WorkspaceIndex(null);
+    index.update(PROGRAM_1, "1", LANGUAGE_ID, ImmutableList.of(symbol(Kind.SECTION, "MAIN", null, true, PROGRAM_1, 1)));
+
+    assertFalse(index.isEnabled());
+    assertTrue(index.search("MAIN", 10).isEmpty());
+  }
+
+  private static IndexedSymbol symbol(Kind kind, String name, String scope, boolean definition, String uri, int line) {
+    return new IndexedSymbol(kind, name, scope, definition,
+        new Location(uri, new Range(new Position(line, 7), new Position(line, 7 + name.length()))));
+  }
+}
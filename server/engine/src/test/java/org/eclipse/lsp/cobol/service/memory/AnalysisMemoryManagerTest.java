@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.memory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.lsp.cobol.common.AnalysisResult;
+import org.eclipse.lsp.cobol.common.model.tree.RootNode;
+import org.eclipse.lsp.cobol.common.symbols.SymbolTable;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisResultCache;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisStageCache;
+import org.eclipse.lsp.cobol.core.engine.symbols.SymbolsRepository;
+import org.eclipse.lsp.cobol.service.DocumentModelService;
+import org.eclipse.lsp4j.Diagnostic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link AnalysisMemoryManager} */
+class AnalysisMemoryManagerTest {
+  private static final String FIRST = "file:///c:/workspace/first.cbl";
+  private static final String SECOND = "file:///c:/workspace/second.cbl";
+  // one root node and one diagnostic
+  private static final long RESULT_SIZE = 1000;
+
+  private final DocumentModelService documentModelService = new DocumentModelService();
+  private final AnalysisResultCache resultCache = mock(AnalysisResultCache.class);
+  private final AnalysisStageCache stageCache = mock(AnalysisStageCache.class);
+  private final Map<String, SymbolTable> symbols = new HashMap<>();
+  private final AnalysisMemoryManager manager = new AnalysisMemoryManager(documentModelService, resultCache,
+      stageCache, new SymbolsRepository(symbols), RESULT_SIZE * 3 / 2);
+
+  @BeforeEach
+  void init() {
+    analyze(FIRST);
+    analyze(SECOND);
+  }
+
+  @Test
+  void testResultsWithinBudgetAreKept() {
+    close(FIRST);
+
+    assertEquals(RESULT_SIZE, manager.getRetained());
+    assertEquals(1, manager.getRetainedDocuments());
+    assertNotNull(documentModelService.get(FIRST).getLastAnalysisResult());
+    verify(resultCache, never()).invalidate(FIRST);
+  }
+
+  @Test
+  void testLeastRecentlyClosedResultIsReleased() {
+    close(FIRST);
+    close(SECOND);
+
+    assertEquals(RESULT_SIZE, manager.getRetained());
+    assertEquals(1, manager.getReleased());
+    assertNull(documentModelService.get(FIRST).getLastAnalysisResult());
+    assertNull(documentModelService.get(FIRST).getOutlineResult());
+    assertNotNull(documentModelService.get(SECOND).getLastAnalysisResult());
+    assertFalse(symbols.containsKey(FIRST));
+    assertTrue(symbols.containsKey(SECOND));
+    verify(resultCache).invalidate(FIRST);
+    verify(stageCache).invalidate(FIRST);
+  }
+
+  @Test
+  void testReopenedDocumentIsNotTracked() {
+    close(FIRST);
+    documentModelService.openDocument(FIRST, "", null);
+    manager.documentOpened(FIRST);
+    close(SECOND);
+
+    assertEquals(RESULT_SIZE, manager.getRetained());
+    assertEquals(0, manager.getReleased());
+    assertNotNull(documentModelService.get(FIRST).getLastAnalysisResult());
+  }
+
+  private void analyze(String uri) {
+    documentModelService.openDocument(uri, "", null);
+    SymbolTable symbolTable = new SymbolTable();
+    symbols.put(uri, symbolTable);
+    documentModelService.processAnalysisResult(uri, AnalysisResult.builder()
+        .diagnostics(ImmutableMap.of(uri, ImmutableList.of(new Diagnostic())))
+        .rootNode(new RootNode())
+        .symbolTableMap(ImmutableMap.of(uri, symbolTable))
+        .build(), "");
+  }
+
+  private void close(String uri) {
+    documentModelService.closeDocument(uri);
+    manager.documentClosed(uri);
+  }
+}
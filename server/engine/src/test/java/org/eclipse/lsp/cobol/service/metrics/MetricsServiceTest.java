@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.service.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonObject;
+import java.util.concurrent.ExecutionException;
+import org.eclipse.lsp.cobol.common.benchmark.BenchmarkSession;
+import org.eclipse.lsp.cobol.common.benchmark.Measurement;
+import org.eclipse.lsp.cobol.common.copybook.CopybookId;
+import org.eclipse.lsp.cobol.common.copybook.CopybookModel;
+import org.eclipse.lsp.cobol.core.engine.analysis.AnalysisResultCache;
+import org.eclipse.lsp.cobol.dialects.ibm.ParserStage;
+import org.eclipse.lsp.cobol.lsp.LspMessageBroker;
+import org.eclipse.lsp.cobol.lsp.analysis.AnalysisScheduler;
+import org.eclipse.lsp.cobol.parser.AntlrCobolParser.Prediction;
+import org.eclipse.lsp.cobol.service.copybooks.CopybookCache;
+import org.eclipse.lsp.cobol.service.memory.AnalysisMemoryManager;
+import org.junit.jupiter.api.Test;
+
+/** Test {@link MetricsService} */
+class MetricsServiceTest {
+
+  @Test
+  void testSnapshot() throws ExecutionException {
+    CopybookCache copybookCache = new CopybookCache(10, 1, "HOURS");
+    LspMessageBroker broker = new LspMessageBroker();
+    AnalysisScheduler scheduler = mock(AnalysisScheduler.class);
+    when(scheduler.getCoalescedCount()).thenReturn(3L);
+    AnalysisResultCache resultCache = mock(AnalysisResultCache.class);
+    when(resultCache.getHitCount()).thenReturn(1L);
+    when(resultCache.getMissCount()).thenReturn(3L);
+    AnalysisMemoryManager memoryManager = mock(AnalysisMemoryManager.class);
+    when(memoryManager.getBudget()).thenReturn(1000L);
+    when(memoryManager.getRetained()).thenReturn(200L);
+    MetricsService metricsService = new MetricsService(copybookCache, broker, scheduler, resultCache, memoryManager);
+
+    metricsService.recordAnalysis(session(measurement("Parsing", 2_000_000), measurement("Cleanup", 1_000_000)), "COBOL");
+    BenchmarkSession fallback = session(measurement("Parsing", 4_000_000));
+    when(fallback.attr(ParserStage.PREDICTION_ATTRIBUTE)).thenReturn(Prediction.LL_FALLBACK.name());
+    metricsService.recordAnalysis(fallback, "COBOL");
+    CopybookId id = CopybookId.fromString("CPY");
+    copybookCache.get(id, () -> mock(CopybookModel.class));
+    copybookCache.get(id, () -> mock(CopybookModel.class));
+    broker.notify(() -> { });
+
+    JsonObject snapshot = metricsService.snapshot();
+
+    JsonObject parsing = snapshot.getAsJsonObject("stages").getAsJsonObject("Parsing");
+    assertEquals(2, parsing.get("count").getAsLong());
+    assertEquals(3.0, parsing.get("mean").getAsDouble());
+    assertEquals(4.0, parsing.get("max").getAsDouble());
+    assertEquals(1, snapshot.getAsJsonObject("stages").getAsJsonObject("Cleanup").get("count").getAsLong());
+    assertEquals(2, snapshot.getAsJsonObject("dialects").getAsJsonObject("COBOL").get("count").getAsLong());
+    assertEquals(3.5, snapshot.getAsJsonObject("dialects").getAsJsonObject("COBOL").get("mean").getAsDouble());
+    assertEquals(1, snapshot.getAsJsonObject("copybookCache").get("hits").getAsLong());
+    assertEquals(1, snapshot.getAsJsonObject("copybookCache").get("misses").getAsLong());
+    assertEquals(0.25, snapshot.getAsJsonObject("resultCache").get("hitRate").getAsDouble());
+    assertEquals(0.2, snapshot.getAsJsonObject("memory").get("usage").getAsDouble());
+    assertEquals(1, snapshot.getAsJsonObject("messageBroker").get("queueSize").getAsInt());
+    assertEquals(1, snapshot.getAsJsonObject("parser").get("llFallback").getAsLong());
+    assertEquals(1.0, snapshot.getAsJsonObject("parser").get("fallbackRate").getAsDouble());
+    assertEquals(3, snapshot.getAsJsonObject("scheduler").get("coalesced").getAsLong());
+  }
+
+  private static BenchmarkSession session(Measurement... measurements) {
+    BenchmarkSession session = mock(BenchmarkSession.class);
+    when(session.getMeasurements()).thenReturn(ImmutableList.copyOf(measurements));
+    return session;
+  }
+
+  private static Measurement measurement(String id, long time) {
+    Measurement measurement = mock(Measurement.class);
+    when(measurement.getId()).thenReturn(id);
+    when(measurement.getTime()).thenReturn(time);
+    return measurement;
+  }
+}
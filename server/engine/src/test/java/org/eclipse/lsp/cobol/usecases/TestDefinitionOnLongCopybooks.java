@@ -30,6 +30,7 @@ import org.eclipse.lsp.cobol.core.engine.symbols.SymbolsRepository;
 import org.eclipse.lsp.cobol.lsp.SourceUnitGraph;
 import org.eclipse.lsp.cobol.service.CobolDocumentModel;
 import org.eclipse.lsp.cobol.service.delegates.references.ElementOccurrences;
+import org.eclipse.lsp.cobol.service.index.WorkspaceIndex;
 import org.eclipse.lsp.cobol.test.CobolText;
 import org.eclipse.lsp.cobol.test.engine.UseCaseEngine;
 import org.eclipse.lsp4j.*;
@@ -79,7 +80,7 @@ class TestDefinitionOnLongCopybooks {
     try (MockedStatic mocked = mockStatic(SymbolsRepository.class)) {
       mocked.when(() -> SymbolsRepository.findElementByPosition(eq(DOCUMENT_URI), eq(document.getAnalysisResult()),
           eq(position.getPosition()))).thenReturn(Optional.of(ctx));
-      List<Location> definitions = new ElementOccurrences(documentGraph).findDefinitions(document, position);
+      List<Location> definitions = new ElementOccurrences(documentGraph, new WorkspaceIndex(null)).findDefinitions(document, position);
 
       assertEquals(1, definitions.size());
       assertEquals(expectedDef, definitions.get(0));
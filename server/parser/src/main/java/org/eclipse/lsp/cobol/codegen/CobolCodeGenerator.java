@@ -28,6 +28,7 @@ import java.util.Random;
 public class CobolCodeGenerator {
   private static final Random RANDOM = new Random();
   private final GeneratorSettings settings;
+  private final Random random;
   private GeneratorContext ctx = new GeneratorContext();
 
   /**
@@ -37,6 +38,7 @@ public class CobolCodeGenerator {
    */
   public CobolCodeGenerator(GeneratorSettings settings) {
     this.settings = settings;
+    this.random = settings.seed == null ? RANDOM : new Random(settings.seed);
   }
 
   /**
@@ -92,8 +94,8 @@ public class CobolCodeGenerator {
     return sb.toString();
   }
 
-  private static SnippetGenerator selectNextStatement() {
-    return GeneratorSettings.pickStatement(RANDOM.nextDouble());
+  private SnippetGenerator selectNextStatement() {
+    return GeneratorSettings.pickStatement(random.nextDouble());
   }
 
 
@@ -119,7 +121,7 @@ public class CobolCodeGenerator {
 
   private String rand(String... options) {
     if (settings.enableRandom) {
-      return options[RANDOM.nextInt(options.length)];
+      return options[random.nextInt(options.length)];
     } else {
       return options[0];
     }
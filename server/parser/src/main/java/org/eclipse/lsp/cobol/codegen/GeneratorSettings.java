@@ -19,7 +19,7 @@ package org.eclipse.lsp.cobol.codegen;
 import org.eclipse.lsp.cobol.codegen.snippets.*;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,7 +28,7 @@ import java.util.Map;
  */
 public class GeneratorSettings {
   static List<SnippetGenerator> statements = new ArrayList<>();
-  static Map<SnippetGenerator, Double> statementsProbability = new HashMap<>();
+  static Map<SnippetGenerator, Double> statementsProbability = new LinkedHashMap<>();
 
   static {
     ParagraphGenerator paragraphGenerator = new ParagraphGenerator();
@@ -59,6 +59,7 @@ public class GeneratorSettings {
   boolean enableRandom = true;
   int programs = 1;
   int statementCount = 10_000_00;
+  Long seed;
 
   /**
    * Select snippet to generate
@@ -80,4 +81,13 @@ public class GeneratorSettings {
   public void setStatementCount(int statementCount) {
     this.statementCount = statementCount;
   }
+
+  /**
+   * Set the seed of the random choices, so the same source is generated on every run
+   *
+   * @param seed the random seed
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
 }
@@ -16,22 +16,53 @@
  */
 package org.eclipse.lsp.cobol.parser;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.eclipse.lsp.cobol.common.message.MessageService;
+import org.eclipse.lsp.cobol.common.message.MessageServiceProvider;
 import org.eclipse.lsp.cobol.core.CobolLexer;
 import org.eclipse.lsp.cobol.core.CobolParser;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * ANTLR Parser Wrapper
+ *
+ * <p>The parser runs in two stages. The fast SLL prediction with the bail out error strategy parses
+ * the most of the valid programs, and only when it fails the program is parsed again with the full LL
+ * prediction and the recovering error strategy, that also produce the diagnostics. The {@code
+ * parser.prediction.mode} system property set to {@code LL} disables the SLL stage.
  */
 public class AntlrCobolParser implements AstBuilder {
+  private static final String PREDICTION_MODE = "parser.prediction.mode";
+  private static final String DFA_MAX_STATES = "parser.dfa.max.states";
+  private static final String DFA_CLEAR_ON_MEMORY_PRESSURE = "parser.dfa.clear.on.memory.pressure";
+  private static final DfaCache DFA_CACHE = new DfaCache(Integer.getInteger(DFA_MAX_STATES, 2_000_000),
+      Boolean.getBoolean(DFA_CLEAR_ON_MEMORY_PRESSURE));
+
   private final CommonTokenStream tokens;
   private final CobolParser antlrParser;
+  private final BaseErrorListener listener;
+  private final DefaultErrorStrategy errorStrategy;
+  private final boolean twoStage = !"LL".equalsIgnoreCase(System.getProperty(PREDICTION_MODE));
+  @Getter
+  private Prediction prediction;
 
   public AntlrCobolParser(CharStream input, BaseErrorListener listener, DefaultErrorStrategy errorStrategy, ParseTreeListener treeListener) {
+    this.listener = listener;
+    this.errorStrategy = errorStrategy;
     CobolLexer antlrLexer = new CobolLexer(input);
     antlrLexer.removeErrorListeners();
     tokens = new CommonTokenStream(antlrLexer);
@@ -40,15 +71,110 @@ public class AntlrCobolParser implements AstBuilder {
     antlrParser.removeErrorListeners();
     antlrParser.addErrorListener(listener);
     antlrParser.setErrorHandler(errorStrategy);
-    antlrParser.addParseListener(treeListener);
+    if (treeListener != null) {
+      antlrParser.addParseListener(treeListener);
+    }
   }
+
   @Override
   public CobolParser.StartRuleContext runParser() {
-    return antlrParser.startRule();
+    DFA_CACHE.acquire();
+    try {
+      if (twoStage) {
+        try {
+          return runSll();
+        } catch (ParseCancellationException e) {
+          antlrParser.reset();
+          prediction = Prediction.LL_FALLBACK;
+          return runLl();
+        }
+      }
+      prediction = Prediction.LL;
+      return runLl();
+    } finally {
+      DFA_CACHE.release(antlrParser.getInterpreter());
+    }
   }
 
   @Override
   public CommonTokenStream getTokens() {
     return tokens;
   }
+
+  /**
+   * Get the DFA cache shared by the COBOL parsers
+   *
+   * @return the DFA cache
+   */
+  public static DfaCache getDfaCache() {
+    return DFA_CACHE;
+  }
+
+  private CobolParser.StartRuleContext runSll() {
+    DeferredErrorListener deferredListener = new DeferredErrorListener();
+    antlrParser.removeErrorListeners();
+    antlrParser.addErrorListener(deferredListener);
+    antlrParser.setErrorHandler(createSllErrorStrategy());
+    antlrParser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+    CobolParser.StartRuleContext tree = antlrParser.startRule();
+    prediction = Prediction.SLL;
+    deferredListener.replay(listener);
+    return tree;
+  }
+
+  private BailErrorStrategy createSllErrorStrategy() {
+    return errorStrategy instanceof MessageServiceProvider
+        ? new SllErrorStrategy((MessageServiceProvider) errorStrategy)
+        : new BailErrorStrategy();
+  }
+
+  private CobolParser.StartRuleContext runLl() {
+    antlrParser.removeErrorListeners();
+    antlrParser.addErrorListener(listener);
+    antlrParser.setErrorHandler(errorStrategy);
+    antlrParser.getInterpreter().setPredictionMode(PredictionMode.LL);
+    return antlrParser.startRule();
+  }
+
+  /**
+   * The prediction mode that produced the parse tree
+   */
+  public enum Prediction {
+    SLL,
+    LL,
+    LL_FALLBACK
+  }
+
+  /**
+   * Stops the SLL stage on the first syntax error. The grammar actions take the message service from
+   * the error strategy, so it is shared with the strategy of the LL stage. Used only if the strategy
+   * of the LL stage provides a message service.
+   */
+  @RequiredArgsConstructor
+  private static class SllErrorStrategy extends BailErrorStrategy implements MessageServiceProvider {
+    private final MessageServiceProvider llErrorStrategy;
+
+    @Override
+    public MessageService getMessageService() {
+      return llErrorStrategy.getMessageService();
+    }
+  }
+
+  /**
+   * Keeps the warnings reported by the grammar actions during the SLL stage, so they are not reported
+   * twice if the program is parsed again.
+   */
+  private static class DeferredErrorListener extends BaseErrorListener {
+    private final List<Consumer<BaseErrorListener>> errors = new ArrayList<>();
+
+    @Override
+    public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine,
+                            String msg, RecognitionException e) {
+      errors.add(target -> target.syntaxError(recognizer, offendingSymbol, line, charPositionInLine, msg, e));
+    }
+
+    void replay(BaseErrorListener target) {
+      errors.forEach(error -> error.accept(target));
+    }
+  }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.parser;
+
+import lombok.extern.slf4j.Slf4j;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.dfa.DFA;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lifecycle of the DFA cache that all the instances of a generated ANTLR parser share. The cache makes
+ * the prediction fast once it is warm, but it is never released by ANTLR, so it is cleared when the
+ * number of its states exceeds the limit, or, if enabled, when the heap is almost full.
+ *
+ * <p>The parsers hold the read lock while they run, and the cache is cleared only when no parser
+ * uses it.
+ */
+@Slf4j
+public class DfaCache {
+  private static final double MEMORY_PRESSURE_RATIO = 0.9;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final AtomicInteger clearCount = new AtomicInteger();
+  private final int maxStates;
+  private final boolean clearOnMemoryPressure;
+  private volatile DFA[] decisions = new DFA[0];
+
+  public DfaCache(int maxStates, boolean clearOnMemoryPressure) {
+    this.maxStates = maxStates;
+    this.clearOnMemoryPressure = clearOnMemoryPressure;
+  }
+
+  /** Mark the start of a parsing that uses the cache */
+  public void acquire() {
+    lock.readLock().lock();
+  }
+
+  /**
+   * Mark the end of a parsing and clear the cache if it grew too large
+   *
+   * @param simulator the prediction simulator of the finished parser
+   */
+  public void release(ParserATNSimulator simulator) {
+    lock.readLock().unlock();
+    decisions = simulator.decisionToDFA;
+    if (getStateCount() > maxStates || (clearOnMemoryPressure && isMemoryLow())) {
+      clear(simulator);
+    }
+  }
+
+  /**
+   * Count the DFA states of all the decisions
+   *
+   * @return the current size of the cache
+   */
+  public int getStateCount() {
+    int count = 0;
+    for (DFA dfa : decisions) {
+      count += dfa.states.size();
+    }
+    return count;
+  }
+
+  /**
+   * Get the number of times the cache was cleared
+   *
+   * @return the number of clears
+   */
+  public int getClearCount() {
+    return clearCount.get();
+  }
+
+  private void clear(ParserATNSimulator simulator) {
+    if (!lock.writeLock().tryLock()) return;
+    try {
+      int states = getStateCount();
+      simulator.clearDFA();
+      clearCount.incrementAndGet();
+      log.info("DFA cache of {} states is cleared", states);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static boolean isMemoryLow() {
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory() > runtime.maxMemory() * MEMORY_PRESSURE_RATIO;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2024 Broadcom.
+ * The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Broadcom, Inc. - initial API and implementation
+ *
+ */
+package org.eclipse.lsp.cobol.parser;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Warms up the DFA cache of the COBOL parser by parsing a bundled sample program, so the first
+ * analysis of a user program does not pay for building the prediction cache from scratch.
+ */
+@Slf4j
+@UtilityClass
+public class ParserWarmUp {
+  private static final String SAMPLE_PROGRAM = "/warmup/WARMUP.cbl";
+
+  /**
+   * Parse the sample program in a background daemon thread
+   *
+   * @return the started thread
+   */
+  public Thread start() {
+    Thread thread = new Thread(ParserWarmUp::run, "parser-warm-up");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    thread.start();
+    return thread;
+  }
+
+  /** Parse the sample program in the current thread */
+  public void run() {
+    try (InputStream stream = ParserWarmUp.class.getResourceAsStream(SAMPLE_PROGRAM)) {
+      if (stream == null) {
+        log.warn("Parser warm-up program {} is not found", SAMPLE_PROGRAM);
+        return;
+      }
+      long start = System.nanoTime();
+      new AntlrCobolParser(CharStreams.fromStream(stream, StandardCharsets.UTF_8), new BaseErrorListener(),
+          new DefaultErrorStrategy(), null).runParser();
+      log.debug("Parser warm-up finished in {} ms with {} DFA states", (System.nanoTime() - start) / 1_000_000,
+          AntlrCobolParser.getDfaCache().getStateCount());
+    } catch (IOException | RuntimeException e) {
+      log.warn("Parser warm-up failed", e);
+    }
+  }
+}
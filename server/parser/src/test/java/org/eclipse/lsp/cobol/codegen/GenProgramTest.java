@@ -18,6 +18,7 @@ package org.eclipse.lsp.cobol.codegen;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -35,4 +36,12 @@ class GenProgramTest {
     assertTrue(code.contains("DIVISION"));
     assertTrue(code.contains("ID"));
   }
+
+  @Test
+  void testSeed() {
+    GeneratorSettings settings = new GeneratorSettings();
+    settings.setStatementCount(100);
+    settings.setSeed(42);
+    assertEquals(new CobolCodeGenerator(settings).generate(), new CobolCodeGenerator(settings).generate());
+  }
 }